@@ -0,0 +1,145 @@
+package br.com.fiap.ecosmartmonitor.bench;
+
+import java.lang.reflect.Proxy;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionAnomalyDetector;
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionDAO;
+import br.com.fiap.ecosmartmonitor.dao.DeviceAverageTracker;
+import br.com.fiap.ecosmartmonitor.dao.DeviceDAO;
+import br.com.fiap.ecosmartmonitor.dao.NotificationDAO;
+import br.com.fiap.ecosmartmonitor.dao.ResidenceDAO;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.Device;
+import br.com.fiap.ecosmartmonitor.model.Residence;
+
+/**
+ * Custo do {@link ConsumptionAnomalyDetector} na thread de gravação: avaliação de um lote de leituras de 1000
+ * dispositivos com linha de base já formada (tempo por leitura) e de uma leitura isolada, como no POST /consumption.
+ * Com tracked=true, o {@link DeviceAverageTracker} também recebe as leituras e fornece o consumo médio ao detector,
+ * como com ecosmart.deviceAverage.enabled.
+ * Os DAOs são substituídos por implementações em memória, de modo que só a avaliação é medida; o tempo até a
+ * notificação ser gravada aparece em averageNotifyMillis de GET /stats/anomaly. Os IDs dos dispositivos vão até
+ * 1000, acima do cache de Long.valueOf (até 127), de modo que uma chave convertida em Long aparece na alocação.
+ *
+ * Execução: mvn -Pbench test-compile exec:exec -Dbench.args=AnomalyDetector
+ * (com -Dbench.args="AnomalyDetector -prof gc", gc.alloc.rate.norm deve ficar perto de 0 B/op)
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class AnomalyDetectorBenchmark {
+    private static final int DEVICES = 1000;
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"false", "true"})
+    public boolean tracked;
+
+    private DeviceAverageTracker tracker;
+    private ConsumptionAnomalyDetector detector;
+    private List<Consumption> batch;
+    private List<Consumption> single;
+
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        DeviceDAO deviceDAO = stub(DeviceDAO.class, new Device(1L, "Bench device", "Appliance", 1.0, 1));
+        ResidenceDAO residenceDAO = stub(ResidenceDAO.class, new Residence(1L, "Bench street", 1));
+        NotificationDAO notificationDAO = stub(NotificationDAO.class, null);
+        if (tracked) {
+            tracker = new DeviceAverageTracker(stub(ConsumptionDAO.class, new ArrayList<>()), trackedDevices(),
+                    3_600_000, 1);
+            while (!tracker.getStats().isSeeded()) {
+                Thread.sleep(10);
+            }
+        }
+        detector = new ConsumptionAnomalyDetector(deviceDAO, residenceDAO, notificationDAO, tracker, 0.1, 4, 3, 30,
+                3_600_000, 3_600_000, 1000);
+        long now = System.currentTimeMillis();
+        List<Consumption> warmUp = new ArrayList<>();
+        for (int i = 0; i < DEVICES * 50; i++) {
+            warmUp.add(reading(i, now));
+        }
+        onCreated(warmUp);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(reading(i * 7, now));
+        }
+        single = Collections.singletonList(reading(300, now));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        detector.close();
+        if (tracker != null) {
+            tracker.close();
+        }
+    }
+
+    /** Lote de leituras (POST /consumption/batch ou fila de ingestão); tempo por leitura. */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void checkBatch() {
+        onCreated(batch);
+    }
+
+    /** Uma leitura por gravação (POST /consumption). */
+    @Benchmark
+    public void checkSingle() {
+        onCreated(single);
+    }
+
+    /** Mesma ordem dos observadores na DAOFactory: o detector antes do rastreador. */
+    private void onCreated(List<Consumption> consumptions) {
+        detector.onCreated(consumptions);
+        if (tracker != null) {
+            tracker.onCreated(consumptions);
+        }
+    }
+
+    private static Consumption reading(int i, long now) {
+        double amount = 0.8 + (i % 5) * 0.1;
+        return new Consumption(null, amount, new Timestamp(now), i % DEVICES + 1, 1);
+    }
+
+    /** DAO de dispositivos do rastreador: lista os dispositivos do benchmark e descarta as médias gravadas. */
+    private static DeviceDAO trackedDevices() {
+        List<Device> devices = new ArrayList<>(DEVICES);
+        for (long id = 1; id <= DEVICES; id++) {
+            devices.add(new Device(id, "Bench device", "Appliance", 1.0, 1));
+        }
+        return (DeviceDAO) Proxy.newProxyInstance(DeviceDAO.class.getClassLoader(), new Class<?>[] {DeviceDAO.class},
+                (proxy, method, args) -> method.getReturnType() == int.class ? 0 : devices);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T stub(Class<T> type, Object result) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> method.getReturnType().isInstance(result) ? result : null);
+    }
+}
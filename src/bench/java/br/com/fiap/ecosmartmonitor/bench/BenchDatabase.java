@@ -0,0 +1,136 @@
+package br.com.fiap.ecosmartmonitor.bench;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+
+import br.com.fiap.ecosmartmonitor.util.ConnectionPool;
+import br.com.fiap.ecosmartmonitor.util.DataSourceConfig;
+import br.com.fiap.ecosmartmonitor.util.SqlScript;
+
+/**
+ * Banco H2 em memória, em modo Oracle, com o esquema de db/schema.sql e uma massa de dados fixa.
+ * Cada residência tem os mesmos dispositivos e cada dispositivo recebe uma leitura por minuto a partir de {@link #START},
+ * de modo que os benchmarks conhecem os IDs e intervalos existentes sem consultar o banco.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+final class BenchDatabase {
+    /** Data da primeira leitura gerada. */
+    static final Timestamp START = Timestamp.valueOf("2024-01-01 00:00:00");
+
+    private static final int INSERT_BATCH = 1000;
+
+    private final String url;
+    private final ConnectionPool pool;
+    private final Connection keepAlive;
+
+    private BenchDatabase(String url, ConnectionPool pool, Connection keepAlive) {
+        this.url = url;
+        this.pool = pool;
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Cria o banco, o esquema e os registros de teste.
+     *
+     * @param name                  Nome do banco em memória (bancos com nomes distintos são independentes).
+     * @param residences            Quantidade de residências (uma por cliente).
+     * @param devicesPerResidence   Dispositivos por residência.
+     * @param readingsPerDevice     Leituras de consumo por dispositivo.
+     * @param poolSize              Conexões máximas do pool retornado.
+     * @return Banco pronto para uso; deve ser fechado ao final do benchmark.
+     * @throws SQLException Caso ocorra erro ao criar ou popular o banco.
+     */
+    static BenchDatabase create(String name, int residences, int devicesPerResidence, int readingsPerDevice,
+            int poolSize) throws SQLException {
+        String url = "jdbc:h2:mem:" + name + ";MODE=Oracle;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=READ";
+        Connection keepAlive = DriverManager.getConnection(url, "sa", "");
+        for (String script : DataSourceConfig.SCHEMA_SCRIPTS) {
+            SqlScript.run(keepAlive, script);
+        }
+        seed(keepAlive, residences, devicesPerResidence, readingsPerDevice);
+        ConnectionPool pool = new ConnectionPool(() -> DriverManager.getConnection(url, "sa", ""),
+                1, poolSize, 5000, 300000, 2, 50);
+        return new BenchDatabase(url, pool, keepAlive);
+    }
+
+    ConnectionPool getPool() {
+        return pool;
+    }
+
+    String getUrl() {
+        return url;
+    }
+
+    /**
+     * Fecha o pool e descarta o banco em memória.
+     */
+    void close() throws SQLException {
+        pool.close();
+        try (Statement stmt = keepAlive.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        } finally {
+            keepAlive.close();
+        }
+    }
+
+    private static void seed(Connection connection, int residences, int devicesPerResidence, int readingsPerDevice)
+            throws SQLException {
+        connection.setAutoCommit(false);
+        try (PreparedStatement client = connection.prepareStatement(
+                     "INSERT INTO Client (name, email, phone, address) VALUES (?, ?, ?, ?)");
+             PreparedStatement residence = connection.prepareStatement(
+                     "INSERT INTO Residence (address, client_id) VALUES (?, ?)");
+             PreparedStatement device = connection.prepareStatement(
+                     "INSERT INTO Device (name, type, status, residence_id) VALUES (?, ?, ?, ?)")) {
+            for (int r = 1; r <= residences; r++) {
+                client.setString(1, "Client " + r);
+                client.setString(2, "client" + r + "@example.com");
+                client.setString(3, "11 9000-" + r);
+                client.setString(4, "Street " + r);
+                client.executeUpdate();
+                residence.setString(1, "Street " + r);
+                residence.setLong(2, r);
+                residence.executeUpdate();
+                for (int d = 0; d < devicesPerResidence; d++) {
+                    device.setString(1, "Device " + d);
+                    device.setString(2, d % 2 == 0 ? "appliance" : "lighting");
+                    device.setDouble(3, 1.0);
+                    device.setLong(4, r);
+                    device.executeUpdate();
+                }
+            }
+        }
+        try (PreparedStatement consumption = connection.prepareStatement(
+                "INSERT INTO Consumption (amount, timestamp, device_id, residence_id) VALUES (?, ?, ?, ?)")) {
+            int pending = 0;
+            for (int r = 1; r <= residences; r++) {
+                for (int d = 0; d < devicesPerResidence; d++) {
+                    long deviceId = (long) (r - 1) * devicesPerResidence + d + 1;
+                    for (int i = 0; i < readingsPerDevice; i++) {
+                        consumption.setDouble(1, (i % 50) / 10.0);
+                        consumption.setTimestamp(2, new Timestamp(START.getTime() + i * 60_000L));
+                        consumption.setLong(3, deviceId);
+                        consumption.setLong(4, r);
+                        consumption.addBatch();
+                        if (++pending == INSERT_BATCH) {
+                            consumption.executeBatch();
+                            pending = 0;
+                        }
+                    }
+                }
+            }
+            if (pending > 0) {
+                consumption.executeBatch();
+            }
+        }
+        connection.commit();
+        connection.setAutoCommit(true);
+    }
+}
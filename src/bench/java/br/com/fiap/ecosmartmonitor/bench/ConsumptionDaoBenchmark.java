@@ -0,0 +1,118 @@
+package br.com.fiap.ecosmartmonitor.bench;
+
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionDAO;
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionDAOImpl;
+import br.com.fiap.ecosmartmonitor.model.AggregationBucket;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionAggregate;
+
+/**
+ * Caminhos de escrita e leitura do {@link ConsumptionDAOImpl} sobre H2 em memória (modo Oracle):
+ * inserção individual e em lote, página de uma residência (lista e streaming), pontos de um dispositivo
+ * e agregação diária. O banco começa com 20 residências x 5 dispositivos x 2000 leituras.
+ *
+ * Execução: mvn -Pbench test-compile exec:exec -Dbench.args=ConsumptionDao
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ConsumptionDaoBenchmark {
+    private static final int RESIDENCES = 20;
+    private static final int DEVICES_PER_RESIDENCE = 5;
+    private static final int READINGS_PER_DEVICE = 2000;
+    private static final int BATCH_SIZE = 500;
+    private static final int PAGE_SIZE = 500;
+
+    private BenchDatabase database;
+    private ConsumptionDAO dao;
+    private List<Consumption> batch;
+    private Timestamp from;
+    private Timestamp to;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchDatabase.create("consumption_dao", RESIDENCES, DEVICES_PER_RESIDENCE, READINGS_PER_DEVICE, 4);
+        dao = new ConsumptionDAOImpl(database.getPool());
+        from = BenchDatabase.START;
+        to = new Timestamp(from.getTime() + READINGS_PER_DEVICE * 60_000L);
+        batch = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            batch.add(reading(i));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        database.close();
+    }
+
+    /** Uma leitura por requisição (POST /consumption). */
+    @Benchmark
+    public void insertSingle() {
+        dao.createConsumption(reading(0));
+    }
+
+    /** Lote de leituras em uma transação (POST /consumption/batch); tempo por leitura. */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() {
+        return dao.createConsumptions(batch);
+    }
+
+    /** Página de uma residência materializada em lista. */
+    @Benchmark
+    public List<Consumption> readResidencePage() {
+        return dao.getConsumptionsByResidenceId(1L, from, to, null, PAGE_SIZE);
+    }
+
+    /** Página de uma residência entregue registro a registro, como no GET /consumption/residence/{id}. */
+    @Benchmark
+    public void streamResidencePage(Blackhole blackhole) {
+        dao.forEachConsumptionByResidenceId(1L, from, to, null, PAGE_SIZE, blackhole::consume);
+    }
+
+    /** Pontos (id, valor, data) de um dispositivo para gráficos. */
+    @Benchmark
+    public void streamDevicePoints(Blackhole blackhole) {
+        dao.forEachConsumptionPointByDeviceId(1L, from, to, null, PAGE_SIZE, blackhole::consume);
+    }
+
+    /** Consumo diário por dispositivo calculado sobre os registros brutos. */
+    @Benchmark
+    public List<ConsumptionAggregate> aggregateDaily() {
+        return dao.aggregateByResidenceId(2L, AggregationBucket.DAY, from, to, true);
+    }
+
+    private Consumption reading(int i) {
+        int deviceId = RESIDENCES * DEVICES_PER_RESIDENCE;
+        return new Consumption(null, (i % 50) / 10.0, new Timestamp(System.currentTimeMillis() + i), deviceId, RESIDENCES);
+    }
+}
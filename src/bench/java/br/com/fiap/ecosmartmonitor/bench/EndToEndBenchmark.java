@@ -0,0 +1,115 @@
+package br.com.fiap.ecosmartmonitor.bench;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.concurrent.TimeUnit;
+
+import org.glassfish.jersey.jdkhttp.JdkHttpServerFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.fiap.ecosmartmonitor.config.EcoSmartApplication;
+import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import jakarta.json.bind.JsonbBuilder;
+
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Requisições HTTP completas (roteamento Jersey, controllers, DAOs e serialização JSON-B) contra os recursos
+ * de br.com.fiap.ecosmartmonitor.controller publicados em um servidor HTTP embarcado do JDK, com a DAOFactory
+ * apontando para H2 em memória. Os clientes são executados em 4 threads.
+ *
+ * Execução: mvn -Pbench test-compile exec:exec -Dbench.args=EndToEnd
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EndToEndBenchmark {
+    private static final int RESIDENCES = 10;
+    private static final int DEVICES_PER_RESIDENCE = 4;
+
+    private BenchDatabase database;
+    private HttpServer server;
+    private HttpClient client;
+    private URI residencePage;
+    private URI device;
+    private URI consumption;
+    private String newReading;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        database = BenchDatabase.create("end_to_end", RESIDENCES, DEVICES_PER_RESIDENCE, 1000, 8);
+        DAOFactory.configure(database.getPool());
+        URI base = URI.create("http://localhost:0/");
+        server = JdkHttpServerFactory.createHttpServer(base, new EcoSmartApplication());
+        String root = "http://localhost:" + server.getAddress().getPort();
+        residencePage = URI.create(root + "/consumption/residence/1?limit=100");
+        device = URI.create(root + "/devices/1");
+        consumption = URI.create(root + "/consumption");
+        newReading = JsonbBuilder.create().toJson(new Consumption(null, 1.5,
+                Timestamp.valueOf("2024-02-01 00:00:00"), RESIDENCES * DEVICES_PER_RESIDENCE, RESIDENCES));
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        server.stop(0);
+        DAOFactory.shutdown();
+        database.close();
+    }
+
+    /** GET /consumption/residence/1?limit=100 (resposta em streaming). */
+    @Benchmark
+    public String getResidencePage() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(residencePage).GET().build());
+    }
+
+    /** GET /devices/1 (consulta por ID, atendida pelo cache de metadados quando ativado). */
+    @Benchmark
+    public String getDevice() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(device).GET().build());
+    }
+
+    /** POST /consumption com uma leitura. */
+    @Benchmark
+    public String postConsumption() throws IOException, InterruptedException {
+        return send(HttpRequest.newBuilder(consumption)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(newReading))
+                .build());
+    }
+
+    private String send(HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() >= 400) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned "
+                    + response.statusCode() + ": " + response.body());
+        }
+        return response.body();
+    }
+}
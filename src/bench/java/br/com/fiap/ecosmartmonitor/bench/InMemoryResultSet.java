@@ -0,0 +1,84 @@
+package br.com.fiap.ecosmartmonitor.bench;
+
+import java.lang.reflect.Proxy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * ResultSet em memória usado pelos benchmarks de conversão de linhas, sem banco de dados.
+ * A busca por nome de coluna percorre os nomes sem diferenciar maiúsculas, como fazem os drivers JDBC,
+ * para que a diferença entre acesso por nome e por posição apareça na medição.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+final class InMemoryResultSet {
+    private final String[] columns;
+    private final List<Object[]> rows;
+    private int cursor = -1;
+    private boolean lastWasNull;
+
+    private InMemoryResultSet(String[] columns, List<Object[]> rows) {
+        this.columns = columns;
+        this.rows = rows;
+    }
+
+    /**
+     * Cria um ResultSet somente leitura sobre as linhas informadas.
+     *
+     * @param columns Nomes das colunas, na ordem dos valores de cada linha.
+     * @param rows    Linhas do resultado.
+     * @return ResultSet posicionado antes da primeira linha; beforeFirst() volta ao início.
+     */
+    static ResultSet of(String[] columns, List<Object[]> rows) {
+        InMemoryResultSet state = new InMemoryResultSet(columns, rows);
+        return (ResultSet) Proxy.newProxyInstance(InMemoryResultSet.class.getClassLoader(),
+                new Class<?>[] { ResultSet.class }, (proxy, method, args) -> state.invoke(method.getName(), args));
+    }
+
+    private Object invoke(String name, Object[] args) throws SQLException {
+        switch (name) {
+            case "next":
+                return ++cursor < rows.size();
+            case "beforeFirst":
+                cursor = -1;
+                return null;
+            case "close":
+                return null;
+            case "wasNull":
+                return lastWasNull;
+            case "findColumn":
+                return findColumn((String) args[0]);
+            case "getLong":
+                return value(args[0]) == null ? 0L : ((Number) value(args[0])).longValue();
+            case "getInt":
+                return value(args[0]) == null ? 0 : ((Number) value(args[0])).intValue();
+            case "getDouble":
+                return value(args[0]) == null ? 0d : ((Number) value(args[0])).doubleValue();
+            case "getString":
+            case "getTimestamp":
+            case "getObject":
+                return value(args[0]);
+            default:
+                throw new SQLException("Not supported by InMemoryResultSet: " + name);
+        }
+    }
+
+    private Object value(Object column) throws SQLException {
+        int index = column instanceof String ? findColumn((String) column) : (Integer) column;
+        Object value = rows.get(cursor)[index - 1];
+        lastWasNull = value == null;
+        return value;
+    }
+
+    private int findColumn(String label) throws SQLException {
+        for (int i = 0; i < columns.length; i++) {
+            if (columns[i].equalsIgnoreCase(label)) {
+                return i + 1;
+            }
+        }
+        throw new SQLException("Invalid column name: " + label);
+    }
+}
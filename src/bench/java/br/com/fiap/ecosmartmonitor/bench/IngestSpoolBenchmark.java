@@ -0,0 +1,78 @@
+package br.com.fiap.ecosmartmonitor.bench;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionDAO;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.service.IngestSpool;
+
+/**
+ * Caminho de gravação do {@link IngestSpool}: custo de aceitar uma leitura no segmento mapeado em memória, com e sem
+ * forçar cada registro ao disco. Os lotes são entregues a um DAO que não grava nada, para que o spool não encha e a
+ * medida seja só a da gravação local; compare com insertSingle do ConsumptionDaoBenchmark.
+ *
+ * Execução: mvn -Pbench test-compile exec:exec -Dbench.args=IngestSpool
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class IngestSpoolBenchmark {
+    @Param({"false", "true"})
+    public boolean syncOnAppend;
+
+    private Path directory;
+    private IngestSpool spool;
+    private Consumption reading;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        directory = Files.createTempDirectory("ecosmart-spool-bench");
+        ConsumptionDAO discardingDAO = (ConsumptionDAO) Proxy.newProxyInstance(ConsumptionDAO.class.getClassLoader(),
+                new Class<?>[] {ConsumptionDAO.class},
+                (proxy, method, args) -> method.getReturnType() == int[].class ? new int[0] : null);
+        spool = new IngestSpool(discardingDAO, directory, 64 * 1024 * 1024, 64, 500, 200, 1000, syncOnAppend);
+        reading = new Consumption(null, 1.5, new Timestamp(System.currentTimeMillis()), 1, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        spool.shutdown(10_000);
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    /** Uma leitura aceita pelo spool (POST /consumption com ecosmart.ingest.mode=spool). */
+    @Benchmark
+    public boolean append() {
+        return spool.append(reading);
+    }
+}
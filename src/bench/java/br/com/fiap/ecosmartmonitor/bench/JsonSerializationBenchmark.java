@@ -0,0 +1,91 @@
+package br.com.fiap.ecosmartmonitor.bench;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.Device;
+import br.com.fiap.ecosmartmonitor.util.JsonStreamWriter;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+
+/**
+ * Serialização JSON-B das listas retornadas pela API: a lista inteira de uma vez (como nas respostas
+ * com entidade List) e elemento a elemento pelo {@link JsonStreamWriter} (como nas respostas em streaming).
+ *
+ * Execução: mvn -Pbench test-compile exec:exec -Dbench.args=JsonSerialization
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonSerializationBenchmark {
+
+    @Param({ "100", "5000" })
+    private int size;
+
+    private Jsonb jsonb;
+    private List<Consumption> consumptions;
+    private List<Device> devices;
+    private ByteArrayOutputStream output;
+
+    @Setup
+    public void setUp() {
+        jsonb = JsonbBuilder.create();
+        consumptions = new ArrayList<>(size);
+        devices = new ArrayList<>(size);
+        long start = BenchDatabase.START.getTime();
+        for (int i = 0; i < size; i++) {
+            consumptions.add(new Consumption((long) i, (i % 50) / 10.0, new Timestamp(start + i * 60_000L), i % 8, i % 3));
+            devices.add(new Device((long) i, "Device " + i, i % 2 == 0 ? "appliance" : "lighting", 1.5, i % 3));
+        }
+        output = new ByteArrayOutputStream(size * 128);
+    }
+
+    @Benchmark
+    public byte[] consumptionListToJson() {
+        output.reset();
+        jsonb.toJson(consumptions, output);
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] consumptionListStreamed() throws IOException {
+        output.reset();
+        try (JsonStreamWriter writer = new JsonStreamWriter(output)) {
+            writer.beginArray();
+            consumptions.forEach(writer::element);
+            writer.endArray();
+        }
+        return output.toByteArray();
+    }
+
+    @Benchmark
+    public byte[] deviceListToJson() {
+        output.reset();
+        jsonb.toJson(devices, output);
+        return output.toByteArray();
+    }
+}
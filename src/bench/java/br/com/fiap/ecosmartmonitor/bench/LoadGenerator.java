@@ -0,0 +1,340 @@
+package br.com.fiap.ecosmartmonitor.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.eclipse.jetty.ee10.servlet.ServletContextHandler;
+import org.eclipse.jetty.ee10.servlet.ServletHolder;
+import org.eclipse.jetty.server.Server;
+import org.eclipse.jetty.server.ServerConnector;
+import org.eclipse.jetty.util.thread.QueuedThreadPool;
+import org.glassfish.jersey.servlet.ServletContainer;
+
+import br.com.fiap.ecosmartmonitor.config.AppLifecycleListener;
+import br.com.fiap.ecosmartmonitor.config.EcoSmartApplication;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.ConnectionPool;
+import br.com.fiap.ecosmartmonitor.util.LatencyHistogram;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+
+/**
+ * Gerador de carga que simula uma frota de medidores: N residências x M dispositivos enviando leituras para
+ * POST /consumption em intervalos fixos, enquanto painéis consultam GET /consumption/residence/{id}.
+ * Ao final informa, por operação, vazão, taxa de erros e latências p50/p99/p999/máxima.
+ *
+ * Sem load.baseUrl, a aplicação é iniciada no próprio processo em um Jetty embarcado sobre H2 em memória,
+ * com o esquema e os dados sintéticos (uma residência por cliente) criados pelo {@link AppLifecycleListener}.
+ * As configurações ecosmart.* informadas também valem para a aplicação embarcada (ex.: ecosmart.ingest.mode=async).
+ *
+ * As leituras seguem uma agenda fixa por dispositivo: quando o envio atrasa, a latência é medida a partir do
+ * horário previsto, de modo que a espera causada por um servidor lento entra nos percentis. A coluna "late"
+ * conta os envios que começaram depois do horário previsto (workers de escrita insuficientes ou servidor lento).
+ *
+ * Configurações (-Dchave=valor): load.baseUrl, load.residences (100), load.devicesPerResidence (4),
+ * load.deviceIntervalMillis (1000), load.writerThreads (64), load.dashboards (10), load.dashboardThinkMillis (500),
+ * load.dashboardLimit (100), load.warmupSeconds (10), load.durationSeconds (60), load.requestTimeoutMillis (10000),
+ * load.serverThreads (200), load.virtualThreads (false) e load.seedMonths (1).
+ *
+ * Com load.virtualThreads=true o Jetty embarcado atende cada requisição em uma thread virtual, e load.serverThreads
+ * passa a limitar apenas as threads de I/O do servidor; compare os relatórios das duas execuções com a mesma carga.
+ *
+ * Execução: mvn -Pbench test-compile exec:exec@load -Dload.args="-Dload.residences=500 -Dload.durationSeconds=120"
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class LoadGenerator {
+    private static final String H2_URL =
+            "jdbc:h2:mem:load;MODE=Oracle;DB_CLOSE_DELAY=-1;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=READ";
+
+    private final String baseUrl;
+    private final int residences;
+    private final int devicesPerResidence;
+    private final long deviceIntervalNanos;
+    private final int writerThreads;
+    private final int dashboards;
+    private final long dashboardThinkMillis;
+    private final int dashboardLimit;
+    private final Duration requestTimeout;
+    private final HttpClient client;
+    private final Jsonb jsonb = JsonbBuilder.create();
+
+    private final Stats writes = new Stats("POST /consumption");
+    private final Stats reads = new Stats("GET /consumption/residence/{id}");
+    private volatile boolean measuring;
+    private volatile boolean running = true;
+
+    private LoadGenerator(String baseUrl) {
+        this.baseUrl = baseUrl;
+        this.residences = AppConfig.getInt("load.residences", 100);
+        this.devicesPerResidence = AppConfig.getInt("load.devicesPerResidence", 4);
+        this.deviceIntervalNanos = TimeUnit.MILLISECONDS.toNanos(AppConfig.getLong("load.deviceIntervalMillis", 1000));
+        this.writerThreads = AppConfig.getInt("load.writerThreads", 64);
+        this.dashboards = AppConfig.getInt("load.dashboards", 10);
+        this.dashboardThinkMillis = AppConfig.getLong("load.dashboardThinkMillis", 500);
+        this.dashboardLimit = AppConfig.getInt("load.dashboardLimit", 100);
+        this.requestTimeout = Duration.ofMillis(AppConfig.getLong("load.requestTimeoutMillis", 10000));
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newCachedThreadPool(daemon("load-http")))
+                .build();
+    }
+
+    /**
+     * Executa o teste de carga e imprime o relatório.
+     *
+     * @param args Não utilizado; a configuração vem das propriedades do sistema.
+     * @throws Exception Caso a aplicação embarcada não possa ser iniciada.
+     */
+    public static void main(String[] args) throws Exception {
+        String baseUrl = AppConfig.getString("load.baseUrl", null);
+        Server server = null;
+        if (baseUrl == null) {
+            server = startEmbeddedServer();
+            baseUrl = "http://localhost:" + ((ServerConnector) server.getConnectors()[0]).getLocalPort();
+        }
+        try {
+            new LoadGenerator(baseUrl).run(AppConfig.getInt("load.warmupSeconds", 10),
+                    AppConfig.getInt("load.durationSeconds", 60));
+        } finally {
+            if (server != null) {
+                server.stop();
+            }
+        }
+    }
+
+    /**
+     * Inicia a aplicação como no web.xml (listener + Jersey em /*) sobre H2 em memória com dados sintéticos
+     * de uma residência por cliente.
+     */
+    private static Server startEmbeddedServer() throws Exception {
+        setDefault("ecosmart.db.url", H2_URL);
+        setDefault("ecosmart.db.user", "sa");
+        setDefault("ecosmart.db.initSchema", "true");
+        setDefault("ecosmart.seed.onStartup", "true");
+        setDefault("ecosmart.seed.clients", AppConfig.getString("load.residences", "100"));
+        setDefault("ecosmart.seed.residencesPerClient", "1");
+        setDefault("ecosmart.seed.devicesPerResidence", AppConfig.getString("load.devicesPerResidence", "4"));
+        setDefault("ecosmart.seed.months", AppConfig.getString("load.seedMonths", "1"));
+
+        QueuedThreadPool threads = new QueuedThreadPool(AppConfig.getInt("load.serverThreads", 200));
+        threads.setName("load-jetty");
+        boolean virtualThreads = AppConfig.getBoolean("load.virtualThreads", false);
+        if (virtualThreads) {
+            threads.setVirtualThreadsExecutor(Executors.newVirtualThreadPerTaskExecutor());
+            setDefault("ecosmart.virtualThreads", "true");
+        }
+        System.out.printf(Locale.ROOT, "Embedded server: %s request threads, pool maxSize %s, maxWaiters %d%n",
+                virtualThreads ? "virtual" : threads.getMaxThreads() + " platform",
+                AppConfig.getString("ecosmart.pool.maxSize", "10"), ConnectionPool.configuredMaxWaiters());
+        Server server = new Server(threads);
+        ServerConnector connector = new ServerConnector(server);
+        connector.setPort(0);
+        server.addConnector(connector);
+
+        ServletContextHandler context = new ServletContextHandler("/");
+        context.addEventListener(new AppLifecycleListener());
+        ServletHolder jersey = new ServletHolder(new ServletContainer(new EcoSmartApplication()));
+        jersey.setAsyncSupported(true);
+        context.addServlet(jersey, "/*");
+        server.setHandler(context);
+        server.start();
+        return server;
+    }
+
+    private static void setDefault(String key, String value) {
+        if (AppConfig.getString(key, null) == null) {
+            System.setProperty(key, value);
+        }
+    }
+
+    private void run(int warmupSeconds, int durationSeconds) throws InterruptedException {
+        int devices = residences * devicesPerResidence;
+        System.out.printf(Locale.ROOT, "Target %s: %d devices (%.1f readings/s), %d dashboards, warmup %ds, measure %ds%n",
+                baseUrl, devices, devices * 1e9 / deviceIntervalNanos, dashboards, warmupSeconds, durationSeconds);
+
+        ExecutorService workers = Executors.newFixedThreadPool(writerThreads + dashboards, daemon("load-worker"));
+        long start = System.nanoTime();
+        for (int w = 0; w < writerThreads; w++) {
+            int worker = w;
+            workers.execute(() -> runWriter(worker, start));
+        }
+        for (int d = 0; d < dashboards; d++) {
+            workers.execute(this::runDashboard);
+        }
+
+        TimeUnit.SECONDS.sleep(warmupSeconds);
+        writes.reset();
+        reads.reset();
+        measuring = true;
+        long measureStart = System.nanoTime();
+        TimeUnit.SECONDS.sleep(durationSeconds);
+        measuring = false;
+        double elapsedSeconds = (System.nanoTime() - measureStart) / 1e9;
+        running = false;
+        workers.shutdownNow();
+        workers.awaitTermination(requestTimeout.toMillis() + 1000, TimeUnit.MILLISECONDS);
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "%-34s %10s %10s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors%", "p50 ms", "p99 ms", "p999 ms", "max ms", "late");
+        writes.print(elapsedSeconds);
+        reads.print(elapsedSeconds);
+    }
+
+    /**
+     * Envia as leituras dos dispositivos atribuídos a este worker, cada um em sua agenda.
+     * Os dispositivos começam espalhados ao longo do primeiro intervalo para não enviarem todos juntos.
+     */
+    private void runWriter(int worker, long start) {
+        int devices = residences * devicesPerResidence;
+        PriorityQueue<long[]> schedule = new PriorityQueue<>((a, b) -> Long.compare(a[0], b[0]));
+        for (int device = worker; device < devices; device += writerThreads) {
+            long offset = deviceIntervalNanos * device / devices;
+            schedule.add(new long[] { start + offset, device });
+        }
+        while (running && !schedule.isEmpty()) {
+            long[] next = schedule.poll();
+            long wait = next[0] - System.nanoTime();
+            if (wait > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(wait);
+                } catch (InterruptedException e) {
+                    return;
+                }
+            } else {
+                writes.behind();
+            }
+            postReading((int) next[1], next[0]);
+            next[0] += deviceIntervalNanos;
+            schedule.add(next);
+        }
+    }
+
+    private void postReading(int device, long scheduledNanos) {
+        int deviceId = device + 1;
+        int residenceId = device / devicesPerResidence + 1;
+        double amount = ThreadLocalRandom.current().nextDouble(0.01, 1.5);
+        String body = jsonb.toJson(new Consumption(null, amount, new Timestamp(System.currentTimeMillis()),
+                deviceId, residenceId));
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/consumption"))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        send(request, writes, scheduledNanos);
+    }
+
+    private void runDashboard() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (running) {
+            int residenceId = random.nextInt(residences) + 1;
+            HttpRequest request = HttpRequest.newBuilder(
+                    URI.create(baseUrl + "/consumption/residence/" + residenceId + "?limit=" + dashboardLimit))
+                    .timeout(requestTimeout)
+                    .GET()
+                    .build();
+            send(request, reads, System.nanoTime());
+            try {
+                TimeUnit.MILLISECONDS.sleep(dashboardThinkMillis);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    private void send(HttpRequest request, Stats stats, long startNanos) {
+        boolean error;
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            error = response.statusCode() >= 400;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            error = true;
+        }
+        if (measuring) {
+            stats.record(System.nanoTime() - startNanos, error);
+        }
+    }
+
+    private static ThreadFactory daemon(String name) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, name + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Resultados de uma operação durante a janela de medição; latências em microssegundos.
+     */
+    private final class Stats {
+        private final String name;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder late = new LongAdder();
+
+        private Stats(String name) {
+            this.name = name;
+        }
+
+        private void record(long nanos, boolean error) {
+            latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+            if (error) {
+                errors.increment();
+            }
+        }
+
+        private void behind() {
+            if (measuring) {
+                late.increment();
+            }
+        }
+
+        private void reset() {
+            latency.reset();
+            late.reset();
+            errors.reset();
+        }
+
+        private void print(double elapsedSeconds) {
+            long requests = latency.getCount();
+            List<String> columns = new ArrayList<>();
+            columns.add(String.format(Locale.ROOT, "%-34s", name));
+            columns.add(String.format(Locale.ROOT, "%10d", requests));
+            columns.add(String.format(Locale.ROOT, "%10.1f", requests / elapsedSeconds));
+            columns.add(String.format(Locale.ROOT, "%9.2f", requests == 0 ? 0 : 100.0 * errors.sum() / requests));
+            columns.add(millis(latency.getValueAtPercentile(50)));
+            columns.add(millis(latency.getValueAtPercentile(99)));
+            columns.add(millis(latency.getValueAtPercentile(99.9)));
+            columns.add(millis(latency.getMax()));
+            columns.add(String.format(Locale.ROOT, "%9d", late.sum()));
+            System.out.println(String.join(" ", columns));
+        }
+
+        private String millis(long micros) {
+            return String.format(Locale.ROOT, "%9.2f", micros / 1000.0);
+        }
+    }
+}
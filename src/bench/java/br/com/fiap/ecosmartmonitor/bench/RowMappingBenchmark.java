@@ -0,0 +1,96 @@
+package br.com.fiap.ecosmartmonitor.bench;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import br.com.fiap.ecosmartmonitor.dao.RowMappers;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+
+/**
+ * Compara a conversão de linhas de consumo por nome de coluna (SELECT * + rs.getX("coluna"))
+ * com a conversão por posição dos {@link RowMappers}, incluindo a projeção reduzida usada em gráficos.
+ *
+ * Execução: mvn -Pbench test-compile exec:exec -Dbench.args=RowMapping
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowMappingBenchmark {
+
+    @Param({ "1000", "10000" })
+    private int rows;
+
+    private ResultSet fullRows;
+    private ResultSet pointRows;
+
+    @Setup
+    public void setUp() {
+        List<Object[]> full = new ArrayList<>(rows);
+        List<Object[]> points = new ArrayList<>(rows);
+        long start = System.currentTimeMillis();
+        for (int i = 0; i < rows; i++) {
+            Timestamp timestamp = new Timestamp(start + i * 60_000L);
+            double amount = (i % 100) / 10.0;
+            full.add(new Object[] { (long) i, amount, timestamp, i % 8, i % 3 });
+            points.add(new Object[] { (long) i, amount, timestamp });
+        }
+        fullRows = InMemoryResultSet.of(new String[] { "ID", "AMOUNT", "TIMESTAMP", "DEVICE_ID", "RESIDENCE_ID" }, full);
+        pointRows = InMemoryResultSet.of(new String[] { "ID", "AMOUNT", "TIMESTAMP" }, points);
+    }
+
+    /** Conversão anterior: busca de cada coluna pelo nome. */
+    @Benchmark
+    public void byColumnName(Blackhole blackhole) throws SQLException {
+        fullRows.beforeFirst();
+        while (fullRows.next()) {
+            blackhole.consume(new Consumption(
+                    fullRows.getLong("id"),
+                    fullRows.getDouble("amount"),
+                    fullRows.getTimestamp("timestamp"),
+                    fullRows.getInt("device_id"),
+                    fullRows.getInt("residence_id")));
+        }
+    }
+
+    /** Conversão atual: projeção explícita lida por posição. */
+    @Benchmark
+    public void byOrdinal(Blackhole blackhole) throws SQLException {
+        fullRows.beforeFirst();
+        while (fullRows.next()) {
+            blackhole.consume(RowMappers.CONSUMPTION.map(fullRows));
+        }
+    }
+
+    /** Projeção de gráfico: apenas id, valor e data. */
+    @Benchmark
+    public void pointProjection(Blackhole blackhole) throws SQLException {
+        pointRows.beforeFirst();
+        while (pointRows.next()) {
+            blackhole.consume(RowMappers.CONSUMPTION_POINT.map(pointRows));
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package br.com.fiap.ecosmartmonitor.config;
+
+import java.sql.SQLException;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import br.com.fiap.ecosmartmonitor.service.ConsumptionIngestQueue;
+import br.com.fiap.ecosmartmonitor.service.DatabaseExecutor;
+import br.com.fiap.ecosmartmonitor.service.IngestSpool;
+import br.com.fiap.ecosmartmonitor.service.SyntheticDataGenerator;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.ConnectionPool;
+import br.com.fiap.ecosmartmonitor.util.DataSourceConfig;
+import jakarta.servlet.ServletContextEvent;
+import jakarta.servlet.ServletContextListener;
+
+/**
+ * Listener do ciclo de vida da aplicação web.
+ * Na inicialização, cria o esquema (ecosmart.db.initSchema) e gera dados sintéticos (ecosmart.seed.onStartup)
+ * quando configurado, o que permite subir a aplicação sobre um banco embarcado vazio, e então preenche em segundo
+ * plano o índice de leituras mais recentes, para que a primeira visão ao vivo não pague a consulta. Com o spool de
+ * ingestão ativado, abre o spool para reenviar ao banco os registros gravados antes da última parada.
+ * Libera os recursos compartilhados quando a aplicação é encerrada: primeiro grava os registros
+ * pendentes da fila de ingestão e do spool e depois fecha o pool de conexões.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class AppLifecycleListener implements ServletContextListener {
+    private static final Logger LOGGER = Logger.getLogger(AppLifecycleListener.class.getName());
+
+    /**
+     * Prepara o banco de dados conforme a configuração, abre o spool de ingestão quando ativado e aquece o índice
+     * de leituras mais recentes.
+     * Falhas são registradas sem impedir a inicialização.
+     *
+     * @param event Evento de inicialização do contexto.
+     */
+    @Override
+    public void contextInitialized(ServletContextEvent event) {
+        prepareDatabase();
+        if (IngestSpool.isEnabled()) {
+            try {
+                IngestSpool.getInstance();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.SEVERE, "Error opening the ingest spool", e);
+            }
+        }
+        Thread warmUp = new Thread(() -> {
+            try {
+                DAOFactory.getLatestReadingIndex().warmUp();
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Error loading the latest reading of each device; retrying on first use", e);
+            }
+        }, "ecosmart-latest-index-warmup");
+        warmUp.setDaemon(true);
+        warmUp.start();
+    }
+
+    private void prepareDatabase() {
+        boolean initSchema = DataSourceConfig.isInitSchemaEnabled();
+        boolean seed = SyntheticDataGenerator.isStartupSeedEnabled();
+        if (!initSchema && !seed) {
+            return;
+        }
+        ConnectionPool pool = DAOFactory.getConnectionPool();
+        try {
+            if (initSchema && DataSourceConfig.createSchemaIfMissing(pool)) {
+                LOGGER.info("Database schema created");
+            }
+            if (seed && SyntheticDataGenerator.isDatabaseEmpty(pool)) {
+                SyntheticDataGenerator.fromConfig().generate(pool);
+            }
+        } catch (SQLException e) {
+            LOGGER.log(Level.SEVERE, "Error preparing the database on startup", e);
+        }
+    }
+
+    /**
+     * Encerra os recursos compartilhados da aplicação.
+     *
+     * @param event Evento de encerramento do contexto.
+     */
+    @Override
+    public void contextDestroyed(ServletContextEvent event) {
+        DatabaseExecutor.shutdownInstance();
+        long ingestTimeoutMillis = AppConfig.getLong("ecosmart.ingest.shutdownTimeoutMillis", 10000);
+        ConsumptionIngestQueue.shutdownInstance(ingestTimeoutMillis);
+        IngestSpool.shutdownInstance(ingestTimeoutMillis);
+        DAOFactory.shutdown();
+    }
+}
@@ -0,0 +1,60 @@
+package br.com.fiap.ecosmartmonitor.config;
+
+import java.util.function.Supplier;
+
+import br.com.fiap.ecosmartmonitor.dao.ClientDAO;
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionDAO;
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionRollupDAO;
+import br.com.fiap.ecosmartmonitor.dao.DeviceAverageTracker;
+import br.com.fiap.ecosmartmonitor.dao.DeviceDAO;
+import br.com.fiap.ecosmartmonitor.dao.LatestReadingIndex;
+import br.com.fiap.ecosmartmonitor.dao.NotificationDAO;
+import br.com.fiap.ecosmartmonitor.dao.ResidenceDAO;
+import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import org.glassfish.hk2.api.Factory;
+import org.glassfish.hk2.utilities.binding.AbstractBinder;
+
+/**
+ * Registra os DAOs (e o índice de leituras mais recentes e o rastreador do consumo médio) no container de injeção
+ * do Jersey (HK2). Os DAOs continuam sendo criados e mantidos pela {@link DAOFactory}; o binder apenas os entrega
+ * aos controllers, que são singletons e recebem cada DAO uma única vez, na primeira requisição atendida. O
+ * rastreador é injetado como null quando ecosmart.deviceAverage.enabled está desativado.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class DAOBinder extends AbstractBinder {
+
+    @Override
+    protected void configure() {
+        bindFactory(from(DAOFactory::getClientDAO)).to(ClientDAO.class);
+        bindFactory(from(DAOFactory::getResidenceDAO)).to(ResidenceDAO.class);
+        bindFactory(from(DAOFactory::getDeviceDAO)).to(DeviceDAO.class);
+        bindFactory(from(DAOFactory::getNotificationDAO)).to(NotificationDAO.class);
+        bindFactory(from(DAOFactory::getConsumptionDAO)).to(ConsumptionDAO.class);
+        bindFactory(from(DAOFactory::getConsumptionRollupDAO)).to(ConsumptionRollupDAO.class);
+        bindFactory(from(DAOFactory::getLatestReadingIndex)).to(LatestReadingIndex.class);
+        bindFactory(from(DAOFactory::getDeviceAverageTracker)).to(DeviceAverageTracker.class);
+    }
+
+    /**
+     * Adapta um getter da {@link DAOFactory} à fábrica do HK2. O descarte não faz nada: os DAOs pertencem à
+     * DAOFactory, que os fecha junto com o pool.
+     *
+     * @param getter Getter da DAOFactory.
+     * @return Fábrica que devolve a instância compartilhada.
+     */
+    private static <T> Factory<T> from(Supplier<T> getter) {
+        return new Factory<T>() {
+            @Override
+            public T provide() {
+                return getter.get();
+            }
+
+            @Override
+            public void dispose(T instance) {
+            }
+        };
+    }
+}
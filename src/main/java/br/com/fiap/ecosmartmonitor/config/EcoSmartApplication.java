@@ -0,0 +1,22 @@
+package br.com.fiap.ecosmartmonitor.config;
+
+import org.glassfish.jersey.server.ResourceConfig;
+
+/**
+ * Configuração da aplicação Jersey: registra os controllers, o filtro de métricas e os DAOs injetáveis.
+ * Usada pelo web.xml e pelos servidores embarcados dos benchmarks e do teste de carga.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class EcoSmartApplication extends ResourceConfig {
+
+    /**
+     * Construtor da classe EcoSmartApplication.
+     */
+    public EcoSmartApplication() {
+        packages("br.com.fiap.ecosmartmonitor.controller", "br.com.fiap.ecosmartmonitor.metrics");
+        register(new DAOBinder());
+    }
+}
@@ -1,11 +1,21 @@
 package br.com.fiap.ecosmartmonitor.controller;
 
-import java.sql.SQLException;
-import java.util.List;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
 
 import br.com.fiap.ecosmartmonitor.dao.ClientDAO;
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionDAO;
+import br.com.fiap.ecosmartmonitor.dao.DeviceAverageTracker;
+import br.com.fiap.ecosmartmonitor.dao.DeviceDAO;
+import br.com.fiap.ecosmartmonitor.dao.ResidenceDAO;
 import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
 import br.com.fiap.ecosmartmonitor.model.Client;
+import br.com.fiap.ecosmartmonitor.model.ClientOverview;
+import br.com.fiap.ecosmartmonitor.service.ClientOverviewService;
+import br.com.fiap.ecosmartmonitor.util.JsonStreamWriter;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -16,6 +26,7 @@ import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 /**
  * Controlador responsável por gerenciar as operações relacionadas a clientes.
@@ -30,38 +41,53 @@ import jakarta.ws.rs.core.Response;
  *     Guilherme Barreto Santos (RM: 97674),
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
+@Singleton
 @Path("/clients")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class ClientController {
 
-    private ClientDAO clientDAO;
+    private final ClientDAO clientDAO;
+    private final ClientOverviewService overviewService;
 
     /**
      * Construtor da classe ClientController.
-     * Inicializa o DAO de cliente utilizando a fábrica DAO.
+     * Recebe os DAOs compartilhados, injetados pelo Jersey a partir da {@link DAOFactory}; os DAOs de residência,
+     * dispositivo e consumo e o rastreador do consumo médio são usados apenas pelo painel do cliente.
      *
-     * @throws SQLException caso ocorra erro na conexão com o banco de dados.
+     * @param clientDAO            DAO de clientes.
+     * @param residenceDAO         DAO de residências.
+     * @param deviceDAO            DAO de dispositivos.
+     * @param consumptionDAO       DAO de consumo.
+     * @param deviceAverageTracker Rastreador do consumo médio ou null caso esteja desativado.
      */
-    public ClientController() throws SQLException {
-        this.clientDAO = DAOFactory.getClientDAO();
+    @Inject
+    public ClientController(ClientDAO clientDAO, ResidenceDAO residenceDAO, DeviceDAO deviceDAO,
+            ConsumptionDAO consumptionDAO, DeviceAverageTracker deviceAverageTracker) {
+        this.clientDAO = clientDAO;
+        this.overviewService = new ClientOverviewService(clientDAO, residenceDAO, deviceDAO, consumptionDAO,
+                deviceAverageTracker);
     }
 
     /**
      * Recupera todos os clientes cadastrados.
+     * A resposta é enviada em streaming: cada cliente é escrito assim que é lido do banco,
+     * mantendo o uso de memória constante independentemente da quantidade de clientes.
      *
-     * @return Response com a lista de clientes ou um erro caso a operação falhe.
+     * @return Response com a lista de clientes.
      */
     @GET
     public Response getAllClients() {
-        try {
-            List<Client> clients = clientDAO.getAllClients();
-            return Response.ok(clients).build();
-        } catch (Exception e) {
-            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
-                           .entity("Error retrieving clients: " + e.getMessage())
-                           .build();
-        }
+        StreamingOutput body = output -> {
+            try (JsonStreamWriter writer = new JsonStreamWriter(output)) {
+                writer.beginArray();
+                clientDAO.forEachClient(writer::element);
+                writer.endArray();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return Response.ok(body).build();
     }
 
     /**
@@ -88,6 +114,42 @@ public class ClientController {
         }
     }
 
+    /**
+     * Recupera o painel de um cliente: o cliente, suas residências, os dispositivos de cada residência e,
+     * para cada dispositivo, a leitura mais recente e o consumo das últimas 24 horas.
+     * Substitui as 1 + R + R·D requisições necessárias para montar a mesma tela com os demais endpoints
+     * por uma quantidade fixa de consultas, executadas em paralelo.
+     *
+     * Endpoint: GET /clients/{id}/overview
+     *
+     * @param id ID do cliente.
+     * @return Response com o painel (client, since, readings), 404 caso o cliente não exista, 503 caso as consultas
+     *         não terminem em ecosmart.overview.timeoutMillis ou 500 caso a operação falhe.
+     */
+    @GET
+    @Path("/{id}/overview")
+    public Response getClientOverview(@PathParam("id") Long id) {
+        try {
+            ClientOverview overview = overviewService.getOverview(id);
+            if (overview == null) {
+                return Response.status(Response.Status.NOT_FOUND)
+                               .entity("Client not found")
+                               .build();
+            }
+            return Response.ok(overview).build();
+        } catch (Exception e) {
+            if (e instanceof CompletionException && e.getCause() instanceof TimeoutException) {
+                return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                               .header("Retry-After", "1")
+                               .entity(e.getMessage())
+                               .build();
+            }
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                           .entity("Error retrieving client overview: " + e.getMessage())
+                           .build();
+        }
+    }
+
     /**
      * Cria um novo cliente.
      *
@@ -119,14 +181,12 @@ public class ClientController {
     @Path("/{id}")
     public Response updateClient(@PathParam("id") Long id, Client client) {
         try {
-            Client existingClient = clientDAO.getClientById(id);
-            if (existingClient == null) {
+            client.setId(id); // Garantir que o ID é o mesmo do cliente a ser atualizado
+            if (!clientDAO.updateClient(client)) {
                 return Response.status(Response.Status.NOT_FOUND)
                                .entity("Client not found")
                                .build();
             }
-            client.setId(id); // Garantir que o ID é o mesmo do cliente a ser atualizado
-            clientDAO.updateClient(client);
             return Response.ok("Client updated successfully").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -145,13 +205,11 @@ public class ClientController {
     @Path("/{id}")
     public Response deleteClient(@PathParam("id") Long id) {
         try {
-            Client existingClient = clientDAO.getClientById(id);
-            if (existingClient == null) {
+            if (!clientDAO.deleteClient(id)) {
                 return Response.status(Response.Status.NOT_FOUND)
                                .entity("Client not found")
                                .build();
             }
-            clientDAO.deleteClient(id);
             return Response.ok("Client deleted successfully").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
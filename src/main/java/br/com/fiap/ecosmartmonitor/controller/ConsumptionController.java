@@ -1,21 +1,51 @@
 package br.com.fiap.ecosmartmonitor.controller;
 
-import java.sql.SQLException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Function;
 
 import br.com.fiap.ecosmartmonitor.dao.ConsumptionDAO;
 import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import br.com.fiap.ecosmartmonitor.model.AggregationBucket;
+import br.com.fiap.ecosmartmonitor.model.BatchResult;
 import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionAggregate;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionCursor;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionPoint;
+import br.com.fiap.ecosmartmonitor.service.ConsumptionIngestQueue;
+import br.com.fiap.ecosmartmonitor.service.DatabaseExecutor;
+import br.com.fiap.ecosmartmonitor.service.IngestSpool;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.JsonStreamWriter;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+import jakarta.json.bind.JsonbException;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
+import jakarta.ws.rs.DefaultValue;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.POST;
 import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
+import jakarta.ws.rs.core.StreamingOutput;
 
 /**
  * Controlador responsável por gerenciar as operações relacionadas ao consumo de energia.
@@ -30,69 +60,241 @@ import jakarta.ws.rs.core.Response;
  *     Guilherme Barreto Santos (RM: 97674),
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
+@Singleton
 @Path("/consumption")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class ConsumptionController {
 
+    /** Media type de JSON delimitado por linhas (um registro JSON por linha). */
+    public static final String APPLICATION_NDJSON = "application/x-ndjson";
+
+    private static final int MAX_BATCH_ITEMS = AppConfig.getInt("ecosmart.ingest.maxBatchItems", 10000);
+    private static final int DEFAULT_PAGE_SIZE = AppConfig.getInt("ecosmart.query.defaultPageSize", 500);
+    private static final int MAX_PAGE_SIZE = AppConfig.getInt("ecosmart.query.maxPageSize", 5000);
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
     private final ConsumptionDAO consumptionDAO;
 
     /**
      * Construtor da classe ConsumptionController.
-     * Inicializa o DAO de consumo utilizando a fábrica DAO.
+     * Recebe o DAO de consumo compartilhado, injetado pelo Jersey a partir da {@link DAOFactory}.
      *
-     * @throws SQLException caso ocorra erro na conexão com o banco de dados.
+     * @param consumptionDAO DAO usado pelo controlador.
      */
-    public ConsumptionController() throws SQLException {
-        this.consumptionDAO = DAOFactory.getConsumptionDAO();
+    @Inject
+    public ConsumptionController(ConsumptionDAO consumptionDAO) {
+        this.consumptionDAO = consumptionDAO;
     }
 
     /**
      * Recupera um registro de consumo específico pelo ID.
+     * A consulta é executada pelo {@link DatabaseExecutor}.
      *
-     * @param id ID do registro de consumo a ser buscado.
-     * @return Response com o registro de consumo encontrado ou erro caso não exista.
+     * @param id       ID do registro de consumo a ser buscado.
+     * @param response Resposta assíncrona com o registro de consumo encontrado ou erro caso não exista.
      */
     @GET
     @Path("/{id}")
-    public Response getConsumptionById(@PathParam("id") Long id) {
-        Consumption consumption = consumptionDAO.getConsumptionById(id);
-        if (consumption != null) {
-            return Response.ok(consumption).build();
-        } else {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Consumption record not found for ID: " + id)
-                    .build();
-        }
+    public void getConsumptionById(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        DatabaseExecutor.respond(response, () -> {
+            Consumption consumption = consumptionDAO.getConsumptionById(id);
+            if (consumption != null) {
+                return Response.ok(consumption).build();
+            } else {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Consumption record not found for ID: " + id)
+                        .build();
+            }
+        });
     }
 
     /**
-     * Recupera os registros de consumo associados a uma residência específica.
+     * Recupera uma página dos registros de consumo de uma residência, ordenados por (timestamp, id).
+     * Para obter a próxima página, repita a requisição com cursor igual ao nextCursor da resposta.
+     * A página é enviada em streaming, conforme as linhas são lidas do banco; uma página vazia
+     * é retornada com status 200 e items vazio. A consulta e a escrita da página são executadas pelo
+     * {@link DatabaseExecutor}.
+     *
+     * Endpoint: GET /consumption/residence/{residenceId}?from=&to=&cursor=&limit=
      *
      * @param residenceId ID da residência para a qual os registros de consumo serão buscados.
-     * @return Response com a lista de registros encontrados ou erro caso não existam registros.
+     * @param from        Início do intervalo (inclusivo), em ISO-8601 ou epoch millis. Opcional.
+     * @param to          Fim do intervalo (exclusivo), em ISO-8601 ou epoch millis. Opcional.
+     * @param cursor      Cursor retornado pela página anterior. Opcional.
+     * @param limit       Tamanho da página (padrão ecosmart.query.defaultPageSize, máximo ecosmart.query.maxPageSize).
+     * @param response    Resposta assíncrona com a página de registros ({"items":[...],"nextCursor":...}).
      */
     @GET
     @Path("/residence/{residenceId}")
-    public Response getConsumptionByResidence(@PathParam("residenceId") Long residenceId) {
-        List<Consumption> consumptions = consumptionDAO.getConsumptionsByResidenceId(residenceId);
-        if (consumptions != null && !consumptions.isEmpty()) {
-            return Response.ok(consumptions).build();
-        } else {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("No consumption records found for residence ID: " + residenceId)
-                    .build();
+    public void getConsumptionByResidence(@PathParam("residenceId") Long residenceId,
+            @QueryParam("from") String from, @QueryParam("to") String to,
+            @QueryParam("cursor") String cursor, @QueryParam("limit") Integer limit,
+            @Suspended AsyncResponse response) {
+        Timestamp fromTimestamp;
+        Timestamp toTimestamp;
+        ConsumptionCursor after;
+        try {
+            fromTimestamp = parseTimestamp("from", from);
+            toTimestamp = parseTimestamp("to", to);
+            after = cursor == null || cursor.isBlank() ? null : ConsumptionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            response.resume(Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build());
+            return;
+        }
+        int pageSize = pageSize(limit);
+
+        StreamingOutput body = output -> {
+            try (JsonStreamWriter writer = new JsonStreamWriter(output)) {
+                // Busca um registro a mais para saber se existe próxima página sem uma consulta extra.
+                PageTracker<Consumption> page = new PageTracker<>(writer, pageSize, ConsumptionCursor::after);
+                writer.raw("{\"items\":");
+                writer.beginArray();
+                consumptionDAO.forEachConsumptionByResidenceId(
+                        residenceId, fromTimestamp, toTimestamp, after, pageSize + 1, page::accept);
+                writer.endArray();
+                writer.raw(",\"nextCursor\":");
+                writer.value(page.nextCursor());
+                writer.raw("}");
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        DatabaseExecutor.respond(response, () -> Response.ok(body).build());
+    }
+
+    /**
+     * Recupera uma página da série de consumo de um dispositivo para gráficos, com apenas id, valor e data
+     * de cada registro. Paginação, formato e execução iguais a GET /consumption/residence/{residenceId}.
+     *
+     * Endpoint: GET /consumption/device/{deviceId}/points?from=&to=&cursor=&limit=
+     *
+     * @param deviceId ID do dispositivo.
+     * @param from     Início do intervalo (inclusivo), em ISO-8601 ou epoch millis. Opcional.
+     * @param to       Fim do intervalo (exclusivo), em ISO-8601 ou epoch millis. Opcional.
+     * @param cursor   Cursor retornado pela página anterior. Opcional.
+     * @param limit    Tamanho da página (padrão ecosmart.query.defaultPageSize, máximo ecosmart.query.maxPageSize).
+     * @param response Resposta assíncrona com a página de pontos
+     *                 ({"items":[{"id","amount","timestamp"}...],"nextCursor":...}).
+     */
+    @GET
+    @Path("/device/{deviceId}/points")
+    public void getConsumptionPointsByDevice(@PathParam("deviceId") Long deviceId,
+            @QueryParam("from") String from, @QueryParam("to") String to,
+            @QueryParam("cursor") String cursor, @QueryParam("limit") Integer limit,
+            @Suspended AsyncResponse response) {
+        Timestamp fromTimestamp;
+        Timestamp toTimestamp;
+        ConsumptionCursor after;
+        try {
+            fromTimestamp = parseTimestamp("from", from);
+            toTimestamp = parseTimestamp("to", to);
+            after = cursor == null || cursor.isBlank() ? null : ConsumptionCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            response.resume(Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build());
+            return;
+        }
+        int pageSize = pageSize(limit);
+
+        StreamingOutput body = output -> {
+            try (JsonStreamWriter writer = new JsonStreamWriter(output)) {
+                PageTracker<ConsumptionPoint> page = new PageTracker<>(writer, pageSize,
+                        point -> new ConsumptionCursor(point.getTimestamp(), point.getId()));
+                writer.raw("{\"items\":");
+                writer.beginArray();
+                consumptionDAO.forEachConsumptionPointByDeviceId(
+                        deviceId, fromTimestamp, toTimestamp, after, pageSize + 1, page::accept);
+                writer.endArray();
+                writer.raw(",\"nextCursor\":");
+                writer.value(page.nextCursor());
+                writer.raw("}");
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        DatabaseExecutor.respond(response, () -> Response.ok(body).build());
+    }
+
+    /**
+     * Recupera a leitura mais recente de um dispositivo. Com ecosmart.hotWindow.enabled, é respondida pela janela
+     * de leituras recentes sempre que o dispositivo tiver leituras nela. A consulta é executada pelo
+     * {@link DatabaseExecutor}.
+     *
+     * Endpoint: GET /consumption/device/{deviceId}/latest
+     *
+     * @param deviceId ID do dispositivo.
+     * @param response Resposta assíncrona com o registro mais recente ou 404 caso o dispositivo não tenha leituras.
+     */
+    @GET
+    @Path("/device/{deviceId}/latest")
+    public void getLatestConsumptionByDevice(@PathParam("deviceId") Long deviceId, @Suspended AsyncResponse response) {
+        DatabaseExecutor.respond(response, () -> {
+            Consumption consumption = consumptionDAO.getLatestConsumptionByDeviceId(deviceId);
+            if (consumption != null) {
+                return Response.ok(consumption).build();
+            } else {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("No consumption records found for device ID: " + deviceId)
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Recupera o consumo agregado de uma residência por hora, dia ou mês, calculado no banco de dados.
+     * A consulta é executada pelo {@link DatabaseExecutor}.
+     *
+     * Endpoint: GET /consumption/residence/{residenceId}/aggregate?bucket=hour|day|month&from=&to=&byDevice=
+     *
+     * @param residenceId ID da residência.
+     * @param bucket      Granularidade: hour, day (padrão) ou month.
+     * @param from        Início do intervalo (inclusivo), em ISO-8601 ou epoch millis. Opcional.
+     * @param to          Fim do intervalo (exclusivo), em ISO-8601 ou epoch millis. Opcional.
+     * @param byDevice    true para detalhar cada período por dispositivo.
+     * @param response    Resposta assíncrona com a lista de agregados
+     *                    (bucketStart, deviceId, sum, average, min, max, count).
+     */
+    @GET
+    @Path("/residence/{residenceId}/aggregate")
+    public void getConsumptionAggregate(@PathParam("residenceId") Long residenceId,
+            @QueryParam("bucket") @DefaultValue("day") String bucket,
+            @QueryParam("from") String from, @QueryParam("to") String to,
+            @QueryParam("byDevice") @DefaultValue("false") boolean byDevice,
+            @Suspended AsyncResponse response) {
+        AggregationBucket aggregationBucket;
+        Timestamp fromTimestamp;
+        Timestamp toTimestamp;
+        try {
+            aggregationBucket = AggregationBucket.fromParam(bucket);
+            fromTimestamp = parseTimestamp("from", from);
+            toTimestamp = parseTimestamp("to", to);
+        } catch (IllegalArgumentException e) {
+            response.resume(Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build());
+            return;
         }
+        DatabaseExecutor.respond(response, () -> {
+            List<ConsumptionAggregate> aggregates = consumptionDAO.aggregateByResidenceId(residenceId,
+                    aggregationBucket, fromTimestamp, toTimestamp, byDevice);
+            return Response.ok(aggregates).build();
+        });
     }
 
     /**
      * Cria um novo registro de consumo.
+     * Com ecosmart.ingest.mode=async o registro é apenas enfileirado e a resposta é 202 (Accepted); com
+     * ecosmart.ingest.mode=spool o registro é gravado no spool em disco e também responde 202.
      *
      * @param consumption Objeto Consumption com os dados do registro a ser criado.
      * @return Response indicando o sucesso ou erro na criação.
      */
     @POST
     public Response createConsumption(Consumption consumption) {
+        if (ConsumptionIngestQueue.isEnabled()) {
+            return enqueueConsumption(consumption);
+        }
+        if (IngestSpool.isEnabled()) {
+            return spoolConsumption(consumption);
+        }
         try {
             consumptionDAO.createConsumption(consumption);
             return Response.status(Response.Status.CREATED)
@@ -105,6 +307,231 @@ public class ConsumptionController {
         }
     }
 
+    /**
+     * Modo de ingestão assíncrona: valida o registro e o enfileira para gravação em segundo plano.
+     *
+     * @param consumption Registro de consumo a ser gravado.
+     * @return 202 caso o registro tenha sido aceito, 400 caso seja inválido ou 429 caso a fila esteja cheia.
+     */
+    private Response enqueueConsumption(Consumption consumption) {
+        String error = validate(consumption);
+        if (error != null) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(error).build();
+        }
+        if (ConsumptionIngestQueue.getInstance().offer(consumption)) {
+            return Response.status(Response.Status.ACCEPTED)
+                    .entity("Consumption record accepted for processing")
+                    .build();
+        }
+        return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                .header("Retry-After", "1")
+                .entity("Ingest queue is full, retry later")
+                .build();
+    }
+
+    /**
+     * Modo de ingestão pelo spool: valida o registro e o grava em disco para gravação no banco em segundo plano.
+     *
+     * @param consumption Registro de consumo a ser gravado.
+     * @return 202 caso o registro tenha sido gravado no spool, 400 caso seja inválido, 429 caso o spool esteja cheio
+     *         ou 500 caso o spool não possa ser gravado.
+     */
+    private Response spoolConsumption(Consumption consumption) {
+        String error = validate(consumption);
+        if (error != null) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(error).build();
+        }
+        try {
+            if (IngestSpool.getInstance().append(consumption)) {
+                return Response.status(Response.Status.ACCEPTED)
+                        .entity("Consumption record accepted for processing")
+                        .build();
+            }
+            return Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header("Retry-After", "1")
+                    .entity("Ingest spool is full, retry later")
+                    .build();
+        } catch (UncheckedIOException e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error spooling consumption record: " + e.getMessage())
+                    .build();
+        }
+    }
+
+    /**
+     * Cria vários registros de consumo em uma única requisição, a partir de um array JSON.
+     * Os registros válidos são gravados em lotes dentro de uma única transação.
+     *
+     * Endpoint: POST /consumption/batch
+     *
+     * @param consumptions Registros de consumo a serem criados.
+     * @return Response com o status (ACCEPTED/REJECTED) de cada item.
+     */
+    @POST
+    @Path("/batch")
+    public Response createConsumptionBatch(List<Consumption> consumptions) {
+        if (consumptions == null || consumptions.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Batch must contain at least one consumption record")
+                    .build();
+        }
+        if (consumptions.size() > MAX_BATCH_ITEMS) {
+            return batchTooLarge();
+        }
+        return saveBatch(consumptions, new String[consumptions.size()]);
+    }
+
+    /**
+     * Cria vários registros de consumo a partir de um corpo NDJSON (um registro JSON por linha).
+     * O corpo é lido linha a linha; linhas inválidas são rejeitadas individualmente.
+     *
+     * Endpoint: POST /consumption/batch (Content-Type: application/x-ndjson)
+     *
+     * @param body Corpo da requisição.
+     * @return Response com o status (ACCEPTED/REJECTED) de cada item.
+     */
+    @POST
+    @Path("/batch")
+    @Consumes(APPLICATION_NDJSON)
+    public Response createConsumptionBatchNdjson(InputStream body) {
+        List<Consumption> consumptions = new ArrayList<>();
+        List<String> parseErrors = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (consumptions.size() == MAX_BATCH_ITEMS) {
+                    return batchTooLarge();
+                }
+                try {
+                    consumptions.add(JSONB.fromJson(line, Consumption.class));
+                    parseErrors.add(null);
+                } catch (JsonbException e) {
+                    consumptions.add(null);
+                    parseErrors.add("Invalid JSON: " + e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Error reading request body: " + e.getMessage())
+                    .build();
+        }
+        if (consumptions.isEmpty()) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("Batch must contain at least one consumption record")
+                    .build();
+        }
+        return saveBatch(consumptions, parseErrors.toArray(new String[0]));
+    }
+
+    /**
+     * Valida os itens do lote, grava os válidos em uma única transação e monta o resultado por item.
+     *
+     * @param consumptions Itens do lote (null para itens que não puderam ser lidos).
+     * @param errors       Erros já conhecidos por item; preenchido com os erros de validação.
+     * @return Response com o resultado do lote.
+     */
+    private Response saveBatch(List<Consumption> consumptions, String[] errors) {
+        List<Consumption> valid = new ArrayList<>(consumptions.size());
+        for (int i = 0; i < consumptions.size(); i++) {
+            if (errors[i] == null) {
+                errors[i] = validate(consumptions.get(i));
+            }
+            if (errors[i] == null) {
+                valid.add(consumptions.get(i));
+            }
+        }
+
+        String failure = null;
+        try {
+            consumptionDAO.createConsumptions(valid);
+        } catch (Exception e) {
+            failure = "Error creating consumption record: " + e.getMessage();
+        }
+
+        BatchResult result = new BatchResult();
+        for (int i = 0; i < consumptions.size(); i++) {
+            if (errors[i] != null) {
+                result.reject(i, errors[i]);
+            } else if (failure != null) {
+                result.reject(i, failure);
+            } else {
+                result.accept(i);
+            }
+        }
+        Response.Status status = failure != null ? Response.Status.INTERNAL_SERVER_ERROR : Response.Status.OK;
+        return Response.status(status).entity(result).build();
+    }
+
+    /**
+     * Verifica os campos obrigatórios de um registro de consumo.
+     *
+     * @param consumption Registro a ser validado.
+     * @return Mensagem de erro ou null caso o registro seja válido.
+     */
+    private static String validate(Consumption consumption) {
+        if (consumption == null) {
+            return "Consumption record is empty";
+        }
+        if (consumption.getAmount() == null || consumption.getAmount() < 0) {
+            return "amount must be a non-negative number";
+        }
+        if (consumption.getTimeStamp() == null) {
+            return "timeStamp is required";
+        }
+        if (consumption.getDeviceId() <= 0 || consumption.getResidenceId() <= 0) {
+            return "deviceId and residenceId are required";
+        }
+        return null;
+    }
+
+    /**
+     * Converte um parâmetro de data/hora da requisição. Aceita ISO-8601 com fuso
+     * (ex.: 2024-05-01T00:00:00Z), data e hora local (2024-05-01 00:00:00) ou epoch em milissegundos.
+     *
+     * @param name  Nome do parâmetro, usado na mensagem de erro.
+     * @param value Valor recebido ou null.
+     * @return Timestamp correspondente ou null caso o parâmetro não tenha sido informado.
+     * @throws IllegalArgumentException Caso o valor não esteja em um formato aceito.
+     */
+    static Timestamp parseTimestamp(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            if (value.chars().allMatch(Character::isDigit)) {
+                return new Timestamp(Long.parseLong(value));
+            }
+            if (value.indexOf('T') > 0) {
+                return Timestamp.from(Instant.parse(value));
+            }
+            return Timestamp.valueOf(value);
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid '" + name + "' timestamp: " + value, e);
+        }
+    }
+
+    /**
+     * Normaliza o tamanho de página pedido, aplicando o padrão e o máximo configurados.
+     *
+     * @param limit Tamanho pedido ou null.
+     * @return Tamanho de página entre 1 e ecosmart.query.maxPageSize.
+     */
+    static int pageSize(Integer limit) {
+        if (limit == null || limit < 1) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
+
+    private static Response batchTooLarge() {
+        return Response.status(Response.Status.REQUEST_ENTITY_TOO_LARGE)
+                .entity("Batch exceeds the maximum of " + MAX_BATCH_ITEMS + " consumption records")
+                .build();
+    }
+
     /**
      * Atualiza um registro de consumo existente pelo ID.
      *
@@ -115,15 +542,13 @@ public class ConsumptionController {
     @PUT
     @Path("/{id}")
     public Response updateConsumption(@PathParam("id") Long id, Consumption updatedConsumption) {
-        Consumption existingConsumption = consumptionDAO.getConsumptionById(id);
-        if (existingConsumption == null) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Consumption record not found for ID: " + id)
-                    .build();
-        }
         try {
             updatedConsumption.setId(id);
-            consumptionDAO.updateConsumption(updatedConsumption);
+            if (!consumptionDAO.updateConsumption(updatedConsumption)) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Consumption record not found for ID: " + id)
+                        .build();
+            }
             return Response.ok("Consumption record updated successfully!").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -141,14 +566,12 @@ public class ConsumptionController {
     @DELETE
     @Path("/{id}")
     public Response deleteConsumption(@PathParam("id") Long id) {
-        Consumption existingConsumption = consumptionDAO.getConsumptionById(id);
-        if (existingConsumption == null) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Consumption record not found for ID: " + id)
-                    .build();
-        }
         try {
-            consumptionDAO.deleteConsumption(id);
+            if (!consumptionDAO.deleteConsumption(id)) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Consumption record not found for ID: " + id)
+                        .build();
+            }
             return Response.ok("Consumption record deleted successfully!").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -156,4 +579,37 @@ public class ConsumptionController {
                     .build();
         }
     }
+
+    /**
+     * Escreve os registros de uma página em streaming e calcula o cursor da próxima página.
+     * Recebe até pageSize + 1 registros: o registro excedente apenas indica que existe próxima página.
+     */
+    private static final class PageTracker<T> {
+        private final JsonStreamWriter writer;
+        private final int pageSize;
+        private final Function<T, ConsumptionCursor> cursorOf;
+        private int count;
+        private T last;
+        private boolean hasMore;
+
+        private PageTracker(JsonStreamWriter writer, int pageSize, Function<T, ConsumptionCursor> cursorOf) {
+            this.writer = writer;
+            this.pageSize = pageSize;
+            this.cursorOf = cursorOf;
+        }
+
+        private void accept(T item) {
+            if (count == pageSize) {
+                hasMore = true;
+                return;
+            }
+            writer.element(item);
+            last = item;
+            count++;
+        }
+
+        private String nextCursor() {
+            return hasMore ? cursorOf.apply(last).encode() : null;
+        }
+    }
 }
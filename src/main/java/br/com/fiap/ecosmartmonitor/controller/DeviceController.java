@@ -1,11 +1,19 @@
 package br.com.fiap.ecosmartmonitor.controller;
 
-import java.sql.SQLException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
+import br.com.fiap.ecosmartmonitor.dao.DeviceAverageTracker;
 import br.com.fiap.ecosmartmonitor.dao.DeviceDAO;
+import br.com.fiap.ecosmartmonitor.dao.LatestReadingIndex;
 import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
 import br.com.fiap.ecosmartmonitor.model.Device;
+import br.com.fiap.ecosmartmonitor.model.DeviceLatestReading;
+import br.com.fiap.ecosmartmonitor.service.DatabaseExecutor;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -14,6 +22,8 @@ import jakarta.ws.rs.PUT;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.PathParam;
 import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.container.Suspended;
 import jakarta.ws.rs.core.MediaType;
 import jakarta.ws.rs.core.Response;
 
@@ -30,59 +40,146 @@ import jakarta.ws.rs.core.Response;
  *     Guilherme Barreto Santos (RM: 97674),
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
+@Singleton
 @Path("/devices")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
 public class DeviceController {
 
     private final DeviceDAO deviceDAO;
+    private final LatestReadingIndex latestReadingIndex;
+    private final DeviceAverageTracker deviceAverageTracker;
 
     /**
      * Construtor da classe DeviceController.
-     * Inicializa o DAO de dispositivo utilizando a fábrica DAO.
+     * Recebe o DAO de dispositivo, o índice de leituras mais recentes e o rastreador do consumo médio
+     * compartilhados, injetados pelo Jersey a partir da {@link DAOFactory}.
      *
-     * @throws SQLException caso ocorra erro na conexão com o banco de dados.
+     * @param deviceDAO            DAO usado pelo controlador.
+     * @param latestReadingIndex   Índice da leitura mais recente de cada dispositivo.
+     * @param deviceAverageTracker Rastreador do consumo médio ou null caso esteja desativado.
      */
-    public DeviceController() throws SQLException {
-        this.deviceDAO = DAOFactory.getDeviceDAO();
+    @Inject
+    public DeviceController(DeviceDAO deviceDAO, LatestReadingIndex latestReadingIndex,
+            DeviceAverageTracker deviceAverageTracker) {
+        this.deviceDAO = deviceDAO;
+        this.latestReadingIndex = latestReadingIndex;
+        this.deviceAverageTracker = deviceAverageTracker;
     }
 
     /**
      * Recupera um dispositivo específico pelo ID.
+     * Com ecosmart.deviceAverage.enabled, averageConsumption traz a média mantida em memória pelo
+     * {@link DeviceAverageTracker}, sem esperar a próxima gravação no banco.
+     * A consulta é executada pelo {@link DatabaseExecutor}.
      *
-     * @param id ID do dispositivo a ser buscado.
-     * @return Response com o dispositivo encontrado ou erro caso não exista.
+     * @param id       ID do dispositivo a ser buscado.
+     * @param response Resposta assíncrona com o dispositivo encontrado ou erro caso não exista.
      */
     @GET
     @Path("/{id}")
-    public Response getDeviceById(@PathParam("id") Long id) {
-        Device device = deviceDAO.getDeviceById(id);
-        if (device != null) {
-            return Response.ok(device).build();
-        } else {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Device not found for ID: " + id)
-                    .build();
-        }
+    public void getDeviceById(@PathParam("id") Long id, @Suspended AsyncResponse response) {
+        DatabaseExecutor.respond(response, () -> {
+            Device device = deviceDAO.getDeviceById(id);
+            if (device != null) {
+                return Response.ok(withCurrentAverage(device)).build();
+            } else {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Device not found for ID: " + id)
+                        .build();
+            }
+        });
     }
 
     /**
-     * Recupera os dispositivos associados a uma residência específica.
+     * Recupera os dispositivos associados a uma residência específica, com a média mantida em memória como em
+     * GET /devices/{id}.
+     * A consulta é executada pelo {@link DatabaseExecutor}.
      *
      * @param residenceId ID da residência para a qual os dispositivos serão buscados.
-     * @return Response com a lista de dispositivos encontrados ou erro caso não existam dispositivos.
+     * @param response    Resposta assíncrona com a lista de dispositivos encontrados ou erro caso não existam.
      */
     @GET
     @Path("/residence/{residenceId}")
-    public Response getDevicesByResidenceId(@PathParam("residenceId") Long residenceId) {
-        List<Device> devices = deviceDAO.getDevicesByResidenceId(residenceId);
-        if (devices != null && !devices.isEmpty()) {
-            return Response.ok(devices).build();
-        } else {
+    public void getDevicesByResidenceId(@PathParam("residenceId") Long residenceId,
+            @Suspended AsyncResponse response) {
+        DatabaseExecutor.respond(response, () -> {
+            List<Device> devices = deviceDAO.getDevicesByResidenceId(residenceId);
+            if (devices != null && !devices.isEmpty()) {
+                List<Device> current = new ArrayList<>(devices.size());
+                for (Device device : devices) {
+                    current.add(withCurrentAverage(device));
+                }
+                return Response.ok(current).build();
+            } else {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("No devices found for residence ID: " + residenceId)
+                        .build();
+            }
+        });
+    }
+
+    /**
+     * Recupera o que cada dispositivo de uma residência está consumindo agora: a leitura mais recente e quando
+     * o dispositivo foi visto pela última vez. Os dispositivos vêm do banco e as leituras do
+     * {@link LatestReadingIndex}, sem percorrer o histórico de consumo. A consulta é executada pelo
+     * {@link DatabaseExecutor}.
+     *
+     * Endpoint: GET /devices/residence/{residenceId}/latest
+     *
+     * @param residenceId ID da residência.
+     * @param response    Resposta assíncrona com a leitura mais recente de cada dispositivo (campos vazios para
+     *                    dispositivos sem leituras) ou erro caso a residência não tenha dispositivos.
+     */
+    @GET
+    @Path("/residence/{residenceId}/latest")
+    public void getLatestReadingsByResidenceId(@PathParam("residenceId") Long residenceId,
+            @Suspended AsyncResponse response) {
+        DatabaseExecutor.respond(response, () -> {
+            List<Device> devices = deviceDAO.getDevicesByResidenceId(residenceId);
+            if (devices == null || devices.isEmpty()) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("No devices found for residence ID: " + residenceId)
+                        .build();
+            }
+            List<Long> deviceIds = new ArrayList<>(devices.size());
+            for (Device device : devices) {
+                deviceIds.add(device.getId());
+            }
+            Map<Long, Consumption> latest = latestReadingIndex.getLatest(deviceIds);
+            List<DeviceLatestReading> readings = new ArrayList<>(devices.size());
+            for (Device device : devices) {
+                readings.add(new DeviceLatestReading(device, latest.get(device.getId())));
+            }
+            return Response.ok(readings).build();
+        });
+    }
+
+    /**
+     * Recalcula o consumo médio de todos os dispositivos a partir do histórico de consumo, em segundo plano,
+     * corrigindo desvios da média mantida em memória. O andamento aparece em GET /stats/deviceAverages.
+     *
+     * Endpoint: POST /devices/averages/recompute
+     *
+     * @return 202 caso o recálculo tenha sido iniciado, 409 caso já exista um em andamento ou 404 caso o
+     *         rastreamento do consumo médio esteja desativado.
+     */
+    @POST
+    @Path("/averages/recompute")
+    public Response recomputeAverages() {
+        if (deviceAverageTracker == null) {
             return Response.status(Response.Status.NOT_FOUND)
-                    .entity("No devices found for residence ID: " + residenceId)
+                    .entity("Device average tracking is disabled")
                     .build();
         }
+        if (!deviceAverageTracker.recomputeAsync()) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("Device average recompute already running")
+                    .build();
+        }
+        return Response.status(Response.Status.ACCEPTED)
+                .entity("Device average recompute started")
+                .build();
     }
 
     /**
@@ -106,7 +203,8 @@ public class DeviceController {
     }
 
     /**
-     * Atualiza um dispositivo existente pelo ID.
+     * Atualiza um dispositivo existente pelo ID. Com ecosmart.deviceAverage.enabled, o averageConsumption enviado
+     * é gravado, mas volta a ser a média mantida em memória na próxima gravação periódica.
      *
      * @param id           ID do dispositivo a ser atualizado.
      * @param updatedDevice Objeto Device com os novos dados do dispositivo.
@@ -115,15 +213,16 @@ public class DeviceController {
     @PUT
     @Path("/{id}")
     public Response updateDevice(@PathParam("id") Long id, Device updatedDevice) {
-        Device existingDevice = deviceDAO.getDeviceById(id);
-        if (existingDevice == null) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Device not found for ID: " + id)
-                    .build();
-        }
         try {
             updatedDevice.setId(id);
-            deviceDAO.updateDevice(updatedDevice);
+            if (!deviceDAO.updateDevice(updatedDevice)) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Device not found for ID: " + id)
+                        .build();
+            }
+            if (deviceAverageTracker != null) {
+                deviceAverageTracker.markForFlush(id);
+            }
             return Response.ok("Device updated successfully!").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -141,14 +240,12 @@ public class DeviceController {
     @DELETE
     @Path("/{id}")
     public Response deleteDevice(@PathParam("id") Long id) {
-        Device existingDevice = deviceDAO.getDeviceById(id);
-        if (existingDevice == null) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Device not found for ID: " + id)
-                    .build();
-        }
         try {
-            deviceDAO.deleteDevice(id);
+            if (!deviceDAO.deleteDevice(id)) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Device not found for ID: " + id)
+                        .build();
+            }
             return Response.ok("Device deleted successfully!").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -156,4 +253,8 @@ public class DeviceController {
                     .build();
         }
     }
+
+    private Device withCurrentAverage(Device device) {
+        return deviceAverageTracker != null ? deviceAverageTracker.withCurrentAverage(device) : device;
+    }
 }
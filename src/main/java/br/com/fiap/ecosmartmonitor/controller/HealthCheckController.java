@@ -1,9 +1,8 @@
 package br.com.fiap.ecosmartmonitor.controller;
 
-import java.sql.Connection;
-import java.sql.SQLException;
-
-import br.com.fiap.ecosmartmonitor.util.ConnectionDB;
+import br.com.fiap.ecosmartmonitor.model.ReadinessReport;
+import br.com.fiap.ecosmartmonitor.service.ReadinessCheck;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.GET;
 import jakarta.ws.rs.Path;
 import jakarta.ws.rs.Produces;
@@ -22,6 +21,7 @@ import jakarta.ws.rs.core.Response;
  *     Guilherme Barreto Santos (RM: 97674),
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
+@Singleton
 @Path("/")
 @Produces(MediaType.APPLICATION_JSON)
 public class HealthCheckController {
@@ -41,30 +41,24 @@ public class HealthCheckController {
     }
 
     /**
-     * Health Check Completo: Verifica o status do servidor e a conexão com o banco de dados.
+     * Health Check Completo (readiness): Verifica o banco de dados com uma conexão do pool e informa a ocupação
+     * do pool, a fila de ingestão e o tempo desde a última operação bem-sucedida no banco.
+     * A validação da conexão é reaproveitada por ecosmart.health.cacheMillis, então verificações frequentes
+     * não geram novas sessões nem consultas no banco.
      * 
      * Endpoint: GET /fullhealthcheck
      * 
-     * @return Response com o status do servidor e do banco de dados no formato JSON.
-     *         Exemplo em caso de sucesso: {"status":"UP","database":"CONNECTED"}
-     *         Exemplo em caso de falha: {"status":"DOWN","database":"DISCONNECTED"}
-     *         Exemplo em caso de erro: {"status":"DOWN","database":"ERROR","message":"<mensagem de erro>"}
+     * @return Response com o ReadinessReport no formato JSON, com status 200 quando UP e 503 quando DOWN.
+     *         Exemplo em caso de sucesso: {"status":"UP","database":"CONNECTED","poolActive":2,"poolMax":10,...}
+     *         Exemplo em caso de erro: {"status":"DOWN","database":"ERROR","message":"<mensagem de erro>",...}
      */
     @GET
     @Path("fullhealthcheck")
     public Response fullHealthCheck() {
-        try (Connection connection = ConnectionDB.getInstance().getConnection()) {
-            if (connection != null && !connection.isClosed()) {
-                return Response.ok("{\"status\":\"UP\",\"database\":\"CONNECTED\"}").build();
-            } else {
-                return Response.status(Response.Status.SERVICE_UNAVAILABLE)
-                        .entity("{\"status\":\"DOWN\",\"database\":\"DISCONNECTED\"}")
-                        .build();
-            }
-        } catch (SQLException e) {
-            return Response.status(Response.Status.SERVICE_UNAVAILABLE)
-                    .entity("{\"status\":\"DOWN\",\"database\":\"ERROR\",\"message\":\"" + e.getMessage() + "\"}")
-                    .build();
+        ReadinessReport report = ReadinessCheck.check();
+        if (ReadinessReport.UP.equals(report.getStatus())) {
+            return Response.ok(report).build();
         }
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE).entity(report).build();
     }
 }
@@ -0,0 +1,198 @@
+package br.com.fiap.ecosmartmonitor.controller;
+
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionAnomalyDetector;
+import br.com.fiap.ecosmartmonitor.dao.DeviceAverageTracker;
+import br.com.fiap.ecosmartmonitor.dao.LatestReadingIndex;
+import br.com.fiap.ecosmartmonitor.dao.MetadataCache;
+import br.com.fiap.ecosmartmonitor.dao.RecentReadingsStore;
+import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import br.com.fiap.ecosmartmonitor.metrics.MetricsRegistry;
+import br.com.fiap.ecosmartmonitor.metrics.PrometheusWriter;
+import br.com.fiap.ecosmartmonitor.service.ConsumptionIngestQueue;
+import br.com.fiap.ecosmartmonitor.service.DatabaseExecutor;
+import br.com.fiap.ecosmartmonitor.service.IngestQueueStats;
+import br.com.fiap.ecosmartmonitor.service.IngestSpool;
+import br.com.fiap.ecosmartmonitor.service.IngestSpoolStats;
+import br.com.fiap.ecosmartmonitor.util.AnomalyDetectorStats;
+import br.com.fiap.ecosmartmonitor.util.CacheStats;
+import br.com.fiap.ecosmartmonitor.util.DeviceAverageStats;
+import br.com.fiap.ecosmartmonitor.util.PoolStats;
+import br.com.fiap.ecosmartmonitor.util.RecentReadingsStats;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Controlador responsável por expor as métricas da aplicação no formato texto do Prometheus.
+ * Inclui requisições HTTP e chamadas de DAO (contagens, erros e latências) e os valores de /stats
+ * (pool de conexões, fila de ingestão, executor de consultas assíncronas, caches, índice de leituras mais recentes
+ * e janela de leituras recentes).
+ *
+ * Base URL: /metrics
+ *
+ * @produces text/plain; version=0.0.4 - Formato de exposição do Prometheus.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@Singleton
+@Path("/metrics")
+public class MetricsController {
+
+    /**
+     * Métricas no formato do Prometheus.
+     *
+     * Endpoint: GET /metrics
+     *
+     * @return Response com as métricas em texto, ou 404 caso as métricas estejam desativadas.
+     */
+    @GET
+    @Produces(PrometheusWriter.CONTENT_TYPE)
+    public Response getMetrics() {
+        if (!MetricsRegistry.isEnabled()) {
+            return Response.status(Response.Status.NOT_FOUND).entity("Metrics are disabled").build();
+        }
+        PrometheusWriter writer = new PrometheusWriter();
+        MetricsRegistry.writeTo(writer);
+        writePool(writer, DAOFactory.getConnectionPool().getStats());
+        if (ConsumptionIngestQueue.isEnabled()) {
+            writeIngest(writer, ConsumptionIngestQueue.getInstance().getStats());
+        }
+        if (IngestSpool.isEnabled()) {
+            writeSpool(writer, IngestSpool.getInstance().getStats());
+        }
+        if (DatabaseExecutor.isEnabled()) {
+            writeExecutor(writer, DatabaseExecutor.getInstance());
+        }
+        writeCaches(writer);
+        writeLatestIndex(writer, DAOFactory.getLatestReadingIndex());
+        RecentReadingsStore hotWindow = DAOFactory.getRecentReadingsStore();
+        if (hotWindow != null) {
+            writeHotWindow(writer, hotWindow.getStats());
+        }
+        ConsumptionAnomalyDetector anomalyDetector = DAOFactory.getAnomalyDetector();
+        if (anomalyDetector != null) {
+            writeAnomalies(writer, anomalyDetector.getStats());
+        }
+        DeviceAverageTracker deviceAverageTracker = DAOFactory.getDeviceAverageTracker();
+        if (deviceAverageTracker != null) {
+            writeDeviceAverages(writer, deviceAverageTracker.getStats());
+        }
+        return Response.ok(writer.toString()).build();
+    }
+
+    private static void writePool(PrometheusWriter writer, PoolStats stats) {
+        writer.single("ecosmart_pool_max_connections", "gauge", "Maximum pool size", stats.getMaxSize());
+        writer.help("ecosmart_pool_connections", "gauge", "Open pool connections by state");
+        writer.sample("ecosmart_pool_connections", stats.getActiveConnections(), "state", "active");
+        writer.sample("ecosmart_pool_connections", stats.getIdleConnections(), "state", "idle");
+        writer.single("ecosmart_pool_waiters", "gauge", "Threads waiting for a connection", stats.getWaiters());
+        writer.single("ecosmart_pool_borrows_total", "counter", "Connections borrowed", stats.getBorrowCount());
+        writer.single("ecosmart_pool_timeouts_total", "counter", "Borrows that timed out", stats.getTimeoutCount());
+        writer.single("ecosmart_pool_rejections_total", "counter", "Borrows refused by the waiter limit",
+                stats.getRejectedCount());
+        writer.single("ecosmart_pool_acquire_max_seconds", "gauge", "Slowest connection borrow",
+                stats.getMaxAcquireMicros() / 1e6);
+        writer.help("ecosmart_pool_statement_cache_total", "counter", "Prepared statement cache lookups by result");
+        writer.sample("ecosmart_pool_statement_cache_total", stats.getStatementCacheHits(), "result", "hit");
+        writer.sample("ecosmart_pool_statement_cache_total", stats.getStatementCacheMisses(), "result", "miss");
+    }
+
+    private static void writeIngest(PrometheusWriter writer, IngestQueueStats stats) {
+        writer.single("ecosmart_ingest_queue_depth", "gauge", "Readings waiting to be written", stats.getDepth());
+        writer.single("ecosmart_ingest_queue_capacity", "gauge", "Ingest queue capacity", stats.getCapacity());
+        writer.help("ecosmart_ingest_readings_total", "counter", "Ingest queue readings by outcome");
+        writer.sample("ecosmart_ingest_readings_total", stats.getEnqueued(), "outcome", "enqueued");
+        writer.sample("ecosmart_ingest_readings_total", stats.getRejected(), "outcome", "rejected");
+        writer.sample("ecosmart_ingest_readings_total", stats.getFlushed(), "outcome", "flushed");
+        writer.sample("ecosmart_ingest_readings_total", stats.getDropped(), "outcome", "dropped");
+        writer.single("ecosmart_ingest_retries_total", "counter", "Ingest batches retried while the database was down",
+                stats.getRetries());
+    }
+
+    private static void writeSpool(PrometheusWriter writer, IngestSpoolStats stats) {
+        writer.single("ecosmart_spool_pending", "gauge", "Spooled readings not yet written", stats.getPending());
+        writer.single("ecosmart_spool_segments", "gauge", "Spool segment files on disk", stats.getSegments());
+        writer.single("ecosmart_spool_disk_bytes", "gauge", "Disk used by spool segments", stats.getDiskBytes());
+        writer.help("ecosmart_spool_readings_total", "counter", "Ingest spool readings by outcome");
+        writer.sample("ecosmart_spool_readings_total", stats.getAppended(), "outcome", "appended");
+        writer.sample("ecosmart_spool_readings_total", stats.getRejected(), "outcome", "rejected");
+        writer.sample("ecosmart_spool_readings_total", stats.getReplayed(), "outcome", "replayed");
+        writer.sample("ecosmart_spool_readings_total", stats.getRefused(), "outcome", "refused");
+        writer.single("ecosmart_spool_replay_failures_total", "counter", "Spool batches retried after a write error",
+                stats.getReplayFailures());
+    }
+
+    private static void writeExecutor(PrometheusWriter writer, DatabaseExecutor executor) {
+        writer.single("ecosmart_db_executor_threads", "gauge", "Async query executor threads", executor.getThreads());
+        writer.single("ecosmart_db_executor_active", "gauge", "Async queries running", executor.getActiveCount());
+        writer.single("ecosmart_db_executor_queue_depth", "gauge", "Async queries waiting for a thread",
+                executor.getQueueDepth());
+        writer.help("ecosmart_db_executor_unavailable_total", "counter", "Async queries answered with 503 by reason");
+        writer.sample("ecosmart_db_executor_unavailable_total", executor.getRejectedCount(), "reason", "queue_full");
+        writer.sample("ecosmart_db_executor_unavailable_total", executor.getTimeoutCount(), "reason", "timeout");
+    }
+
+    private static void writeLatestIndex(PrometheusWriter writer, LatestReadingIndex index) {
+        writer.single("ecosmart_latest_index_devices", "gauge", "Devices with a known latest reading", index.getSize());
+        writer.single("ecosmart_latest_index_seeds_total", "counter", "Full latest-reading queries",
+                index.getSeedCount());
+        writer.single("ecosmart_latest_index_reloads_total", "counter", "Single-device reloads after update or delete",
+                index.getReloadCount());
+    }
+
+    private static void writeHotWindow(PrometheusWriter writer, RecentReadingsStats stats) {
+        writer.single("ecosmart_hot_window_devices", "gauge", "Devices with an in-memory readings buffer",
+                stats.getDevices());
+        writer.single("ecosmart_hot_window_readings", "gauge", "Readings held in memory", stats.getReadings());
+        writer.single("ecosmart_hot_window_bytes", "gauge", "Estimated memory of the readings buffers",
+                stats.getEstimatedBytes());
+        writer.single("ecosmart_hot_window_evictions_total", "counter", "Readings dropped before leaving the window",
+                stats.getEvictions());
+        writer.help("ecosmart_hot_window_queries_total", "counter", "Recent readings queries by result");
+        writer.sample("ecosmart_hot_window_queries_total", stats.getHits(), "result", "hit");
+        writer.sample("ecosmart_hot_window_queries_total", stats.getMisses(), "result", "miss");
+    }
+
+    private static void writeAnomalies(PrometheusWriter writer, AnomalyDetectorStats stats) {
+        writer.single("ecosmart_anomaly_devices", "gauge", "Devices with an anomaly baseline", stats.getDevices());
+        writer.single("ecosmart_anomaly_readings_total", "counter", "Readings checked for anomalies",
+                stats.getReadings());
+        writer.single("ecosmart_anomaly_detect_avg_seconds", "gauge", "Average anomaly check time per reading",
+                stats.getAverageDetectNanos() / 1e9);
+        writer.help("ecosmart_anomaly_events_total", "counter", "Anomalous readings by outcome");
+        writer.sample("ecosmart_anomaly_events_total", stats.getNotifications(), "outcome", "notified");
+        writer.sample("ecosmart_anomaly_events_total", stats.getSuppressed(), "outcome", "suppressed");
+        writer.sample("ecosmart_anomaly_events_total", stats.getDropped(), "outcome", "dropped");
+    }
+
+    private static void writeDeviceAverages(PrometheusWriter writer, DeviceAverageStats stats) {
+        writer.single("ecosmart_device_average_devices", "gauge", "Devices with a running consumption average",
+                stats.getDevices());
+        writer.single("ecosmart_device_average_pending", "gauge", "Changed device averages waiting to be saved",
+                stats.getPendingWrites());
+        writer.single("ecosmart_device_average_persisted_total", "counter", "Device averages saved",
+                stats.getPersisted());
+        writer.single("ecosmart_device_average_flush_failures_total", "counter", "Device average batches that failed",
+                stats.getFlushFailures());
+        writer.single("ecosmart_device_average_recomputes_total", "counter", "Full device average recomputes",
+                stats.getRecomputes());
+        writer.single("ecosmart_device_average_recompute_seconds", "gauge", "Duration of the last full recompute",
+                stats.getLastRecomputeMillis() / 1e3);
+    }
+
+    private static void writeCaches(PrometheusWriter writer) {
+        writer.help("ecosmart_cache_entries", "gauge", "Entries in the metadata caches");
+        for (CacheStats stats : MetadataCache.getStats()) {
+            writer.sample("ecosmart_cache_entries", stats.getSize(), "cache", stats.getName());
+        }
+        writer.help("ecosmart_cache_requests_total", "counter", "Metadata cache lookups by result");
+        for (CacheStats stats : MetadataCache.getStats()) {
+            writer.sample("ecosmart_cache_requests_total", stats.getHits(), "cache", stats.getName(), "result", "hit");
+            writer.sample("ecosmart_cache_requests_total", stats.getMisses(), "cache", stats.getName(), "result", "miss");
+        }
+    }
+}
@@ -1,11 +1,12 @@
 package br.com.fiap.ecosmartmonitor.controller;
 
-import java.sql.SQLException;
 import java.util.List;
 
 import br.com.fiap.ecosmartmonitor.dao.NotificationDAO;
 import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
 import br.com.fiap.ecosmartmonitor.model.Notification;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -30,6 +31,7 @@ import jakarta.ws.rs.core.Response;
  *     Guilherme Barreto Santos (RM: 97674),
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
+@Singleton
 @Path("/notifications")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -39,12 +41,13 @@ public class NotificationController {
 
     /**
      * Construtor da classe NotificationController.
-     * Inicializa o DAO de notificações utilizando a fábrica DAO.
+     * Recebe o DAO de notificações compartilhado, injetado pelo Jersey a partir da {@link DAOFactory}.
      *
-     * @throws SQLException caso ocorra erro na conexão com o banco de dados.
+     * @param notificationDAO DAO usado pelo controlador.
      */
-    public NotificationController() throws SQLException {
-        this.notificationDAO = DAOFactory.getNotificationDAO();
+    @Inject
+    public NotificationController(NotificationDAO notificationDAO) {
+        this.notificationDAO = notificationDAO;
     }
 
     /**
@@ -114,14 +117,12 @@ public class NotificationController {
     @PUT
     @Path("/{id}/mark-as-read")
     public Response markNotificationAsRead(@PathParam("id") Long id) {
-        Notification existingNotification = notificationDAO.getNotificationById(id);
-        if (existingNotification == null) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Notification not found for ID: " + id)
-                    .build();
-        }
         try {
-            notificationDAO.markAsRead(id);
+            if (!notificationDAO.markAsRead(id)) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Notification not found for ID: " + id)
+                        .build();
+            }
             return Response.ok("Notification marked as read successfully!").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -139,14 +140,12 @@ public class NotificationController {
     @DELETE
     @Path("/{id}")
     public Response deleteNotification(@PathParam("id") Long id) {
-        Notification existingNotification = notificationDAO.getNotificationById(id);
-        if (existingNotification == null) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Notification not found for ID: " + id)
-                    .build();
-        }
         try {
-            notificationDAO.deleteNotification(id);
+            if (!notificationDAO.deleteNotification(id)) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Notification not found for ID: " + id)
+                        .build();
+            }
             return Response.ok("Notification deleted successfully!").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -1,11 +1,12 @@
 package br.com.fiap.ecosmartmonitor.controller;
 
-import java.sql.SQLException;
 import java.util.List;
 
 import br.com.fiap.ecosmartmonitor.dao.ResidenceDAO;
 import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
 import br.com.fiap.ecosmartmonitor.model.Residence;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
 import jakarta.ws.rs.Consumes;
 import jakarta.ws.rs.DELETE;
 import jakarta.ws.rs.GET;
@@ -30,6 +31,7 @@ import jakarta.ws.rs.core.Response;
  *     Guilherme Barreto Santos (RM: 97674),
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
+@Singleton
 @Path("/residences")
 @Produces(MediaType.APPLICATION_JSON)
 @Consumes(MediaType.APPLICATION_JSON)
@@ -39,12 +41,13 @@ public class ResidenceController {
 
     /**
      * Construtor da classe ResidenceController.
-     * Inicializa o DAO de residências utilizando a fábrica DAO.
+     * Recebe o DAO de residências compartilhado, injetado pelo Jersey a partir da {@link DAOFactory}.
      *
-     * @throws SQLException caso ocorra erro na conexão com o banco de dados.
+     * @param residenceDAO DAO usado pelo controlador.
      */
-    public ResidenceController() throws SQLException {
-        this.residenceDAO = DAOFactory.getResidenceDAO();
+    @Inject
+    public ResidenceController(ResidenceDAO residenceDAO) {
+        this.residenceDAO = residenceDAO;
     }
 
     /**
@@ -115,15 +118,13 @@ public class ResidenceController {
     @PUT
     @Path("/{id}")
     public Response updateResidence(@PathParam("id") Long id, Residence updatedResidence) {
-        Residence existingResidence = residenceDAO.getResidenceById(id);
-        if (existingResidence == null) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Residence not found for ID: " + id)
-                    .build();
-        }
         try {
             updatedResidence.setId(id);
-            residenceDAO.updateResidence(updatedResidence);
+            if (!residenceDAO.updateResidence(updatedResidence)) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Residence not found for ID: " + id)
+                        .build();
+            }
             return Response.ok("Residence updated successfully!").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
@@ -141,14 +142,12 @@ public class ResidenceController {
     @DELETE
     @Path("/{id}")
     public Response deleteResidence(@PathParam("id") Long id) {
-        Residence existingResidence = residenceDAO.getResidenceById(id);
-        if (existingResidence == null) {
-            return Response.status(Response.Status.NOT_FOUND)
-                    .entity("Residence not found for ID: " + id)
-                    .build();
-        }
         try {
-            residenceDAO.deleteResidence(id);
+            if (!residenceDAO.deleteResidence(id)) {
+                return Response.status(Response.Status.NOT_FOUND)
+                        .entity("Residence not found for ID: " + id)
+                        .build();
+            }
             return Response.ok("Residence deleted successfully!").build();
         } catch (Exception e) {
             return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
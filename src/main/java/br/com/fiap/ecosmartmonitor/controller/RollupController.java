@@ -0,0 +1,104 @@
+package br.com.fiap.ecosmartmonitor.controller;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionRollupDAO;
+import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import br.com.fiap.ecosmartmonitor.model.RollupMismatch;
+import jakarta.inject.Inject;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Controlador responsável pela manutenção das tabelas de consumo pré-agregado (rollups).
+ * Proporciona endpoints para preencher os rollups a partir do histórico e verificar sua consistência.
+ *
+ * Base URL: /rollups
+ *
+ * @produces MediaType.APPLICATION_JSON - Respostas no formato JSON.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@Singleton
+@Path("/rollups")
+@Produces(MediaType.APPLICATION_JSON)
+public class RollupController {
+
+    private final ConsumptionRollupDAO rollupDAO;
+
+    /**
+     * Construtor da classe RollupController.
+     * Recebe o DAO de rollups compartilhado, injetado pelo Jersey a partir da {@link DAOFactory}.
+     *
+     * @param rollupDAO DAO usado pelo controlador.
+     */
+    @Inject
+    public RollupController(ConsumptionRollupDAO rollupDAO) {
+        this.rollupDAO = rollupDAO;
+    }
+
+    /**
+     * Reconstrói os rollups por hora e por dia a partir dos registros de consumo, em segundo plano.
+     * O andamento (dias concluídos e o último erro) aparece em GET /stats/rollups.
+     *
+     * Endpoint: POST /rollups/rebuild?from=&to=
+     *
+     * @param from Início do intervalo, em ISO-8601 ou epoch millis. Opcional (registro mais antigo).
+     * @param to   Fim do intervalo (exclusivo), em ISO-8601 ou epoch millis. Opcional (registro mais recente).
+     * @return 202 caso a reconstrução tenha sido iniciada ou 409 caso já exista uma em andamento.
+     */
+    @POST
+    @Path("/rebuild")
+    public Response rebuild(@QueryParam("from") String from, @QueryParam("to") String to) {
+        Timestamp fromTimestamp;
+        Timestamp toTimestamp;
+        try {
+            fromTimestamp = ConsumptionController.parseTimestamp("from", from);
+            toTimestamp = ConsumptionController.parseTimestamp("to", to);
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        }
+        if (!rollupDAO.rebuildAsync(fromTimestamp, toTimestamp)) {
+            return Response.status(Response.Status.CONFLICT)
+                    .entity("Consumption rollup rebuild already running")
+                    .build();
+        }
+        return Response.status(Response.Status.ACCEPTED)
+                .entity("Consumption rollup rebuild started")
+                .build();
+    }
+
+    /**
+     * Compara os rollups com a soma dos registros de consumo.
+     *
+     * Endpoint: GET /rollups/check?from=&to=
+     *
+     * @param from Início do intervalo, em ISO-8601 ou epoch millis. Opcional.
+     * @param to   Fim do intervalo (exclusivo), em ISO-8601 ou epoch millis. Opcional.
+     * @return Response com as linhas divergentes (lista vazia quando os rollups estão consistentes).
+     */
+    @GET
+    @Path("/check")
+    public Response check(@QueryParam("from") String from, @QueryParam("to") String to) {
+        try {
+            List<RollupMismatch> mismatches = rollupDAO.checkConsistency(
+                    ConsumptionController.parseTimestamp("from", from), ConsumptionController.parseTimestamp("to", to));
+            return Response.ok(mismatches).build();
+        } catch (IllegalArgumentException e) {
+            return Response.status(Response.Status.BAD_REQUEST).entity(e.getMessage()).build();
+        } catch (Exception e) {
+            return Response.status(Response.Status.INTERNAL_SERVER_ERROR)
+                    .entity("Error checking consumption rollups: " + e.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,170 @@
+package br.com.fiap.ecosmartmonitor.controller;
+
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionAnomalyDetector;
+import br.com.fiap.ecosmartmonitor.dao.DeviceAverageTracker;
+import br.com.fiap.ecosmartmonitor.dao.MetadataCache;
+import br.com.fiap.ecosmartmonitor.dao.RecentReadingsStore;
+import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import br.com.fiap.ecosmartmonitor.service.ConsumptionIngestQueue;
+import br.com.fiap.ecosmartmonitor.service.IngestSpool;
+import jakarta.inject.Singleton;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Controlador responsável por expor as métricas internas da aplicação.
+ * Proporciona endpoints somente leitura usados para dimensionamento e monitoramento.
+ *
+ * Base URL: /stats
+ *
+ * @produces MediaType.APPLICATION_JSON - Respostas no formato JSON.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@Singleton
+@Path("/stats")
+@Produces(MediaType.APPLICATION_JSON)
+public class StatsController {
+
+    /**
+     * Métricas do pool de conexões com o banco de dados.
+     *
+     * Endpoint: GET /stats/pool
+     *
+     * @return Response com conexões ativas/ociosas, threads aguardando e latência de aquisição.
+     */
+    @GET
+    @Path("/pool")
+    public Response getPoolStats() {
+        return Response.ok(DAOFactory.getConnectionPool().getStats()).build();
+    }
+
+    /**
+     * Métricas da fila de ingestão assíncrona de consumo.
+     *
+     * Endpoint: GET /stats/ingest
+     *
+     * @return Response com profundidade da fila, registros gravados/descartados e latência de gravação,
+     *         ou 404 caso a ingestão assíncrona esteja desativada.
+     */
+    @GET
+    @Path("/ingest")
+    public Response getIngestStats() {
+        if (!ConsumptionIngestQueue.isEnabled()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Asynchronous ingest is disabled")
+                    .build();
+        }
+        return Response.ok(ConsumptionIngestQueue.getInstance().getStats()).build();
+    }
+
+    /**
+     * Métricas do spool de ingestão em disco.
+     *
+     * Endpoint: GET /stats/spool
+     *
+     * @return Response com segmentos, registros pendentes e registros gravados/recusados,
+     *         ou 404 caso a ingestão pelo spool esteja desativada.
+     */
+    @GET
+    @Path("/spool")
+    public Response getSpoolStats() {
+        if (!IngestSpool.isEnabled()) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Ingest spool is disabled")
+                    .build();
+        }
+        return Response.ok(IngestSpool.getInstance().getStats()).build();
+    }
+
+    /**
+     * Métricas dos caches de clientes, residências e dispositivos.
+     *
+     * Endpoint: GET /stats/cache
+     *
+     * @return Response com tamanho, acertos, faltas e descartes de cada cache.
+     */
+    @GET
+    @Path("/cache")
+    public Response getCacheStats() {
+        return Response.ok(MetadataCache.getStats()).build();
+    }
+
+    /**
+     * Métricas da janela de leituras recentes mantida em memória.
+     *
+     * Endpoint: GET /stats/hotWindow
+     *
+     * @return Response com leituras e dispositivos em memória, memória estimada e consultas respondidas/repassadas,
+     *         ou 404 caso a janela esteja desativada.
+     */
+    @GET
+    @Path("/hotWindow")
+    public Response getHotWindowStats() {
+        RecentReadingsStore store = DAOFactory.getRecentReadingsStore();
+        if (store == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Recent readings window is disabled")
+                    .build();
+        }
+        return Response.ok(store.getStats()).build();
+    }
+
+    /**
+     * Métricas do detector de consumo anormal.
+     *
+     * Endpoint: GET /stats/anomaly
+     *
+     * @return Response com leituras avaliadas, tempo de avaliação, anomalias e notificações,
+     *         ou 404 caso a detecção esteja desativada.
+     */
+    @GET
+    @Path("/anomaly")
+    public Response getAnomalyStats() {
+        ConsumptionAnomalyDetector detector = DAOFactory.getAnomalyDetector();
+        if (detector == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Anomaly detection is disabled")
+                    .build();
+        }
+        return Response.ok(detector.getStats()).build();
+    }
+
+    /**
+     * Métricas do rastreador do consumo médio dos dispositivos.
+     *
+     * Endpoint: GET /stats/deviceAverages
+     *
+     * @return Response com dispositivos em memória, médias aguardando gravação e o último recálculo,
+     *         ou 404 caso o rastreamento esteja desativado.
+     */
+    @GET
+    @Path("/deviceAverages")
+    public Response getDeviceAverageStats() {
+        DeviceAverageTracker tracker = DAOFactory.getDeviceAverageTracker();
+        if (tracker == null) {
+            return Response.status(Response.Status.NOT_FOUND)
+                    .entity("Device average tracking is disabled")
+                    .build();
+        }
+        return Response.ok(tracker.getStats()).build();
+    }
+
+    /**
+     * Andamento da reconstrução dos rollups de consumo.
+     *
+     * Endpoint: GET /stats/rollups
+     *
+     * @return Response com o intervalo, os dias concluídos e o resultado da última reconstrução.
+     */
+    @GET
+    @Path("/rollups")
+    public Response getRollupStats() {
+        return Response.ok(DAOFactory.getConsumptionRollupDAO().getRebuildStats()).build();
+    }
+}
@@ -0,0 +1,69 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import br.com.fiap.ecosmartmonitor.model.Client;
+
+/**
+ * Decorador de ClientDAO que responde getClientById(id) a partir de {@link MetadataCache}.
+ * Alterações e exclusões feitas por este DAO invalidam a entrada correspondente
+ * e, como a exclusão pode remover residências e dispositivos em cascata, também esvazia esses caches.
+ * As demais consultas são repassadas diretamente ao DAO original.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class CachingClientDAO implements ClientDAO {
+    private final ClientDAO delegate;
+
+    /**
+     * Construtor da classe CachingClientDAO.
+     *
+     * @param delegate DAO que acessa o banco de dados.
+     */
+    public CachingClientDAO(ClientDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void createClient(Client client) {
+        delegate.createClient(client);
+    }
+
+    @Override
+    public Client getClientById(Long id) {
+        return MetadataCache.CLIENTS.getOrLoad(id, delegate::getClientById);
+    }
+
+    @Override
+    public boolean updateClient(Client client) {
+        try {
+            return delegate.updateClient(client);
+        } finally {
+            MetadataCache.CLIENTS.invalidate(client.getId());
+        }
+    }
+
+    @Override
+    public boolean deleteClient(Long id) {
+        try {
+            return delegate.deleteClient(id);
+        } finally {
+            MetadataCache.CLIENTS.invalidate(id);
+            MetadataCache.RESIDENCES.invalidateAll();
+            MetadataCache.DEVICES.invalidateAll();
+        }
+    }
+
+    @Override
+    public List<Client> getAllClients() {
+        return delegate.getAllClients();
+    }
+
+    @Override
+    public void forEachClient(Consumer<Client> action) {
+        delegate.forEachClient(action);
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.util.List;
+import java.util.Map;
+
+import br.com.fiap.ecosmartmonitor.model.Device;
+
+/**
+ * Decorador de DeviceDAO que responde getDeviceById(id) a partir de {@link MetadataCache}.
+ * Alterações (inclusive do consumo médio em lote) e exclusões feitas por este DAO invalidam a entrada
+ * correspondente.
+ * As demais consultas são repassadas diretamente ao DAO original.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class CachingDeviceDAO implements DeviceDAO {
+    private final DeviceDAO delegate;
+
+    /**
+     * Construtor da classe CachingDeviceDAO.
+     *
+     * @param delegate DAO que acessa o banco de dados.
+     */
+    public CachingDeviceDAO(DeviceDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void createDevice(Device device) {
+        delegate.createDevice(device);
+    }
+
+    @Override
+    public Device getDeviceById(Long id) {
+        return MetadataCache.DEVICES.getOrLoad(id, delegate::getDeviceById);
+    }
+
+    @Override
+    public boolean updateDevice(Device device) {
+        try {
+            return delegate.updateDevice(device);
+        } finally {
+            MetadataCache.DEVICES.invalidate(device.getId());
+        }
+    }
+
+    @Override
+    public boolean deleteDevice(Long id) {
+        try {
+            return delegate.deleteDevice(id);
+        } finally {
+            MetadataCache.DEVICES.invalidate(id);
+        }
+    }
+
+    @Override
+    public List<Device> getAllDevices() {
+        return delegate.getAllDevices();
+    }
+
+    @Override
+    public List<Device> getDevicesByResidenceId(Long residenceId) {
+        return delegate.getDevicesByResidenceId(residenceId);
+    }
+
+    @Override
+    public List<Device> getDevicesByClientId(Long clientId) {
+        return delegate.getDevicesByClientId(clientId);
+    }
+
+    @Override
+    public int updateAverageConsumptions(Map<Long, Double> averages) {
+        try {
+            return delegate.updateAverageConsumptions(averages);
+        } finally {
+            for (Long id : averages.keySet()) {
+                MetadataCache.DEVICES.invalidate(id);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.util.List;
+
+import br.com.fiap.ecosmartmonitor.model.Residence;
+
+/**
+ * Decorador de ResidenceDAO que responde getResidenceById(id) a partir de {@link MetadataCache}.
+ * Alterações e exclusões feitas por este DAO invalidam a entrada correspondente
+ * e, como a exclusão pode remover dispositivos em cascata, também esvazia o cache de dispositivos.
+ * As demais consultas são repassadas diretamente ao DAO original.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class CachingResidenceDAO implements ResidenceDAO {
+    private final ResidenceDAO delegate;
+
+    /**
+     * Construtor da classe CachingResidenceDAO.
+     *
+     * @param delegate DAO que acessa o banco de dados.
+     */
+    public CachingResidenceDAO(ResidenceDAO delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public void createResidence(Residence residence) {
+        delegate.createResidence(residence);
+    }
+
+    @Override
+    public Residence getResidenceById(Long id) {
+        return MetadataCache.RESIDENCES.getOrLoad(id, delegate::getResidenceById);
+    }
+
+    @Override
+    public boolean updateResidence(Residence residence) {
+        try {
+            return delegate.updateResidence(residence);
+        } finally {
+            MetadataCache.RESIDENCES.invalidate(residence.getId());
+        }
+    }
+
+    @Override
+    public boolean deleteResidence(Long id) {
+        try {
+            return delegate.deleteResidence(id);
+        } finally {
+            MetadataCache.RESIDENCES.invalidate(id);
+            MetadataCache.DEVICES.invalidateAll();
+        }
+    }
+
+    @Override
+    public List<Residence> getAllResidences() {
+        return delegate.getAllResidences();
+    }
+
+    @Override
+    public List<Residence> getResidencesByClientId(Long clientId) {
+        return delegate.getResidencesByClientId(clientId);
+    }
+}
@@ -1,6 +1,8 @@
 package br.com.fiap.ecosmartmonitor.dao;
 
 import java.util.List;
+import java.util.function.Consumer;
+
 import br.com.fiap.ecosmartmonitor.model.Client;
 
 /**
@@ -32,15 +34,17 @@ public interface ClientDAO {
      * Atualiza os dados de um cliente existente.
      *
      * @param client Objeto Client contendo os dados atualizados do cliente.
+     * @return true caso o registro exista e tenha sido atualizado, false caso contrário.
      */
-    void updateClient(Client client);
+    boolean updateClient(Client client);
 
     /**
      * Deleta um cliente pelo seu ID.
      *
      * @param id ID do cliente a ser deletado.
+     * @return true caso o registro exista e tenha sido excluído, false caso contrário.
      */
-    void deleteClient(Long id);
+    boolean deleteClient(Long id);
 
     /**
      * Lista todos os clientes cadastrados no banco de dados.
@@ -48,4 +52,12 @@ public interface ClientDAO {
      * @return Lista de objetos Client contendo todos os clientes.
      */
     List<Client> getAllClients();
+
+    /**
+     * Percorre todos os clientes cadastrados, entregando um por vez à ação informada conforme
+     * são lidos do banco, sem carregar a lista inteira em memória.
+     *
+     * @param action Ação executada para cada cliente.
+     */
+    void forEachClient(Consumer<Client> action);
 }
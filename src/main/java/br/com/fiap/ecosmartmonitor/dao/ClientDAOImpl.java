@@ -2,13 +2,14 @@ package br.com.fiap.ecosmartmonitor.dao;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 import br.com.fiap.ecosmartmonitor.exception.ClientException;
 import br.com.fiap.ecosmartmonitor.model.Client;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.ConnectionSource;
 
 /**
  * Implementação da interface ClientDAO para acesso ao banco de dados.
@@ -19,33 +20,37 @@ import br.com.fiap.ecosmartmonitor.model.Client;
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
 public class ClientDAOImpl implements ClientDAO {
-    private Connection connection;
+    private static final int FETCH_SIZE = AppConfig.getInt("ecosmart.jdbc.fetchSize", 500);
+
+    private final ConnectionSource connectionSource;
 
     /**
      * Construtor da classe ClientDAOImpl.
      *
-     * @param connection Conexão com o banco de dados.
+     * @param connectionSource Origem das conexões com o banco de dados (normalmente o pool de conexões).
      */
-    public ClientDAOImpl(Connection connection) {
-        this.connection = connection;
+    public ClientDAOImpl(ConnectionSource connectionSource) {
+        this.connectionSource = connectionSource;
     }
 
     /**
      * Insere um novo cliente no banco de dados.
      *
      * @param client Objeto Client contendo os dados do cliente a ser inserido.
+     * @throws ClientException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
     public void createClient(Client client) {
         String sql = "INSERT INTO Client (name, email, phone, address) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, client.getName());
             stmt.setString(2, client.getEmail());
             stmt.setString(3, client.getPhone());
             stmt.setString(4, client.getAddress());
             stmt.executeUpdate();
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ClientException("Error creating client", e);
         }
     }
 
@@ -58,43 +63,34 @@ public class ClientDAOImpl implements ClientDAO {
      */
     @Override
     public Client getClientById(Long id) {
-        String sql = "SELECT * FROM Client WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Client(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("phone"),
-                        rs.getString("address"), null
-                );
-            }
+        String sql = "SELECT " + RowMappers.CLIENT_COLUMNS + " FROM Client WHERE id = ?";
+        try {
+            return JdbcQueries.queryForObject(connectionSource, sql, stmt -> stmt.setLong(1, id), RowMappers.CLIENT);
         } catch (SQLException e) {
-            e.printStackTrace();
             throw new ClientException("Error retrieving client with ID: " + id, e);
         }
-        return null;
     }
 
     /**
      * Atualiza os dados de um cliente existente no banco de dados.
      *
      * @param client Objeto Client contendo os dados atualizados do cliente.
+     * @return true caso o registro exista e tenha sido atualizado, false caso nenhum registro tenha o ID informado.
+     * @throws ClientException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void updateClient(Client client) {
+    public boolean updateClient(Client client) {
         String sql = "UPDATE Client SET name = ?, email = ?, phone = ?, address = ? WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, client.getName());
             stmt.setString(2, client.getEmail());
             stmt.setString(3, client.getPhone());
             stmt.setString(4, client.getAddress());
             stmt.setLong(5, client.getId());
-            stmt.executeUpdate();
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ClientException("Error updating client with ID: " + client.getId(), e);
         }
     }
 
@@ -102,15 +98,18 @@ public class ClientDAOImpl implements ClientDAO {
      * Deleta um cliente pelo ID.
      *
      * @param id ID do cliente a ser deletado.
+     * @return true caso o registro exista e tenha sido excluído, false caso nenhum registro tenha o ID informado.
+     * @throws ClientException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void deleteClient(Long id) {
+    public boolean deleteClient(Long id) {
         String sql = "DELETE FROM Client WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, id);
-            stmt.executeUpdate();
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ClientException("Error deleting client with ID: " + id, e);
         }
     }
 
@@ -118,25 +117,31 @@ public class ClientDAOImpl implements ClientDAO {
      * Lista todos os clientes cadastrados no banco de dados.
      *
      * @return Lista de objetos Client contendo todos os clientes.
+     * @throws ClientException Caso ocorra erro ao acessar o banco de dados.
      */
     @Override
     public List<Client> getAllClients() {
-        String sql = "SELECT * FROM Client";
-        List<Client> clients = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                clients.add(new Client(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("email"),
-                        rs.getString("phone"),
-                        rs.getString("address"), null
-                ));
-            }
+        String sql = "SELECT " + RowMappers.CLIENT_COLUMNS + " FROM Client";
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, StatementBinder.NONE, RowMappers.CLIENT);
+        } catch (SQLException e) {
+            throw new ClientException("Error retrieving clients", e);
+        }
+    }
+
+    /**
+     * Percorre todos os clientes cadastrados, lendo do banco em blocos de ecosmart.jdbc.fetchSize linhas.
+     *
+     * @param action Ação executada para cada cliente.
+     * @throws ClientException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public void forEachClient(Consumer<Client> action) {
+        String sql = "SELECT " + RowMappers.CLIENT_COLUMNS + " FROM Client";
+        try {
+            JdbcQueries.forEach(connectionSource, sql, StatementBinder.NONE, RowMappers.CLIENT, FETCH_SIZE, action);
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ClientException("Error retrieving clients", e);
         }
-        return clients;
     }
 }
@@ -0,0 +1,322 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.Device;
+import br.com.fiap.ecosmartmonitor.model.Notification;
+import br.com.fiap.ecosmartmonitor.model.Residence;
+import br.com.fiap.ecosmartmonitor.util.AnomalyDetectorStats;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.ConcurrentLongMap;
+
+/**
+ * Detector de consumo anormal no caminho de ingestão, registrado como {@link ConsumptionWriteListener}.
+ * Cada leitura inserida é comparada à linha de base do seu dispositivo, formada por:
+ * <ul>
+ *   <li>a média móvel exponencial (EWMA) e a variância das leituras, atualizadas a cada leitura com peso
+ *       ecosmart.anomaly.alpha; depois de ecosmart.anomaly.minSamples leituras, uma leitura a mais de
+ *       ecosmart.anomaly.zThreshold desvios da média é anormal;</li>
+ *   <li>o consumo médio do dispositivo (Device.averageConsumption, ou o valor mantido pelo
+ *       {@link DeviceAverageTracker} quando ativado); uma leitura acima de ecosmart.anomaly.ratioThreshold vezes
+ *       essa média é anormal.</li>
+ * </ul>
+ * Uma leitura anormal gera uma {@link Notification} para o cliente dono da residência do dispositivo, no máximo uma
+ * por dispositivo a cada ecosmart.anomaly.cooldownSeconds. Leituras com mais de ecosmart.anomaly.maxLagSeconds de
+ * atraso (cargas de histórico) atualizam a linha de base sem gerar notificações.
+ *
+ * A avaliação roda na thread da gravação e não acessa o banco nem aloca memória além do estado do dispositivo na
+ * primeira leitura: as linhas de base ficam em um {@link ConcurrentLongMap}, consultado sem converter o ID em Long
+ * (verificável com -prof gc no AnomalyDetectorBenchmark). O cadastro do dispositivo e da residência é carregado e
+ * as notificações são gravadas por uma thread própria, com fila limitada: notificações que não cabem na fila são
+ * descartadas e contadas.
+ *
+ * Ativado com ecosmart.anomaly.enabled. O estado fica em memória e recomeça quando a aplicação é reiniciada.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ConsumptionAnomalyDetector implements ConsumptionWriteListener {
+    private static final Logger LOGGER = Logger.getLogger(ConsumptionAnomalyDetector.class.getName());
+
+    /** Desvio mínimo considerado, relativo à média, para que um dispositivo de consumo constante não dispare. */
+    private static final double MIN_RELATIVE_DEVIATION = 0.05;
+
+    private final DeviceDAO deviceDAO;
+    private final ResidenceDAO residenceDAO;
+    private final NotificationDAO notificationDAO;
+    private final DeviceAverageTracker averageTracker;
+    private final double alpha;
+    private final double zThreshold;
+    private final double ratioThreshold;
+    private final int minSamples;
+    private final long cooldownMillis;
+    private final long maxLagMillis;
+    private final ConcurrentLongMap<Baseline> baselines = new ConcurrentLongMap<>();
+    private final ThreadPoolExecutor notifier;
+
+    private final LongAdder readings = new LongAdder();
+    private final LongAdder detectNanos = new LongAdder();
+    private final LongAdder anomalies = new LongAdder();
+    private final LongAdder suppressed = new LongAdder();
+    private final LongAdder notifications = new LongAdder();
+    private final LongAdder notifyDelayMillis = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+
+    /**
+     * Construtor da classe ConsumptionAnomalyDetector.
+     *
+     * @param deviceDAO       DAO usado para carregar o consumo médio cadastrado e a residência do dispositivo.
+     * @param residenceDAO    DAO usado para encontrar o cliente dono da residência.
+     * @param notificationDAO DAO usado para gravar as notificações.
+     * @param averageTracker  Consumo médio mantido pelas gravações ou null para usar apenas o valor cadastrado.
+     * @param alpha           Peso de cada nova leitura na média móvel, entre 0 e 1.
+     * @param zThreshold      Desvios da média móvel a partir dos quais uma leitura é anormal.
+     * @param ratioThreshold  Múltiplo do consumo médio cadastrado a partir do qual uma leitura é anormal.
+     * @param minSamples      Leituras necessárias antes de usar a média móvel.
+     * @param cooldownMillis  Intervalo mínimo entre notificações de um mesmo dispositivo.
+     * @param maxLagMillis    Atraso máximo de uma leitura para que ela gere notificação.
+     * @param queueCapacity   Notificações aguardando gravação antes de serem descartadas.
+     */
+    public ConsumptionAnomalyDetector(DeviceDAO deviceDAO, ResidenceDAO residenceDAO, NotificationDAO notificationDAO,
+            DeviceAverageTracker averageTracker, double alpha, double zThreshold, double ratioThreshold,
+            int minSamples, long cooldownMillis, long maxLagMillis, int queueCapacity) {
+        if (alpha <= 0 || alpha > 1) {
+            throw new IllegalArgumentException("Anomaly alpha must be in (0, 1]: " + alpha);
+        }
+        this.deviceDAO = deviceDAO;
+        this.residenceDAO = residenceDAO;
+        this.notificationDAO = notificationDAO;
+        this.averageTracker = averageTracker;
+        this.alpha = alpha;
+        this.zThreshold = zThreshold;
+        this.ratioThreshold = ratioThreshold;
+        this.minSamples = minSamples;
+        this.cooldownMillis = cooldownMillis;
+        this.maxLagMillis = maxLagMillis;
+        this.notifier = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "ecosmart-anomaly-notifier");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Indica se a detecção de consumo anormal está ativada (ecosmart.anomaly.enabled, padrão false).
+     *
+     * @return true caso a detecção esteja ativada.
+     */
+    public static boolean isEnabled() {
+        return AppConfig.getBoolean("ecosmart.anomaly.enabled", false);
+    }
+
+    /**
+     * Cria o detector com ecosmart.anomaly.alpha (0.1), zThreshold (4), ratioThreshold (3), minSamples (30),
+     * cooldownSeconds (3600), maxLagSeconds (3600) e queueCapacity (1000).
+     *
+     * @param deviceDAO       DAO de dispositivos.
+     * @param residenceDAO    DAO de residências.
+     * @param notificationDAO DAO de notificações.
+     * @param averageTracker  Consumo médio mantido pelas gravações ou null.
+     * @return Detector sem linhas de base, formadas a partir das próximas leituras.
+     */
+    public static ConsumptionAnomalyDetector fromConfig(DeviceDAO deviceDAO, ResidenceDAO residenceDAO,
+            NotificationDAO notificationDAO, DeviceAverageTracker averageTracker) {
+        return new ConsumptionAnomalyDetector(deviceDAO, residenceDAO, notificationDAO, averageTracker,
+                AppConfig.getDouble("ecosmart.anomaly.alpha", 0.1),
+                AppConfig.getDouble("ecosmart.anomaly.zThreshold", 4),
+                AppConfig.getDouble("ecosmart.anomaly.ratioThreshold", 3),
+                AppConfig.getInt("ecosmart.anomaly.minSamples", 30),
+                AppConfig.getLong("ecosmart.anomaly.cooldownSeconds", 3600) * 1000,
+                AppConfig.getLong("ecosmart.anomaly.maxLagSeconds", 3600) * 1000,
+                AppConfig.getInt("ecosmart.anomaly.queueCapacity", 1000));
+    }
+
+    @Override
+    public void onCreated(List<Consumption> consumptions) {
+        long startedAt = System.nanoTime();
+        long now = System.currentTimeMillis();
+        int observed = 0;
+        for (Consumption consumption : consumptions) {
+            if (consumption.getAmount() != null && consumption.getTimeStamp() != null) {
+                observe(consumption, now);
+                observed++;
+            }
+        }
+        readings.add(observed);
+        detectNanos.add(System.nanoTime() - startedAt);
+    }
+
+    /**
+     * Correções de leituras antigas não entram na linha de base, que só acompanha as leituras novas.
+     */
+    @Override
+    public void onUpdated(Consumption consumption) {
+    }
+
+    @Override
+    public void onDeleted(Long id) {
+    }
+
+    /**
+     * Encerra a thread de notificações, descartando as que ainda não foram gravadas.
+     */
+    public void close() {
+        notifier.shutdownNow();
+    }
+
+    /**
+     * Retorna um retrato das métricas atuais do detector.
+     *
+     * @return Métricas do detector.
+     */
+    public AnomalyDetectorStats getStats() {
+        long readingCount = readings.sum();
+        long notificationCount = notifications.sum();
+        return new AnomalyDetectorStats(baselines.size(), readingCount,
+                readingCount == 0 ? 0 : (double) detectNanos.sum() / readingCount,
+                anomalies.sum(), suppressed.sum(), notificationCount,
+                notificationCount == 0 ? 0 : (double) notifyDelayMillis.sum() / notificationCount,
+                notifier.getQueue().size(), dropped.sum());
+    }
+
+    private void observe(Consumption consumption, long now) {
+        long deviceId = consumption.getDeviceId();
+        Baseline baseline = baselines.computeIfAbsent(deviceId, id -> new Baseline());
+        if (!baseline.loaded && baseline.loading.compareAndSet(false, true)) {
+            Baseline target = baseline;
+            submit(() -> load(deviceId, target));
+        }
+        double amount = consumption.getAmount();
+        double average = averageTracker != null ? averageTracker.averageOf(deviceId) : Double.NaN;
+        if (Double.isNaN(average)) {
+            average = baseline.staticAverage;
+        }
+        long readAt = consumption.getTimeStamp().getTime();
+        double expected;
+        synchronized (baseline) {
+            expected = baseline.check(amount, average, alpha, zThreshold, ratioThreshold, minSamples);
+            if (Double.isNaN(expected) || now - readAt > maxLagMillis) {
+                return;
+            }
+            anomalies.increment();
+            if (baseline.notifiedAt != 0 && now - baseline.notifiedAt < cooldownMillis) {
+                suppressed.increment();
+                return;
+            }
+            baseline.notifiedAt = now;
+        }
+        Baseline target = baseline;
+        submit(() -> sendNotification(deviceId, target, amount, readAt, expected, now));
+    }
+
+    private void submit(Runnable task) {
+        try {
+            notifier.execute(task);
+        } catch (RejectedExecutionException e) {
+            dropped.increment();
+        }
+    }
+
+    private void load(long deviceId, Baseline baseline) {
+        try {
+            Device device = deviceDAO.getDeviceById(deviceId);
+            if (device != null) {
+                Double average = device.getAverageConsumption();
+                baseline.name = device.getName();
+                baseline.staticAverage = average != null ? average : Double.NaN;
+                Residence residence = residenceDAO.getResidenceById((long) device.getResidenceId());
+                baseline.clientId = residence != null ? residence.getClientId() : 0;
+            }
+            baseline.loaded = true;
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.FINE, "Error loading device " + deviceId + " for anomaly detection; retrying later", e);
+        } finally {
+            baseline.loading.set(false);
+        }
+    }
+
+    private void sendNotification(long deviceId, Baseline baseline, double amount, long readAt, double expected,
+            long detectedAt) {
+        if (!baseline.loaded) {
+            load(deviceId, baseline);
+        }
+        if (baseline.clientId == 0) {
+            dropped.increment();
+            LOGGER.fine("No owner found for device " + deviceId + "; anomaly notification dropped");
+            return;
+        }
+        String device = baseline.name != null ? "'" + baseline.name + "' (ID " + deviceId + ")" : "ID " + deviceId;
+        String message = String.format(Locale.ROOT,
+                "Unusual consumption on device %s: %.3f kWh at %s, expected about %.3f kWh",
+                device, amount, new Timestamp(readAt), expected);
+        try {
+            notificationDAO.createNotification(new Notification(null, message,
+                    new Timestamp(System.currentTimeMillis()), "N", baseline.clientId));
+            notifications.increment();
+            notifyDelayMillis.add(System.currentTimeMillis() - detectedAt);
+        } catch (RuntimeException e) {
+            dropped.increment();
+            LOGGER.log(Level.WARNING, "Error saving anomaly notification for device " + deviceId, e);
+        }
+    }
+
+    /**
+     * Linha de base de um dispositivo. A média e a variância são alteradas sob o monitor do próprio objeto; o
+     * cadastro é preenchido pela thread de notificações e lido sem bloqueio.
+     */
+    private static final class Baseline {
+        private final AtomicBoolean loading = new AtomicBoolean();
+        private volatile boolean loaded;
+        private volatile String name;
+        private volatile int clientId;
+        private volatile double staticAverage = Double.NaN;
+
+        private long count;
+        private double mean;
+        private double variance;
+        private long notifiedAt;
+
+        /**
+         * Avalia a leitura contra a linha de base atual e o consumo médio informado e então a incorpora à média
+         * móvel.
+         *
+         * @return Valor esperado caso a leitura seja anormal ou NaN caso contrário.
+         */
+        private double check(double amount, double average, double alpha, double zThreshold, double ratioThreshold,
+                int minSamples) {
+            double deviation = amount - mean;
+            double expected = Double.NaN;
+            if (count >= minSamples) {
+                double spread = Math.max(Math.sqrt(variance), MIN_RELATIVE_DEVIATION * Math.abs(mean));
+                if (spread > 0 && Math.abs(deviation) >= zThreshold * spread) {
+                    expected = mean;
+                }
+            }
+            if (Double.isNaN(expected) && average > 0 && amount >= ratioThreshold * average) {
+                expected = average;
+            }
+            if (count == 0) {
+                mean = amount;
+            } else {
+                double increment = alpha * deviation;
+                mean += increment;
+                variance = (1 - alpha) * (variance + deviation * increment);
+            }
+            count++;
+            return expected;
+        }
+    }
+}
@@ -1,8 +1,14 @@
 package br.com.fiap.ecosmartmonitor.dao;
 
+import java.sql.Timestamp;
 import java.util.List;
+import java.util.function.Consumer;
 
+import br.com.fiap.ecosmartmonitor.model.AggregationBucket;
 import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionAggregate;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionCursor;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionPoint;
 
 /**
  * Interface para operações de acesso a dados relacionadas à entidade Consumption.
@@ -15,12 +21,22 @@ import br.com.fiap.ecosmartmonitor.model.Consumption;
 public interface ConsumptionDAO {
 
     /**
-     * Insere um novo registro de consumo no banco de dados.
+     * Insere um novo registro de consumo no banco de dados, preenchendo o ID gerado no objeto informado.
      *
      * @param consumption Objeto Consumption contendo os dados do registro de consumo a ser inserido.
      */
     void createConsumption(Consumption consumption);
 
+    /**
+     * Insere vários registros de consumo em uma única transação, enviando-os ao banco em lotes (JDBC batch).
+     * Caso qualquer lote falhe, a transação inteira é desfeita.
+     *
+     * @param consumptions Registros de consumo a serem inseridos.
+     * @return Contagem de linhas afetadas por registro, na mesma ordem da lista
+     *         (alguns drivers retornam Statement.SUCCESS_NO_INFO).
+     */
+    int[] createConsumptions(List<Consumption> consumptions);
+
     /**
      * Busca um registro de consumo pelo seu ID.
      *
@@ -33,15 +49,34 @@ public interface ConsumptionDAO {
      * Atualiza os dados de um registro de consumo existente no banco de dados.
      *
      * @param consumption Objeto Consumption contendo os dados atualizados do registro de consumo.
+     * @return true caso o registro exista e tenha sido atualizado, false caso contrário.
+     */
+    boolean updateConsumption(Consumption consumption);
+
+    /**
+     * Atualiza um registro de consumo e devolve o estado que ele tinha antes da alteração, lido na mesma transação
+     * da gravação.
+     *
+     * @param consumption Objeto Consumption contendo os dados atualizados do registro de consumo.
+     * @return Registro antes da alteração ou null caso nenhum registro tenha o ID informado.
      */
-    void updateConsumption(Consumption consumption);
+    Consumption updateConsumptionReturningPrevious(Consumption consumption);
 
     /**
      * Deleta um registro de consumo pelo seu ID.
      *
      * @param id ID do registro de consumo a ser deletado.
+     * @return true caso o registro exista e tenha sido excluído, false caso contrário.
      */
-    void deleteConsumption(Long id);
+    boolean deleteConsumption(Long id);
+
+    /**
+     * Deleta um registro de consumo pelo seu ID e devolve o registro removido, lido na mesma transação da exclusão.
+     *
+     * @param id ID do registro de consumo a ser deletado.
+     * @return Registro removido ou null caso nenhum registro tenha o ID informado.
+     */
+    Consumption deleteConsumptionReturningPrevious(Long id);
 
     /**
      * Lista todos os registros de consumo cadastrados no banco de dados.
@@ -51,18 +86,116 @@ public interface ConsumptionDAO {
     List<Consumption> getAllConsumptions();
 
     /**
-     * Lista os registros de consumo associados a um dispositivo específico.
+     * Lista uma página dos registros de consumo de um dispositivo, ordenados por (timestamp, id).
      *
      * @param deviceId ID do dispositivo para o qual os registros de consumo serão buscados.
+     * @param from     Início do intervalo (inclusivo) ou null para não limitar.
+     * @param to       Fim do intervalo (exclusivo) ou null para não limitar.
+     * @param after    Cursor do último registro já entregue ou null para a primeira página.
+     * @param limit    Quantidade máxima de registros retornados.
      * @return Lista de objetos Consumption associados ao dispositivo.
      */
-    List<Consumption> getConsumptionsByDeviceId(Long deviceId);
+    List<Consumption> getConsumptionsByDeviceId(Long deviceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit);
 
     /**
-     * Lista os registros de consumo associados a uma residência específica.
+     * Lista uma página dos registros de consumo de uma residência, ordenados por (timestamp, id).
      *
      * @param residenceId ID da residência para a qual os registros de consumo serão buscados.
+     * @param from        Início do intervalo (inclusivo) ou null para não limitar.
+     * @param to          Fim do intervalo (exclusivo) ou null para não limitar.
+     * @param after       Cursor do último registro já entregue ou null para a primeira página.
+     * @param limit       Quantidade máxima de registros retornados.
      * @return Lista de objetos Consumption associados à residência.
      */
-    List<Consumption> getConsumptionsByResidenceId(Long residenceId);
+    List<Consumption> getConsumptionsByResidenceId(Long residenceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit);
+
+    /**
+     * Percorre uma página dos registros de consumo de uma residência, ordenados por (timestamp, id),
+     * entregando cada registro à ação informada conforme é lido do banco.
+     *
+     * @param residenceId ID da residência.
+     * @param from        Início do intervalo (inclusivo) ou null para não limitar.
+     * @param to          Fim do intervalo (exclusivo) ou null para não limitar.
+     * @param after       Cursor do último registro já entregue ou null para a primeira página.
+     * @param limit       Quantidade máxima de registros percorridos.
+     * @param action      Ação executada para cada registro.
+     */
+    void forEachConsumptionByResidenceId(Long residenceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit, Consumer<Consumption> action);
+
+    /**
+     * Percorre uma página dos pontos de consumo (id, valor e data) de um dispositivo, ordenados por (timestamp, id).
+     *
+     * @param deviceId ID do dispositivo.
+     * @param from     Início do intervalo (inclusivo) ou null para não limitar.
+     * @param to       Fim do intervalo (exclusivo) ou null para não limitar.
+     * @param after    Cursor do último registro já entregue ou null para a primeira página.
+     * @param limit    Quantidade máxima de registros percorridos.
+     * @param action   Ação executada para cada ponto.
+     */
+    void forEachConsumptionPointByDeviceId(Long deviceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit, Consumer<ConsumptionPoint> action);
+
+    /**
+     * Calcula, no banco de dados, o consumo agregado (soma, média, mínimo, máximo e quantidade)
+     * de uma residência por período.
+     *
+     * @param residenceId ID da residência.
+     * @param bucket      Granularidade do período (hora, dia ou mês).
+     * @param from        Início do intervalo (inclusivo) ou null para não limitar.
+     * @param to          Fim do intervalo (exclusivo) ou null para não limitar.
+     * @param perDevice   true para agrupar também por dispositivo.
+     * @return Agregados ordenados por período (e dispositivo, quando perDevice).
+     */
+    List<ConsumptionAggregate> aggregateByResidenceId(Long residenceId, AggregationBucket bucket,
+            Timestamp from, Timestamp to, boolean perDevice);
+
+    /**
+     * Retorna o registro de consumo mais recente de um dispositivo.
+     *
+     * @param deviceId ID do dispositivo.
+     * @return Registro mais recente (maior timestamp e, no empate, maior ID) ou null caso não haja leituras.
+     */
+    Consumption getLatestConsumptionByDeviceId(Long deviceId);
+
+    /**
+     * Percorre o registro de consumo mais recente de cada dispositivo, em uma única consulta.
+     *
+     * @param action Ação executada para cada registro (um por dispositivo que possua leituras; empates no mesmo
+     *               instante podem entregar mais de um registro do dispositivo).
+     */
+    void forEachLatestConsumption(Consumer<Consumption> action);
+
+    /**
+     * Retorna o registro de consumo mais recente de cada dispositivo das residências de um cliente,
+     * em uma única consulta.
+     *
+     * @param clientId ID do cliente.
+     * @return Um registro por dispositivo que possua leituras.
+     */
+    List<Consumption> getLatestConsumptionsByClientId(Long clientId);
+
+    /**
+     * Calcula, no banco de dados, o consumo agregado de cada dispositivo das residências de um cliente
+     * no intervalo informado, em uma única consulta.
+     *
+     * @param clientId ID do cliente.
+     * @param from     Início do intervalo (inclusivo).
+     * @param to       Fim do intervalo (exclusivo) ou null para não limitar.
+     * @return Um agregado por dispositivo com leituras no intervalo (bucketStart igual a from).
+     */
+    List<ConsumptionAggregate> aggregateByClientIdPerDevice(Long clientId, Timestamp from, Timestamp to);
+
+    /**
+     * Calcula, no banco de dados, o consumo agregado de todo o histórico de cada dispositivo com ID no intervalo
+     * informado, em uma única consulta. Usado para recalcular o consumo médio dos dispositivos em partes paralelas.
+     *
+     * @param fromDeviceId Menor ID de dispositivo (inclusivo).
+     * @param toDeviceId   Maior ID de dispositivo (inclusivo).
+     * @param beforeQuery  Ação executada com a conexão já obtida, imediatamente antes de a consulta ser executada.
+     * @return Um agregado por dispositivo com leituras (bucketStart nulo), ordenado pelo ID do dispositivo.
+     */
+    List<ConsumptionAggregate> aggregateByDeviceRange(Long fromDeviceId, Long toDeviceId, Runnable beforeQuery);
 }
@@ -4,11 +4,26 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
 
 import br.com.fiap.ecosmartmonitor.exception.ConsumptionException;
+import br.com.fiap.ecosmartmonitor.model.AggregationBucket;
 import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionAggregate;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionCursor;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionPoint;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.ConnectionSource;
 
 /**
  * Implementação da interface ConsumptionDAO para acesso ao banco de dados.
@@ -19,33 +34,139 @@ import br.com.fiap.ecosmartmonitor.model.Consumption;
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
 public class ConsumptionDAOImpl implements ConsumptionDAO {
-    private Connection connection;
+    private static final Logger LOGGER = Logger.getLogger(ConsumptionDAOImpl.class.getName());
+    private static final int FETCH_SIZE = AppConfig.getInt("ecosmart.jdbc.fetchSize", 500);
+    private static final String[] GENERATED_COLUMNS = { "ID" };
+    private static final String UPDATE_SQL =
+            "UPDATE Consumption SET amount = ?, timestamp = ?, device_id = ?, residence_id = ? WHERE id = ?";
+    private static final String DELETE_SQL = "DELETE FROM Consumption WHERE id = ?";
+
+    private final ConnectionSource connectionSource;
+    private final int batchSize;
 
     /**
      * Construtor da classe ConsumptionDAOImpl.
+     * O tamanho dos lotes de inserção vem da configuração ecosmart.ingest.batchSize (padrão 500).
+     *
+     * @param connectionSource Origem das conexões com o banco de dados (normalmente o pool de conexões).
+     */
+    public ConsumptionDAOImpl(ConnectionSource connectionSource) {
+        this(connectionSource, AppConfig.getInt("ecosmart.ingest.batchSize", 500));
+    }
+
+    /**
+     * Construtor da classe ConsumptionDAOImpl com tamanho de lote explícito.
      *
-     * @param connection Conexão com o banco de dados.
+     * @param connectionSource Origem das conexões com o banco de dados (normalmente o pool de conexões).
+     * @param batchSize        Quantidade máxima de registros enviados em cada executeBatch.
      */
-    public ConsumptionDAOImpl(Connection connection) {
-        this.connection = connection;
+    public ConsumptionDAOImpl(ConnectionSource connectionSource, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Batch size must be positive: " + batchSize);
+        }
+        this.connectionSource = connectionSource;
+        this.batchSize = batchSize;
     }
 
     /**
-     * Insere um novo registro de consumo no banco de dados.
+     * Insere um novo registro de consumo no banco de dados e preenche o ID gerado no objeto informado.
+     * Com os rollups ativados, a inserção e a atualização dos rollups ocorrem na mesma transação.
      *
      * @param consumption Objeto Consumption contendo os dados do registro a ser inserido.
+     * @throws ConsumptionException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
     public void createConsumption(Consumption consumption) {
+        if (ConsumptionRollups.isEnabled()) {
+            createConsumptions(Collections.singletonList(consumption));
+            return;
+        }
         String sql = "INSERT INTO Consumption (amount, timestamp, device_id, residence_id) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql, GENERATED_COLUMNS)) {
             stmt.setDouble(1, consumption.getAmount());
             stmt.setTimestamp(2, consumption.getTimeStamp());
             stmt.setInt(3, consumption.getDeviceId());
             stmt.setInt(4, consumption.getResidenceId());
             stmt.executeUpdate();
+            assignGeneratedIds(stmt, Collections.singletonList(consumption), 0, 1);
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error creating consumption record", e);
+        }
+    }
+
+    /**
+     * Insere vários registros de consumo em uma única transação, em lotes de até batchSize registros.
+     * Com os rollups ativados, os rollups por hora e por dia são atualizados na mesma transação.
+     * Os IDs gerados são preenchidos nos objetos informados quando o driver os retorna para o lote.
+     *
+     * @param consumptions Registros de consumo a serem inseridos.
+     * @return Contagem de linhas afetadas por registro, na mesma ordem da lista.
+     * @throws ConsumptionException Caso ocorra erro ao gravar os registros; nenhum registro é gravado.
+     */
+    @Override
+    public int[] createConsumptions(List<Consumption> consumptions) {
+        String sql = "INSERT INTO Consumption (amount, timestamp, device_id, residence_id) VALUES (?, ?, ?, ?)";
+        int[] results = new int[consumptions.size()];
+        if (consumptions.isEmpty()) {
+            return results;
+        }
+        try (Connection connection = connectionSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(sql, GENERATED_COLUMNS)) {
+                int offset = 0;
+                int pending = 0;
+                for (Consumption consumption : consumptions) {
+                    stmt.setDouble(1, consumption.getAmount());
+                    stmt.setTimestamp(2, consumption.getTimeStamp());
+                    stmt.setInt(3, consumption.getDeviceId());
+                    stmt.setInt(4, consumption.getResidenceId());
+                    stmt.addBatch();
+                    if (++pending == batchSize) {
+                        offset = executeBatch(stmt, consumptions, results, offset);
+                        pending = 0;
+                    }
+                }
+                if (pending > 0) {
+                    executeBatch(stmt, consumptions, results, offset);
+                }
+                if (ConsumptionRollups.isEnabled()) {
+                    ConsumptionRollups.applyInserts(connection, consumptions);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error inserting batch of " + consumptions.size() + " consumption records", e);
+        }
+        return results;
+    }
+
+    private static int executeBatch(PreparedStatement stmt, List<Consumption> consumptions, int[] results, int offset)
+            throws SQLException {
+        int[] counts = stmt.executeBatch();
+        assignGeneratedIds(stmt, consumptions, offset, offset + counts.length);
+        System.arraycopy(counts, 0, results, offset, counts.length);
+        return offset + counts.length;
+    }
+
+    /**
+     * Copia os IDs gerados pelo banco para os registros inseridos, na ordem de inserção.
+     * Drivers que não retornam as chaves de um lote deixam os IDs como estavam; o ID não é necessário para
+     * concluir a gravação, apenas para quem a observa (ex.: {@link RecentReadingsStore}).
+     */
+    private static void assignGeneratedIds(PreparedStatement stmt, List<Consumption> consumptions, int from, int to) {
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            for (int i = from; i < to && keys.next(); i++) {
+                consumptions.get(i).setId(keys.getLong(1));
+            }
         } catch (SQLException e) {
-            e.printStackTrace();
+            LOGGER.log(Level.FINE, "Generated keys are not available for this insert", e);
         }
     }
 
@@ -58,141 +179,516 @@ public class ConsumptionDAOImpl implements ConsumptionDAO {
      */
     @Override
     public Consumption getConsumptionById(Long id) {
-        String sql = "SELECT * FROM Consumption WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Consumption(
-                        rs.getLong("id"),
-                        rs.getDouble("amount"),
-                        rs.getTimestamp("timestamp"),
-                        rs.getInt("device_id"),
-                        rs.getInt("residence_id")
-                );
-            }
+        String sql = "SELECT " + RowMappers.CONSUMPTION_COLUMNS + " FROM Consumption WHERE id = ?";
+        try {
+            return JdbcQueries.queryForObject(connectionSource, sql, stmt -> stmt.setLong(1, id), RowMappers.CONSUMPTION);
         } catch (SQLException e) {
-            e.printStackTrace();
             throw new ConsumptionException("Error retrieving consumption with ID: " + id, e);
         }
-        return null;
     }
 
     /**
      * Atualiza os dados de um registro de consumo existente no banco de dados.
+     * Com os rollups ativados, a alteração segue por {@link #updateConsumptionReturningPrevious(Consumption)}.
      *
      * @param consumption Objeto Consumption contendo os dados atualizados do registro.
+     * @return true caso o registro exista e tenha sido atualizado, false caso nenhum registro tenha o ID informado.
+     * @throws ConsumptionException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void updateConsumption(Consumption consumption) {
-        String sql = "UPDATE Consumption SET amount = ?, timestamp = ?, device_id = ?, residence_id = ? WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setDouble(1, consumption.getAmount());
-            stmt.setTimestamp(2, consumption.getTimeStamp());
-            stmt.setInt(3, consumption.getDeviceId());
-            stmt.setInt(4, consumption.getResidenceId());
-            stmt.setLong(5, consumption.getId());
-            stmt.executeUpdate();
+    public boolean updateConsumption(Consumption consumption) {
+        if (ConsumptionRollups.isEnabled()) {
+            return updateConsumptionReturningPrevious(consumption) != null;
+        }
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(UPDATE_SQL)) {
+            bindUpdate(stmt, consumption);
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ConsumptionException("Error updating consumption record with ID: " + consumption.getId(), e);
+        }
+    }
+
+    /**
+     * Atualiza um registro de consumo e devolve o estado anterior, lido e bloqueado (FOR UPDATE) na mesma transação.
+     * Com os rollups ativados, os períodos do registro anterior e do atualizado são recalculados na mesma transação.
+     *
+     * @param consumption Objeto Consumption contendo os dados atualizados do registro.
+     * @return Registro antes da alteração ou null caso nenhum registro tenha o ID informado.
+     * @throws ConsumptionException Caso ocorra erro ao gravar no banco de dados.
+     */
+    @Override
+    public Consumption updateConsumptionReturningPrevious(Consumption consumption) {
+        try (Connection connection = connectionSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(UPDATE_SQL)) {
+                Consumption previous = lockConsumption(connection, consumption.getId());
+                if (previous != null) {
+                    bindUpdate(stmt, consumption);
+                    stmt.executeUpdate();
+                    if (ConsumptionRollups.isEnabled()) {
+                        ConsumptionRollups.recompute(connection, Arrays.asList(previous, consumption));
+                    }
+                }
+                connection.commit();
+                return previous;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error updating consumption record with ID: " + consumption.getId(), e);
         }
     }
 
     /**
      * Deleta um registro de consumo pelo seu ID.
+     * Com os rollups ativados, a exclusão segue por {@link #deleteConsumptionReturningPrevious(Long)}.
      *
      * @param id ID do registro de consumo a ser deletado.
+     * @return true caso o registro exista e tenha sido excluído, false caso nenhum registro tenha o ID informado.
+     * @throws ConsumptionException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void deleteConsumption(Long id) {
-        String sql = "DELETE FROM Consumption WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+    public boolean deleteConsumption(Long id) {
+        if (ConsumptionRollups.isEnabled()) {
+            return deleteConsumptionReturningPrevious(id) != null;
+        }
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(DELETE_SQL)) {
             stmt.setLong(1, id);
-            stmt.executeUpdate();
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ConsumptionException("Error deleting consumption record with ID: " + id, e);
         }
     }
 
+    /**
+     * Deleta um registro de consumo e devolve o registro removido, lido e bloqueado (FOR UPDATE) na mesma transação.
+     * Com os rollups ativados, os períodos do registro removido são recalculados na mesma transação.
+     *
+     * @param id ID do registro de consumo a ser deletado.
+     * @return Registro removido ou null caso nenhum registro tenha o ID informado.
+     * @throws ConsumptionException Caso ocorra erro ao gravar no banco de dados.
+     */
+    @Override
+    public Consumption deleteConsumptionReturningPrevious(Long id) {
+        try (Connection connection = connectionSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(DELETE_SQL)) {
+                Consumption previous = lockConsumption(connection, id);
+                if (previous != null) {
+                    stmt.setLong(1, id);
+                    stmt.executeUpdate();
+                    if (ConsumptionRollups.isEnabled()) {
+                        ConsumptionRollups.recompute(connection, Collections.singletonList(previous));
+                    }
+                }
+                connection.commit();
+                return previous;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error deleting consumption record with ID: " + id, e);
+        }
+    }
+
+    private static void bindUpdate(PreparedStatement stmt, Consumption consumption) throws SQLException {
+        stmt.setDouble(1, consumption.getAmount());
+        stmt.setTimestamp(2, consumption.getTimeStamp());
+        stmt.setInt(3, consumption.getDeviceId());
+        stmt.setInt(4, consumption.getResidenceId());
+        stmt.setLong(5, consumption.getId());
+    }
+
+    /**
+     * Lê e bloqueia (FOR UPDATE) o estado atual de um registro, devolvido ao chamador e usado no recálculo
+     * dos rollups.
+     *
+     * @return Registro atual ou null caso não exista.
+     */
+    private static Consumption lockConsumption(Connection connection, Long id) throws SQLException {
+        String sql = "SELECT " + RowMappers.CONSUMPTION_COLUMNS + " FROM Consumption WHERE id = ? FOR UPDATE";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            stmt.setLong(1, id);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next()) {
+                    return RowMappers.CONSUMPTION.map(rs);
+                }
+            }
+        }
+        return null;
+    }
+
     /**
      * Lista todos os registros de consumo cadastrados no banco de dados.
      *
      * @return Lista de objetos Consumption contendo todos os registros.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
      */
     @Override
     public List<Consumption> getAllConsumptions() {
-        String sql = "SELECT * FROM Consumption";
-        List<Consumption> consumptions = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                consumptions.add(new Consumption(
-                        rs.getLong("id"),
-                        rs.getDouble("amount"),
-                        rs.getTimestamp("timestamp"),
-                        rs.getInt("device_id"),
-                        rs.getInt("residence_id")
-                ));
-            }
+        String sql = "SELECT " + RowMappers.CONSUMPTION_COLUMNS + " FROM Consumption";
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, StatementBinder.NONE, RowMappers.CONSUMPTION);
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ConsumptionException("Error retrieving consumption records", e);
         }
-        return consumptions;
     }
 
     /**
-     * Lista os registros de consumo associados a um dispositivo específico.
+     * Lista uma página dos registros de consumo de um dispositivo, ordenados por (timestamp, id).
      *
      * @param deviceId ID do dispositivo para o qual os registros de consumo serão buscados.
+     * @param from     Início do intervalo (inclusivo) ou null para não limitar.
+     * @param to       Fim do intervalo (exclusivo) ou null para não limitar.
+     * @param after    Cursor do último registro já entregue ou null para a primeira página.
+     * @param limit    Quantidade máxima de registros retornados.
      * @return Lista de objetos Consumption associados ao dispositivo.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
      */
     @Override
-    public List<Consumption> getConsumptionsByDeviceId(Long deviceId) {
-        String sql = "SELECT * FROM Consumption WHERE device_id = ?";
-        List<Consumption> consumptions = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, deviceId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                consumptions.add(new Consumption(
-                        rs.getLong("id"),
-                        rs.getDouble("amount"),
-                        rs.getTimestamp("timestamp"),
-                        rs.getInt("device_id"),
-                        rs.getInt("residence_id")
-                ));
+    public List<Consumption> getConsumptionsByDeviceId(Long deviceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit) {
+        return findPage("device_id", deviceId, from, to, after, limit);
+    }
+
+    /**
+     * Lista uma página dos registros de consumo de uma residência, ordenados por (timestamp, id).
+     *
+     * @param residenceId ID da residência para a qual os registros de consumo serão buscados.
+     * @param from        Início do intervalo (inclusivo) ou null para não limitar.
+     * @param to          Fim do intervalo (exclusivo) ou null para não limitar.
+     * @param after       Cursor do último registro já entregue ou null para a primeira página.
+     * @param limit       Quantidade máxima de registros retornados.
+     * @return Lista de objetos Consumption associados à residência.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Consumption> getConsumptionsByResidenceId(Long residenceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit) {
+        return findPage("residence_id", residenceId, from, to, after, limit);
+    }
+
+    /**
+     * Percorre uma página dos registros de consumo de uma residência sem materializá-la em memória.
+     *
+     * @param residenceId ID da residência.
+     * @param from        Início do intervalo (inclusivo) ou null para não limitar.
+     * @param to          Fim do intervalo (exclusivo) ou null para não limitar.
+     * @param after       Cursor do último registro já entregue ou null para a primeira página.
+     * @param limit       Quantidade máxima de registros percorridos.
+     * @param action      Ação executada para cada registro.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public void forEachConsumptionByResidenceId(Long residenceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit, Consumer<Consumption> action) {
+        forEachInPage(RowMappers.CONSUMPTION_COLUMNS, RowMappers.CONSUMPTION, "residence_id", residenceId,
+                from, to, after, limit, action);
+    }
+
+    /**
+     * Percorre uma página dos pontos de consumo (id, valor e data) de um dispositivo, para gráficos.
+     * Apenas as três colunas da projeção são lidas do banco.
+     *
+     * @param deviceId ID do dispositivo.
+     * @param from     Início do intervalo (inclusivo) ou null para não limitar.
+     * @param to       Fim do intervalo (exclusivo) ou null para não limitar.
+     * @param after    Cursor do último registro já entregue ou null para a primeira página.
+     * @param limit    Quantidade máxima de registros percorridos.
+     * @param action   Ação executada para cada ponto.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public void forEachConsumptionPointByDeviceId(Long deviceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit, Consumer<ConsumptionPoint> action) {
+        forEachInPage(RowMappers.CONSUMPTION_POINT_COLUMNS, RowMappers.CONSUMPTION_POINT, "device_id", deviceId,
+                from, to, after, limit, action);
+    }
+
+    /**
+     * Calcula o consumo agregado de uma residência por período com GROUP BY no banco de dados,
+     * de modo que apenas uma linha por período (e dispositivo) trafega até a aplicação.
+     * Com os rollups ativados e os limites do intervalo alinhados à granularidade, a consulta é feita
+     * sobre os rollups por hora (HOUR) ou por dia (DAY e MONTH) em vez dos registros brutos.
+     *
+     * @param residenceId ID da residência.
+     * @param bucket      Granularidade do período.
+     * @param from        Início do intervalo (inclusivo) ou null.
+     * @param to          Fim do intervalo (exclusivo) ou null.
+     * @param perDevice   true para agrupar também por dispositivo.
+     * @return Agregados ordenados por período (e dispositivo).
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<ConsumptionAggregate> aggregateByResidenceId(Long residenceId, AggregationBucket bucket,
+            Timestamp from, Timestamp to, boolean perDevice) {
+        String rollupTable = rollupTableFor(bucket, from, to);
+        String timeColumn = rollupTable == null ? "timestamp" : "bucket_start";
+        String bucketExpression = "TRUNC(" + timeColumn + ", '" + bucket.getTruncFormat() + "')";
+        String groupColumns = perDevice ? bucketExpression + ", device_id" : bucketExpression;
+        StringBuilder sql = new StringBuilder("SELECT ").append(bucketExpression).append(" AS bucket_start, ")
+                .append(perDevice ? "device_id" : "NULL AS device_id");
+        if (rollupTable == null) {
+            sql.append(", SUM(amount), AVG(amount), MIN(amount), MAX(amount), COUNT(*) FROM Consumption");
+        } else {
+            sql.append(", SUM(total_amount), SUM(total_amount) / SUM(reading_count), MIN(min_amount),")
+                    .append(" MAX(max_amount), SUM(reading_count) FROM ").append(rollupTable);
+        }
+        sql.append(" WHERE residence_id = ?");
+        if (from != null) {
+            sql.append(" AND ").append(timeColumn).append(" >= ?");
+        }
+        if (to != null) {
+            sql.append(" AND ").append(timeColumn).append(" < ?");
+        }
+        sql.append(" GROUP BY ").append(groupColumns).append(" ORDER BY ").append(groupColumns);
+
+        StatementBinder binder = stmt -> {
+            int index = 1;
+            stmt.setLong(index++, residenceId);
+            if (from != null) {
+                stmt.setTimestamp(index++, from);
+            }
+            if (to != null) {
+                stmt.setTimestamp(index, to);
             }
+        };
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql.toString(), binder, rs -> {
+                int deviceId = rs.getInt(2);
+                return new ConsumptionAggregate(
+                        rs.getTimestamp(1),
+                        rs.wasNull() ? null : deviceId,
+                        rs.getDouble(3),
+                        rs.getDouble(4),
+                        rs.getDouble(5),
+                        rs.getDouble(6),
+                        rs.getLong(7)
+                );
+            });
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ConsumptionException("Error aggregating consumption for residence ID: " + residenceId, e);
         }
-        return consumptions;
     }
 
     /**
-     * Lista os registros de consumo associados a uma residência específica.
+     * Retorna o registro de consumo mais recente de um dispositivo, percorrendo o índice (device_id, timestamp, id)
+     * a partir do fim.
      *
-     * @param residenceId ID da residência para a qual os registros de consumo serão buscados.
-     * @return Lista de objetos Consumption associados à residência.
+     * @param deviceId ID do dispositivo.
+     * @return Registro mais recente ou null caso o dispositivo não possua leituras.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
      */
     @Override
-    public List<Consumption> getConsumptionsByResidenceId(Long residenceId) {
-        String sql = "SELECT * FROM Consumption WHERE residence_id = ?";
-        List<Consumption> consumptions = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, residenceId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                consumptions.add(new Consumption(
-                        rs.getLong("id"),
-                        rs.getDouble("amount"),
-                        rs.getTimestamp("timestamp"),
-                        rs.getInt("device_id"),
-                        rs.getInt("residence_id")
-                ));
+    public Consumption getLatestConsumptionByDeviceId(Long deviceId) {
+        String sql = "SELECT " + RowMappers.CONSUMPTION_COLUMNS + " FROM Consumption WHERE device_id = ?"
+                + " ORDER BY timestamp DESC, id DESC FETCH FIRST 1 ROWS ONLY";
+        try {
+            return JdbcQueries.queryForObject(connectionSource, sql, stmt -> stmt.setLong(1, deviceId),
+                    RowMappers.CONSUMPTION);
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error retrieving latest consumption for device ID: " + deviceId, e);
+        }
+    }
+
+    /**
+     * Percorre o registro de consumo mais recente de cada dispositivo. O máximo por dispositivo é calculado com
+     * GROUP BY sobre o índice (device_id, timestamp, id) e as linhas correspondentes são lidas em blocos de
+     * ecosmart.jdbc.fetchSize.
+     *
+     * @param action Ação executada para cada registro.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public void forEachLatestConsumption(Consumer<Consumption> action) {
+        String sql = "SELECT c.id, c.amount, c.timestamp, c.device_id, c.residence_id FROM Consumption c"
+                + " JOIN (SELECT device_id, MAX(timestamp) AS latest FROM Consumption GROUP BY device_id) m"
+                + " ON m.device_id = c.device_id AND c.timestamp = m.latest";
+        try {
+            JdbcQueries.forEach(connectionSource, sql, StatementBinder.NONE, RowMappers.CONSUMPTION, FETCH_SIZE,
+                    action);
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error retrieving latest consumption of each device", e);
+        }
+    }
+
+    /**
+     * Retorna o registro de consumo mais recente de cada dispositivo das residências de um cliente.
+     * O registro mais recente de cada dispositivo é localizado pelo índice (device_id, timestamp, id);
+     * empates no mesmo instante são resolvidos pelo maior ID.
+     *
+     * @param clientId ID do cliente.
+     * @return Um registro por dispositivo que possua leituras.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Consumption> getLatestConsumptionsByClientId(Long clientId) {
+        String sql = "SELECT c.id, c.amount, c.timestamp, c.device_id, c.residence_id FROM Residence r"
+                + " JOIN Device d ON d.residence_id = r.id JOIN Consumption c ON c.device_id = d.id"
+                + " WHERE r.client_id = ?"
+                + " AND c.timestamp = (SELECT MAX(x.timestamp) FROM Consumption x WHERE x.device_id = d.id)";
+        Map<Integer, Consumption> latest = new LinkedHashMap<>();
+        try {
+            JdbcQueries.forEach(connectionSource, sql, stmt -> stmt.setLong(1, clientId), RowMappers.CONSUMPTION, 0,
+                    consumption -> latest.merge(consumption.getDeviceId(), consumption,
+                            (current, candidate) -> candidate.getId() > current.getId() ? candidate : current));
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error retrieving latest consumption for client ID: " + clientId, e);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    /**
+     * Calcula o consumo agregado de cada dispositivo das residências de um cliente no intervalo informado,
+     * percorrendo o índice (residence_id, timestamp, id) de cada residência.
+     *
+     * @param clientId ID do cliente.
+     * @param from     Início do intervalo (inclusivo).
+     * @param to       Fim do intervalo (exclusivo) ou null para não limitar.
+     * @return Um agregado por dispositivo com leituras no intervalo (bucketStart igual a from).
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<ConsumptionAggregate> aggregateByClientIdPerDevice(Long clientId, Timestamp from, Timestamp to) {
+        String sql = "SELECT device_id, SUM(amount), AVG(amount), MIN(amount), MAX(amount), COUNT(*) FROM Consumption"
+                + " WHERE residence_id IN (SELECT id FROM Residence WHERE client_id = ?) AND timestamp >= ?"
+                + (to != null ? " AND timestamp < ?" : "")
+                + " GROUP BY device_id ORDER BY device_id";
+        StatementBinder binder = stmt -> {
+            stmt.setLong(1, clientId);
+            stmt.setTimestamp(2, from);
+            if (to != null) {
+                stmt.setTimestamp(3, to);
             }
+        };
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, binder, rs -> new ConsumptionAggregate(
+                    from, rs.getInt(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4), rs.getDouble(5),
+                    rs.getLong(6)));
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ConsumptionException("Error aggregating consumption for client ID: " + clientId, e);
         }
+    }
+
+    /**
+     * Calcula o consumo agregado de todo o histórico de cada dispositivo com ID no intervalo informado,
+     * percorrendo o índice (device_id, timestamp, id).
+     *
+     * @param fromDeviceId Menor ID de dispositivo (inclusivo).
+     * @param toDeviceId   Maior ID de dispositivo (inclusivo).
+     * @param beforeQuery  Ação executada com a conexão já obtida, imediatamente antes de a consulta ser executada.
+     * @return Um agregado por dispositivo com leituras (bucketStart nulo), ordenado pelo ID do dispositivo.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<ConsumptionAggregate> aggregateByDeviceRange(Long fromDeviceId, Long toDeviceId, Runnable beforeQuery) {
+        String sql = "SELECT device_id, SUM(amount), AVG(amount), MIN(amount), MAX(amount), COUNT(*) FROM Consumption"
+                + " WHERE device_id BETWEEN ? AND ? GROUP BY device_id ORDER BY device_id";
+        StatementBinder binder = stmt -> {
+            stmt.setLong(1, fromDeviceId);
+            stmt.setLong(2, toDeviceId);
+            beforeQuery.run();
+        };
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, binder, rs -> new ConsumptionAggregate(
+                    null, rs.getInt(1), rs.getDouble(2), rs.getDouble(3), rs.getDouble(4), rs.getDouble(5),
+                    rs.getLong(6)));
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error aggregating consumption for device IDs " + fromDeviceId + " to "
+                    + toDeviceId, e);
+        }
+    }
+
+    /**
+     * Escolhe a tabela de rollup capaz de responder à agregação sem alterar o resultado:
+     * os limites do intervalo precisam coincidir com o início de um período da tabela.
+     *
+     * @return Nome da tabela de rollup ou null para consultar os registros brutos.
+     */
+    private static String rollupTableFor(AggregationBucket bucket, Timestamp from, Timestamp to) {
+        if (!ConsumptionRollups.isEnabled()) {
+            return null;
+        }
+        if (bucket == AggregationBucket.HOUR) {
+            return ConsumptionRollups.isAligned(from, ChronoUnit.HOURS) && ConsumptionRollups.isAligned(to, ChronoUnit.HOURS)
+                    ? ConsumptionRollups.HOURLY_TABLE : null;
+        }
+        if (ConsumptionRollups.isAligned(from, ChronoUnit.DAYS) && ConsumptionRollups.isAligned(to, ChronoUnit.DAYS)) {
+            return ConsumptionRollups.DAILY_TABLE;
+        }
+        if (ConsumptionRollups.isAligned(from, ChronoUnit.HOURS) && ConsumptionRollups.isAligned(to, ChronoUnit.HOURS)) {
+            return ConsumptionRollups.HOURLY_TABLE;
+        }
+        return null;
+    }
+
+    private List<Consumption> findPage(String ownerColumn, Long ownerId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit) {
+        List<Consumption> consumptions = new ArrayList<>(Math.min(limit, 1024));
+        forEachInPage(RowMappers.CONSUMPTION_COLUMNS, RowMappers.CONSUMPTION, ownerColumn, ownerId,
+                from, to, after, limit, consumptions::add);
         return consumptions;
     }
+
+    /**
+     * Percorre uma página de registros filtrando pela coluna informada, com paginação por chave (timestamp, id).
+     * A consulta percorre apenas o intervalo pedido, de modo que o custo não depende do tamanho do histórico,
+     * e as linhas são lidas em blocos de ecosmart.jdbc.fetchSize.
+     *
+     * @param columns     Projeção lida (ver {@link RowMappers}).
+     * @param mapper      Conversor correspondente à projeção.
+     * @param ownerColumn Coluna de filtro (device_id ou residence_id).
+     * @param ownerId     Valor do filtro.
+     * @param from        Início do intervalo (inclusivo) ou null.
+     * @param to          Fim do intervalo (exclusivo) ou null.
+     * @param after       Cursor do último registro já entregue ou null.
+     * @param limit       Quantidade máxima de registros.
+     * @param action      Ação executada para cada registro.
+     */
+    private <T> void forEachInPage(String columns, RowMapper<T> mapper, String ownerColumn, Long ownerId,
+            Timestamp from, Timestamp to, ConsumptionCursor after, int limit, Consumer<? super T> action) {
+        StringBuilder sql = new StringBuilder("SELECT ").append(columns).append(" FROM Consumption WHERE ")
+                .append(ownerColumn).append(" = ?");
+        if (from != null) {
+            sql.append(" AND timestamp >= ?");
+        }
+        if (to != null) {
+            sql.append(" AND timestamp < ?");
+        }
+        if (after != null) {
+            sql.append(" AND (timestamp > ? OR (timestamp = ? AND id > ?))");
+        }
+        sql.append(" ORDER BY timestamp, id FETCH FIRST ? ROWS ONLY");
+
+        try {
+            JdbcQueries.forEach(connectionSource, sql.toString(), stmt -> {
+                int index = 1;
+                stmt.setLong(index++, ownerId);
+                if (from != null) {
+                    stmt.setTimestamp(index++, from);
+                }
+                if (to != null) {
+                    stmt.setTimestamp(index++, to);
+                }
+                if (after != null) {
+                    stmt.setTimestamp(index++, after.getTimestamp());
+                    stmt.setTimestamp(index++, after.getTimestamp());
+                    stmt.setLong(index++, after.getId());
+                }
+                stmt.setInt(index, limit);
+            }, mapper, Math.min(limit, FETCH_SIZE), action);
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error retrieving consumption records for " + ownerColumn + " " + ownerId, e);
+        }
+    }
 }
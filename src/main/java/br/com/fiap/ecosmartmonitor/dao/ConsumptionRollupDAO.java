@@ -0,0 +1,58 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import br.com.fiap.ecosmartmonitor.model.RollupMismatch;
+import br.com.fiap.ecosmartmonitor.util.RollupRebuildStats;
+
+/**
+ * Interface para a manutenção das tabelas de consumo pré-agregado (rollups).
+ * Define a reconstrução a partir dos registros brutos (síncrona ou em segundo plano) e a verificação de consistência.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public interface ConsumptionRollupDAO {
+
+    /**
+     * Reconstrói os rollups por hora e por dia a partir dos registros brutos, um dia por transação.
+     *
+     * @param from Início do intervalo (arredondado para o início do dia) ou null para o registro mais antigo.
+     * @param to   Fim do intervalo (exclusivo, arredondado para o dia seguinte) ou null para o mais recente.
+     * @return Quantidade de dias reconstruídos.
+     */
+    int rebuild(Timestamp from, Timestamp to);
+
+    /**
+     * Inicia a reconstrução dos rollups em segundo plano, caso nenhuma esteja em andamento.
+     * O andamento é informado por {@link #getRebuildStats()}.
+     *
+     * @param from Início do intervalo (arredondado para o início do dia) ou null para o registro mais antigo.
+     * @param to   Fim do intervalo (exclusivo, arredondado para o dia seguinte) ou null para o mais recente.
+     * @return true caso a reconstrução tenha sido iniciada; false caso já exista uma em andamento.
+     */
+    boolean rebuildAsync(Timestamp from, Timestamp to);
+
+    /**
+     * Retorna o andamento da reconstrução em segundo plano em curso (ou da última).
+     *
+     * @return Andamento da reconstrução.
+     */
+    RollupRebuildStats getRebuildStats();
+
+    /**
+     * Compara os totais e contagens dos rollups com a soma dos registros brutos.
+     *
+     * @param from Início do intervalo (arredondado para o início do dia) ou null para não limitar.
+     * @param to   Fim do intervalo (exclusivo, arredondado para o dia seguinte) ou null para não limitar.
+     * @return Linhas divergentes (vazia quando os rollups estão consistentes).
+     */
+    List<RollupMismatch> checkConsistency(Timestamp from, Timestamp to);
+
+    /**
+     * Interrompe a reconstrução em segundo plano; os dias já concluídos são mantidos.
+     */
+    void close();
+}
@@ -0,0 +1,336 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import br.com.fiap.ecosmartmonitor.exception.ConsumptionException;
+import br.com.fiap.ecosmartmonitor.model.RollupMismatch;
+import br.com.fiap.ecosmartmonitor.util.ConnectionSource;
+import br.com.fiap.ecosmartmonitor.util.RollupRebuildStats;
+
+/**
+ * Implementação da interface ConsumptionRollupDAO para acesso ao banco de dados.
+ * A reconstrução percorre o intervalo dia a dia para manter as transações curtas; a verificação
+ * agrega os registros brutos no banco e compara o resultado com os rollups na aplicação.
+ *
+ * A reconstrução pedida pela API roda em uma thread própria, uma de cada vez, e informa os dias concluídos em
+ * {@link #getRebuildStats()}. Como ela pode correr junto com a ingestão, cada dia é apagado e reinserido com
+ * {@link ConsumptionRollups#retryOnDuplicateKey}: uma leitura gravada entre o DELETE e o INSERT recria a linha do
+ * período, e a nova tentativa apaga e recalcula o dia já com essa leitura.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ConsumptionRollupDAOImpl implements ConsumptionRollupDAO {
+    private static final Logger LOGGER = Logger.getLogger(ConsumptionRollupDAOImpl.class.getName());
+    private static final double TOTAL_TOLERANCE = 1e-6;
+
+    private final ConnectionSource connectionSource;
+    private final ExecutorService rebuilder;
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+    private volatile Timestamp rebuildFrom;
+    private volatile Timestamp rebuildTo;
+    private volatile int totalDays;
+    private volatile int completedDays;
+
+    private final LongAdder rebuilds = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private volatile String lastError;
+    private volatile long lastRebuildAt;
+    private volatile long lastRebuildMillis;
+
+    /**
+     * Construtor da classe ConsumptionRollupDAOImpl.
+     *
+     * @param connectionSource Origem das conexões com o banco de dados (normalmente o pool de conexões).
+     */
+    public ConsumptionRollupDAOImpl(ConnectionSource connectionSource) {
+        this.connectionSource = connectionSource;
+        this.rebuilder = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ecosmart-rollup-rebuild");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Reconstrói os rollups por hora e por dia a partir dos registros brutos, um dia por transação.
+     *
+     * @param from Início do intervalo ou null para o registro mais antigo.
+     * @param to   Fim do intervalo (exclusivo) ou null para o mais recente.
+     * @return Quantidade de dias reconstruídos.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados; os dias já concluídos são mantidos.
+     */
+    @Override
+    public int rebuild(Timestamp from, Timestamp to) {
+        return rebuild(from, to, false);
+    }
+
+    /**
+     * Inicia a reconstrução em segundo plano, caso nenhuma esteja em andamento. Uma falha interrompe a
+     * reconstrução, mantém os dias já concluídos e é informada em {@link #getRebuildStats()}.
+     *
+     * @param from Início do intervalo ou null para o registro mais antigo.
+     * @param to   Fim do intervalo (exclusivo) ou null para o mais recente.
+     * @return true caso a reconstrução tenha sido iniciada; false caso já exista uma em andamento.
+     */
+    @Override
+    public boolean rebuildAsync(Timestamp from, Timestamp to) {
+        if (!rebuilding.compareAndSet(false, true)) {
+            return false;
+        }
+        rebuildFrom = from;
+        rebuildTo = to;
+        totalDays = 0;
+        completedDays = 0;
+        try {
+            rebuilder.execute(() -> runRebuild(from, to));
+            return true;
+        } catch (RejectedExecutionException e) {
+            rebuilding.set(false);
+            return false;
+        }
+    }
+
+    @Override
+    public RollupRebuildStats getRebuildStats() {
+        return new RollupRebuildStats(rebuilding.get(), rebuildFrom, rebuildTo, totalDays, completedDays,
+                rebuilds.sum(), failures.sum(), lastError, lastRebuildAt, lastRebuildMillis);
+    }
+
+    @Override
+    public void close() {
+        rebuilder.shutdownNow();
+    }
+
+    private void runRebuild(Timestamp from, Timestamp to) {
+        long start = System.currentTimeMillis();
+        try {
+            rebuild(from, to, true);
+            lastRebuildAt = start;
+            lastRebuildMillis = System.currentTimeMillis() - start;
+            rebuilds.increment();
+        } catch (RuntimeException e) {
+            lastError = e.getMessage();
+            failures.increment();
+            LOGGER.log(Level.WARNING, "Error rebuilding consumption rollups", e);
+        } finally {
+            rebuilding.set(false);
+        }
+    }
+
+    /**
+     * Reconstrói o intervalo dia a dia; com track, informa o intervalo e os dias concluídos em
+     * {@link #getRebuildStats()}.
+     */
+    private int rebuild(Timestamp from, Timestamp to, boolean track) {
+        try (Connection connection = connectionSource.getConnection()) {
+            if (from == null || to == null) {
+                Timestamp[] bounds = rawBounds(connection);
+                if (bounds == null) {
+                    return 0;
+                }
+                from = from == null ? bounds[0] : from;
+                to = to == null ? Timestamp.valueOf(bounds[1].toLocalDateTime().plusNanos(1000)) : to;
+            }
+            LocalDateTime day = floorDay(from);
+            LocalDateTime end = ceilDay(to);
+            if (track) {
+                rebuildFrom = Timestamp.valueOf(day);
+                rebuildTo = Timestamp.valueOf(end);
+                totalDays = (int) Math.max(0, ChronoUnit.DAYS.between(day, end));
+            }
+            int days = 0;
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                while (day.isBefore(end)) {
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new ConsumptionException(
+                                "Consumption rollup rebuild interrupted after " + days + " days");
+                    }
+                    Timestamp start = Timestamp.valueOf(day);
+                    Timestamp next = Timestamp.valueOf(day.plusDays(1));
+                    try {
+                        rebuildRange(connection, ConsumptionRollups.HOURLY_TABLE, "HH", start, next);
+                        rebuildRange(connection, ConsumptionRollups.DAILY_TABLE, "DD", start, next);
+                        connection.commit();
+                    } catch (SQLException e) {
+                        connection.rollback();
+                        throw e;
+                    }
+                    day = day.plusDays(1);
+                    days++;
+                    if (track) {
+                        completedDays = days;
+                    }
+                }
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+            return days;
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error rebuilding consumption rollups", e);
+        }
+    }
+
+    /**
+     * Compara os totais e contagens dos rollups por hora e por dia com a soma dos registros brutos.
+     *
+     * @param from Início do intervalo ou null para não limitar.
+     * @param to   Fim do intervalo (exclusivo) ou null para não limitar.
+     * @return Linhas divergentes, incluindo períodos presentes em apenas um dos lados.
+     * @throws ConsumptionException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<RollupMismatch> checkConsistency(Timestamp from, Timestamp to) {
+        Timestamp start = from == null ? null : Timestamp.valueOf(floorDay(from));
+        Timestamp end = to == null ? null : Timestamp.valueOf(ceilDay(to));
+        List<RollupMismatch> mismatches = new ArrayList<>();
+        try (Connection connection = connectionSource.getConnection()) {
+            compare(connection, ConsumptionRollups.HOURLY_TABLE, "HH", start, end, mismatches);
+            compare(connection, ConsumptionRollups.DAILY_TABLE, "DD", start, end, mismatches);
+        } catch (SQLException e) {
+            throw new ConsumptionException("Error checking consumption rollups", e);
+        }
+        return mismatches;
+    }
+
+    private static void rebuildRange(Connection connection, String table, String truncFormat, Timestamp from,
+            Timestamp to) throws SQLException {
+        ConsumptionRollups.retryOnDuplicateKey(connection,
+                () -> replaceRange(connection, table, truncFormat, from, to));
+    }
+
+    private static void replaceRange(Connection connection, String table, String truncFormat, Timestamp from,
+            Timestamp to) throws SQLException {
+        String delete = "DELETE FROM " + table + " WHERE bucket_start >= ? AND bucket_start < ?";
+        String insert = "INSERT INTO " + table
+                + " (device_id, residence_id, bucket_start, total_amount, reading_count, min_amount, max_amount)"
+                + " SELECT device_id, MAX(residence_id), TRUNC(timestamp, '" + truncFormat + "'), SUM(amount), COUNT(*),"
+                + " MIN(amount), MAX(amount) FROM Consumption WHERE timestamp >= ? AND timestamp < ?"
+                + " GROUP BY device_id, TRUNC(timestamp, '" + truncFormat + "')";
+        try (PreparedStatement stmt = connection.prepareStatement(delete)) {
+            stmt.setTimestamp(1, from);
+            stmt.setTimestamp(2, to);
+            stmt.executeUpdate();
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(insert)) {
+            stmt.setTimestamp(1, from);
+            stmt.setTimestamp(2, to);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static void compare(Connection connection, String table, String truncFormat, Timestamp from,
+            Timestamp to, List<RollupMismatch> mismatches) throws SQLException {
+        String bucketExpression = "TRUNC(timestamp, '" + truncFormat + "')";
+        Map<String, Totals> raw = loadTotals(connection, "SELECT device_id, " + bucketExpression
+                + ", SUM(amount), COUNT(*) FROM Consumption" + rangeFilter("timestamp", from, to)
+                + " GROUP BY device_id, " + bucketExpression, from, to);
+        Map<String, Totals> rollup = loadTotals(connection, "SELECT device_id, bucket_start, total_amount,"
+                + " reading_count FROM " + table + rangeFilter("bucket_start", from, to), from, to);
+
+        Set<String> keys = new HashSet<>(raw.keySet());
+        keys.addAll(rollup.keySet());
+        for (String key : keys) {
+            Totals expected = raw.get(key);
+            Totals actual = rollup.get(key);
+            if (expected != null && actual != null && expected.count == actual.count
+                    && Math.abs(expected.total - actual.total) <= TOTAL_TOLERANCE * Math.max(1, Math.abs(expected.total))) {
+                continue;
+            }
+            Totals row = expected != null ? expected : actual;
+            mismatches.add(new RollupMismatch(table, row.deviceId, row.bucketStart,
+                    expected == null ? 0 : expected.total, actual == null ? 0 : actual.total,
+                    expected == null ? 0 : expected.count, actual == null ? 0 : actual.count));
+        }
+    }
+
+    private static String rangeFilter(String column, Timestamp from, Timestamp to) {
+        StringBuilder filter = new StringBuilder();
+        if (from != null) {
+            filter.append(" WHERE ").append(column).append(" >= ?");
+        }
+        if (to != null) {
+            filter.append(from == null ? " WHERE " : " AND ").append(column).append(" < ?");
+        }
+        return filter.toString();
+    }
+
+    private static Map<String, Totals> loadTotals(Connection connection, String sql, Timestamp from, Timestamp to)
+            throws SQLException {
+        Map<String, Totals> totals = new HashMap<>();
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            int index = 1;
+            if (from != null) {
+                stmt.setTimestamp(index++, from);
+            }
+            if (to != null) {
+                stmt.setTimestamp(index, to);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    Totals row = new Totals(rs.getInt(1), rs.getTimestamp(2), rs.getDouble(3), rs.getLong(4));
+                    totals.put(row.deviceId + "@" + row.bucketStart.getTime(), row);
+                }
+            }
+        }
+        return totals;
+    }
+
+    /**
+     * Primeira e última data dos registros brutos, ou null quando a tabela está vazia.
+     */
+    private static Timestamp[] rawBounds(Connection connection) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("SELECT MIN(timestamp), MAX(timestamp) FROM Consumption");
+             ResultSet rs = stmt.executeQuery()) {
+            if (rs.next() && rs.getTimestamp(1) != null) {
+                return new Timestamp[] { rs.getTimestamp(1), rs.getTimestamp(2) };
+            }
+        }
+        return null;
+    }
+
+    private static LocalDateTime floorDay(Timestamp timestamp) {
+        return timestamp.toLocalDateTime().truncatedTo(ChronoUnit.DAYS);
+    }
+
+    private static LocalDateTime ceilDay(Timestamp timestamp) {
+        LocalDateTime floor = floorDay(timestamp);
+        return floor.equals(timestamp.toLocalDateTime()) ? floor : floor.plusDays(1);
+    }
+
+    private static final class Totals {
+        private final int deviceId;
+        private final Timestamp bucketStart;
+        private final double total;
+        private final long count;
+
+        private Totals(int deviceId, Timestamp bucketStart, double total, long count) {
+            this.deviceId = deviceId;
+            this.bucketStart = bucketStart;
+            this.total = total;
+            this.count = count;
+        }
+    }
+}
@@ -0,0 +1,276 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+
+/**
+ * Manutenção das tabelas de consumo pré-agregado por hora e por dia (rollups), por dispositivo.
+ * Todos os métodos recebem a conexão do chamador para participar da mesma transação da alteração
+ * nos registros de consumo.
+ *
+ * - Inserções somam os novos registros às linhas do período com MERGE.
+ * - Atualizações e exclusões recalculam, a partir dos dados brutos, apenas os períodos afetados
+ *   do dispositivo (no máximo uma hora e um dia de leituras por registro alterado).
+ * - Duas transações que criam ao mesmo tempo a mesma linha (a primeira leitura de um dispositivo no período)
+ *   disputam a chave primária; a que perde repete a alteração, em vez de desfazer a gravação dos registros.
+ *
+ * Ativada com ecosmart.rollups.enabled=true (DDL em db/consumption-rollups.sql).
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+final class ConsumptionRollups {
+    static final String HOURLY_TABLE = "Consumption_Rollup_Hourly";
+    static final String DAILY_TABLE = "Consumption_Rollup_Daily";
+
+    private static final boolean ENABLED = AppConfig.getBoolean("ecosmart.rollups.enabled", false);
+
+    /** Tentativas de uma alteração dos rollups recusada por chave duplicada. */
+    private static final int DUPLICATE_KEY_ATTEMPTS = 3;
+    /** Código de erro do Oracle para violação de chave única (ORA-00001). */
+    private static final int ORACLE_UNIQUE_VIOLATION = 1;
+
+    private ConsumptionRollups() {
+    }
+
+    /**
+     * Indica se a manutenção e a leitura dos rollups estão ativadas.
+     *
+     * @return true caso ecosmart.rollups.enabled=true.
+     */
+    static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Trunca a data e hora para o início do período (hora ou dia), no mesmo fuso usado pelo JDBC.
+     *
+     * @param timestamp Data e hora.
+     * @param unit      ChronoUnit.HOURS ou ChronoUnit.DAYS.
+     * @return Início do período.
+     */
+    static Timestamp truncate(Timestamp timestamp, ChronoUnit unit) {
+        return Timestamp.valueOf(timestamp.toLocalDateTime().truncatedTo(unit));
+    }
+
+    /**
+     * Indica se a data e hora está exatamente no início de um período (ou é nula).
+     *
+     * @param timestamp Data e hora ou null.
+     * @param unit      ChronoUnit.HOURS ou ChronoUnit.DAYS.
+     * @return true caso o limite coincida com o início de um período.
+     */
+    static boolean isAligned(Timestamp timestamp, ChronoUnit unit) {
+        if (timestamp == null) {
+            return true;
+        }
+        LocalDateTime value = timestamp.toLocalDateTime();
+        return value.equals(value.truncatedTo(unit));
+    }
+
+    /**
+     * Soma registros recém-inseridos aos rollups por hora e por dia.
+     * Os registros são agregados em memória antes do MERGE, de forma que um lote gera
+     * no máximo uma instrução por dispositivo e período.
+     *
+     * @param connection   Conexão da transação de inserção.
+     * @param consumptions Registros inseridos.
+     * @throws SQLException Caso ocorra erro ao atualizar os rollups.
+     */
+    static void applyInserts(Connection connection, List<Consumption> consumptions) throws SQLException {
+        List<Delta> hourly = accumulate(consumptions, ChronoUnit.HOURS);
+        List<Delta> daily = accumulate(consumptions, ChronoUnit.DAYS);
+        retryOnDuplicateKey(connection, () -> merge(connection, HOURLY_TABLE, hourly));
+        retryOnDuplicateKey(connection, () -> merge(connection, DAILY_TABLE, daily));
+    }
+
+    /**
+     * Recalcula, a partir dos registros brutos, os períodos por hora e por dia que contêm cada registro informado.
+     * Usado após atualizações e exclusões, quando mínimos e máximos não podem ser ajustados incrementalmente.
+     *
+     * @param connection Conexão da transação da alteração.
+     * @param readings   Registros (estado anterior e/ou novo) cujos períodos devem ser recalculados.
+     * @throws SQLException Caso ocorra erro ao atualizar os rollups.
+     */
+    static void recompute(Connection connection, List<Consumption> readings) throws SQLException {
+        retryOnDuplicateKey(connection, () -> recompute(connection, HOURLY_TABLE, ChronoUnit.HOURS, readings));
+        retryOnDuplicateKey(connection, () -> recompute(connection, DAILY_TABLE, ChronoUnit.DAYS, readings));
+    }
+
+    /**
+     * Executa uma alteração dos rollups, repetindo-a caso outra transação tenha criado a mesma linha entre a
+     * verificação e a inserção: o MERGE (e o DELETE seguido de INSERT do recálculo) não é atômico contra outra
+     * transação que insere a mesma linha nova, e o banco recusa a segunda inserção por chave duplicada. Essa recusa
+     * só chega depois que a outra transação termina, então a nova tentativa encontra a linha e a atualiza.
+     * O savepoint desfaz apenas a tentativa recusada (inclusive as instruções do lote já executadas), e não a
+     * gravação dos registros de consumo.
+     *
+     * @param connection Conexão da transação, com autoCommit desativado.
+     * @param change     Alteração dos rollups.
+     * @throws SQLException Caso a alteração falhe por outro motivo ou seja recusada em todas as tentativas.
+     */
+    static void retryOnDuplicateKey(Connection connection, RollupChange change) throws SQLException {
+        for (int attempt = 1; ; attempt++) {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                change.apply();
+                return;
+            } catch (SQLException e) {
+                if (attempt >= DUPLICATE_KEY_ATTEMPTS || !isDuplicateKey(e)) {
+                    throw e;
+                }
+                connection.rollback(savepoint);
+            }
+        }
+    }
+
+    /**
+     * Indica se a falha é uma violação de chave única, verificando também as exceções encadeadas
+     * (BatchUpdateException traz a causa em getNextException).
+     */
+    private static boolean isDuplicateKey(SQLException error) {
+        for (SQLException e = error; e != null; e = e.getNextException()) {
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof SQLException) {
+                    SQLException sql = (SQLException) cause;
+                    if (sql.getErrorCode() == ORACLE_UNIQUE_VIOLATION || "23505".equals(sql.getSQLState())) {
+                        return true;
+                    }
+                }
+            }
+        }
+        return false;
+    }
+
+    private static void recompute(Connection connection, String table, ChronoUnit unit, List<Consumption> readings)
+            throws SQLException {
+        String delete = "DELETE FROM " + table + " WHERE device_id = ? AND bucket_start = ?";
+        String insert = "INSERT INTO " + table
+                + " (device_id, residence_id, bucket_start, total_amount, reading_count, min_amount, max_amount)"
+                + " SELECT device_id, MAX(residence_id), CAST(? AS TIMESTAMP), SUM(amount), COUNT(*), MIN(amount), MAX(amount)"
+                + " FROM Consumption WHERE device_id = ? AND timestamp >= ? AND timestamp < ? GROUP BY device_id";
+        for (Delta bucket : accumulate(readings, unit)) {
+            Timestamp end = Timestamp.valueOf(bucket.bucketStart.toLocalDateTime().plus(1, unit));
+            try (PreparedStatement stmt = connection.prepareStatement(delete)) {
+                stmt.setInt(1, bucket.deviceId);
+                stmt.setTimestamp(2, bucket.bucketStart);
+                stmt.executeUpdate();
+            }
+            try (PreparedStatement stmt = connection.prepareStatement(insert)) {
+                stmt.setTimestamp(1, bucket.bucketStart);
+                stmt.setInt(2, bucket.deviceId);
+                stmt.setTimestamp(3, bucket.bucketStart);
+                stmt.setTimestamp(4, end);
+                stmt.executeUpdate();
+            }
+        }
+    }
+
+    private static void merge(Connection connection, String table, Collection<Delta> deltas) throws SQLException {
+        String sql = "MERGE INTO " + table + " r USING (SELECT CAST(? AS NUMBER) AS device_id,"
+                + " CAST(? AS NUMBER) AS residence_id, CAST(? AS TIMESTAMP) AS bucket_start,"
+                + " CAST(? AS NUMBER) AS total_amount, CAST(? AS NUMBER) AS reading_count,"
+                + " CAST(? AS NUMBER) AS min_amount, CAST(? AS NUMBER) AS max_amount FROM dual) d"
+                + " ON (r.device_id = d.device_id AND r.bucket_start = d.bucket_start)"
+                + " WHEN MATCHED THEN UPDATE SET r.total_amount = r.total_amount + d.total_amount,"
+                + " r.reading_count = r.reading_count + d.reading_count,"
+                + " r.min_amount = LEAST(r.min_amount, d.min_amount), r.max_amount = GREATEST(r.max_amount, d.max_amount)"
+                + " WHEN NOT MATCHED THEN INSERT (device_id, residence_id, bucket_start, total_amount, reading_count,"
+                + " min_amount, max_amount) VALUES (d.device_id, d.residence_id, d.bucket_start, d.total_amount,"
+                + " d.reading_count, d.min_amount, d.max_amount)";
+        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+            for (Delta delta : deltas) {
+                stmt.setInt(1, delta.deviceId);
+                stmt.setInt(2, delta.residenceId);
+                stmt.setTimestamp(3, delta.bucketStart);
+                stmt.setDouble(4, delta.total);
+                stmt.setLong(5, delta.count);
+                stmt.setDouble(6, delta.min);
+                stmt.setDouble(7, delta.max);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    /**
+     * Agrupa os registros por dispositivo e período. O resultado é ordenado por (dispositivo, período)
+     * para que transações concorrentes bloqueiem as linhas dos rollups sempre na mesma ordem.
+     */
+    private static List<Delta> accumulate(List<Consumption> consumptions, ChronoUnit unit) {
+        Map<Delta, Delta> buckets = new LinkedHashMap<>();
+        for (Consumption consumption : consumptions) {
+            Delta key = new Delta(consumption.getDeviceId(), consumption.getResidenceId(),
+                    truncate(consumption.getTimeStamp(), unit));
+            buckets.computeIfAbsent(key, k -> k).add(consumption.getAmount());
+        }
+        List<Delta> sorted = new ArrayList<>(buckets.values());
+        sorted.sort(Comparator.comparingInt((Delta d) -> d.deviceId).thenComparing(d -> d.bucketStart));
+        return sorted;
+    }
+
+    /**
+     * Alteração dos rollups executada dentro da transação do chamador.
+     */
+    @FunctionalInterface
+    interface RollupChange {
+        void apply() throws SQLException;
+    }
+
+    /**
+     * Variação a ser aplicada a uma linha de rollup, identificada por (dispositivo, início do período).
+     */
+    private static final class Delta {
+        private final int deviceId;
+        private final int residenceId;
+        private final Timestamp bucketStart;
+        private double total;
+        private long count;
+        private double min = Double.POSITIVE_INFINITY;
+        private double max = Double.NEGATIVE_INFINITY;
+
+        private Delta(int deviceId, int residenceId, Timestamp bucketStart) {
+            this.deviceId = deviceId;
+            this.residenceId = residenceId;
+            this.bucketStart = bucketStart;
+        }
+
+        private void add(Double amount) {
+            double value = amount == null ? 0 : amount;
+            total += value;
+            count++;
+            min = Math.min(min, value);
+            max = Math.max(max, value);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Delta)) {
+                return false;
+            }
+            Delta delta = (Delta) other;
+            return deviceId == delta.deviceId && bucketStart.equals(delta.bucketStart);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(deviceId, bucketStart);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.util.List;
+
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+
+/**
+ * Observador das gravações de consumo feitas através de {@link ObservedConsumptionDAO}.
+ * Os métodos são chamados depois que a gravação foi confirmada no banco, na thread que a executou,
+ * e devem ser rápidos: rodam no caminho de ingestão.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public interface ConsumptionWriteListener {
+
+    /**
+     * Indica se o observador precisa do estado anterior nas alterações e exclusões. Ler o estado anterior exige
+     * uma transação com SELECT ... FOR UPDATE antes da gravação; quando nenhum observador registrado precisa dele,
+     * a gravação é um único comando e são chamadas apenas as variantes que recebem o registro atual ou o ID.
+     *
+     * @return true caso as variantes com o estado anterior sejam necessárias; por padrão false.
+     */
+    default boolean needsPreviousState() {
+        return false;
+    }
+
+    /**
+     * Registros inseridos (individualmente ou em lote), com os IDs gerados quando o driver os retorna.
+     *
+     * @param consumptions Registros inseridos.
+     */
+    void onCreated(List<Consumption> consumptions);
+
+    /**
+     * Registro alterado, quando o estado anterior não é conhecido.
+     *
+     * @param consumption Registro com os dados atualizados.
+     */
+    void onUpdated(Consumption consumption);
+
+    /**
+     * Registro alterado, com o estado lido e bloqueado na mesma transação da alteração.
+     * Por padrão ignora o estado anterior.
+     *
+     * @param previous    Registro antes da alteração.
+     * @param consumption Registro com os dados atualizados.
+     */
+    default void onUpdated(Consumption previous, Consumption consumption) {
+        onUpdated(consumption);
+    }
+
+    /**
+     * Registro excluído, quando o estado anterior não é conhecido.
+     *
+     * @param id ID do registro excluído.
+     */
+    void onDeleted(Long id);
+
+    /**
+     * Registro excluído, com o estado lido e bloqueado na mesma transação da exclusão.
+     * Por padrão considera apenas o ID.
+     *
+     * @param deleted Registro excluído.
+     */
+    default void onDeleted(Consumption deleted) {
+        onDeleted(deleted.getId());
+    }
+}
@@ -0,0 +1,506 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import br.com.fiap.ecosmartmonitor.exception.ConsumptionException;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionAggregate;
+import br.com.fiap.ecosmartmonitor.model.Device;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.ConcurrentLongMap;
+import br.com.fiap.ecosmartmonitor.util.DeviceAverageStats;
+
+/**
+ * Mantém o consumo médio de cada dispositivo (Device.averageConsumption, coluna status) atualizado a partir das
+ * gravações de consumo, como {@link ConsumptionWriteListener}: cada dispositivo guarda em memória a quantidade e a
+ * soma das suas leituras, ajustadas a cada inclusão, alteração e exclusão, e a média é lida em tempo constante por
+ * {@link #averageOf(long)}. Os totais ficam em um {@link ConcurrentLongMap}, de modo que a consulta e o ajuste por
+ * leitura não convertem o ID em Long.
+ *
+ * As médias alteradas são gravadas no banco em lote (um único UPDATE com executeBatch) a cada
+ * ecosmart.deviceAverage.flushSeconds, e não a cada leitura. A quantidade e a soma iniciais vêm de um recálculo
+ * completo, executado ao criar o rastreador e sob demanda (POST /devices/averages/recompute) para corrigir desvios:
+ * o histórico é agregado no banco em ecosmart.deviceAverage.recomputeThreads faixas de IDs de dispositivo em
+ * paralelo, e as gravações avisadas depois que a consulta da faixa do dispositivo começou são somadas ao resultado.
+ * Até o primeiro recálculo terminar, nenhuma média é informada nem gravada.
+ *
+ * Gravações feitas por outras instâncias da aplicação ou diretamente no banco só são incorporadas no próximo
+ * recálculo, assim como uma alteração cujo estado anterior não pôde ser lido.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class DeviceAverageTracker implements ConsumptionWriteListener {
+    private static final Logger LOGGER = Logger.getLogger(DeviceAverageTracker.class.getName());
+
+    private final ConsumptionDAO consumptionDAO;
+    private final DeviceDAO deviceDAO;
+    private final int recomputeThreads;
+    private final ConcurrentLongMap<Totals> totals = new ConcurrentLongMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean recomputing = new AtomicBoolean();
+    private volatile RecomputeRange[] recomputeRanges;
+    private volatile boolean seeded;
+
+    private final LongAdder persisted = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+    private final LongAdder flushFailures = new LongAdder();
+    private final LongAdder recomputes = new LongAdder();
+    private volatile long lastRecomputeAt;
+    private volatile long lastRecomputeMillis;
+
+    /**
+     * Construtor da classe DeviceAverageTracker. Agenda o recálculo inicial e as gravações periódicas.
+     *
+     * @param consumptionDAO   DAO usado no recálculo completo (sem observadores, para não se avisar).
+     * @param deviceDAO        DAO usado para listar os dispositivos e gravar as médias.
+     * @param flushMillis      Intervalo entre as gravações das médias alteradas.
+     * @param recomputeThreads Consultas paralelas do recálculo completo.
+     */
+    public DeviceAverageTracker(ConsumptionDAO consumptionDAO, DeviceDAO deviceDAO, long flushMillis,
+            int recomputeThreads) {
+        this.consumptionDAO = consumptionDAO;
+        this.deviceDAO = deviceDAO;
+        this.recomputeThreads = Math.max(1, recomputeThreads);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ecosmart-device-average");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::tick, 0, flushMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Indica se o consumo médio é mantido pelas gravações de consumo (ecosmart.deviceAverage.enabled, padrão false).
+     *
+     * @return true caso o rastreamento esteja ativado.
+     */
+    public static boolean isEnabled() {
+        return AppConfig.getBoolean("ecosmart.deviceAverage.enabled", false);
+    }
+
+    /**
+     * Cria o rastreador com ecosmart.deviceAverage.flushSeconds (padrão 60) e
+     * ecosmart.deviceAverage.recomputeThreads (padrão 4).
+     *
+     * @param consumptionDAO DAO usado no recálculo completo.
+     * @param deviceDAO      DAO usado para listar os dispositivos e gravar as médias.
+     * @return Rastreador com o recálculo inicial agendado.
+     */
+    public static DeviceAverageTracker fromConfig(ConsumptionDAO consumptionDAO, DeviceDAO deviceDAO) {
+        return new DeviceAverageTracker(consumptionDAO, deviceDAO,
+                AppConfig.getLong("ecosmart.deviceAverage.flushSeconds", 60) * 1000,
+                AppConfig.getInt("ecosmart.deviceAverage.recomputeThreads", 4));
+    }
+
+    @Override
+    public void onCreated(List<Consumption> consumptions) {
+        for (Consumption consumption : consumptions) {
+            if (consumption.getAmount() != null) {
+                apply(consumption.getDeviceId(), 1, consumption.getAmount());
+            }
+        }
+    }
+
+    /**
+     * A soma das leituras só pode ser ajustada com o valor anterior.
+     */
+    @Override
+    public boolean needsPreviousState() {
+        return true;
+    }
+
+    @Override
+    public void onUpdated(Consumption previous, Consumption consumption) {
+        if (previous.getAmount() != null) {
+            apply(previous.getDeviceId(), -1, -previous.getAmount());
+        }
+        if (consumption.getAmount() != null) {
+            apply(consumption.getDeviceId(), 1, consumption.getAmount());
+        }
+    }
+
+    /**
+     * Sem o estado anterior não é possível ajustar a soma; a diferença é corrigida no próximo recálculo.
+     */
+    @Override
+    public void onUpdated(Consumption consumption) {
+    }
+
+    @Override
+    public void onDeleted(Consumption deleted) {
+        if (deleted.getAmount() != null) {
+            apply(deleted.getDeviceId(), -1, -deleted.getAmount());
+        }
+    }
+
+    /**
+     * Sem o estado anterior não é possível ajustar a soma; a diferença é corrigida no próximo recálculo.
+     */
+    @Override
+    public void onDeleted(Long id) {
+    }
+
+    /**
+     * Consumo médio atual de um dispositivo, em tempo constante e sem alocar memória.
+     *
+     * @param deviceId ID do dispositivo.
+     * @return Média das leituras em kWh ou NaN caso o dispositivo não tenha leituras ou o recálculo inicial ainda
+     *         não tenha terminado.
+     */
+    public double averageOf(long deviceId) {
+        if (!seeded) {
+            return Double.NaN;
+        }
+        Totals current = totals.get(deviceId);
+        if (current == null) {
+            return Double.NaN;
+        }
+        synchronized (current) {
+            return current.count > 0 ? current.sum / current.count : Double.NaN;
+        }
+    }
+
+    /**
+     * Consumo médio atual de um dispositivo.
+     *
+     * @param deviceId ID do dispositivo.
+     * @return Média das leituras em kWh ou null caso não seja conhecida.
+     */
+    public Double getAverage(Long deviceId) {
+        double average = averageOf(deviceId);
+        return Double.isNaN(average) ? null : average;
+    }
+
+    /**
+     * Retorna uma cópia do dispositivo com a média mantida em memória, quando conhecida; o objeto original pode
+     * estar no cache e não é alterado.
+     *
+     * @param device Dispositivo lido do banco.
+     * @return Cópia com averageConsumption atual ou o próprio dispositivo caso a média não seja conhecida.
+     */
+    public Device withCurrentAverage(Device device) {
+        Double average = getAverage(device.getId());
+        if (average == null) {
+            return device;
+        }
+        return new Device(device.getId(), device.getName(), device.getType(), average, device.getResidenceId());
+    }
+
+    /**
+     * Agenda a gravação da média do dispositivo na próxima gravação periódica, mesmo sem leituras novas. Usado
+     * quando a coluna status foi sobrescrita por outro caminho, como PUT /devices/{id}.
+     *
+     * @param deviceId ID do dispositivo.
+     */
+    public void markForFlush(long deviceId) {
+        if (totals.get(deviceId) != null) {
+            markDirty(deviceId);
+        }
+    }
+
+    /**
+     * Inicia um recálculo completo em segundo plano, caso nenhum esteja em andamento.
+     *
+     * @return true caso o recálculo tenha sido iniciado; false caso já exista um em andamento.
+     */
+    public boolean recomputeAsync() {
+        if (!recomputing.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            scheduler.execute(() -> {
+                try {
+                    runRecompute();
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Error recomputing device averages", e);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            recomputing.set(false);
+            return false;
+        }
+    }
+
+    /**
+     * Recalcula a quantidade e a soma das leituras de todos os dispositivos a partir do banco e grava as médias.
+     *
+     * @return true caso o recálculo tenha sido executado; false caso já exista um em andamento.
+     * @throws ConsumptionException Caso ocorra erro ao consultar o banco de dados.
+     */
+    public boolean recompute() {
+        if (!recomputing.compareAndSet(false, true)) {
+            return false;
+        }
+        runRecompute();
+        return true;
+    }
+
+    /**
+     * Grava as médias alteradas desde a última gravação em um único lote. Em caso de falha, os dispositivos são
+     * mantidos para a próxima gravação.
+     *
+     * @throws br.com.fiap.ecosmartmonitor.exception.DeviceException Caso ocorra erro ao gravar no banco de dados.
+     */
+    public void flush() {
+        if (!seeded || dirty.isEmpty()) {
+            return;
+        }
+        Map<Long, Double> averages = new HashMap<>();
+        for (Iterator<Long> iterator = dirty.iterator(); iterator.hasNext();) {
+            Long deviceId = iterator.next();
+            iterator.remove();
+            Totals current = totals.get(deviceId);
+            synchronized (current) {
+                current.dirty = false;
+                if (current.count > 0) {
+                    averages.put(deviceId, current.sum / current.count);
+                }
+            }
+        }
+        try {
+            deviceDAO.updateAverageConsumptions(averages);
+            persisted.add(averages.size());
+            flushes.increment();
+        } catch (RuntimeException e) {
+            for (Long deviceId : averages.keySet()) {
+                markDirty(deviceId);
+            }
+            flushFailures.increment();
+            throw e;
+        }
+    }
+
+    /**
+     * Interrompe as tarefas em segundo plano e grava as médias pendentes. Chamado antes de fechar o pool.
+     */
+    public void close() {
+        scheduler.shutdownNow();
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error saving device averages on shutdown", e);
+        }
+    }
+
+    /**
+     * Retorna um retrato das métricas atuais do rastreador.
+     *
+     * @return Métricas do rastreador.
+     */
+    public DeviceAverageStats getStats() {
+        return new DeviceAverageStats(totals.size(), seeded, recomputing.get(), dirty.size(), persisted.sum(),
+                flushes.sum(), flushFailures.sum(), recomputes.sum(), lastRecomputeAt, lastRecomputeMillis);
+    }
+
+    private void tick() {
+        try {
+            if (!seeded) {
+                recompute();
+            } else {
+                flush();
+            }
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, seeded ? "Error saving device averages; retrying on the next flush"
+                    : "Error loading device averages; retrying on the next flush", e);
+        }
+    }
+
+    /**
+     * Ajusta os totais do dispositivo. O ID só entra no conjunto de pendentes (e só é convertido em Long) quando o
+     * dispositivo deixa de estar marcado como alterado, isto é, uma vez por gravação periódica.
+     */
+    private void apply(long deviceId, long count, double sum) {
+        Totals current = totals.computeIfAbsent(deviceId, id -> new Totals());
+        boolean marked;
+        synchronized (current) {
+            current.count += count;
+            current.sum += sum;
+            RecomputeRange range = rangeOf(recomputeRanges, deviceId);
+            if (range != null && range.started) {
+                Totals change = range.changes.computeIfAbsent(deviceId, id -> new Totals());
+                change.count += count;
+                change.sum += sum;
+            }
+            marked = !current.dirty;
+            current.dirty = true;
+        }
+        if (marked) {
+            dirty.add(deviceId);
+        }
+    }
+
+    private void markDirty(long deviceId) {
+        Totals current = totals.get(deviceId);
+        synchronized (current) {
+            current.dirty = true;
+        }
+        dirty.add(deviceId);
+    }
+
+    /**
+     * Executa o recálculo; o indicador recomputing já foi obtido por quem chamou e é liberado ao final.
+     * Cada faixa passa a registrar à parte as gravações dos seus dispositivos imediatamente antes de a sua consulta
+     * ser executada, já com a conexão obtida, e esse registro é somado ao resultado de cada dispositivo, sob o
+     * bloqueio do próprio dispositivo.
+     * Resta apenas a janela entre a confirmação de uma gravação e o aviso aos observadores: uma leitura confirmada
+     * antes do início da consulta da sua faixa e avisada depois dele é contada duas vezes.
+     */
+    private void runRecompute() {
+        long startedAt = System.currentTimeMillis();
+        try {
+            RecomputeRange[] ranges = splitDeviceRanges();
+            recomputeRanges = ranges;
+            Map<Long, ConsumptionAggregate> byDevice = new HashMap<>();
+            for (ConsumptionAggregate aggregate : aggregateInParallel(ranges)) {
+                byDevice.put((long) aggregate.getDeviceId(), aggregate);
+            }
+            Set<Long> deviceIds = new HashSet<>(byDevice.keySet());
+            for (long deviceId : totals.keys()) {
+                deviceIds.add(deviceId);
+            }
+            for (Long deviceId : deviceIds) {
+                Totals current = totals.computeIfAbsent(deviceId, id -> new Totals());
+                ConsumptionAggregate aggregate = byDevice.get(deviceId);
+                synchronized (current) {
+                    RecomputeRange range = rangeOf(ranges, deviceId);
+                    Totals change = range != null ? range.changes.get(deviceId) : null;
+                    current.count = aggregate != null ? aggregate.getCount() : 0;
+                    current.sum = aggregate != null ? aggregate.getSum() : 0;
+                    if (change != null) {
+                        current.count += change.count;
+                        current.sum += change.sum;
+                    }
+                }
+            }
+            for (Long deviceId : byDevice.keySet()) {
+                markDirty(deviceId);
+            }
+            seeded = true;
+            recomputes.increment();
+            lastRecomputeAt = startedAt;
+            lastRecomputeMillis = System.currentTimeMillis() - startedAt;
+        } finally {
+            recomputeRanges = null;
+            recomputing.set(false);
+        }
+        flush();
+    }
+
+    /**
+     * Divide os dispositivos em até recomputeThreads faixas contíguas de IDs. A primeira e a última faixa são
+     * abertas, para que um dispositivo criado durante o recálculo também pertença a uma faixa.
+     */
+    private RecomputeRange[] splitDeviceRanges() {
+        List<Long> deviceIds = new ArrayList<>();
+        for (Device device : deviceDAO.getAllDevices()) {
+            deviceIds.add(device.getId());
+        }
+        if (deviceIds.isEmpty()) {
+            return new RecomputeRange[0];
+        }
+        deviceIds.sort(null);
+        int parts = Math.min(recomputeThreads, deviceIds.size());
+        RecomputeRange[] ranges = new RecomputeRange[parts];
+        for (int part = 0; part < parts; part++) {
+            long from = part == 0 ? Long.MIN_VALUE : deviceIds.get(part * deviceIds.size() / parts);
+            long to = part == parts - 1 ? Long.MAX_VALUE : deviceIds.get((part + 1) * deviceIds.size() / parts) - 1;
+            ranges[part] = new RecomputeRange(from, to);
+        }
+        return ranges;
+    }
+
+    /**
+     * Agrega o histórico de cada faixa em uma consulta própria, em paralelo.
+     */
+    private List<ConsumptionAggregate> aggregateInParallel(RecomputeRange[] ranges) {
+        if (ranges.length == 0) {
+            return new ArrayList<>();
+        }
+        ExecutorService pool = Executors.newFixedThreadPool(ranges.length, runnable -> {
+            Thread thread = new Thread(runnable, "ecosmart-device-average-recompute");
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            List<Future<List<ConsumptionAggregate>>> futures = new ArrayList<>(ranges.length);
+            for (RecomputeRange range : ranges) {
+                futures.add(pool.submit(() -> consumptionDAO.aggregateByDeviceRange(range.from, range.to,
+                        () -> range.started = true)));
+            }
+            List<ConsumptionAggregate> aggregates = new ArrayList<>();
+            for (Future<List<ConsumptionAggregate>> future : futures) {
+                aggregates.addAll(future.get());
+            }
+            return aggregates;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConsumptionException("Device average recompute interrupted", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new ConsumptionException("Error recomputing device averages", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static RecomputeRange rangeOf(RecomputeRange[] ranges, long deviceId) {
+        if (ranges == null) {
+            return null;
+        }
+        for (RecomputeRange range : ranges) {
+            if (deviceId >= range.from && deviceId <= range.to) {
+                return range;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Quantidade e soma das leituras de um dispositivo, alteradas sob o monitor do próprio objeto, e a indicação de
+     * que a média ainda não foi gravada.
+     */
+    private static final class Totals {
+        private long count;
+        private double sum;
+        private boolean dirty;
+    }
+
+    /**
+     * Faixa de IDs de dispositivo de um recálculo, com as gravações avisadas depois do início da sua consulta.
+     */
+    private static final class RecomputeRange {
+        private final long from;
+        private final long to;
+        private final ConcurrentLongMap<Totals> changes = new ConcurrentLongMap<>();
+        private volatile boolean started;
+
+        private RecomputeRange(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+    }
+}
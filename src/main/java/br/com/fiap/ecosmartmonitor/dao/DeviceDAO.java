@@ -1,6 +1,7 @@
 package br.com.fiap.ecosmartmonitor.dao;
 
 import java.util.List;
+import java.util.Map;
 
 import br.com.fiap.ecosmartmonitor.model.Device;
 
@@ -33,15 +34,17 @@ public interface DeviceDAO {
      * Atualiza os dados de um dispositivo existente no banco de dados.
      *
      * @param device Objeto Device contendo os dados atualizados do dispositivo.
+     * @return true caso o registro exista e tenha sido atualizado, false caso contrário.
      */
-    void updateDevice(Device device);
+    boolean updateDevice(Device device);
 
     /**
      * Deleta um dispositivo pelo seu ID.
      *
      * @param id ID do dispositivo a ser deletado.
+     * @return true caso o registro exista e tenha sido excluído, false caso contrário.
      */
-    void deleteDevice(Long id);
+    boolean deleteDevice(Long id);
 
     /**
      * Lista todos os dispositivos cadastrados no banco de dados.
@@ -57,4 +60,20 @@ public interface DeviceDAO {
      * @return Lista de objetos Device associados à residência.
      */
     List<Device> getDevicesByResidenceId(Long residenceId);
+
+    /**
+     * Lista os dispositivos de todas as residências de um cliente em uma única consulta.
+     *
+     * @param clientId ID do cliente.
+     * @return Lista de objetos Device ordenada por residência e ID.
+     */
+    List<Device> getDevicesByClientId(Long clientId);
+
+    /**
+     * Atualiza o consumo médio de vários dispositivos em lote, em uma única transação.
+     *
+     * @param averages Consumo médio em kWh por ID do dispositivo.
+     * @return Quantidade de dispositivos atualizados (IDs inexistentes são ignorados).
+     */
+    int updateAverageConsumptions(Map<Long, Double> averages);
 }
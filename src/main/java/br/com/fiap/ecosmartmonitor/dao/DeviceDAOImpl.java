@@ -2,13 +2,14 @@ package br.com.fiap.ecosmartmonitor.dao;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
+import java.sql.Statement;
 import java.util.List;
+import java.util.Map;
 
 import br.com.fiap.ecosmartmonitor.exception.DeviceException;
 import br.com.fiap.ecosmartmonitor.model.Device;
+import br.com.fiap.ecosmartmonitor.util.ConnectionSource;
 
 /**
  * Implementação da interface DeviceDAO para acesso ao banco de dados.
@@ -19,33 +20,35 @@ import br.com.fiap.ecosmartmonitor.model.Device;
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
 public class DeviceDAOImpl implements DeviceDAO {
-    private Connection connection;
+    private final ConnectionSource connectionSource;
 
     /**
      * Construtor da classe DeviceDAOImpl.
      *
-     * @param connection Conexão com o banco de dados.
+     * @param connectionSource Origem das conexões com o banco de dados (normalmente o pool de conexões).
      */
-    public DeviceDAOImpl(Connection connection) {
-        this.connection = connection;
+    public DeviceDAOImpl(ConnectionSource connectionSource) {
+        this.connectionSource = connectionSource;
     }
 
     /**
      * Insere um novo dispositivo no banco de dados.
      *
      * @param device Objeto Device contendo os dados do dispositivo a ser inserido.
+     * @throws DeviceException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
     public void createDevice(Device device) {
         String sql = "INSERT INTO Device (name, type, status, residence_id) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, device.getName());
             stmt.setString(2, device.getType());
             stmt.setDouble(3, device.getAverageConsumption());
             stmt.setLong(4, device.getResidenceId());
             stmt.executeUpdate();
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new DeviceException("Error creating device", e);
         }
     }
 
@@ -58,43 +61,34 @@ public class DeviceDAOImpl implements DeviceDAO {
      */
     @Override
     public Device getDeviceById(Long id) {
-        String sql = "SELECT * FROM Device WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Device(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("type"),
-                        rs.getDouble("averageConsumption"),
-                        rs.getInt("residenceId")
-                );
-            }
+        String sql = "SELECT " + RowMappers.DEVICE_COLUMNS + " FROM Device WHERE id = ?";
+        try {
+            return JdbcQueries.queryForObject(connectionSource, sql, stmt -> stmt.setLong(1, id), RowMappers.DEVICE);
         } catch (SQLException e) {
-            e.printStackTrace();
             throw new DeviceException("Error retrieving device with ID: " + id, e);
         }
-        return null;
     }
 
     /**
      * Atualiza os dados de um dispositivo existente no banco de dados.
      *
      * @param device Objeto Device contendo os dados atualizados do dispositivo.
+     * @return true caso o registro exista e tenha sido atualizado, false caso nenhum registro tenha o ID informado.
+     * @throws DeviceException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void updateDevice(Device device) {
+    public boolean updateDevice(Device device) {
         String sql = "UPDATE Device SET name = ?, type = ?, status = ?, residence_id = ? WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, device.getName());
             stmt.setString(2, device.getType());
             stmt.setDouble(3, device.getAverageConsumption());
             stmt.setLong(4, device.getResidenceId());
             stmt.setLong(5, device.getId());
-            stmt.executeUpdate();
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new DeviceException("Error updating device with ID: " + device.getId(), e);
         }
     }
 
@@ -102,15 +96,18 @@ public class DeviceDAOImpl implements DeviceDAO {
      * Deleta um dispositivo pelo seu ID.
      *
      * @param id ID do dispositivo a ser deletado.
+     * @return true caso o registro exista e tenha sido excluído, false caso nenhum registro tenha o ID informado.
+     * @throws DeviceException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void deleteDevice(Long id) {
+    public boolean deleteDevice(Long id) {
         String sql = "DELETE FROM Device WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, id);
-            stmt.executeUpdate();
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new DeviceException("Error deleting device with ID: " + id, e);
         }
     }
 
@@ -118,26 +115,16 @@ public class DeviceDAOImpl implements DeviceDAO {
      * Lista todos os dispositivos cadastrados no banco de dados.
      *
      * @return Lista de objetos Device contendo todos os dispositivos.
+     * @throws DeviceException Caso ocorra erro ao acessar o banco de dados.
      */
     @Override
     public List<Device> getAllDevices() {
-        String sql = "SELECT * FROM Device";
-        List<Device> devices = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                devices.add(new Device(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("type"),
-                        rs.getDouble("averageConsumption"),
-                        rs.getInt("residenceId")
-                ));
-            }
+        String sql = "SELECT " + RowMappers.DEVICE_COLUMNS + " FROM Device";
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, StatementBinder.NONE, RowMappers.DEVICE);
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new DeviceException("Error retrieving devices", e);
         }
-        return devices;
     }
 
     /**
@@ -145,26 +132,73 @@ public class DeviceDAOImpl implements DeviceDAO {
      *
      * @param residenceId ID da residência para a qual os dispositivos serão buscados.
      * @return Lista de objetos Device associados à residência.
+     * @throws DeviceException Caso ocorra erro ao acessar o banco de dados.
      */
     @Override
     public List<Device> getDevicesByResidenceId(Long residenceId) {
-        String sql = "SELECT * FROM Device WHERE residence_id = ?";
-        List<Device> devices = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, residenceId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                devices.add(new Device(
-                        rs.getLong("id"),
-                        rs.getString("name"),
-                        rs.getString("type"),
-                        rs.getDouble("averageConsumption"),
-                        rs.getInt("residenceId")
-                ));
+        String sql = "SELECT " + RowMappers.DEVICE_COLUMNS + " FROM Device WHERE residence_id = ?";
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, stmt -> stmt.setLong(1, residenceId), RowMappers.DEVICE);
+        } catch (SQLException e) {
+            throw new DeviceException("Error retrieving devices", e);
+        }
+    }
+
+    /**
+     * Lista os dispositivos de todas as residências de um cliente em uma única consulta.
+     *
+     * @param clientId ID do cliente.
+     * @return Lista de objetos Device ordenada por residência e ID.
+     * @throws DeviceException Caso ocorra erro ao acessar o banco de dados.
+     */
+    @Override
+    public List<Device> getDevicesByClientId(Long clientId) {
+        String sql = "SELECT d.id, d.name, d.type, d.status, d.residence_id FROM Device d"
+                + " JOIN Residence r ON r.id = d.residence_id WHERE r.client_id = ? ORDER BY d.residence_id, d.id";
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, stmt -> stmt.setLong(1, clientId), RowMappers.DEVICE);
+        } catch (SQLException e) {
+            throw new DeviceException("Error retrieving devices for client ID: " + clientId, e);
+        }
+    }
+
+    /**
+     * Atualiza o consumo médio de vários dispositivos com um único executeBatch, em uma transação.
+     *
+     * @param averages Consumo médio em kWh por ID do dispositivo.
+     * @return Quantidade de dispositivos atualizados (IDs inexistentes são ignorados).
+     * @throws DeviceException Caso ocorra erro ao gravar no banco de dados; nenhum dispositivo é atualizado.
+     */
+    @Override
+    public int updateAverageConsumptions(Map<Long, Double> averages) {
+        if (averages.isEmpty()) {
+            return 0;
+        }
+        String sql = "UPDATE Device SET status = ? WHERE id = ?";
+        try (Connection connection = connectionSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+                for (Map.Entry<Long, Double> entry : averages.entrySet()) {
+                    stmt.setDouble(1, entry.getValue());
+                    stmt.setLong(2, entry.getKey());
+                    stmt.addBatch();
+                }
+                int updated = 0;
+                for (int count : stmt.executeBatch()) {
+                    // SUCCESS_NO_INFO: o driver não informa a contagem; o dispositivo é contado como atualizado.
+                    updated += count == Statement.SUCCESS_NO_INFO ? 1 : count;
+                }
+                connection.commit();
+                return updated;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
             }
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new DeviceException("Error updating average consumption of " + averages.size() + " devices", e);
         }
-        return devices;
     }
 }
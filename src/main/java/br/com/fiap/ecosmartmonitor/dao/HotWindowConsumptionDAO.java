@@ -0,0 +1,142 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import br.com.fiap.ecosmartmonitor.model.AggregationBucket;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionAggregate;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionCursor;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionPoint;
+
+/**
+ * Decorador de ConsumptionDAO que responde pela {@link RecentReadingsStore} as páginas de residência e de pontos
+ * por dispositivo e a leitura mais recente de um dispositivo, quando a janela cobre o intervalo pedido.
+ * A janela é alimentada como {@link ConsumptionWriteListener} do {@link ObservedConsumptionDAO} envolvido.
+ * Intervalos mais antigos, as gravações e as demais consultas são repassados diretamente ao DAO original.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class HotWindowConsumptionDAO implements ConsumptionDAO {
+    private final ConsumptionDAO delegate;
+    private final RecentReadingsStore store;
+
+    /**
+     * Construtor da classe HotWindowConsumptionDAO.
+     *
+     * @param delegate DAO que acessa o banco de dados, cujas gravações alimentam a janela.
+     * @param store    Janela de leituras recentes consultada por este DAO.
+     */
+    public HotWindowConsumptionDAO(ConsumptionDAO delegate, RecentReadingsStore store) {
+        this.delegate = delegate;
+        this.store = store;
+    }
+
+    @Override
+    public void createConsumption(Consumption consumption) {
+        delegate.createConsumption(consumption);
+    }
+
+    @Override
+    public int[] createConsumptions(List<Consumption> consumptions) {
+        return delegate.createConsumptions(consumptions);
+    }
+
+    @Override
+    public Consumption getConsumptionById(Long id) {
+        return delegate.getConsumptionById(id);
+    }
+
+    @Override
+    public boolean updateConsumption(Consumption consumption) {
+        return delegate.updateConsumption(consumption);
+    }
+
+    @Override
+    public Consumption updateConsumptionReturningPrevious(Consumption consumption) {
+        return delegate.updateConsumptionReturningPrevious(consumption);
+    }
+
+    @Override
+    public boolean deleteConsumption(Long id) {
+        return delegate.deleteConsumption(id);
+    }
+
+    @Override
+    public Consumption deleteConsumptionReturningPrevious(Long id) {
+        return delegate.deleteConsumptionReturningPrevious(id);
+    }
+
+    @Override
+    public List<Consumption> getAllConsumptions() {
+        return delegate.getAllConsumptions();
+    }
+
+    @Override
+    public List<Consumption> getConsumptionsByDeviceId(Long deviceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit) {
+        return delegate.getConsumptionsByDeviceId(deviceId, from, to, after, limit);
+    }
+
+    @Override
+    public List<Consumption> getConsumptionsByResidenceId(Long residenceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit) {
+        List<Consumption> consumptions = new ArrayList<>();
+        if (store.forEachByResidence(residenceId, from, to, after, limit, consumptions::add)) {
+            return consumptions;
+        }
+        return delegate.getConsumptionsByResidenceId(residenceId, from, to, after, limit);
+    }
+
+    @Override
+    public void forEachConsumptionByResidenceId(Long residenceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit, Consumer<Consumption> action) {
+        if (!store.forEachByResidence(residenceId, from, to, after, limit, action)) {
+            delegate.forEachConsumptionByResidenceId(residenceId, from, to, after, limit, action);
+        }
+    }
+
+    @Override
+    public void forEachConsumptionPointByDeviceId(Long deviceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit, Consumer<ConsumptionPoint> action) {
+        if (!store.forEachPointByDevice(deviceId, from, to, after, limit, action)) {
+            delegate.forEachConsumptionPointByDeviceId(deviceId, from, to, after, limit, action);
+        }
+    }
+
+    @Override
+    public List<ConsumptionAggregate> aggregateByResidenceId(Long residenceId, AggregationBucket bucket,
+            Timestamp from, Timestamp to, boolean perDevice) {
+        return delegate.aggregateByResidenceId(residenceId, bucket, from, to, perDevice);
+    }
+
+    @Override
+    public Consumption getLatestConsumptionByDeviceId(Long deviceId) {
+        Consumption latest = store.latest(deviceId);
+        return latest != null ? latest : delegate.getLatestConsumptionByDeviceId(deviceId);
+    }
+
+    @Override
+    public void forEachLatestConsumption(Consumer<Consumption> action) {
+        delegate.forEachLatestConsumption(action);
+    }
+
+    @Override
+    public List<Consumption> getLatestConsumptionsByClientId(Long clientId) {
+        return delegate.getLatestConsumptionsByClientId(clientId);
+    }
+
+    @Override
+    public List<ConsumptionAggregate> aggregateByClientIdPerDevice(Long clientId, Timestamp from, Timestamp to) {
+        return delegate.aggregateByClientIdPerDevice(clientId, from, to);
+    }
+
+    @Override
+    public List<ConsumptionAggregate> aggregateByDeviceRange(Long fromDeviceId, Long toDeviceId, Runnable beforeQuery) {
+        return delegate.aggregateByDeviceRange(fromDeviceId, toDeviceId, beforeQuery);
+    }
+}
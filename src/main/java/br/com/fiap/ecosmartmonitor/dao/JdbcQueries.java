@@ -0,0 +1,94 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import br.com.fiap.ecosmartmonitor.util.ConnectionSource;
+
+/**
+ * Execução das consultas dos DAOs: empresta a conexão, prepara a instrução, preenche os parâmetros,
+ * converte as linhas com um {@link RowMapper} e fecha ResultSet, instrução e conexão.
+ * Os erros são repassados como SQLException para que cada DAO os converta na sua exceção.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+final class JdbcQueries {
+
+    private JdbcQueries() {
+    }
+
+    /**
+     * Executa uma consulta que retorna no máximo um registro.
+     *
+     * @param source Origem das conexões.
+     * @param sql    Consulta com projeção explícita.
+     * @param binder Preenchimento dos parâmetros.
+     * @param mapper Conversão da linha.
+     * @param <T>    Tipo do registro.
+     * @return Registro da primeira linha ou null caso a consulta não retorne linhas.
+     * @throws SQLException Caso ocorra erro ao acessar o banco de dados.
+     */
+    static <T> T queryForObject(ConnectionSource source, String sql, StatementBinder binder, RowMapper<T> mapper)
+            throws SQLException {
+        try (Connection connection = source.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            binder.bind(stmt);
+            try (ResultSet rs = stmt.executeQuery()) {
+                return rs.next() ? mapper.map(rs) : null;
+            }
+        }
+    }
+
+    /**
+     * Executa uma consulta e retorna todos os registros em uma lista.
+     *
+     * @param source Origem das conexões.
+     * @param sql    Consulta com projeção explícita.
+     * @param binder Preenchimento dos parâmetros.
+     * @param mapper Conversão de cada linha.
+     * @param <T>    Tipo dos registros.
+     * @return Registros na ordem retornada pelo banco.
+     * @throws SQLException Caso ocorra erro ao acessar o banco de dados.
+     */
+    static <T> List<T> queryForList(ConnectionSource source, String sql, StatementBinder binder, RowMapper<T> mapper)
+            throws SQLException {
+        List<T> results = new ArrayList<>();
+        forEach(source, sql, binder, mapper, 0, results::add);
+        return results;
+    }
+
+    /**
+     * Executa uma consulta entregando cada registro à ação informada conforme as linhas são lidas.
+     *
+     * @param source    Origem das conexões.
+     * @param sql       Consulta com projeção explícita.
+     * @param binder    Preenchimento dos parâmetros.
+     * @param mapper    Conversão de cada linha.
+     * @param fetchSize Linhas lidas por ida ao banco (0 mantém o padrão do driver).
+     * @param action    Ação executada para cada registro.
+     * @param <T>       Tipo dos registros.
+     * @throws SQLException Caso ocorra erro ao acessar o banco de dados.
+     */
+    static <T> void forEach(ConnectionSource source, String sql, StatementBinder binder, RowMapper<T> mapper,
+            int fetchSize, Consumer<? super T> action) throws SQLException {
+        try (Connection connection = source.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
+            binder.bind(stmt);
+            if (fetchSize > 0) {
+                stmt.setFetchSize(fetchSize);
+            }
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    action.accept(mapper.map(rs));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.Timestamp;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import br.com.fiap.ecosmartmonitor.exception.ConsumptionException;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+
+/**
+ * Índice em memória da leitura mais recente (valor e data, ou seja, quando o dispositivo foi visto pela última vez)
+ * de cada dispositivo. É preenchido por uma única consulta no banco ({@link ConsumptionDAO#forEachLatestConsumption})
+ * no primeiro acesso ou no aquecimento da inicialização, e mantido como {@link ConsumptionWriteListener} a cada
+ * gravação de consumo: consultar um dispositivo custa uma leitura de mapa.
+ *
+ * Quando a leitura mais recente de um dispositivo é alterada ou excluída, o dispositivo é marcado para ser
+ * recarregado do banco no próximo acesso. O índice guarda também o dispositivo de cada leitura indexada, de modo
+ * que basta o ID do registro para invalidá-lo, sem precisar do estado anterior. Com
+ * ecosmart.latestIndex.refreshSeconds (padrão 0, desativado), a consulta completa é repetida nesse intervalo por uma
+ * thread em segundo plano, para incorporar leituras gravadas por outras instâncias da aplicação; as requisições nunca
+ * executam a repetição e o índice continua respondendo durante ela.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class LatestReadingIndex implements ConsumptionWriteListener {
+    private static final Logger LOGGER = Logger.getLogger(LatestReadingIndex.class.getName());
+
+    private final ConsumptionDAO consumptionDAO;
+    private final ScheduledExecutorService refresher;
+    private final ConcurrentHashMap<Long, Reading> latest = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Long> deviceByReading = new ConcurrentHashMap<>();
+    private final Set<Long> stale = ConcurrentHashMap.newKeySet();
+
+    /** Bloqueio do preenchimento; ReentrantLock para não fixar threads virtuais durante a consulta. */
+    private final ReentrantLock seedLock = new ReentrantLock();
+    private final LongAdder seeds = new LongAdder();
+    private final LongAdder reloads = new LongAdder();
+    private volatile long seededAt;
+
+    /**
+     * Construtor da classe LatestReadingIndex. Com refreshMillis positivo, agenda a repetição da consulta completa.
+     *
+     * @param consumptionDAO DAO usado para preencher e recarregar o índice (sem observadores, para não se avisar).
+     * @param refreshMillis  Intervalo entre as repetições da consulta completa ou 0 para não repetir.
+     */
+    public LatestReadingIndex(ConsumptionDAO consumptionDAO, long refreshMillis) {
+        this.consumptionDAO = consumptionDAO;
+        if (refreshMillis > 0) {
+            this.refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "ecosmart-latest-index-refresh");
+                thread.setDaemon(true);
+                return thread;
+            });
+            this.refresher.scheduleWithFixedDelay(this::refresh, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        } else {
+            this.refresher = null;
+        }
+    }
+
+    /**
+     * Cria o índice com ecosmart.latestIndex.refreshSeconds (padrão 0).
+     *
+     * @param consumptionDAO DAO usado para preencher e recarregar o índice.
+     * @return Índice vazio, preenchido no primeiro acesso.
+     */
+    public static LatestReadingIndex fromConfig(ConsumptionDAO consumptionDAO) {
+        return new LatestReadingIndex(consumptionDAO,
+                AppConfig.getLong("ecosmart.latestIndex.refreshSeconds", 0) * 1000);
+    }
+
+    /**
+     * Retorna a leitura mais recente de cada dispositivo informado.
+     *
+     * @param deviceIds IDs dos dispositivos.
+     * @return Mapa do ID do dispositivo para a leitura mais recente; dispositivos sem leituras não aparecem.
+     * @throws ConsumptionException Caso o índice precise ser preenchido ou recarregado e o banco falhe.
+     */
+    public Map<Long, Consumption> getLatest(List<Long> deviceIds) {
+        ensureSeeded();
+        Map<Long, Consumption> result = new HashMap<>();
+        for (Long deviceId : deviceIds) {
+            if (stale.contains(deviceId)) {
+                reload(deviceId);
+            }
+            Reading reading = latest.get(deviceId);
+            if (reading != null) {
+                result.put(deviceId, reading.toConsumption(deviceId));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Preenche o índice caso ainda não tenha sido preenchido. Usado para aquecê-lo na inicialização.
+     *
+     * @throws ConsumptionException Caso ocorra erro ao consultar o banco de dados.
+     */
+    public void warmUp() {
+        ensureSeeded();
+    }
+
+    @Override
+    public void onCreated(List<Consumption> consumptions) {
+        for (Consumption consumption : consumptions) {
+            offer(consumption);
+        }
+    }
+
+    @Override
+    public void onUpdated(Consumption consumption) {
+        onDeleted(consumption.getId());
+        offer(consumption);
+    }
+
+    @Override
+    public void onUpdated(Consumption previous, Consumption consumption) {
+        onDeleted(previous);
+        offer(consumption);
+    }
+
+    /**
+     * Caso o registro excluído seja a leitura mais recente de algum dispositivo, marca o dispositivo para ser
+     * recarregado.
+     */
+    @Override
+    public void onDeleted(Long id) {
+        if (id == null) {
+            return;
+        }
+        Long deviceId = deviceByReading.get(id);
+        if (deviceId != null) {
+            invalidate(deviceId, id);
+        }
+    }
+
+    /**
+     * Caso o registro excluído seja a leitura mais recente do seu dispositivo, marca o dispositivo para ser
+     * recarregado.
+     */
+    @Override
+    public void onDeleted(Consumption deleted) {
+        if (deleted.getId() != null) {
+            invalidate(deleted.getDeviceId(), deleted.getId());
+        }
+    }
+
+    /**
+     * Dispositivos no índice.
+     *
+     * @return Quantidade de dispositivos com leitura conhecida.
+     */
+    public int getSize() {
+        return latest.size();
+    }
+
+    /**
+     * Preenchimentos completos do índice, incluindo as repetições agendadas.
+     *
+     * @return Quantidade de consultas completas executadas.
+     */
+    public long getSeedCount() {
+        return seeds.sum();
+    }
+
+    /**
+     * Recargas de dispositivos cuja leitura mais recente foi alterada ou excluída.
+     *
+     * @return Quantidade de dispositivos recarregados do banco.
+     */
+    public long getReloadCount() {
+        return reloads.sum();
+    }
+
+    /**
+     * Início do último preenchimento completo.
+     *
+     * @return Instante em milissegundos desde a época ou 0 caso o índice ainda não tenha sido preenchido.
+     */
+    public long getSeededAt() {
+        return seededAt;
+    }
+
+    /**
+     * Interrompe a repetição da consulta completa, caso esteja agendada.
+     */
+    public void close() {
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private void offer(Consumption consumption) {
+        if (consumption.getTimeStamp() == null || consumption.getAmount() == null) {
+            return;
+        }
+        Reading candidate = new Reading(consumption);
+        latest.compute((long) consumption.getDeviceId(), (deviceId, current) -> {
+            if (current != null && !candidate.isNewerThan(current)) {
+                return current;
+            }
+            if (current != null) {
+                deviceByReading.remove(current.id, deviceId);
+            }
+            if (candidate.id != 0) {
+                deviceByReading.put(candidate.id, deviceId);
+            }
+            return candidate;
+        });
+    }
+
+    private void invalidate(long deviceId, long readingId) {
+        latest.computeIfPresent(deviceId, (key, current) -> {
+            if (current.id != readingId) {
+                return current;
+            }
+            deviceByReading.remove(readingId, key);
+            stale.add(key);
+            return null;
+        });
+    }
+
+    private void ensureSeeded() {
+        if (seededAt != 0) {
+            return;
+        }
+        seedLock.lock();
+        try {
+            if (seededAt == 0) {
+                seed();
+            }
+        } finally {
+            seedLock.unlock();
+        }
+    }
+
+    /**
+     * Repete a consulta completa na thread de repetição. Enquanto isso as consultas ao índice continuam sendo
+     * respondidas; apenas um primeiro preenchimento simultâneo aguarda o término.
+     */
+    private void refresh() {
+        seedLock.lock();
+        try {
+            seed();
+        } catch (RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Error refreshing the latest reading index: " + e.getMessage(), e);
+        } finally {
+            seedLock.unlock();
+        }
+    }
+
+    private void seed() {
+        long startedAt = System.currentTimeMillis();
+        consumptionDAO.forEachLatestConsumption(this::offer);
+        seededAt = startedAt;
+        seeds.increment();
+    }
+
+    private void reload(Long deviceId) {
+        stale.remove(deviceId);
+        Consumption consumption = consumptionDAO.getLatestConsumptionByDeviceId(deviceId);
+        reloads.increment();
+        if (consumption != null) {
+            offer(consumption);
+        }
+    }
+
+    /**
+     * Leitura mais recente de um dispositivo, imutável para poder ser lida sem bloqueio.
+     */
+    private static final class Reading {
+        private final long id;
+        private final double amount;
+        private final Timestamp timestamp;
+        private final int residenceId;
+
+        private Reading(Consumption consumption) {
+            this.id = consumption.getId() == null ? 0 : consumption.getId();
+            this.amount = consumption.getAmount();
+            this.timestamp = copy(consumption.getTimeStamp());
+            this.residenceId = consumption.getResidenceId();
+        }
+
+        private boolean isNewerThan(Reading other) {
+            int byTime = timestamp.compareTo(other.timestamp);
+            return byTime != 0 ? byTime > 0 : id > other.id;
+        }
+
+        private Consumption toConsumption(long deviceId) {
+            return new Consumption(id == 0 ? null : id, amount, copy(timestamp), (int) deviceId, residenceId);
+        }
+
+        private static Timestamp copy(Timestamp timestamp) {
+            Timestamp copy = new Timestamp(timestamp.getTime());
+            copy.setNanos(timestamp.getNanos());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.util.Arrays;
+import java.util.List;
+
+import br.com.fiap.ecosmartmonitor.model.Client;
+import br.com.fiap.ecosmartmonitor.model.Device;
+import br.com.fiap.ecosmartmonitor.model.Residence;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.CacheStats;
+import br.com.fiap.ecosmartmonitor.util.LruCache;
+
+/**
+ * Caches compartilhados das consultas por ID de clientes, residências e dispositivos.
+ * Ficam fora dos DAOs porque uma exclusão invalida entradas de outras entidades (excluir um cliente
+ * descarta as residências e os dispositivos em cache, por exemplo) e porque GET /stats/cache e /metrics
+ * leem as estatísticas sem passar pela DAOFactory.
+ *
+ * Configurações: ecosmart.cache.enabled (padrão true), ecosmart.cache.maxEntries (padrão 1000 por entidade)
+ * e ecosmart.cache.ttlSeconds (padrão 300). O tempo de vida limita a defasagem quando o banco é alterado
+ * por outra instância da aplicação.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class MetadataCache {
+    private static final boolean ENABLED = AppConfig.getBoolean("ecosmart.cache.enabled", true);
+    private static final int MAX_ENTRIES = AppConfig.getInt("ecosmart.cache.maxEntries", 1000);
+    private static final long TTL_MILLIS = AppConfig.getLong("ecosmart.cache.ttlSeconds", 300) * 1000;
+
+    static final LruCache<Long, Client> CLIENTS = new LruCache<>("client", MAX_ENTRIES, TTL_MILLIS);
+    static final LruCache<Long, Residence> RESIDENCES = new LruCache<>("residence", MAX_ENTRIES, TTL_MILLIS);
+    static final LruCache<Long, Device> DEVICES = new LruCache<>("device", MAX_ENTRIES, TTL_MILLIS);
+
+    private MetadataCache() {
+    }
+
+    /**
+     * Indica se os DAOs de clientes, residências e dispositivos devem usar o cache.
+     *
+     * @return true caso ecosmart.cache.enabled não seja false.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Retorna as métricas dos caches de clientes, residências e dispositivos.
+     *
+     * @return Lista com as métricas de cada cache.
+     */
+    public static List<CacheStats> getStats() {
+        return Arrays.asList(CLIENTS.getStats(), RESIDENCES.getStats(), DEVICES.getStats());
+    }
+}
@@ -33,15 +33,17 @@ public interface NotificationDAO {
      * Atualiza os dados de uma notificação existente no banco de dados.
      *
      * @param notification Objeto Notification contendo os dados atualizados da notificação.
+     * @return true caso o registro exista e tenha sido atualizado, false caso contrário.
      */
-    void updateNotification(Notification notification);
+    boolean updateNotification(Notification notification);
 
     /**
      * Deleta uma notificação pelo seu ID.
      *
      * @param id ID da notificação a ser deletada.
+     * @return true caso o registro exista e tenha sido excluído, false caso contrário.
      */
-    void deleteNotification(Long id);
+    boolean deleteNotification(Long id);
 
     /**
      * Lista todas as notificações cadastradas no banco de dados.
@@ -62,6 +64,7 @@ public interface NotificationDAO {
      * Marca uma notificação como lida.
      *
      * @param id ID da notificação a ser marcada como lida.
+     * @return true caso o registro exista e tenha sido atualizado, false caso contrário.
      */
-    void markAsRead(Long id);
+    boolean markAsRead(Long id);
 }
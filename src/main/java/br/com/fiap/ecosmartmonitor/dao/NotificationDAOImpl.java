@@ -2,13 +2,12 @@ package br.com.fiap.ecosmartmonitor.dao;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 
 import br.com.fiap.ecosmartmonitor.exception.NotificationException;
 import br.com.fiap.ecosmartmonitor.model.Notification;
+import br.com.fiap.ecosmartmonitor.util.ConnectionSource;
 
 /**
  * Implementação da interface NotificationDAO para acesso ao banco de dados.
@@ -19,33 +18,35 @@ import br.com.fiap.ecosmartmonitor.model.Notification;
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
 public class NotificationDAOImpl implements NotificationDAO {
-    private Connection connection;
+    private final ConnectionSource connectionSource;
 
     /**
      * Construtor da classe NotificationDAOImpl.
      *
-     * @param connection Conexão com o banco de dados.
+     * @param connectionSource Origem das conexões com o banco de dados (normalmente o pool de conexões).
      */
-    public NotificationDAOImpl(Connection connection) {
-        this.connection = connection;
+    public NotificationDAOImpl(ConnectionSource connectionSource) {
+        this.connectionSource = connectionSource;
     }
 
     /**
      * Insere uma nova notificação no banco de dados.
      *
      * @param notification Objeto Notification contendo os dados da notificação a ser inserida.
+     * @throws NotificationException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
     public void createNotification(Notification notification) {
         String sql = "INSERT INTO Notification (message, timestamp, read, client_id) VALUES (?, ?, ?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, notification.getMessage());
             stmt.setTimestamp(2, notification.getTimestamp());
             stmt.setString(3, notification.getRead());
             stmt.setInt(4, notification.getClientId());
             stmt.executeUpdate();
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new NotificationException("Error creating notification", e);
         }
     }
 
@@ -58,43 +59,34 @@ public class NotificationDAOImpl implements NotificationDAO {
      */
     @Override
     public Notification getNotificationById(Long id) {
-        String sql = "SELECT * FROM Notification WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Notification(
-                        rs.getLong("id"),
-                        rs.getString("message"),
-                        rs.getTimestamp("timestamp"),
-                        rs.getString("read"),
-                        rs.getInt("clientId")
-                );
-            }
+        String sql = "SELECT " + RowMappers.NOTIFICATION_COLUMNS + " FROM Notification WHERE id = ?";
+        try {
+            return JdbcQueries.queryForObject(connectionSource, sql, stmt -> stmt.setLong(1, id), RowMappers.NOTIFICATION);
         } catch (SQLException e) {
-            e.printStackTrace();
             throw new NotificationException("Error retrieving notification with ID: " + id, e);
         }
-        return null;
     }
 
     /**
      * Atualiza os dados de uma notificação existente no banco de dados.
      *
      * @param notification Objeto Notification contendo os dados atualizados da notificação.
+     * @return true caso o registro exista e tenha sido atualizado, false caso nenhum registro tenha o ID informado.
+     * @throws NotificationException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void updateNotification(Notification notification) {
+    public boolean updateNotification(Notification notification) {
         String sql = "UPDATE Notification SET message = ?, timestamp = ?, read = ?, client_id = ? WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, notification.getMessage());
             stmt.setTimestamp(2, notification.getTimestamp());
             stmt.setString(3, notification.getRead());
             stmt.setLong(4, notification.getClientId());
             stmt.setLong(5, notification.getId());
-            stmt.executeUpdate();
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new NotificationException("Error updating notification with ID: " + notification.getId(), e);
         }
     }
 
@@ -102,15 +94,18 @@ public class NotificationDAOImpl implements NotificationDAO {
      * Deleta uma notificação pelo seu ID.
      *
      * @param id ID da notificação a ser deletada.
+     * @return true caso o registro exista e tenha sido excluído, false caso nenhum registro tenha o ID informado.
+     * @throws NotificationException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void deleteNotification(Long id) {
+    public boolean deleteNotification(Long id) {
         String sql = "DELETE FROM Notification WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, id);
-            stmt.executeUpdate();
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new NotificationException("Error deleting notification with ID: " + id, e);
         }
     }
 
@@ -118,26 +113,16 @@ public class NotificationDAOImpl implements NotificationDAO {
      * Lista todas as notificações cadastradas no banco de dados.
      *
      * @return Lista de objetos Notification contendo todas as notificações.
+     * @throws NotificationException Caso ocorra erro ao acessar o banco de dados.
      */
     @Override
     public List<Notification> getAllNotifications() {
-        String sql = "SELECT * FROM Notification";
-        List<Notification> notifications = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                notifications.add(new Notification(
-                        rs.getLong("id"),
-                        rs.getString("message"),
-                        rs.getTimestamp("timestamp"),
-                        rs.getString("read"),
-                        rs.getInt("clientId")
-                ));
-            }
+        String sql = "SELECT " + RowMappers.NOTIFICATION_COLUMNS + " FROM Notification";
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, StatementBinder.NONE, RowMappers.NOTIFICATION);
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new NotificationException("Error retrieving notifications", e);
         }
-        return notifications;
     }
 
     /**
@@ -145,47 +130,34 @@ public class NotificationDAOImpl implements NotificationDAO {
      *
      * @param clientId ID do cliente para o qual as notificações serão buscadas.
      * @return Lista de objetos Notification associados ao cliente.
+     * @throws NotificationException Caso ocorra erro ao acessar o banco de dados.
      */
     @Override
     public List<Notification> getNotificationsByClientId(Long clientId) {
-        String sql = "SELECT * FROM Notification WHERE client_id = ?";
-        List<Notification> notifications = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, clientId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                notifications.add(new Notification(
-                        rs.getLong("id"),
-                        rs.getString("message"),
-                        rs.getTimestamp("timestamp"),
-                        rs.getString("read"),
-                        rs.getInt("clientId")
-                ));
-            }
+        String sql = "SELECT " + RowMappers.NOTIFICATION_COLUMNS + " FROM Notification WHERE client_id = ?";
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, stmt -> stmt.setLong(1, clientId), RowMappers.NOTIFICATION);
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new NotificationException("Error retrieving notifications", e);
         }
-        return notifications;
     }
 
     /**
      * Marca uma notificação como lida.
      *
      * @param id ID da notificação a ser marcada como lida.
+     * @return true caso o registro exista e tenha sido atualizado, false caso nenhum registro tenha o ID informado.
+     * @throws NotificationException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void markAsRead(Long id) {
+    public boolean markAsRead(Long id) {
         String sql = "UPDATE Notification SET read = 'Y' WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, id);
-            int rowsUpdated = stmt.executeUpdate();
-            if (rowsUpdated > 0) {
-                System.out.println("Notification with ID " + id + " marked as read.");
-            } else {
-                System.out.println("No notification found with ID " + id);
-            }
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new NotificationException("Error marking notification as read with ID: " + id, e);
         }
     }
 }
@@ -0,0 +1,205 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import br.com.fiap.ecosmartmonitor.model.AggregationBucket;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionAggregate;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionCursor;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionPoint;
+
+/**
+ * Decorador de ConsumptionDAO que avisa os {@link ConsumptionWriteListener} registrados após cada inclusão,
+ * alteração ou exclusão bem-sucedida. Uma falha em um observador é registrada no log e não desfaz nem interrompe
+ * a gravação, que já foi confirmada. Quando algum observador precisa do estado anterior
+ * ({@link ConsumptionWriteListener#needsPreviousState()}), alterações e exclusões seguem pelas variantes que o
+ * devolvem, lido e bloqueado pelo DAO original na mesma transação da gravação; caso contrário são gravadas com um
+ * único comando e os observadores recebem apenas o registro atual ou o ID.
+ * As consultas são repassadas diretamente ao DAO original.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ObservedConsumptionDAO implements ConsumptionDAO {
+    private static final Logger LOGGER = Logger.getLogger(ObservedConsumptionDAO.class.getName());
+
+    private final ConsumptionDAO delegate;
+    private final List<ConsumptionWriteListener> listeners;
+    private final boolean needsPreviousState;
+
+    /**
+     * Construtor da classe ObservedConsumptionDAO.
+     *
+     * @param delegate  DAO que acessa o banco de dados.
+     * @param listeners Observadores avisados, na ordem da lista.
+     */
+    public ObservedConsumptionDAO(ConsumptionDAO delegate, List<ConsumptionWriteListener> listeners) {
+        this.delegate = delegate;
+        this.listeners = new ArrayList<>(listeners);
+        this.needsPreviousState = listeners.stream().anyMatch(ConsumptionWriteListener::needsPreviousState);
+    }
+
+    @Override
+    public void createConsumption(Consumption consumption) {
+        delegate.createConsumption(consumption);
+        notifyCreated(Collections.singletonList(consumption));
+    }
+
+    @Override
+    public int[] createConsumptions(List<Consumption> consumptions) {
+        int[] results = delegate.createConsumptions(consumptions);
+        notifyCreated(consumptions);
+        return results;
+    }
+
+    @Override
+    public Consumption getConsumptionById(Long id) {
+        return delegate.getConsumptionById(id);
+    }
+
+    @Override
+    public boolean updateConsumption(Consumption consumption) {
+        if (needsPreviousState) {
+            return updateConsumptionReturningPrevious(consumption) != null;
+        }
+        boolean updated = delegate.updateConsumption(consumption);
+        if (updated) {
+            for (ConsumptionWriteListener listener : listeners) {
+                try {
+                    listener.onUpdated(consumption);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Consumption listener failed after update", e);
+                }
+            }
+        }
+        return updated;
+    }
+
+    @Override
+    public Consumption updateConsumptionReturningPrevious(Consumption consumption) {
+        Consumption previous = delegate.updateConsumptionReturningPrevious(consumption);
+        if (previous != null) {
+            for (ConsumptionWriteListener listener : listeners) {
+                try {
+                    listener.onUpdated(previous, consumption);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Consumption listener failed after update", e);
+                }
+            }
+        }
+        return previous;
+    }
+
+    @Override
+    public boolean deleteConsumption(Long id) {
+        if (needsPreviousState) {
+            return deleteConsumptionReturningPrevious(id) != null;
+        }
+        boolean deleted = delegate.deleteConsumption(id);
+        if (deleted) {
+            for (ConsumptionWriteListener listener : listeners) {
+                try {
+                    listener.onDeleted(id);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Consumption listener failed after delete", e);
+                }
+            }
+        }
+        return deleted;
+    }
+
+    @Override
+    public Consumption deleteConsumptionReturningPrevious(Long id) {
+        Consumption previous = delegate.deleteConsumptionReturningPrevious(id);
+        if (previous != null) {
+            for (ConsumptionWriteListener listener : listeners) {
+                try {
+                    listener.onDeleted(previous);
+                } catch (RuntimeException e) {
+                    LOGGER.log(Level.WARNING, "Consumption listener failed after delete", e);
+                }
+            }
+        }
+        return previous;
+    }
+
+    @Override
+    public List<Consumption> getAllConsumptions() {
+        return delegate.getAllConsumptions();
+    }
+
+    @Override
+    public List<Consumption> getConsumptionsByDeviceId(Long deviceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit) {
+        return delegate.getConsumptionsByDeviceId(deviceId, from, to, after, limit);
+    }
+
+    @Override
+    public List<Consumption> getConsumptionsByResidenceId(Long residenceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit) {
+        return delegate.getConsumptionsByResidenceId(residenceId, from, to, after, limit);
+    }
+
+    @Override
+    public void forEachConsumptionByResidenceId(Long residenceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit, Consumer<Consumption> action) {
+        delegate.forEachConsumptionByResidenceId(residenceId, from, to, after, limit, action);
+    }
+
+    @Override
+    public void forEachConsumptionPointByDeviceId(Long deviceId, Timestamp from, Timestamp to,
+            ConsumptionCursor after, int limit, Consumer<ConsumptionPoint> action) {
+        delegate.forEachConsumptionPointByDeviceId(deviceId, from, to, after, limit, action);
+    }
+
+    @Override
+    public List<ConsumptionAggregate> aggregateByResidenceId(Long residenceId, AggregationBucket bucket,
+            Timestamp from, Timestamp to, boolean perDevice) {
+        return delegate.aggregateByResidenceId(residenceId, bucket, from, to, perDevice);
+    }
+
+    @Override
+    public Consumption getLatestConsumptionByDeviceId(Long deviceId) {
+        return delegate.getLatestConsumptionByDeviceId(deviceId);
+    }
+
+    @Override
+    public void forEachLatestConsumption(Consumer<Consumption> action) {
+        delegate.forEachLatestConsumption(action);
+    }
+
+    @Override
+    public List<Consumption> getLatestConsumptionsByClientId(Long clientId) {
+        return delegate.getLatestConsumptionsByClientId(clientId);
+    }
+
+    @Override
+    public List<ConsumptionAggregate> aggregateByClientIdPerDevice(Long clientId, Timestamp from, Timestamp to) {
+        return delegate.aggregateByClientIdPerDevice(clientId, from, to);
+    }
+
+    @Override
+    public List<ConsumptionAggregate> aggregateByDeviceRange(Long fromDeviceId, Long toDeviceId, Runnable beforeQuery) {
+        return delegate.aggregateByDeviceRange(fromDeviceId, toDeviceId, beforeQuery);
+    }
+
+    private void notifyCreated(List<Consumption> consumptions) {
+        if (consumptions.isEmpty()) {
+            return;
+        }
+        for (ConsumptionWriteListener listener : listeners) {
+            try {
+                listener.onCreated(consumptions);
+            } catch (RuntimeException e) {
+                LOGGER.log(Level.WARNING, "Consumption listener failed after insert", e);
+            }
+        }
+    }
+}
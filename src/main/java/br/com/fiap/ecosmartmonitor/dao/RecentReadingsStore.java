@@ -0,0 +1,571 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionCursor;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionPoint;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.RecentReadingsStats;
+
+/**
+ * Janela em memória das leituras recentes de cada dispositivo, alimentada como {@link ConsumptionWriteListener}
+ * pelas gravações de consumo e consultada por {@link HotWindowConsumptionDAO}. Cada dispositivo (por residência)
+ * guarda suas leituras em buffers circulares de tipos primitivos (long[] de IDs, long[] de timestamps em
+ * milissegundos e double[] de valores), ordenados por (timestamp, id), que crescem sob demanda até
+ * ecosmart.hotWindow.maxReadingsPerDevice posições: a memória de um dispositivo nunca passa de 24 bytes por posição.
+ * Objetos Consumption são criados apenas para as leituras efetivamente entregues a uma página.
+ *
+ * A janela só responde a uma consulta quando tem certeza de possuir todas as leituras do intervalo: o início do
+ * intervalo precisa ser posterior à criação da janela, às últimas ecosmart.hotWindow.hours horas e a qualquer
+ * leitura descartada do dispositivo (por exceder o limite de posições ou por ter sido gravada sem ID conhecido).
+ * Consultas sem início, ou que começam antes disso, são repassadas ao banco. Por isso a janela pressupõe que todas as
+ * gravações de consumo passem por esta instância da aplicação; com outras instâncias ou cargas gravando diretamente
+ * no banco, mantenha ecosmart.hotWindow.enabled desativado.
+ *
+ * Os timestamps são mantidos com precisão de milissegundos.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class RecentReadingsStore implements ConsumptionWriteListener {
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int BYTES_PER_READING = Long.BYTES + Long.BYTES + Double.BYTES;
+
+    private final long windowMillis;
+    private final int maxReadingsPerDevice;
+    private final long startedAt;
+    private final ConcurrentHashMap<Long, Window> windows = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Window>> windowsByDevice = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Set<Window>> windowsByResidence = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Construtor da classe RecentReadingsStore. A janela cobre apenas leituras a partir da sua criação.
+     *
+     * @param windowMillis         Duração da janela mantida em memória.
+     * @param maxReadingsPerDevice Leituras máximas mantidas por dispositivo.
+     */
+    public RecentReadingsStore(long windowMillis, int maxReadingsPerDevice) {
+        if (windowMillis < 1 || maxReadingsPerDevice < 1) {
+            throw new IllegalArgumentException("Window duration and readings per device must be positive");
+        }
+        this.windowMillis = windowMillis;
+        this.maxReadingsPerDevice = maxReadingsPerDevice;
+        this.startedAt = System.currentTimeMillis();
+    }
+
+    /**
+     * Cria a janela com ecosmart.hotWindow.hours (padrão 48) e ecosmart.hotWindow.maxReadingsPerDevice
+     * (padrão 4096).
+     *
+     * @return Janela vazia.
+     */
+    public static RecentReadingsStore fromConfig() {
+        return new RecentReadingsStore(AppConfig.getLong("ecosmart.hotWindow.hours", 48) * 3_600_000L,
+                AppConfig.getInt("ecosmart.hotWindow.maxReadingsPerDevice", 4096));
+    }
+
+    /**
+     * Indica se o DAO de consumo deve manter e consultar a janela (ecosmart.hotWindow.enabled).
+     *
+     * @return true caso a janela esteja ativada.
+     */
+    public static boolean isEnabled() {
+        return AppConfig.getBoolean("ecosmart.hotWindow.enabled", false);
+    }
+
+    /**
+     * Registra uma leitura gravada no banco. Leituras anteriores à janela são ignoradas; uma leitura sem ID
+     * torna o intervalo até ela não coberto para o seu dispositivo.
+     *
+     * @param consumption Leitura gravada.
+     */
+    public void record(Consumption consumption) {
+        if (consumption.getTimeStamp() == null || consumption.getAmount() == null) {
+            return;
+        }
+        long floor = floor(System.currentTimeMillis());
+        long time = consumption.getTimeStamp().getTime();
+        if (time < floor) {
+            return;
+        }
+        Window window = window(consumption.getDeviceId(), consumption.getResidenceId());
+        if (consumption.getId() == null) {
+            window.raiseHorizon(time + 1);
+        } else {
+            window.add(consumption.getId(), time, consumption.getAmount(), floor);
+        }
+    }
+
+    /**
+     * Registra as leituras inseridas no banco.
+     *
+     * @param consumptions Leituras inseridas.
+     */
+    @Override
+    public void onCreated(List<Consumption> consumptions) {
+        for (Consumption consumption : consumptions) {
+            record(consumption);
+        }
+    }
+
+    /**
+     * Sem o estado anterior, remover uma leitura alterada ou excluída exige percorrer os buffers de todos os
+     * dispositivos.
+     */
+    @Override
+    public boolean needsPreviousState() {
+        return true;
+    }
+
+    /**
+     * Substitui uma leitura alterada no banco: remove o estado anterior, onde estiver, e registra o atual.
+     *
+     * @param consumption Leitura com os dados atualizados.
+     */
+    @Override
+    public void onUpdated(Consumption consumption) {
+        onDeleted(consumption.getId());
+        record(consumption);
+    }
+
+    /**
+     * Substitui uma leitura alterada no banco, procurando o estado anterior apenas nos buffers do seu dispositivo.
+     *
+     * @param previous    Leitura antes da alteração.
+     * @param consumption Leitura com os dados atualizados.
+     */
+    @Override
+    public void onUpdated(Consumption previous, Consumption consumption) {
+        onDeleted(previous);
+        record(consumption);
+    }
+
+    /**
+     * Remove uma leitura excluída do banco. Percorre os buffers de todos os dispositivos, já que o ID não indica
+     * o dispositivo; usado apenas quando o estado anterior não é conhecido.
+     *
+     * @param id ID da leitura.
+     */
+    @Override
+    public void onDeleted(Long id) {
+        if (id == null) {
+            return;
+        }
+        for (Window window : windows.values()) {
+            if (window.remove(id)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Remove uma leitura excluída do banco dos buffers do seu dispositivo.
+     *
+     * @param deleted Leitura excluída.
+     */
+    @Override
+    public void onDeleted(Consumption deleted) {
+        Set<Window> candidates = windowsByDevice.get((long) deleted.getDeviceId());
+        if (deleted.getId() == null || candidates == null) {
+            return;
+        }
+        for (Window window : candidates) {
+            if (window.remove(deleted.getId())) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Percorre uma página das leituras de uma residência, ordenadas por (timestamp, id), caso a janela cubra o
+     * intervalo pedido. Nada é entregue quando a janela não cobre o intervalo.
+     *
+     * @param residenceId ID da residência.
+     * @param from        Início do intervalo (inclusivo) ou null.
+     * @param to          Fim do intervalo (exclusivo) ou null.
+     * @param after       Cursor do último registro já entregue ou null.
+     * @param limit       Quantidade máxima de registros.
+     * @param action      Ação executada para cada registro.
+     * @return true caso a página tenha sido respondida pela janela, false caso deva ser consultada no banco.
+     */
+    public boolean forEachByResidence(long residenceId, Timestamp from, Timestamp to, ConsumptionCursor after,
+            int limit, Consumer<Consumption> action) {
+        List<Slice> slices = collect(windowsByResidence.get(residenceId), from, to, after, limit);
+        if (slices == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        merge(slices, limit, (slice, index) -> action.accept(new Consumption(slice.ids[index], slice.amounts[index],
+                new Timestamp(slice.times[index]), slice.deviceId, slice.residenceId)));
+        return true;
+    }
+
+    /**
+     * Percorre uma página dos pontos (id, valor e data) de um dispositivo, ordenados por (timestamp, id), caso a
+     * janela cubra o intervalo pedido.
+     *
+     * @param deviceId ID do dispositivo.
+     * @param from     Início do intervalo (inclusivo) ou null.
+     * @param to       Fim do intervalo (exclusivo) ou null.
+     * @param after    Cursor do último registro já entregue ou null.
+     * @param limit    Quantidade máxima de registros.
+     * @param action   Ação executada para cada ponto.
+     * @return true caso a página tenha sido respondida pela janela, false caso deva ser consultada no banco.
+     */
+    public boolean forEachPointByDevice(long deviceId, Timestamp from, Timestamp to, ConsumptionCursor after,
+            int limit, Consumer<ConsumptionPoint> action) {
+        List<Slice> slices = collect(windowsByDevice.get(deviceId), from, to, after, limit);
+        if (slices == null) {
+            misses.increment();
+            return false;
+        }
+        hits.increment();
+        merge(slices, limit, (slice, index) -> action.accept(
+                new ConsumptionPoint(slice.ids[index], slice.amounts[index], new Timestamp(slice.times[index]))));
+        return true;
+    }
+
+    /**
+     * Retorna a leitura mais recente de um dispositivo, caso ela esteja na janela.
+     * Como a janela possui todas as leituras posteriores ao início da sua cobertura, a maior leitura armazenada é
+     * também a mais recente do banco.
+     *
+     * @param deviceId ID do dispositivo.
+     * @return Leitura mais recente ou null caso o dispositivo não tenha leituras na janela.
+     */
+    public Consumption latest(long deviceId) {
+        Set<Window> candidates = windowsByDevice.get(deviceId);
+        Slice latest = null;
+        if (candidates != null) {
+            long floor = floor(System.currentTimeMillis());
+            for (Window window : candidates) {
+                Slice last = window.last(floor);
+                if (last != null && (latest == null || compare(last, 0, latest, 0) > 0)) {
+                    latest = last;
+                }
+            }
+        }
+        if (latest == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return new Consumption(latest.ids[0], latest.amounts[0], new Timestamp(latest.times[0]), latest.deviceId,
+                latest.residenceId);
+    }
+
+    /**
+     * Retorna as métricas da janela, incluindo a memória estimada dos buffers.
+     *
+     * @return Métricas atuais.
+     */
+    public RecentReadingsStats getStats() {
+        long readings = 0;
+        long capacity = 0;
+        for (Window window : windows.values()) {
+            synchronized (window) {
+                readings += window.size;
+                capacity += window.ids.length;
+            }
+        }
+        return new RecentReadingsStats(windowMillis, maxReadingsPerDevice, windows.size(), readings, capacity,
+                capacity * BYTES_PER_READING, (long) maxReadingsPerDevice * BYTES_PER_READING,
+                hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    /**
+     * Início da cobertura comum a todos os dispositivos: a criação da janela ou o limite de horas, o mais recente.
+     */
+    private long floor(long now) {
+        return Math.max(startedAt, now - windowMillis);
+    }
+
+    private Window window(int deviceId, int residenceId) {
+        long key = ((long) deviceId << 32) | (residenceId & 0xFFFFFFFFL);
+        return windows.computeIfAbsent(key, k -> {
+            Window created = new Window(deviceId, residenceId);
+            windowsByDevice.computeIfAbsent((long) deviceId, id -> ConcurrentHashMap.newKeySet()).add(created);
+            windowsByResidence.computeIfAbsent((long) residenceId, id -> ConcurrentHashMap.newKeySet()).add(created);
+            return created;
+        });
+    }
+
+    /**
+     * Copia dos buffers as leituras de cada dispositivo que podem compor a página.
+     *
+     * @return Trechos não vazios ou null caso algum dispositivo não cubra o intervalo.
+     */
+    private List<Slice> collect(Set<Window> candidates, Timestamp from, Timestamp to, ConsumptionCursor after,
+            int limit) {
+        if (from == null && after == null) {
+            return null;
+        }
+        long lower = from == null ? Long.MIN_VALUE : ceilMillis(from);
+        long afterId = Long.MIN_VALUE;
+        if (after != null) {
+            long afterTime = after.getTimestamp().getTime();
+            if (afterTime >= lower) {
+                lower = afterTime;
+                afterId = after.getId();
+            }
+        }
+        long floor = floor(System.currentTimeMillis());
+        if (lower < floor) {
+            return null;
+        }
+        long upper = to == null ? Long.MAX_VALUE : ceilMillis(to);
+        List<Slice> slices = new ArrayList<>();
+        if (candidates != null) {
+            for (Window window : candidates) {
+                Slice slice = window.slice(floor, lower, afterId, upper, limit);
+                if (slice == null) {
+                    return null;
+                }
+                if (slice.size > 0) {
+                    slices.add(slice);
+                }
+            }
+        }
+        return slices;
+    }
+
+    /**
+     * Entrega, em ordem de (timestamp, id), até limit leituras dos trechos já ordenados de cada dispositivo.
+     */
+    private static void merge(List<Slice> slices, int limit, SliceVisitor visitor) {
+        int[] positions = new int[slices.size()];
+        for (int emitted = 0; emitted < limit; emitted++) {
+            int best = -1;
+            for (int i = 0; i < slices.size(); i++) {
+                if (positions[i] < slices.get(i).size
+                        && (best < 0 || compare(slices.get(i), positions[i], slices.get(best), positions[best]) < 0)) {
+                    best = i;
+                }
+            }
+            if (best < 0) {
+                return;
+            }
+            visitor.visit(slices.get(best), positions[best]++);
+        }
+    }
+
+    private static int compare(Slice a, int i, Slice b, int j) {
+        int byTime = Long.compare(a.times[i], b.times[j]);
+        return byTime != 0 ? byTime : Long.compare(a.ids[i], b.ids[j]);
+    }
+
+    private static long ceilMillis(Timestamp timestamp) {
+        return timestamp.getNanos() % 1_000_000 == 0 ? timestamp.getTime() : timestamp.getTime() + 1;
+    }
+
+    @FunctionalInterface
+    private interface SliceVisitor {
+        void visit(Slice slice, int index);
+    }
+
+    /**
+     * Cópia de leituras consecutivas do buffer de um dispositivo, usada fora do bloqueio do buffer.
+     */
+    private static final class Slice {
+        private final int deviceId;
+        private final int residenceId;
+        private final long[] ids;
+        private final long[] times;
+        private final double[] amounts;
+        private int size;
+
+        private Slice(int deviceId, int residenceId, int capacity) {
+            this.deviceId = deviceId;
+            this.residenceId = residenceId;
+            this.ids = new long[capacity];
+            this.times = new long[capacity];
+            this.amounts = new double[capacity];
+        }
+    }
+
+    /**
+     * Buffer circular das leituras de um dispositivo em uma residência, ordenado por (timestamp, id).
+     * Contém todas as leituras gravadas do par com timestamp a partir de max(horizon, início da janela).
+     */
+    private final class Window {
+        private final int deviceId;
+        private final int residenceId;
+        private long[] ids;
+        private long[] times;
+        private double[] amounts;
+        private int head;
+        private int size;
+        private long horizon = Long.MIN_VALUE;
+
+        private Window(int deviceId, int residenceId) {
+            this.deviceId = deviceId;
+            this.residenceId = residenceId;
+            int capacity = Math.min(INITIAL_CAPACITY, maxReadingsPerDevice);
+            this.ids = new long[capacity];
+            this.times = new long[capacity];
+            this.amounts = new double[capacity];
+        }
+
+        private synchronized void add(long id, long time, double amount, long floor) {
+            trim(floor);
+            if (time < horizon) {
+                return;
+            }
+            if (size == ids.length) {
+                if (ids.length < maxReadingsPerDevice) {
+                    resize((int) Math.min((long) ids.length * 2, maxReadingsPerDevice));
+                } else {
+                    // Descarta a leitura mais antiga e as empatadas com ela; o buffer deixa de cobrir esse instante.
+                    dropBefore(times[head] + 1);
+                    if (time < horizon) {
+                        return;
+                    }
+                }
+            }
+            int position = size;
+            while (position > 0 && (times[slot(position - 1)] > time
+                    || (times[slot(position - 1)] == time && ids[slot(position - 1)] > id))) {
+                int from = slot(position - 1);
+                int to = slot(position);
+                ids[to] = ids[from];
+                times[to] = times[from];
+                amounts[to] = amounts[from];
+                position--;
+            }
+            int target = slot(position);
+            ids[target] = id;
+            times[target] = time;
+            amounts[target] = amount;
+            size++;
+        }
+
+        private synchronized void raiseHorizon(long time) {
+            if (time > horizon) {
+                dropBefore(time);
+            }
+        }
+
+        private synchronized boolean remove(long id) {
+            for (int i = 0; i < size; i++) {
+                if (ids[slot(i)] == id) {
+                    for (int j = i; j < size - 1; j++) {
+                        int to = slot(j);
+                        int from = slot(j + 1);
+                        ids[to] = ids[from];
+                        times[to] = times[from];
+                        amounts[to] = amounts[from];
+                    }
+                    size--;
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Copia até limit leituras posteriores a (lower, afterId) e anteriores a upper.
+         *
+         * @return Trecho copiado ou null caso o buffer não cubra o início do intervalo.
+         */
+        private synchronized Slice slice(long floor, long lower, long afterId, long upper, int limit) {
+            trim(floor);
+            if (lower < horizon) {
+                return null;
+            }
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int index = slot(middle);
+                if (times[index] < lower || (times[index] == lower && ids[index] <= afterId)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            int end = low;
+            while (end < size && end - low < limit && times[slot(end)] < upper) {
+                end++;
+            }
+            Slice slice = new Slice(deviceId, residenceId, end - low);
+            for (int i = low; i < end; i++) {
+                int index = slot(i);
+                slice.ids[slice.size] = ids[index];
+                slice.times[slice.size] = times[index];
+                slice.amounts[slice.size] = amounts[index];
+                slice.size++;
+            }
+            return slice;
+        }
+
+        private synchronized Slice last(long floor) {
+            trim(floor);
+            if (size == 0) {
+                return null;
+            }
+            int index = slot(size - 1);
+            Slice slice = new Slice(deviceId, residenceId, 1);
+            slice.ids[0] = ids[index];
+            slice.times[0] = times[index];
+            slice.amounts[0] = amounts[index];
+            slice.size = 1;
+            return slice;
+        }
+
+        private void dropBefore(long time) {
+            horizon = Math.max(horizon, time);
+            int dropped = 0;
+            while (size > 0 && times[head] < horizon) {
+                head = slot(1);
+                size--;
+                dropped++;
+            }
+            evictions.add(dropped);
+        }
+
+        /**
+         * Descarta as leituras que saíram da janela de horas e reduz o buffer quando fica ocioso.
+         */
+        private void trim(long floor) {
+            while (size > 0 && times[head] < floor) {
+                head = slot(1);
+                size--;
+            }
+            if (ids.length > INITIAL_CAPACITY && size <= ids.length / 4) {
+                resize(Math.max(INITIAL_CAPACITY, ids.length / 2));
+            }
+        }
+
+        private void resize(int capacity) {
+            long[] newIds = new long[capacity];
+            long[] newTimes = new long[capacity];
+            double[] newAmounts = new double[capacity];
+            for (int i = 0; i < size; i++) {
+                int index = slot(i);
+                newIds[i] = ids[index];
+                newTimes[i] = times[index];
+                newAmounts[i] = amounts[index];
+            }
+            ids = newIds;
+            times = newTimes;
+            amounts = newAmounts;
+            head = 0;
+        }
+
+        private int slot(int position) {
+            return (head + position) % ids.length;
+        }
+    }
+}
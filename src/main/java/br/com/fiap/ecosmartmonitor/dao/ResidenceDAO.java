@@ -33,15 +33,17 @@ public interface ResidenceDAO {
      * Atualiza os dados de uma residência existente no banco de dados.
      *
      * @param residence Objeto Residence contendo os dados atualizados da residência.
+     * @return true caso o registro exista e tenha sido atualizado, false caso contrário.
      */
-    void updateResidence(Residence residence);
+    boolean updateResidence(Residence residence);
 
     /**
      * Deleta uma residência pelo seu ID.
      *
      * @param id ID da residência a ser deletada.
+     * @return true caso o registro exista e tenha sido excluído, false caso contrário.
      */
-    void deleteResidence(Long id);
+    boolean deleteResidence(Long id);
 
     /**
      * Lista todas as residências cadastradas no banco de dados.
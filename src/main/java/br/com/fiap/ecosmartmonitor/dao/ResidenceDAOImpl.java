@@ -2,13 +2,12 @@ package br.com.fiap.ecosmartmonitor.dao;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
-import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.util.ArrayList;
 import java.util.List;
 
 import br.com.fiap.ecosmartmonitor.exception.ResidenceException;
 import br.com.fiap.ecosmartmonitor.model.Residence;
+import br.com.fiap.ecosmartmonitor.util.ConnectionSource;
 
 /**
  * Implementação da interface ResidenceDAO para acesso ao banco de dados.
@@ -19,31 +18,33 @@ import br.com.fiap.ecosmartmonitor.model.Residence;
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
 public class ResidenceDAOImpl implements ResidenceDAO {
-    private Connection connection;
+    private final ConnectionSource connectionSource;
 
     /**
      * Construtor da classe ResidenceDAOImpl.
      *
-     * @param connection Conexão com o banco de dados.
+     * @param connectionSource Origem das conexões com o banco de dados (normalmente o pool de conexões).
      */
-    public ResidenceDAOImpl(Connection connection) {
-        this.connection = connection;
+    public ResidenceDAOImpl(ConnectionSource connectionSource) {
+        this.connectionSource = connectionSource;
     }
 
     /**
      * Insere uma nova residência no banco de dados.
      *
      * @param residence Objeto Residence contendo os dados da residência a ser inserida.
+     * @throws ResidenceException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
     public void createResidence(Residence residence) {
         String sql = "INSERT INTO Residence (address, client_id) VALUES (?, ?)";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, residence.getAddress());
             stmt.setLong(2, residence.getClientId());
             stmt.executeUpdate();
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ResidenceException("Error creating residence", e);
         }
     }
 
@@ -56,39 +57,32 @@ public class ResidenceDAOImpl implements ResidenceDAO {
      */
     @Override
     public Residence getResidenceById(Long id) {
-        String sql = "SELECT * FROM Residence WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, id);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return new Residence(
-                        rs.getLong("id"),
-                        rs.getString("address"),
-                        rs.getInt("clientId")
-                );
-            }
+        String sql = "SELECT " + RowMappers.RESIDENCE_COLUMNS + " FROM Residence WHERE id = ?";
+        try {
+            return JdbcQueries.queryForObject(connectionSource, sql, stmt -> stmt.setLong(1, id), RowMappers.RESIDENCE);
         } catch (SQLException e) {
-            e.printStackTrace();
             throw new ResidenceException("Error retrieving residence with ID: " + id, e);
         }
-        return null;
     }
 
     /**
      * Atualiza os dados de uma residência existente no banco de dados.
      *
      * @param residence Objeto Residence contendo os dados atualizados da residência.
+     * @return true caso o registro exista e tenha sido atualizado, false caso nenhum registro tenha o ID informado.
+     * @throws ResidenceException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void updateResidence(Residence residence) {
+    public boolean updateResidence(Residence residence) {
         String sql = "UPDATE Residence SET address = ?, client_id = ? WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setString(1, residence.getAddress());
             stmt.setLong(2, residence.getClientId());
             stmt.setLong(3, residence.getId());
-            stmt.executeUpdate();
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ResidenceException("Error updating residence with ID: " + residence.getId(), e);
         }
     }
 
@@ -96,15 +90,18 @@ public class ResidenceDAOImpl implements ResidenceDAO {
      * Deleta uma residência pelo seu ID.
      *
      * @param id ID da residência a ser deletada.
+     * @return true caso o registro exista e tenha sido excluído, false caso nenhum registro tenha o ID informado.
+     * @throws ResidenceException Caso ocorra erro ao gravar no banco de dados.
      */
     @Override
-    public void deleteResidence(Long id) {
+    public boolean deleteResidence(Long id) {
         String sql = "DELETE FROM Residence WHERE id = ?";
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
+        try (Connection connection = connectionSource.getConnection();
+             PreparedStatement stmt = connection.prepareStatement(sql)) {
             stmt.setLong(1, id);
-            stmt.executeUpdate();
+            return stmt.executeUpdate() > 0;
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ResidenceException("Error deleting residence with ID: " + id, e);
         }
     }
 
@@ -112,24 +109,16 @@ public class ResidenceDAOImpl implements ResidenceDAO {
      * Lista todas as residências cadastradas no banco de dados.
      *
      * @return Lista de objetos Residence contendo todas as residências.
+     * @throws ResidenceException Caso ocorra erro ao acessar o banco de dados.
      */
     @Override
     public List<Residence> getAllResidences() {
-        String sql = "SELECT * FROM Residence";
-        List<Residence> residences = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                residences.add(new Residence(
-                        rs.getLong("id"),
-                        rs.getString("address"),
-                        rs.getInt("clientId")
-                ));
-            }
+        String sql = "SELECT " + RowMappers.RESIDENCE_COLUMNS + " FROM Residence";
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, StatementBinder.NONE, RowMappers.RESIDENCE);
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ResidenceException("Error retrieving residences", e);
         }
-        return residences;
     }
 
     /**
@@ -137,24 +126,15 @@ public class ResidenceDAOImpl implements ResidenceDAO {
      *
      * @param clientId ID do cliente para o qual as residências serão buscadas.
      * @return Lista de objetos Residence associados ao cliente.
+     * @throws ResidenceException Caso ocorra erro ao acessar o banco de dados.
      */
     @Override
     public List<Residence> getResidencesByClientId(Long clientId) {
-        String sql = "SELECT * FROM Residence WHERE client_id = ?";
-        List<Residence> residences = new ArrayList<>();
-        try (PreparedStatement stmt = connection.prepareStatement(sql)) {
-            stmt.setLong(1, clientId);
-            ResultSet rs = stmt.executeQuery();
-            while (rs.next()) {
-                residences.add(new Residence(
-                        rs.getLong("id"),
-                        rs.getString("address"),
-                        rs.getInt("clientId")
-                ));
-            }
+        String sql = "SELECT " + RowMappers.RESIDENCE_COLUMNS + " FROM Residence WHERE client_id = ?";
+        try {
+            return JdbcQueries.queryForList(connectionSource, sql, stmt -> stmt.setLong(1, clientId), RowMappers.RESIDENCE);
         } catch (SQLException e) {
-            e.printStackTrace();
+            throw new ResidenceException("Error retrieving residences", e);
         }
-        return residences;
     }
 }
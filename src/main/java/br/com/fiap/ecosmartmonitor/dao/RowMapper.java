@@ -0,0 +1,28 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Converte a linha atual de um ResultSet em objeto.
+ * As implementações leem as colunas pela posição na projeção da consulta (ver {@link RowMappers}),
+ * evitando a busca pelo nome da coluna a cada linha.
+ *
+ * @param <T> Tipo do objeto produzido.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@FunctionalInterface
+public interface RowMapper<T> {
+
+    /**
+     * Converte a linha atual do ResultSet.
+     *
+     * @param rs ResultSet posicionado na linha a ser convertida.
+     * @return Objeto correspondente à linha.
+     * @throws SQLException Caso ocorra erro ao ler as colunas.
+     */
+    T map(ResultSet rs) throws SQLException;
+}
@@ -0,0 +1,50 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import br.com.fiap.ecosmartmonitor.model.Client;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionPoint;
+import br.com.fiap.ecosmartmonitor.model.Device;
+import br.com.fiap.ecosmartmonitor.model.Notification;
+import br.com.fiap.ecosmartmonitor.model.Residence;
+
+/**
+ * Projeções de colunas e conversores de linha das entidades.
+ * Cada conversor lê as colunas pela posição, na ordem da projeção correspondente; as consultas devem
+ * usar "SELECT " + PROJEÇÃO para que as posições coincidam.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class RowMappers {
+
+    public static final String CLIENT_COLUMNS = "id, name, email, phone, address";
+    public static final String RESIDENCE_COLUMNS = "id, address, client_id";
+    public static final String DEVICE_COLUMNS = "id, name, type, status, residence_id";
+    public static final String NOTIFICATION_COLUMNS = "id, message, timestamp, read, client_id";
+    public static final String CONSUMPTION_COLUMNS = "id, amount, timestamp, device_id, residence_id";
+    /** Projeção para gráficos: apenas identificador, valor e data. */
+    public static final String CONSUMPTION_POINT_COLUMNS = "id, amount, timestamp";
+
+    public static final RowMapper<Client> CLIENT = rs -> new Client(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), null);
+
+    public static final RowMapper<Residence> RESIDENCE = rs -> new Residence(
+            rs.getLong(1), rs.getString(2), rs.getInt(3));
+
+    /** A média de consumo do dispositivo é gravada na coluna status. */
+    public static final RowMapper<Device> DEVICE = rs -> new Device(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getDouble(4), rs.getInt(5));
+
+    public static final RowMapper<Notification> NOTIFICATION = rs -> new Notification(
+            rs.getLong(1), rs.getString(2), rs.getTimestamp(3), rs.getString(4), rs.getInt(5));
+
+    public static final RowMapper<Consumption> CONSUMPTION = rs -> new Consumption(
+            rs.getLong(1), rs.getDouble(2), rs.getTimestamp(3), rs.getInt(4), rs.getInt(5));
+
+    public static final RowMapper<ConsumptionPoint> CONSUMPTION_POINT = rs -> new ConsumptionPoint(
+            rs.getLong(1), rs.getDouble(2), rs.getTimestamp(3));
+
+    private RowMappers() {
+    }
+}
@@ -0,0 +1,27 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * Preenche os parâmetros de uma instrução preparada antes da execução.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@FunctionalInterface
+interface StatementBinder {
+
+    /** Instrução sem parâmetros. */
+    StatementBinder NONE = stmt -> {
+    };
+
+    /**
+     * Preenche os parâmetros da instrução.
+     *
+     * @param stmt Instrução preparada.
+     * @throws SQLException Caso ocorra erro ao definir os parâmetros.
+     */
+    void bind(PreparedStatement stmt) throws SQLException;
+}
@@ -1,118 +1,247 @@
 package br.com.fiap.ecosmartmonitor.factory;
 
-import java.sql.Connection;
-import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
 
 import br.com.fiap.ecosmartmonitor.dao.*;
-import br.com.fiap.ecosmartmonitor.util.ConnectionDB;
+import br.com.fiap.ecosmartmonitor.metrics.TimedProxy;
+import br.com.fiap.ecosmartmonitor.util.ConnectionPool;
+import br.com.fiap.ecosmartmonitor.util.DataSourceConfig;
 
 /**
  * Fábrica para criação de objetos DAO (Data Access Object).
- * Implementa o padrão Singleton para gerenciar uma única instância da fábrica e conexão com o banco de dados.
- * Oferece métodos estáticos para obter instâncias de DAOs específicos.
+ * Implementa o padrão Singleton para gerenciar uma única instância da fábrica, do pool de conexões com o banco de dados
+ * e dos DAOs construídos sobre ele. Os DAOs não guardam estado entre chamadas (cada operação empresta uma conexão
+ * do pool e a devolve ao final), então uma única instância de cada é compartilhada por todas as requisições.
+ * A instância é criada no primeiro acesso de forma segura entre threads e substituída por inteiro em
+ * {@link #configure(ConnectionPool)}, para que pool e DAOs nunca fiquem desencontrados.
+ * Os DAOs são medidos por {@link TimedProxy} (ecosmart.metrics.enabled); o cache e a janela de leituras recentes,
+ * quando ativados, ficam por fora, de modo que as métricas de DAO refletem apenas os acessos ao banco.
  * 
- * @singleton Gerencia a conexão única com o banco de dados.
+ * @singleton Gerencia o pool de conexões com o banco de dados.
  * 
  * @authors 
  *     Guilherme Barreto Santos (RM: 97674),
  *     Nicolas Oliveira da Silva (RM: 98939)
  */
 public class DAOFactory {
-    private static DAOFactory instance; // Singleton para a fábrica de DAOs
-    private static Connection connection;
+    private static volatile DAOFactory instance; // Singleton para a fábrica de DAOs
+
+    private final ConnectionPool connectionPool;
+    private final ClientDAO clientDAO;
+    private final ResidenceDAO residenceDAO;
+    private final DeviceDAO deviceDAO;
+    private final NotificationDAO notificationDAO;
+    private final ConsumptionDAO consumptionDAO;
+    private final ConsumptionRollupDAO consumptionRollupDAO;
+    private final RecentReadingsStore recentReadingsStore;
+    private final LatestReadingIndex latestReadingIndex;
+    private final ConsumptionAnomalyDetector anomalyDetector;
+    private final DeviceAverageTracker deviceAverageTracker;
 
     /**
      * Construtor privado para implementação do padrão Singleton.
-     * Inicializa a conexão com o banco de dados.
+     * Cria os DAOs sobre o pool informado; os DAOs de cliente, residência e dispositivo são envolvidos pelo
+     * cache de consultas por ID quando ativado. As gravações do DAO de consumo alimentam o índice de leituras mais
+     * recentes e, quando ativados, a janela de leituras recentes, que também responde parte das consultas, o
+     * detector de consumo anormal e o rastreador do consumo médio dos dispositivos; todos pertencem ao pool (são
+     * recriados vazios quando o banco é trocado).
      *
-     * @throws SQLException Caso ocorra um erro ao inicializar a conexão.
+     * @param connectionPool Pool de conexões usado pelos DAOs.
      */
-    private DAOFactory() throws SQLException {
-        initializeConnection();
+    private DAOFactory(ConnectionPool connectionPool) {
+        this.connectionPool = connectionPool;
+        ClientDAO client = TimedProxy.wrap(ClientDAO.class, new ClientDAOImpl(connectionPool));
+        ResidenceDAO residence = TimedProxy.wrap(ResidenceDAO.class, new ResidenceDAOImpl(connectionPool));
+        DeviceDAO device = TimedProxy.wrap(DeviceDAO.class, new DeviceDAOImpl(connectionPool));
+        boolean cached = MetadataCache.isEnabled();
+        this.clientDAO = cached ? new CachingClientDAO(client) : client;
+        this.residenceDAO = cached ? new CachingResidenceDAO(residence) : residence;
+        this.deviceDAO = cached ? new CachingDeviceDAO(device) : device;
+        this.notificationDAO = TimedProxy.wrap(NotificationDAO.class, new NotificationDAOImpl(connectionPool));
+        ConsumptionDAO consumption = TimedProxy.wrap(ConsumptionDAO.class, new ConsumptionDAOImpl(connectionPool));
+        this.recentReadingsStore = RecentReadingsStore.isEnabled() ? RecentReadingsStore.fromConfig() : null;
+        this.latestReadingIndex = LatestReadingIndex.fromConfig(consumption);
+        List<ConsumptionWriteListener> listeners = new ArrayList<>();
+        listeners.add(latestReadingIndex);
+        if (recentReadingsStore != null) {
+            listeners.add(recentReadingsStore);
+        }
+        this.deviceAverageTracker = DeviceAverageTracker.isEnabled()
+                ? DeviceAverageTracker.fromConfig(consumption, deviceDAO) : null;
+        this.anomalyDetector = ConsumptionAnomalyDetector.isEnabled()
+                ? ConsumptionAnomalyDetector.fromConfig(deviceDAO, residenceDAO, notificationDAO, deviceAverageTracker)
+                : null;
+        if (anomalyDetector != null) {
+            listeners.add(anomalyDetector);
+        }
+        if (deviceAverageTracker != null) {
+            listeners.add(deviceAverageTracker);
+        }
+        ConsumptionDAO observed = new ObservedConsumptionDAO(consumption, listeners);
+        this.consumptionDAO = recentReadingsStore != null
+                ? new HotWindowConsumptionDAO(observed, recentReadingsStore) : observed;
+        this.consumptionRollupDAO = TimedProxy.wrap(ConsumptionRollupDAO.class,
+                new ConsumptionRollupDAOImpl(connectionPool));
     }
 
     /**
-     * Retorna a instância única da DAOFactory.
+     * Retorna a instância única da DAOFactory, criando-a (e o pool de conexões) no primeiro acesso.
+     * As conexões físicas vêm de {@link DataSourceConfig#connectionSource()} (ConnectionDB ou ecosmart.db.url)
+     * e os limites do pool vêm de {@link ConnectionPool#fromConfig}.
      *
      * @return Instância única da DAOFactory.
-     * @throws SQLException Caso ocorra um erro ao obter a conexão.
      */
-    public static DAOFactory getInstance() throws SQLException {
-        if (instance == null) {
-            instance = new DAOFactory();
+    public static DAOFactory getInstance() {
+        DAOFactory current = instance;
+        if (current == null) {
+            synchronized (DAOFactory.class) {
+                current = instance;
+                if (current == null) {
+                    current = new DAOFactory(ConnectionPool.fromConfig(DataSourceConfig.connectionSource()));
+                    instance = current;
+                }
+            }
         }
-        return instance;
+        return current;
     }
 
     /**
-     * Inicializa ou reinicializa a conexão com o banco de dados.
+     * Retorna o pool de conexões com o banco de dados, criando-o no primeiro acesso.
      *
-     * @throws SQLException Caso ocorra um erro ao criar a conexão.
+     * @return Pool de conexões ativo.
      */
-    private static void initializeConnection() throws SQLException {
-        if (connection == null || connection.isClosed()) {
-            connection = ConnectionDB.getInstance().getConnection();
-        }
+    public static ConnectionPool getConnectionPool() {
+        return getInstance().connectionPool;
     }
 
     /**
-     * Retorna a conexão ativa com o banco de dados, garantindo que ela está inicializada.
+     * Substitui o pool de conexões usado pelos DAOs, fechando o anterior.
+     * Permite executar a aplicação sobre outro banco (ex.: H2 embarcado nos benchmarks) sem alterar a configuração.
+     * Deve ser chamado antes de a aplicação atender requisições: os controllers recebem os DAOs uma única vez.
      *
-     * @return Conexão ativa com o banco de dados.
-     * @throws SQLException Caso ocorra um erro ao obter a conexão.
+     * @param pool Pool que passará a ser usado pelos DAOs obtidos a partir de agora.
      */
-    private static Connection getConnection() throws SQLException {
-        initializeConnection();
-        return connection;
+    public static synchronized void configure(ConnectionPool pool) {
+        DAOFactory previous = instance;
+        instance = new DAOFactory(pool);
+        if (previous != null) {
+            previous.close(previous.connectionPool != pool);
+        }
     }
 
     /**
-     * Retorna uma instância de ClientDAO.
+     * Fecha o pool de conexões. Chamado no encerramento da aplicação.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close(true);
+            instance = null;
+        }
+    }
+
+    private void close(boolean closePool) {
+        consumptionRollupDAO.close();
+        latestReadingIndex.close();
+        if (anomalyDetector != null) {
+            anomalyDetector.close();
+        }
+        if (deviceAverageTracker != null) {
+            deviceAverageTracker.close();
+        }
+        if (closePool) {
+            connectionPool.close();
+        }
+    }
+
+    /**
+     * Retorna a instância compartilhada de ClientDAO.
      *
-     * @return Instância de ClientDAOImpl.
-     * @throws SQLException Caso ocorra um erro ao criar o DAO.
+     * @return Instância de ClientDAOImpl, envolvida pelo cache de consultas por ID quando ativado.
      */
-    public static ClientDAO getClientDAO() throws SQLException {
-        return new ClientDAOImpl(getConnection());
+    public static ClientDAO getClientDAO() {
+        return getInstance().clientDAO;
     }
 
     /**
-     * Retorna uma instância de ResidenceDAO.
+     * Retorna a instância compartilhada de ResidenceDAO.
      *
-     * @return Instância de ResidenceDAOImpl.
-     * @throws SQLException Caso ocorra um erro ao criar o DAO.
+     * @return Instância de ResidenceDAOImpl, envolvida pelo cache de consultas por ID quando ativado.
      */
-    public static ResidenceDAO getResidenceDAO() throws SQLException {
-        return new ResidenceDAOImpl(getConnection());
+    public static ResidenceDAO getResidenceDAO() {
+        return getInstance().residenceDAO;
     }
 
     /**
-     * Retorna uma instância de DeviceDAO.
+     * Retorna a instância compartilhada de DeviceDAO.
      *
-     * @return Instância de DeviceDAOImpl.
-     * @throws SQLException Caso ocorra um erro ao criar o DAO.
+     * @return Instância de DeviceDAOImpl, envolvida pelo cache de consultas por ID quando ativado.
      */
-    public static DeviceDAO getDeviceDAO() throws SQLException {
-        return new DeviceDAOImpl(getConnection());
+    public static DeviceDAO getDeviceDAO() {
+        return getInstance().deviceDAO;
     }
 
     /**
-     * Retorna uma instância de NotificationDAO.
+     * Retorna a instância compartilhada de NotificationDAO.
      *
      * @return Instância de NotificationDAOImpl.
-     * @throws SQLException Caso ocorra um erro ao criar o DAO.
      */
-    public static NotificationDAO getNotificationDAO() throws SQLException {
-        return new NotificationDAOImpl(getConnection());
+    public static NotificationDAO getNotificationDAO() {
+        return getInstance().notificationDAO;
+    }
+
+    /**
+     * Retorna a instância compartilhada de ConsumptionDAO.
+     *
+     * @return Instância de ConsumptionDAOImpl, observada pelo índice de leituras mais recentes e envolvida pela
+     *         janela de leituras recentes quando ativada.
+     */
+    public static ConsumptionDAO getConsumptionDAO() {
+        return getInstance().consumptionDAO;
+    }
+
+    /**
+     * Retorna a instância compartilhada de ConsumptionRollupDAO.
+     *
+     * @return Instância de ConsumptionRollupDAOImpl.
+     */
+    public static ConsumptionRollupDAO getConsumptionRollupDAO() {
+        return getInstance().consumptionRollupDAO;
+    }
+
+    /**
+     * Retorna a janela de leituras recentes mantida pelo DAO de consumo.
+     *
+     * @return Janela de leituras recentes ou null caso ecosmart.hotWindow.enabled esteja desativado.
+     */
+    public static RecentReadingsStore getRecentReadingsStore() {
+        return getInstance().recentReadingsStore;
+    }
+
+    /**
+     * Retorna o índice da leitura mais recente de cada dispositivo, mantido pelas gravações do DAO de consumo.
+     *
+     * @return Índice de leituras mais recentes.
+     */
+    public static LatestReadingIndex getLatestReadingIndex() {
+        return getInstance().latestReadingIndex;
+    }
+
+    /**
+     * Retorna o detector de consumo anormal alimentado pelas gravações do DAO de consumo.
+     *
+     * @return Detector de consumo anormal ou null caso ecosmart.anomaly.enabled esteja desativado.
+     */
+    public static ConsumptionAnomalyDetector getAnomalyDetector() {
+        return getInstance().anomalyDetector;
     }
 
     /**
-     * Retorna uma instância de ConsumptionDAO.
+     * Retorna o rastreador do consumo médio dos dispositivos, mantido pelas gravações do DAO de consumo.
      *
-     * @return Instância de ConsumptionDAOImpl.
-     * @throws SQLException Caso ocorra um erro ao criar o DAO.
+     * @return Rastreador do consumo médio ou null caso ecosmart.deviceAverage.enabled esteja desativado.
      */
-    public static ConsumptionDAO getConsumptionDAO() throws SQLException {
-        return new ConsumptionDAOImpl(getConnection());
+    public static DeviceAverageTracker getDeviceAverageTracker() {
+        return getInstance().deviceAverageTracker;
     }
 }
@@ -0,0 +1,130 @@
+package br.com.fiap.ecosmartmonitor.metrics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+
+/**
+ * Registro das métricas de requisições HTTP e de acesso ao banco de dados.
+ * As séries são criadas no primeiro uso e mantidas enquanto a aplicação estiver no ar; a quantidade de séries
+ * é limitada pela quantidade de métodos dos controllers e DAOs, já que as chaves não incluem IDs nem caminhos.
+ *
+ * Ativado com ecosmart.metrics.enabled (padrão true).
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class MetricsRegistry {
+    private static final boolean ENABLED = AppConfig.getBoolean("ecosmart.metrics.enabled", true);
+
+    private static final ConcurrentMap<Key, Timer> HTTP_TIMERS = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Key, LongAdder> HTTP_RESPONSES = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Key, Timer> SQL_TIMERS = new ConcurrentHashMap<>();
+
+    private MetricsRegistry() {
+    }
+
+    /**
+     * Indica se a coleta de métricas está ativada.
+     *
+     * @return true caso as métricas estejam ativadas.
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Registra uma requisição HTTP atendida.
+     *
+     * @param resource Classe do recurso (ex.: ClientController) ou "unmatched".
+     * @param method   Método do recurso (ex.: getClientById) ou o verbo HTTP quando não houve correspondência.
+     * @param status   Código de status da resposta.
+     * @param nanos    Duração em nanossegundos.
+     */
+    public static void recordRequest(String resource, String method, int status, long nanos) {
+        Key endpoint = new Key(resource, method, null);
+        HTTP_TIMERS.computeIfAbsent(endpoint, key -> new Timer()).record(nanos, status >= 500);
+        HTTP_RESPONSES.computeIfAbsent(new Key(resource, method, Integer.toString(status)), key -> new LongAdder())
+                .increment();
+    }
+
+    /**
+     * Retorna a medição de um método de DAO, criando-a no primeiro uso.
+     *
+     * @param dao    Interface do DAO (ex.: ClientDAO).
+     * @param method Método do DAO.
+     * @return Medição do método.
+     */
+    public static Timer sqlTimer(String dao, String method) {
+        return SQL_TIMERS.computeIfAbsent(new Key(dao, method, null), key -> new Timer());
+    }
+
+    /**
+     * Escreve as métricas registradas no formato texto do Prometheus.
+     *
+     * @param writer Destino das métricas.
+     */
+    public static void writeTo(PrometheusWriter writer) {
+        writer.help("ecosmart_http_requests_total", "counter", "HTTP requests by resource method and status code");
+        for (Map.Entry<Key, LongAdder> entry : HTTP_RESPONSES.entrySet()) {
+            Key key = entry.getKey();
+            writer.sample("ecosmart_http_requests_total", entry.getValue().sum(),
+                    "resource", key.owner, "method", key.method, "status", key.detail);
+        }
+        writeTimers(writer, "ecosmart_http_request", "HTTP request", "resource", HTTP_TIMERS);
+        writeTimers(writer, "ecosmart_dao_call", "DAO call (connection borrow, SQL and row handling)", "dao", SQL_TIMERS);
+    }
+
+    private static void writeTimers(PrometheusWriter writer, String prefix, String description, String ownerLabel,
+            Map<Key, Timer> timers) {
+        writer.help(prefix + "_errors_total", "counter", description + " failures");
+        for (Map.Entry<Key, Timer> entry : timers.entrySet()) {
+            writer.sample(prefix + "_errors_total", entry.getValue().getErrors(),
+                    ownerLabel, entry.getKey().owner, "method", entry.getKey().method);
+        }
+        writer.help(prefix + "_duration_seconds", "histogram", description + " latency");
+        for (Map.Entry<Key, Timer> entry : timers.entrySet()) {
+            writer.histogram(prefix + "_duration_seconds", entry.getValue().getLatency(),
+                    ownerLabel, entry.getKey().owner, "method", entry.getKey().method);
+        }
+        writer.help(prefix + "_duration_quantile_seconds", "gauge", description + " latency percentiles");
+        for (Map.Entry<Key, Timer> entry : timers.entrySet()) {
+            writer.quantiles(prefix + "_duration_quantile_seconds", entry.getValue().getLatency(),
+                    ownerLabel, entry.getKey().owner, "method", entry.getKey().method);
+        }
+    }
+
+    /**
+     * Identificação de uma série: dono (recurso ou DAO), método e detalhe opcional (status HTTP).
+     */
+    private static final class Key {
+        private final String owner;
+        private final String method;
+        private final String detail;
+
+        private Key(String owner, String method, String detail) {
+            this.owner = owner;
+            this.method = method;
+            this.detail = detail;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) other;
+            return owner.equals(key.owner) && method.equals(key.method)
+                    && (detail == null ? key.detail == null : detail.equals(key.detail));
+        }
+
+        @Override
+        public int hashCode() {
+            return (owner.hashCode() * 31 + method.hashCode()) * 31 + (detail == null ? 0 : detail.hashCode());
+        }
+    }
+}
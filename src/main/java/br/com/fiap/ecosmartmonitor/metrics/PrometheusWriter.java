@@ -0,0 +1,148 @@
+package br.com.fiap.ecosmartmonitor.metrics;
+
+import br.com.fiap.ecosmartmonitor.util.LatencyHistogram;
+
+/**
+ * Montagem do formato texto de exposição do Prometheus (versão 0.0.4).
+ * Os histogramas de latência, registrados em microssegundos, são exportados em segundos com faixas fixas;
+ * cada faixa é arredondada para a faixa do {@link LatencyHistogram} que contém o limite (erro de até ~3%).
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class PrometheusWriter {
+    /** Media type do formato texto do Prometheus. */
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private static final double[] BUCKETS_SECONDS =
+            { 0.001, 0.0025, 0.005, 0.01, 0.025, 0.05, 0.1, 0.25, 0.5, 1, 2.5, 5, 10 };
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+
+    private final StringBuilder output = new StringBuilder(16 * 1024);
+
+    /**
+     * Escreve as linhas HELP e TYPE de uma família de métricas.
+     *
+     * @param name        Nome da métrica.
+     * @param type        Tipo (counter, gauge, histogram).
+     * @param description Descrição.
+     */
+    public void help(String name, String type, String description) {
+        output.append("# HELP ").append(name).append(' ').append(description).append('\n');
+        output.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    /**
+     * Escreve uma amostra.
+     *
+     * @param name   Nome da métrica.
+     * @param value  Valor.
+     * @param labels Pares nome/valor dos rótulos.
+     */
+    public void sample(String name, double value, String... labels) {
+        output.append(name);
+        appendLabels(labels, null, null);
+        output.append(' ').append(format(value)).append('\n');
+    }
+
+    /**
+     * Escreve uma família help + amostra sem rótulos.
+     *
+     * @param name        Nome da métrica.
+     * @param type        Tipo (counter ou gauge).
+     * @param description Descrição.
+     * @param value       Valor.
+     */
+    public void single(String name, String type, String description, double value) {
+        help(name, type, description);
+        sample(name, value);
+    }
+
+    /**
+     * Escreve as faixas cumulativas, a soma e a contagem de um histograma de latências em microssegundos.
+     *
+     * @param name      Nome da métrica (em segundos).
+     * @param histogram Histograma em microssegundos.
+     * @param labels    Pares nome/valor dos rótulos.
+     */
+    public void histogram(String name, LatencyHistogram histogram, String... labels) {
+        long count = histogram.getCount();
+        for (double bucket : BUCKETS_SECONDS) {
+            output.append(name).append("_bucket");
+            appendLabels(labels, "le", format(bucket));
+            output.append(' ').append(Math.min(count, histogram.countAtOrBelow((long) (bucket * 1_000_000)))).append('\n');
+        }
+        output.append(name).append("_bucket");
+        appendLabels(labels, "le", "+Inf");
+        output.append(' ').append(count).append('\n');
+        output.append(name).append("_sum");
+        appendLabels(labels, null, null);
+        output.append(' ').append(format(histogram.getSum() / 1e6)).append('\n');
+        output.append(name).append("_count");
+        appendLabels(labels, null, null);
+        output.append(' ').append(count).append('\n');
+    }
+
+    /**
+     * Escreve os percentis 50, 90, 99 e 99.9 de um histograma de latências em microssegundos.
+     *
+     * @param name      Nome da métrica (em segundos).
+     * @param histogram Histograma em microssegundos.
+     * @param labels    Pares nome/valor dos rótulos.
+     */
+    public void quantiles(String name, LatencyHistogram histogram, String... labels) {
+        for (double quantile : QUANTILES) {
+            output.append(name);
+            appendLabels(labels, "quantile", format(quantile));
+            output.append(' ').append(format(histogram.getValueAtPercentile(quantile * 100) / 1e6)).append('\n');
+        }
+    }
+
+    @Override
+    public String toString() {
+        return output.toString();
+    }
+
+    private void appendLabels(String[] labels, String extraName, String extraValue) {
+        if (labels.length == 0 && extraName == null) {
+            return;
+        }
+        output.append('{');
+        boolean first = true;
+        for (int i = 0; i + 1 < labels.length; i += 2) {
+            first = appendLabel(labels[i], labels[i + 1], first);
+        }
+        if (extraName != null) {
+            appendLabel(extraName, extraValue, first);
+        }
+        output.append('}');
+    }
+
+    private boolean appendLabel(String name, String value, boolean first) {
+        if (!first) {
+            output.append(',');
+        }
+        output.append(name).append("=\"");
+        String text = value == null ? "" : value;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '\\' || c == '"') {
+                output.append('\\').append(c);
+            } else if (c == '\n') {
+                output.append("\\n");
+            } else {
+                output.append(c);
+            }
+        }
+        output.append('"');
+        return false;
+    }
+
+    private static String format(double value) {
+        if (value == Math.rint(value) && !Double.isInfinite(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+}
@@ -0,0 +1,57 @@
+package br.com.fiap.ecosmartmonitor.metrics;
+
+import java.lang.reflect.Method;
+
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ContainerResponseContext;
+import jakarta.ws.rs.container.ContainerResponseFilter;
+import jakarta.ws.rs.container.PreMatching;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.ext.Provider;
+
+/**
+ * Filtro Jersey que mede todas as requisições: quantidade por status, erros (status 5xx) e histograma de latência
+ * por método de recurso (ex.: ClientController.getClientById). Requisições sem recurso correspondente
+ * são registradas como "unmatched".
+ *
+ * A latência vai do recebimento da requisição até a resposta estar pronta para envio; nas respostas em
+ * streaming (StreamingOutput) a escrita do corpo não está incluída.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@Provider
+@PreMatching
+public class RequestMetricsFilter implements ContainerRequestFilter, ContainerResponseFilter {
+    private static final String START_PROPERTY = RequestMetricsFilter.class.getName() + ".start";
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Override
+    public void filter(ContainerRequestContext request) {
+        if (MetricsRegistry.isEnabled()) {
+            request.setProperty(START_PROPERTY, System.nanoTime());
+        }
+    }
+
+    @Override
+    public void filter(ContainerRequestContext request, ContainerResponseContext response) {
+        Object start = request.getProperty(START_PROPERTY);
+        if (!(start instanceof Long)) {
+            return;
+        }
+        long elapsed = System.nanoTime() - (Long) start;
+        Class<?> resourceClass = resourceInfo == null ? null : resourceInfo.getResourceClass();
+        Method resourceMethod = resourceInfo == null ? null : resourceInfo.getResourceMethod();
+        if (resourceClass == null || resourceMethod == null) {
+            MetricsRegistry.recordRequest("unmatched", request.getMethod(), response.getStatus(), elapsed);
+        } else {
+            MetricsRegistry.recordRequest(resourceClass.getSimpleName(), resourceMethod.getName(),
+                    response.getStatus(), elapsed);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.fiap.ecosmartmonitor.metrics;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Proxy que mede cada método de uma interface (normalmente um DAO) no {@link MetricsRegistry}:
+ * duração da chamada, incluindo o empréstimo da conexão, a execução do SQL e a leitura das linhas,
+ * e quantidade de chamadas que lançaram exceção. Nos métodos forEach, o tempo inclui a ação executada por registro.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class TimedProxy implements InvocationHandler {
+    private final Object target;
+    private final String name;
+    private final Map<Method, Timer> timers = new ConcurrentHashMap<>();
+
+    private TimedProxy(Object target, String name) {
+        this.target = target;
+        this.name = name;
+    }
+
+    /**
+     * Envolve a implementação com a medição, caso as métricas estejam ativadas.
+     *
+     * @param type   Interface medida; o nome simples é usado como rótulo (ex.: ClientDAO).
+     * @param target Implementação.
+     * @param <T>    Tipo da interface.
+     * @return Proxy medido ou a própria implementação quando as métricas estão desativadas.
+     */
+    public static <T> T wrap(Class<T> type, T target) {
+        if (!MetricsRegistry.isEnabled()) {
+            return target;
+        }
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type },
+                new TimedProxy(target, type.getSimpleName())));
+    }
+
+    @Override
+    public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+        if (method.getDeclaringClass() == Object.class) {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    return "Timed[" + target + "]";
+            }
+        }
+        Timer timer = timers.computeIfAbsent(method, m -> MetricsRegistry.sqlTimer(name, m.getName()));
+        long start = System.nanoTime();
+        boolean error = true;
+        try {
+            Object result = method.invoke(target, args);
+            error = false;
+            return result;
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        } finally {
+            timer.record(System.nanoTime() - start, error);
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package br.com.fiap.ecosmartmonitor.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import br.com.fiap.ecosmartmonitor.util.LatencyHistogram;
+
+/**
+ * Medição de uma operação (endpoint ou método de DAO): histograma de latências em microssegundos
+ * e quantidade de execuções que terminaram em erro.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class Timer {
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder errors = new LongAdder();
+
+    /**
+     * Registra uma execução.
+     *
+     * @param nanos Duração em nanossegundos.
+     * @param error true caso a execução tenha terminado em erro.
+     */
+    public void record(long nanos, boolean error) {
+        latency.record(TimeUnit.NANOSECONDS.toMicros(nanos));
+        if (error) {
+            errors.increment();
+        }
+    }
+
+    /**
+     * Retorna o histograma de latências, em microssegundos.
+     *
+     * @return Histograma da operação.
+     */
+    public LatencyHistogram getLatency() {
+        return latency;
+    }
+
+    /**
+     * Retorna a quantidade de execuções com erro.
+     *
+     * @return Quantidade de erros.
+     */
+    public long getErrors() {
+        return errors.sum();
+    }
+}
@@ -0,0 +1,46 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+/**
+ * Granularidade dos agrupamentos de consumo por período.
+ * Cada valor carrega o formato usado em TRUNC(timestamp, formato) no banco de dados.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public enum AggregationBucket {
+    HOUR("HH"),
+    DAY("DD"),
+    MONTH("MM");
+
+    private final String truncFormat;
+
+    AggregationBucket(String truncFormat) {
+        this.truncFormat = truncFormat;
+    }
+
+    /**
+     * Formato de TRUNC correspondente à granularidade.
+     *
+     * @return Formato de truncamento (HH, DD ou MM).
+     */
+    public String getTruncFormat() {
+        return truncFormat;
+    }
+
+    /**
+     * Converte o parâmetro da requisição (hour, day ou month, sem diferenciar maiúsculas).
+     *
+     * @param value Valor recebido.
+     * @return Granularidade correspondente.
+     * @throws IllegalArgumentException Caso o valor não seja uma granularidade válida.
+     */
+    public static AggregationBucket fromParam(String value) {
+        for (AggregationBucket bucket : values()) {
+            if (bucket.name().equalsIgnoreCase(value)) {
+                return bucket;
+            }
+        }
+        throw new IllegalArgumentException("Invalid bucket '" + value + "', expected hour, day or month");
+    }
+}
@@ -0,0 +1,65 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+/**
+ * Resultado do processamento de um item de uma requisição em lote.
+ *
+ * @attributes
+ * index    Posição do item na requisição (a partir de 0).
+ * status   ACCEPTED caso o item tenha sido gravado ou REJECTED caso contrário.
+ * message  Motivo da rejeição (null para itens aceitos).
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class BatchItemResult {
+    public static final String ACCEPTED = "ACCEPTED";
+    public static final String REJECTED = "REJECTED";
+
+    private int index;
+    private String status;
+    private String message;
+
+    /**
+     * Construtor padrão para a classe BatchItemResult.
+     */
+    public BatchItemResult() {
+    }
+
+    /**
+     * Construtor completo para inicializar todos os atributos do resultado.
+     *
+     * @param index   Posição do item na requisição.
+     * @param status  ACCEPTED ou REJECTED.
+     * @param message Motivo da rejeição (null para itens aceitos).
+     */
+    public BatchItemResult(int index, String status, String message) {
+        this.index = index;
+        this.status = status;
+        this.message = message;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+}
@@ -0,0 +1,55 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Resultado de uma requisição em lote, com o status de cada item.
+ *
+ * @attributes
+ * accepted  Quantidade de itens gravados.
+ * rejected  Quantidade de itens rejeitados.
+ * items     Status individual de cada item, na ordem da requisição.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class BatchResult {
+    private int accepted;
+    private int rejected;
+    private List<BatchItemResult> items = new ArrayList<>();
+
+    /**
+     * Registra um item aceito.
+     *
+     * @param index Posição do item na requisição.
+     */
+    public void accept(int index) {
+        items.add(new BatchItemResult(index, BatchItemResult.ACCEPTED, null));
+        accepted++;
+    }
+
+    /**
+     * Registra um item rejeitado.
+     *
+     * @param index   Posição do item na requisição.
+     * @param message Motivo da rejeição.
+     */
+    public void reject(int index, String message) {
+        items.add(new BatchItemResult(index, BatchItemResult.REJECTED, message));
+        rejected++;
+    }
+
+    public int getAccepted() {
+        return accepted;
+    }
+
+    public int getRejected() {
+        return rejected;
+    }
+
+    public List<BatchItemResult> getItems() {
+        return items;
+    }
+}
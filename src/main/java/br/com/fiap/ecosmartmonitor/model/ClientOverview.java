@@ -0,0 +1,66 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+/**
+ * Painel de um cliente montado em uma única requisição: o cliente com suas residências e dispositivos
+ * e o resumo das leituras de cada dispositivo.
+ *
+ * @attributes
+ * client    Cliente com residences preenchido e, em cada residência, dispositivos preenchido.
+ * since     Início da janela usada em recentTotal/recentCount (24 horas antes da consulta).
+ * readings  Resumo das leituras de cada dispositivo do cliente, na mesma ordem de client.residences[].dispositivos.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ClientOverview {
+    private Client client;
+    private Timestamp since;
+    private List<DeviceReadingSummary> readings;
+
+    /**
+     * Construtor padrão para a classe ClientOverview.
+     */
+    public ClientOverview() {
+    }
+
+    /**
+     * Construtor completo para inicializar todos os atributos do painel.
+     *
+     * @param client   Cliente com residências e dispositivos.
+     * @param since    Início da janela dos totais recentes.
+     * @param readings Resumo das leituras de cada dispositivo.
+     */
+    public ClientOverview(Client client, Timestamp since, List<DeviceReadingSummary> readings) {
+        this.client = client;
+        this.since = since;
+        this.readings = readings;
+    }
+
+    public Client getClient() {
+        return client;
+    }
+
+    public void setClient(Client client) {
+        this.client = client;
+    }
+
+    public Timestamp getSince() {
+        return since;
+    }
+
+    public void setSince(Timestamp since) {
+        this.since = since;
+    }
+
+    public List<DeviceReadingSummary> getReadings() {
+        return readings;
+    }
+
+    public void setReadings(List<DeviceReadingSummary> readings) {
+        this.readings = readings;
+    }
+}
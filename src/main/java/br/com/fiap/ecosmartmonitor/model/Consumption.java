@@ -118,6 +118,15 @@ public class Consumption {
         return deviceId;
     }
 
+    /**
+     * Define o identificador do dispositivo associado ao consumo.
+     *
+     * @param deviceId ID do dispositivo associado.
+     */
+    public void setDeviceId(int deviceId) {
+        this.deviceId = deviceId;
+    }
+
     /**
      * Obtém o identificador da residência associada ao consumo.
      *
@@ -126,4 +135,13 @@ public class Consumption {
     public int getResidenceId() {
         return residenceId;
     }
+
+    /**
+     * Define o identificador da residência associada ao consumo.
+     *
+     * @param residenceId ID da residência associada.
+     */
+    public void setResidenceId(int residenceId) {
+        this.residenceId = residenceId;
+    }
 }
@@ -0,0 +1,113 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Consumo agregado de um período (hora, dia ou mês), calculado no banco de dados.
+ *
+ * @attributes
+ * bucketStart  Início do período.
+ * deviceId     Dispositivo do agrupamento ou null quando o total é da residência inteira.
+ * sum          Consumo total do período em kWh.
+ * average      Consumo médio por leitura em kWh.
+ * min          Menor leitura do período em kWh.
+ * max          Maior leitura do período em kWh.
+ * count        Quantidade de leituras no período.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ConsumptionAggregate {
+    private Timestamp bucketStart;
+    private Integer deviceId;
+    private double sum;
+    private double average;
+    private double min;
+    private double max;
+    private long count;
+
+    /**
+     * Construtor padrão para a classe ConsumptionAggregate.
+     */
+    public ConsumptionAggregate() {
+    }
+
+    /**
+     * Construtor completo para inicializar todos os atributos do agregado.
+     *
+     * @param bucketStart Início do período.
+     * @param deviceId    Dispositivo do agrupamento ou null para o total da residência.
+     * @param sum         Consumo total do período.
+     * @param average     Consumo médio por leitura.
+     * @param min         Menor leitura do período.
+     * @param max         Maior leitura do período.
+     * @param count       Quantidade de leituras no período.
+     */
+    public ConsumptionAggregate(Timestamp bucketStart, Integer deviceId, double sum, double average, double min,
+            double max, long count) {
+        this.bucketStart = bucketStart;
+        this.deviceId = deviceId;
+        this.sum = sum;
+        this.average = average;
+        this.min = min;
+        this.max = max;
+        this.count = count;
+    }
+
+    public Timestamp getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Timestamp bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public Integer getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(Integer deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public double getSum() {
+        return sum;
+    }
+
+    public void setSum(double sum) {
+        this.sum = sum;
+    }
+
+    public double getAverage() {
+        return average;
+    }
+
+    public void setAverage(double average) {
+        this.average = average;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public void setMin(double min) {
+        this.min = min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public void setMax(double max) {
+        this.max = max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.util.Base64;
+
+/**
+ * Cursor de paginação (keyset) para listagens de consumo ordenadas por (timestamp, id).
+ * Representa a posição do último registro entregue; a próxima página começa no registro seguinte.
+ * É trafegado como texto opaco (Base64 URL-safe).
+ *
+ * @attributes
+ * timestamp  Data e hora do último registro entregue.
+ * id         Identificador do último registro entregue.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ConsumptionCursor {
+    private final Timestamp timestamp;
+    private final long id;
+
+    /**
+     * Construtor completo do cursor.
+     *
+     * @param timestamp Data e hora do último registro entregue.
+     * @param id        Identificador do último registro entregue.
+     */
+    public ConsumptionCursor(Timestamp timestamp, long id) {
+        this.timestamp = timestamp;
+        this.id = id;
+    }
+
+    /**
+     * Cria o cursor que aponta para o registro informado.
+     *
+     * @param consumption Último registro entregue.
+     * @return Cursor posicionado após o registro.
+     */
+    public static ConsumptionCursor after(Consumption consumption) {
+        return new ConsumptionCursor(consumption.getTimeStamp(), consumption.getId());
+    }
+
+    /**
+     * Converte o texto recebido na requisição em cursor.
+     *
+     * @param value Texto gerado por {@link #encode()}.
+     * @return Cursor correspondente.
+     * @throws IllegalArgumentException Caso o texto não seja um cursor válido.
+     */
+    public static ConsumptionCursor decode(String value) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8).split(":");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor: " + value);
+            }
+            Timestamp timestamp = new Timestamp(Long.parseLong(parts[0]));
+            timestamp.setNanos(Integer.parseInt(parts[1]));
+            return new ConsumptionCursor(timestamp, Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + value, e);
+        }
+    }
+
+    /**
+     * Converte o cursor em texto opaco para a resposta.
+     *
+     * @return Cursor codificado.
+     */
+    public String encode() {
+        String raw = timestamp.getTime() + ":" + timestamp.getNanos() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public Timestamp getTimestamp() {
+        return timestamp;
+    }
+
+    public long getId() {
+        return id;
+    }
+}
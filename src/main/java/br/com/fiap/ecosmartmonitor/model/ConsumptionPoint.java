@@ -0,0 +1,64 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Projeção reduzida de um registro de consumo, usada em gráficos: apenas identificador, valor e data.
+ *
+ * @attributes
+ * id         Identificador do registro (usado também no cursor de paginação).
+ * amount     Consumo em kWh.
+ * timestamp  Data e hora do registro.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ConsumptionPoint {
+    private long id;
+    private double amount;
+    private Timestamp timestamp;
+
+    /**
+     * Construtor padrão para a classe ConsumptionPoint.
+     */
+    public ConsumptionPoint() {
+    }
+
+    /**
+     * Construtor completo para inicializar todos os atributos do ponto.
+     *
+     * @param id        Identificador do registro.
+     * @param amount    Consumo em kWh.
+     * @param timestamp Data e hora do registro.
+     */
+    public ConsumptionPoint(long id, double amount, Timestamp timestamp) {
+        this.id = id;
+        this.amount = amount;
+        this.timestamp = timestamp;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    public void setId(long id) {
+        this.id = id;
+    }
+
+    public double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(double amount) {
+        this.amount = amount;
+    }
+
+    public Timestamp getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Timestamp timestamp) {
+        this.timestamp = timestamp;
+    }
+}
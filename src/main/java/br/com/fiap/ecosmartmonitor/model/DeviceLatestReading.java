@@ -0,0 +1,98 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Leitura mais recente de um dispositivo, usada nas visões ao vivo de uma residência.
+ *
+ * @attributes
+ * deviceId       Identificador do dispositivo.
+ * name           Nome do dispositivo.
+ * type           Tipo do dispositivo.
+ * consumptionId  Identificador do registro de consumo mais recente ou null caso não existam leituras.
+ * amount         Consumo da leitura mais recente em kWh ou null caso não existam leituras.
+ * lastSeen       Data e hora da leitura mais recente ou null caso não existam leituras.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class DeviceLatestReading {
+    private Long deviceId;
+    private String name;
+    private String type;
+    private Long consumptionId;
+    private Double amount;
+    private Timestamp lastSeen;
+
+    /**
+     * Construtor padrão para a classe DeviceLatestReading.
+     */
+    public DeviceLatestReading() {
+    }
+
+    /**
+     * Construtor a partir do dispositivo e da sua leitura mais recente.
+     *
+     * @param device Dispositivo.
+     * @param latest Leitura mais recente ou null caso não existam leituras.
+     */
+    public DeviceLatestReading(Device device, Consumption latest) {
+        this.deviceId = device.getId();
+        this.name = device.getName();
+        this.type = device.getType();
+        if (latest != null) {
+            this.consumptionId = latest.getId();
+            this.amount = latest.getAmount();
+            this.lastSeen = latest.getTimeStamp();
+        }
+    }
+
+    public Long getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(Long deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Long getConsumptionId() {
+        return consumptionId;
+    }
+
+    public void setConsumptionId(Long consumptionId) {
+        this.consumptionId = consumptionId;
+    }
+
+    public Double getAmount() {
+        return amount;
+    }
+
+    public void setAmount(Double amount) {
+        this.amount = amount;
+    }
+
+    public Timestamp getLastSeen() {
+        return lastSeen;
+    }
+
+    public void setLastSeen(Timestamp lastSeen) {
+        this.lastSeen = lastSeen;
+    }
+}
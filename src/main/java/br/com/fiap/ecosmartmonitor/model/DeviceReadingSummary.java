@@ -0,0 +1,87 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+/**
+ * Resumo das leituras de um dispositivo exibido no painel do cliente.
+ *
+ * @attributes
+ * deviceId     Dispositivo resumido.
+ * residenceId  Residência do dispositivo.
+ * latest       Leitura mais recente do dispositivo ou null caso não existam leituras.
+ * recentTotal  Consumo total em kWh desde o início da janela do painel (ClientOverview.since).
+ * recentCount  Quantidade de leituras desde o início da janela do painel.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class DeviceReadingSummary {
+    private int deviceId;
+    private int residenceId;
+    private Consumption latest;
+    private double recentTotal;
+    private long recentCount;
+
+    /**
+     * Construtor padrão para a classe DeviceReadingSummary.
+     */
+    public DeviceReadingSummary() {
+    }
+
+    /**
+     * Construtor completo para inicializar todos os atributos do resumo.
+     *
+     * @param deviceId    Dispositivo resumido.
+     * @param residenceId Residência do dispositivo.
+     * @param latest      Leitura mais recente ou null.
+     * @param recentTotal Consumo total desde o início da janela.
+     * @param recentCount Quantidade de leituras desde o início da janela.
+     */
+    public DeviceReadingSummary(int deviceId, int residenceId, Consumption latest, double recentTotal,
+            long recentCount) {
+        this.deviceId = deviceId;
+        this.residenceId = residenceId;
+        this.latest = latest;
+        this.recentTotal = recentTotal;
+        this.recentCount = recentCount;
+    }
+
+    public int getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(int deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public int getResidenceId() {
+        return residenceId;
+    }
+
+    public void setResidenceId(int residenceId) {
+        this.residenceId = residenceId;
+    }
+
+    public Consumption getLatest() {
+        return latest;
+    }
+
+    public void setLatest(Consumption latest) {
+        this.latest = latest;
+    }
+
+    public double getRecentTotal() {
+        return recentTotal;
+    }
+
+    public void setRecentTotal(double recentTotal) {
+        this.recentTotal = recentTotal;
+    }
+
+    public long getRecentCount() {
+        return recentCount;
+    }
+
+    public void setRecentCount(long recentCount) {
+        this.recentCount = recentCount;
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+/**
+ * Resultado da verificação de prontidão (readiness) da aplicação.
+ *
+ * @attributes
+ * status                UP caso o banco de dados tenha respondido à última validação, DOWN caso contrário.
+ * database              CONNECTED, DISCONNECTED (validação falhou) ou ERROR (exceção ao obter/validar a conexão).
+ * message               Motivo da falha (null quando CONNECTED).
+ * validationMillis      Duração da última validação da conexão.
+ * checkAgeMillis        Idade do resultado da validação (reaproveitado entre verificações próximas).
+ * lastSuccessAgeMillis  Tempo desde a última operação bem-sucedida no banco (-1 caso nenhuma tenha ocorrido).
+ * poolActive            Conexões emprestadas no momento.
+ * poolMax               Quantidade máxima de conexões do pool.
+ * poolWaiters           Threads aguardando uma conexão livre.
+ * poolSaturation        poolActive / poolMax (1.0 = todas as conexões em uso).
+ * ingestQueueDepth      Registros aguardando gravação na fila assíncrona (null quando desativada).
+ * ingestQueueCapacity   Capacidade da fila assíncrona (null quando desativada).
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ReadinessReport {
+    public static final String UP = "UP";
+    public static final String DOWN = "DOWN";
+
+    private String status;
+    private String database;
+    private String message;
+    private long validationMillis;
+    private long checkAgeMillis;
+    private long lastSuccessAgeMillis;
+    private int poolActive;
+    private int poolMax;
+    private int poolWaiters;
+    private double poolSaturation;
+    private Integer ingestQueueDepth;
+    private Integer ingestQueueCapacity;
+
+    /**
+     * Construtor padrão para a classe ReadinessReport.
+     */
+    public ReadinessReport() {
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+    }
+
+    public String getDatabase() {
+        return database;
+    }
+
+    public void setDatabase(String database) {
+        this.database = database;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public long getValidationMillis() {
+        return validationMillis;
+    }
+
+    public void setValidationMillis(long validationMillis) {
+        this.validationMillis = validationMillis;
+    }
+
+    public long getCheckAgeMillis() {
+        return checkAgeMillis;
+    }
+
+    public void setCheckAgeMillis(long checkAgeMillis) {
+        this.checkAgeMillis = checkAgeMillis;
+    }
+
+    public long getLastSuccessAgeMillis() {
+        return lastSuccessAgeMillis;
+    }
+
+    public void setLastSuccessAgeMillis(long lastSuccessAgeMillis) {
+        this.lastSuccessAgeMillis = lastSuccessAgeMillis;
+    }
+
+    public int getPoolActive() {
+        return poolActive;
+    }
+
+    public void setPoolActive(int poolActive) {
+        this.poolActive = poolActive;
+    }
+
+    public int getPoolMax() {
+        return poolMax;
+    }
+
+    public void setPoolMax(int poolMax) {
+        this.poolMax = poolMax;
+    }
+
+    public int getPoolWaiters() {
+        return poolWaiters;
+    }
+
+    public void setPoolWaiters(int poolWaiters) {
+        this.poolWaiters = poolWaiters;
+    }
+
+    public double getPoolSaturation() {
+        return poolSaturation;
+    }
+
+    public void setPoolSaturation(double poolSaturation) {
+        this.poolSaturation = poolSaturation;
+    }
+
+    public Integer getIngestQueueDepth() {
+        return ingestQueueDepth;
+    }
+
+    public void setIngestQueueDepth(Integer ingestQueueDepth) {
+        this.ingestQueueDepth = ingestQueueDepth;
+    }
+
+    public Integer getIngestQueueCapacity() {
+        return ingestQueueCapacity;
+    }
+
+    public void setIngestQueueCapacity(Integer ingestQueueCapacity) {
+        this.ingestQueueCapacity = ingestQueueCapacity;
+    }
+}
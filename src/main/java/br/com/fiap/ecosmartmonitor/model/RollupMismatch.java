@@ -0,0 +1,113 @@
+package br.com.fiap.ecosmartmonitor.model;
+
+import java.sql.Timestamp;
+
+/**
+ * Divergência entre uma linha de rollup e a soma dos registros brutos do mesmo dispositivo e período.
+ *
+ * @attributes
+ * table        Tabela de rollup verificada.
+ * deviceId     Dispositivo da linha.
+ * bucketStart  Início do período.
+ * rawTotal     Consumo total calculado a partir dos registros brutos.
+ * rollupTotal  Consumo total gravado no rollup.
+ * rawCount     Quantidade de registros brutos.
+ * rollupCount  Quantidade de registros gravada no rollup.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class RollupMismatch {
+    private String table;
+    private int deviceId;
+    private Timestamp bucketStart;
+    private double rawTotal;
+    private double rollupTotal;
+    private long rawCount;
+    private long rollupCount;
+
+    /**
+     * Construtor padrão para a classe RollupMismatch.
+     */
+    public RollupMismatch() {
+    }
+
+    /**
+     * Construtor completo para inicializar todos os atributos da divergência.
+     *
+     * @param table       Tabela de rollup verificada.
+     * @param deviceId    Dispositivo da linha.
+     * @param bucketStart Início do período.
+     * @param rawTotal    Consumo total dos registros brutos.
+     * @param rollupTotal Consumo total do rollup.
+     * @param rawCount    Quantidade de registros brutos.
+     * @param rollupCount Quantidade de registros do rollup.
+     */
+    public RollupMismatch(String table, int deviceId, Timestamp bucketStart, double rawTotal, double rollupTotal,
+            long rawCount, long rollupCount) {
+        this.table = table;
+        this.deviceId = deviceId;
+        this.bucketStart = bucketStart;
+        this.rawTotal = rawTotal;
+        this.rollupTotal = rollupTotal;
+        this.rawCount = rawCount;
+        this.rollupCount = rollupCount;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public int getDeviceId() {
+        return deviceId;
+    }
+
+    public void setDeviceId(int deviceId) {
+        this.deviceId = deviceId;
+    }
+
+    public Timestamp getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Timestamp bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public double getRawTotal() {
+        return rawTotal;
+    }
+
+    public void setRawTotal(double rawTotal) {
+        this.rawTotal = rawTotal;
+    }
+
+    public double getRollupTotal() {
+        return rollupTotal;
+    }
+
+    public void setRollupTotal(double rollupTotal) {
+        this.rollupTotal = rollupTotal;
+    }
+
+    public long getRawCount() {
+        return rawCount;
+    }
+
+    public void setRawCount(long rawCount) {
+        this.rawCount = rawCount;
+    }
+
+    public long getRollupCount() {
+        return rollupCount;
+    }
+
+    public void setRollupCount(long rollupCount) {
+        this.rollupCount = rollupCount;
+    }
+}
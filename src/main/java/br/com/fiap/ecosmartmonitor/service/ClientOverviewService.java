@@ -0,0 +1,169 @@
+package br.com.fiap.ecosmartmonitor.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import br.com.fiap.ecosmartmonitor.dao.ClientDAO;
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionDAO;
+import br.com.fiap.ecosmartmonitor.dao.DeviceAverageTracker;
+import br.com.fiap.ecosmartmonitor.dao.DeviceDAO;
+import br.com.fiap.ecosmartmonitor.dao.ResidenceDAO;
+import br.com.fiap.ecosmartmonitor.model.Client;
+import br.com.fiap.ecosmartmonitor.model.ClientOverview;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.model.ConsumptionAggregate;
+import br.com.fiap.ecosmartmonitor.model.Device;
+import br.com.fiap.ecosmartmonitor.model.DeviceReadingSummary;
+import br.com.fiap.ecosmartmonitor.model.Residence;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+
+/**
+ * Monta o painel de um cliente ({@link ClientOverview}) com uma quantidade fixa de consultas, independente da
+ * quantidade de residências e dispositivos: cliente, residências, dispositivos do cliente, leitura mais recente
+ * de cada dispositivo e totais das últimas 24 horas por dispositivo. As consultas dependem apenas do ID do cliente,
+ * então as quatro últimas são executadas em paralelo enquanto a thread da requisição busca o cliente. Com
+ * ecosmart.deviceAverage.enabled, o consumo médio dos dispositivos vem do {@link DeviceAverageTracker}.
+ *
+ * O paralelismo usa um pool próprio de ecosmart.overview.threads (padrão 4) threads, compartilhado por todas as
+ * requisições, o que limita as conexões que os painéis ocupam ao mesmo tempo além das threads das requisições.
+ * Cada consulta precisa terminar em ecosmart.overview.timeoutMillis (padrão 5000) a partir do início do painel,
+ * como em {@link DatabaseExecutor}. Quando o painel termina antes de usar todas as consultas (cliente inexistente,
+ * falha ou tempo esgotado), as demais são canceladas: as que ainda estão na fila não chegam a ocupar uma conexão.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ClientOverviewService {
+    private static final Duration RECENT_WINDOW = Duration.ofHours(24);
+    private static final ExecutorService EXECUTOR = newExecutor(AppConfig.getInt("ecosmart.overview.threads", 4));
+    private static final long TIMEOUT_MILLIS = AppConfig.getLong("ecosmart.overview.timeoutMillis", 5000);
+
+    private final ClientDAO clientDAO;
+    private final ResidenceDAO residenceDAO;
+    private final DeviceDAO deviceDAO;
+    private final ConsumptionDAO consumptionDAO;
+    private final DeviceAverageTracker deviceAverageTracker;
+
+    /**
+     * Construtor da classe ClientOverviewService.
+     *
+     * @param clientDAO            DAO de clientes.
+     * @param residenceDAO         DAO de residências.
+     * @param deviceDAO            DAO de dispositivos.
+     * @param consumptionDAO       DAO de consumo.
+     * @param deviceAverageTracker Rastreador do consumo médio ou null caso esteja desativado.
+     */
+    public ClientOverviewService(ClientDAO clientDAO, ResidenceDAO residenceDAO, DeviceDAO deviceDAO,
+            ConsumptionDAO consumptionDAO, DeviceAverageTracker deviceAverageTracker) {
+        this.clientDAO = clientDAO;
+        this.residenceDAO = residenceDAO;
+        this.deviceDAO = deviceDAO;
+        this.consumptionDAO = consumptionDAO;
+        this.deviceAverageTracker = deviceAverageTracker;
+    }
+
+    /**
+     * Monta o painel do cliente.
+     *
+     * @param clientId ID do cliente.
+     * @return Painel do cliente ou null caso o cliente não exista.
+     * @throws RuntimeException A exceção do DAO cuja consulta falhou (ex.: ClientException, ConsumptionException).
+     * @throws CompletionException Com causa TimeoutException, caso uma consulta não termine dentro do tempo limite.
+     */
+    public ClientOverview getOverview(Long clientId) {
+        Timestamp since = new Timestamp(System.currentTimeMillis() - RECENT_WINDOW.toMillis());
+        CompletableFuture<List<Residence>> residences = async(() -> residenceDAO.getResidencesByClientId(clientId));
+        CompletableFuture<List<Device>> devices = async(() -> deviceDAO.getDevicesByClientId(clientId));
+        CompletableFuture<List<Consumption>> latest =
+                async(() -> consumptionDAO.getLatestConsumptionsByClientId(clientId));
+        CompletableFuture<List<ConsumptionAggregate>> recent =
+                async(() -> consumptionDAO.aggregateByClientIdPerDevice(clientId, since, null));
+
+        List<CompletableFuture<?>> queries = List.of(residences, devices, latest, recent);
+        try {
+            Client client = clientDAO.getClientById(clientId);
+            if (client == null) {
+                return null;
+            }
+
+            Map<Long, List<Device>> devicesByResidence = new HashMap<>();
+            for (Device device : join(devices)) {
+                if (deviceAverageTracker != null) {
+                    device = deviceAverageTracker.withCurrentAverage(device);
+                }
+                devicesByResidence.computeIfAbsent((long) device.getResidenceId(), id -> new ArrayList<>()).add(device);
+            }
+            Map<Integer, Consumption> latestByDevice = new HashMap<>();
+            for (Consumption consumption : join(latest)) {
+                latestByDevice.put(consumption.getDeviceId(), consumption);
+            }
+            Map<Integer, ConsumptionAggregate> recentByDevice = new HashMap<>();
+            for (ConsumptionAggregate aggregate : join(recent)) {
+                recentByDevice.put(aggregate.getDeviceId(), aggregate);
+            }
+
+            List<Residence> clientResidences = join(residences);
+            List<DeviceReadingSummary> readings = new ArrayList<>();
+            for (Residence residence : clientResidences) {
+                List<Device> residenceDevices = devicesByResidence.getOrDefault(residence.getId(), new ArrayList<>());
+                residence.setDispositivos(residenceDevices);
+                for (Device device : residenceDevices) {
+                    int deviceId = device.getId().intValue();
+                    ConsumptionAggregate aggregate = recentByDevice.get(deviceId);
+                    readings.add(new DeviceReadingSummary(deviceId, device.getResidenceId(),
+                            latestByDevice.get(deviceId), aggregate == null ? 0 : aggregate.getSum(),
+                            aggregate == null ? 0 : aggregate.getCount()));
+                }
+            }
+            // Cópia: o cliente pode vir do cache de metadados e não deve carregar as residências desta requisição.
+            Client overviewClient = new Client(client.getId(), client.getName(), client.getEmail(), client.getPhone(),
+                    client.getAddress(), clientResidences);
+            return new ClientOverview(overviewClient, since, readings);
+        } finally {
+            for (CompletableFuture<?> query : queries) {
+                query.cancel(false);
+            }
+        }
+    }
+
+    private static <T> CompletableFuture<T> async(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, EXECUTOR).orTimeout(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+    }
+
+    private static <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof TimeoutException) {
+                throw new CompletionException("Timed out after " + TIMEOUT_MILLIS + " ms waiting for the database",
+                        e.getCause());
+            }
+            throw e;
+        }
+    }
+
+    private static ExecutorService newExecutor(int threads) {
+        AtomicInteger sequence = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "ecosmart-overview-" + sequence.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,296 @@
+package br.com.fiap.ecosmartmonitor.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionDAO;
+import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.ConnectionPool;
+
+/**
+ * Fila de ingestão assíncrona (write-behind) para registros de consumo.
+ * Os registros são enfileirados em um buffer circular limitado e gravados no banco por uma thread
+ * em segundo plano, em lotes de até flushBatchSize registros ou a cada flushIntervalMillis, o que ocorrer primeiro.
+ *
+ * Os registros já foram confirmados ao cliente (202), então uma falha na gravação não descarta o lote: enquanto o
+ * banco estiver indisponível ({@link ConnectionPool#isRetryable(Throwable)}), o lote é repetido com espera crescente,
+ * de ecosmart.ingest.retryMillis até ecosmart.ingest.maxRetryMillis; um lote recusado pelo banco é dividido ao meio
+ * até isolar os registros recusados, e só esses são descartados. No encerramento, as repetições param ao fim do
+ * tempo limite e o que não foi gravado é contado como descartado.
+ *
+ * Ativada com ecosmart.ingest.mode=async. Configurações:
+ * ecosmart.ingest.queueCapacity (10000), ecosmart.ingest.flushBatchSize (500),
+ * ecosmart.ingest.flushIntervalMillis (200), ecosmart.ingest.retryMillis (500) e ecosmart.ingest.maxRetryMillis (30000).
+ *
+ * @singleton Uma única fila por aplicação, criada no primeiro uso.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ConsumptionIngestQueue {
+    private static final Logger LOGGER = Logger.getLogger(ConsumptionIngestQueue.class.getName());
+
+    private static volatile ConsumptionIngestQueue instance;
+
+    private final ConsumptionDAO consumptionDAO;
+    private final ArrayBlockingQueue<Consumption> queue;
+    private final int capacity;
+    private final int flushBatchSize;
+    private final long flushIntervalMillis;
+    private final long retryMillis;
+    private final long maxRetryMillis;
+    private final Thread flusher;
+    private volatile boolean running = true;
+    private volatile long shutdownDeadline;
+
+    private final LongAdder enqueued = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder flushed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder flushNanosTotal = new LongAdder();
+    private final AtomicLong flushNanosMax = new AtomicLong();
+
+    /**
+     * Construtor da classe ConsumptionIngestQueue, com espera de 500 ms a 30 s entre as repetições.
+     *
+     * @param consumptionDAO      DAO usado para gravar os lotes.
+     * @param capacity            Quantidade máxima de registros aguardando gravação.
+     * @param flushBatchSize      Quantidade máxima de registros por lote.
+     * @param flushIntervalMillis Tempo máximo que um registro aguarda até o lote ser gravado.
+     */
+    public ConsumptionIngestQueue(ConsumptionDAO consumptionDAO, int capacity, int flushBatchSize, long flushIntervalMillis) {
+        this(consumptionDAO, capacity, flushBatchSize, flushIntervalMillis, 500, 30000);
+    }
+
+    /**
+     * Construtor da classe ConsumptionIngestQueue. Inicia a thread de gravação.
+     *
+     * @param consumptionDAO      DAO usado para gravar os lotes.
+     * @param capacity            Quantidade máxima de registros aguardando gravação.
+     * @param flushBatchSize      Quantidade máxima de registros por lote.
+     * @param flushIntervalMillis Tempo máximo que um registro aguarda até o lote ser gravado.
+     * @param retryMillis         Espera antes da primeira repetição de um lote com o banco indisponível.
+     * @param maxRetryMillis      Espera máxima entre repetições; a espera dobra a cada tentativa até esse limite.
+     */
+    public ConsumptionIngestQueue(ConsumptionDAO consumptionDAO, int capacity, int flushBatchSize,
+            long flushIntervalMillis, long retryMillis, long maxRetryMillis) {
+        this.consumptionDAO = consumptionDAO;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.capacity = capacity;
+        this.flushBatchSize = flushBatchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.retryMillis = Math.max(1, retryMillis);
+        this.maxRetryMillis = Math.max(this.retryMillis, maxRetryMillis);
+        this.flusher = new Thread(this::runFlusher, "ecosmart-ingest-flusher");
+        this.flusher.setDaemon(true);
+        this.flusher.start();
+    }
+
+    /**
+     * Indica se a ingestão assíncrona está ativada (ecosmart.ingest.mode=async).
+     *
+     * @return true caso a ingestão assíncrona esteja ativada.
+     */
+    public static boolean isEnabled() {
+        return "async".equalsIgnoreCase(AppConfig.getString("ecosmart.ingest.mode", "sync"));
+    }
+
+    /**
+     * Retorna a fila única da aplicação, criando-a no primeiro acesso.
+     *
+     * @return Fila de ingestão.
+     */
+    public static ConsumptionIngestQueue getInstance() {
+        ConsumptionIngestQueue current = instance;
+        if (current == null) {
+            synchronized (ConsumptionIngestQueue.class) {
+                current = instance;
+                if (current == null) {
+                    current = new ConsumptionIngestQueue(DAOFactory.getConsumptionDAO(),
+                            AppConfig.getInt("ecosmart.ingest.queueCapacity", 10000),
+                            AppConfig.getInt("ecosmart.ingest.flushBatchSize", 500),
+                            AppConfig.getLong("ecosmart.ingest.flushIntervalMillis", 200),
+                            AppConfig.getLong("ecosmart.ingest.retryMillis", 500),
+                            AppConfig.getLong("ecosmart.ingest.maxRetryMillis", 30000));
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Encerra a fila única, caso tenha sido criada, gravando os registros pendentes.
+     *
+     * @param timeoutMillis Tempo máximo de espera pela gravação dos registros pendentes.
+     */
+    public static synchronized void shutdownInstance(long timeoutMillis) {
+        if (instance != null) {
+            instance.shutdown(timeoutMillis);
+            instance = null;
+        }
+    }
+
+    /**
+     * Enfileira um registro de consumo para gravação sem bloquear.
+     *
+     * @param consumption Registro a ser gravado.
+     * @return true caso o registro tenha sido aceito; false caso a fila esteja cheia ou encerrada.
+     */
+    public boolean offer(Consumption consumption) {
+        if (running && queue.offer(consumption)) {
+            enqueued.increment();
+            return true;
+        }
+        rejected.increment();
+        return false;
+    }
+
+    /**
+     * Interrompe o recebimento de novos registros e aguarda a gravação dos registros pendentes. Com o banco
+     * indisponível, as repetições param ao fim do tempo limite.
+     *
+     * @param timeoutMillis Tempo máximo de espera.
+     */
+    public void shutdown(long timeoutMillis) {
+        shutdownDeadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        running = false;
+        try {
+            flusher.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (flusher.isAlive()) {
+            LOGGER.warning("Ingest queue did not drain within " + timeoutMillis + " ms; "
+                    + queue.size() + " consumption records were not written");
+            return;
+        }
+        // Registros aceitos por offer() concorrentes ao encerramento da thread de gravação.
+        List<Consumption> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        flush(remaining);
+    }
+
+    /**
+     * Retorna um retrato das métricas atuais da fila.
+     *
+     * @return Métricas da fila.
+     */
+    public IngestQueueStats getStats() {
+        long flushes = flushCount.sum();
+        double averageMillis = flushes == 0 ? 0 : flushNanosTotal.sum() / (double) flushes / 1_000_000;
+        return new IngestQueueStats(capacity, queue.size(), enqueued.sum(), rejected.sum(), flushed.sum(),
+                dropped.sum(), retries.sum(), flushes, averageMillis, flushNanosMax.get() / 1_000_000.0);
+    }
+
+    private void runFlusher() {
+        List<Consumption> batch = new ArrayList<>(flushBatchSize);
+        while (running) {
+            try {
+                Consumption first = queue.poll(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < flushBatchSize) {
+                    queue.drainTo(batch, flushBatchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= flushBatchSize || remaining <= 0) {
+                        break;
+                    }
+                    Consumption next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                running = false;
+            }
+            flush(batch);
+        }
+        // Encerramento: grava o que ainda estiver na fila.
+        do {
+            flush(batch);
+        } while (queue.drainTo(batch, flushBatchSize) > 0);
+    }
+
+    private void flush(List<Consumption> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            write(batch);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            flushCount.increment();
+            flushNanosTotal.add(elapsed);
+            flushNanosMax.accumulateAndGet(elapsed, Math::max);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Grava um lote, repetindo-o enquanto o banco estiver indisponível. Um lote recusado pelo banco é gravado em
+     * duas metades (a inserção é transacional, então a tentativa recusada não gravou nada).
+     */
+    private void write(List<Consumption> batch) {
+        long backoff = retryMillis;
+        while (true) {
+            try {
+                consumptionDAO.createConsumptions(batch);
+                flushed.add(batch.size());
+                return;
+            } catch (RuntimeException e) {
+                if (!ConnectionPool.isRetryable(e)) {
+                    refuse(batch, e);
+                    return;
+                }
+                long delay = backoff;
+                if (!running) {
+                    delay = Math.min(delay, TimeUnit.NANOSECONDS.toMillis(shutdownDeadline - System.nanoTime()));
+                }
+                if (delay <= 0) {
+                    dropped.add(batch.size());
+                    LOGGER.log(Level.WARNING, "Dropped " + batch.size()
+                            + " consumption records: database still unavailable at shutdown", e);
+                    return;
+                }
+                retries.increment();
+                LOGGER.warning("Database unavailable writing " + batch.size() + " consumption records; retrying in "
+                        + delay + " ms: " + e.getMessage());
+                try {
+                    Thread.sleep(delay);
+                } catch (InterruptedException interrupted) {
+                    running = false;
+                }
+                backoff = Math.min(backoff * 2, maxRetryMillis);
+            }
+        }
+    }
+
+    private void refuse(List<Consumption> batch, RuntimeException error) {
+        if (batch.size() == 1) {
+            dropped.increment();
+            LOGGER.log(Level.WARNING, "Dropped consumption record refused by the database: device "
+                    + batch.get(0).getDeviceId() + ", residence " + batch.get(0).getResidenceId(), error);
+            return;
+        }
+        int middle = batch.size() / 2;
+        write(batch.subList(0, middle));
+        write(batch.subList(middle, batch.size()));
+    }
+}
@@ -0,0 +1,206 @@
+package br.com.fiap.ecosmartmonitor.service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import jakarta.ws.rs.container.AsyncResponse;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Executor dedicado às consultas dos endpoints assíncronos (@Suspended AsyncResponse).
+ * A consulta ao banco e a escrita da resposta ocorrem em um pool limitado de threads, separado das threads do
+ * servidor HTTP, que ficam livres enquanto o banco responde. A concorrência no banco fica limitada explicitamente
+ * por ecosmart.async.threads e pela fila ecosmart.async.queueCapacity: com a fila cheia a requisição recebe 503
+ * imediatamente, e uma requisição que não é respondida em ecosmart.async.timeoutMillis recebe 503 em vez de ficar
+ * pendurada.
+ *
+ * Ativado com ecosmart.async.enabled (padrão false); desativado, a consulta é executada na própria thread da
+ * requisição, como nos demais endpoints. Configurações: ecosmart.async.threads (10),
+ * ecosmart.async.queueCapacity (100) e ecosmart.async.timeoutMillis (5000).
+ *
+ * @singleton Um único executor por aplicação, criado no primeiro uso.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class DatabaseExecutor {
+    private static volatile DatabaseExecutor instance;
+
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMillis;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * Construtor da classe DatabaseExecutor.
+     *
+     * @param threads       Quantidade de threads executando consultas.
+     * @param queueCapacity Requisições aguardando uma thread livre.
+     * @param timeoutMillis Tempo máximo entre a chegada da requisição e a resposta.
+     */
+    public DatabaseExecutor(int threads, int queueCapacity, long timeoutMillis) {
+        AtomicInteger sequence = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "ecosmart-db-" + sequence.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    /**
+     * Indica se os endpoints assíncronos usam o executor dedicado (ecosmart.async.enabled).
+     *
+     * @return true caso o executor esteja ativado.
+     */
+    public static boolean isEnabled() {
+        return AppConfig.getBoolean("ecosmart.async.enabled", false);
+    }
+
+    /**
+     * Retorna o executor único da aplicação, criando-o no primeiro acesso.
+     *
+     * @return Executor de consultas.
+     */
+    public static DatabaseExecutor getInstance() {
+        DatabaseExecutor current = instance;
+        if (current == null) {
+            synchronized (DatabaseExecutor.class) {
+                current = instance;
+                if (current == null) {
+                    current = new DatabaseExecutor(AppConfig.getInt("ecosmart.async.threads", 10),
+                            AppConfig.getInt("ecosmart.async.queueCapacity", 100),
+                            AppConfig.getLong("ecosmart.async.timeoutMillis", 5000));
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Encerra o executor único, caso tenha sido criado, sem aguardar as consultas em andamento.
+     */
+    public static synchronized void shutdownInstance() {
+        if (instance != null) {
+            instance.executor.shutdownNow();
+            instance = null;
+        }
+    }
+
+    /**
+     * Responde a requisição suspensa com o resultado da consulta.
+     * Com o executor ativado a consulta é enfileirada; caso contrário é executada na thread atual.
+     * Exceções da consulta são repassadas ao Jersey, que as converte como nos endpoints síncronos.
+     *
+     * @param response Requisição suspensa.
+     * @param query    Consulta que monta a resposta (pode retornar um StreamingOutput, escrito pelo executor).
+     */
+    public static void respond(AsyncResponse response, Supplier<Response> query) {
+        if (isEnabled()) {
+            getInstance().submit(response, query);
+        } else {
+            run(response, query);
+        }
+    }
+
+    /**
+     * Enfileira a consulta, respondendo 503 caso a fila esteja cheia ou o tempo limite seja atingido.
+     *
+     * @param response Requisição suspensa.
+     * @param query    Consulta que monta a resposta.
+     */
+    public void submit(AsyncResponse response, Supplier<Response> query) {
+        AtomicReference<Future<?>> task = new AtomicReference<>();
+        response.setTimeoutHandler(timedOutResponse -> {
+            timedOut.increment();
+            Future<?> future = task.get();
+            if (future != null) {
+                // Retira da fila uma consulta que ainda não começou; uma consulta em andamento termina no banco.
+                future.cancel(false);
+            }
+            timedOutResponse.resume(unavailable("Timed out after " + timeoutMillis + " ms waiting for the database"));
+        });
+        response.setTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+        try {
+            task.set(executor.submit(() -> {
+                if (response.isSuspended()) {
+                    run(response, query);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            response.resume(unavailable("Too many pending database requests, retry later"));
+        }
+    }
+
+    /**
+     * Retorna a quantidade de threads que executam consultas (ecosmart.async.threads).
+     *
+     * @return Tamanho do pool.
+     */
+    public int getThreads() {
+        return executor.getMaximumPoolSize();
+    }
+
+    /**
+     * Retorna a quantidade aproximada de threads executando uma consulta neste instante.
+     *
+     * @return Threads ocupadas.
+     */
+    public int getActiveCount() {
+        return executor.getActiveCount();
+    }
+
+    /**
+     * Retorna a quantidade de consultas aguardando uma thread livre.
+     *
+     * @return Consultas na fila, no máximo ecosmart.async.queueCapacity.
+     */
+    public int getQueueDepth() {
+        return executor.getQueue().size();
+    }
+
+    /**
+     * Retorna o total de requisições respondidas com 503 porque a fila estava cheia.
+     *
+     * @return Requisições recusadas desde a criação do executor.
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+
+    /**
+     * Retorna o total de requisições respondidas com 503 por atingirem ecosmart.async.timeoutMillis.
+     *
+     * @return Requisições com tempo esgotado desde a criação do executor.
+     */
+    public long getTimeoutCount() {
+        return timedOut.sum();
+    }
+
+    private static void run(AsyncResponse response, Supplier<Response> query) {
+        try {
+            response.resume(query.get());
+        } catch (RuntimeException e) {
+            response.resume(e);
+        }
+    }
+
+    private static Response unavailable(String message) {
+        return Response.status(Response.Status.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .entity(message)
+                .build();
+    }
+}
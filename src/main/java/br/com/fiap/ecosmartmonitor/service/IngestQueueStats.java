@@ -0,0 +1,102 @@
+package br.com.fiap.ecosmartmonitor.service;
+
+/**
+ * Retrato das métricas da {@link ConsumptionIngestQueue} em um determinado instante.
+ *
+ * @attributes
+ * capacity            Quantidade máxima de registros aguardando gravação.
+ * depth               Registros aguardando gravação no momento.
+ * enqueued            Total de registros aceitos na fila.
+ * rejected            Total de registros recusados por fila cheia ou encerrada.
+ * flushed             Total de registros gravados no banco.
+ * dropped             Total de registros descartados por serem recusados pelo banco ou por o banco continuar
+ *                     indisponível no encerramento.
+ * retries             Total de repetições de lotes com o banco indisponível.
+ * flushCount          Total de lotes gravados.
+ * averageFlushMillis  Latência média de gravação de um lote, em milissegundos.
+ * maxFlushMillis      Maior latência de gravação de um lote, em milissegundos.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class IngestQueueStats {
+    private final int capacity;
+    private final int depth;
+    private final long enqueued;
+    private final long rejected;
+    private final long flushed;
+    private final long dropped;
+    private final long retries;
+    private final long flushCount;
+    private final double averageFlushMillis;
+    private final double maxFlushMillis;
+
+    /**
+     * Construtor completo das métricas da fila.
+     *
+     * @param capacity           Capacidade da fila.
+     * @param depth              Registros aguardando gravação.
+     * @param enqueued           Total de registros aceitos.
+     * @param rejected           Total de registros recusados.
+     * @param flushed            Total de registros gravados.
+     * @param dropped            Total de registros descartados.
+     * @param retries            Total de repetições de lotes.
+     * @param flushCount         Total de lotes gravados.
+     * @param averageFlushMillis Latência média de gravação de um lote.
+     * @param maxFlushMillis     Maior latência de gravação de um lote.
+     */
+    public IngestQueueStats(int capacity, int depth, long enqueued, long rejected, long flushed, long dropped,
+            long retries, long flushCount, double averageFlushMillis, double maxFlushMillis) {
+        this.capacity = capacity;
+        this.depth = depth;
+        this.enqueued = enqueued;
+        this.rejected = rejected;
+        this.flushed = flushed;
+        this.dropped = dropped;
+        this.retries = retries;
+        this.flushCount = flushCount;
+        this.averageFlushMillis = averageFlushMillis;
+        this.maxFlushMillis = maxFlushMillis;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    public long getEnqueued() {
+        return enqueued;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getFlushed() {
+        return flushed;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+
+    public long getRetries() {
+        return retries;
+    }
+
+    public long getFlushCount() {
+        return flushCount;
+    }
+
+    public double getAverageFlushMillis() {
+        return averageFlushMillis;
+    }
+
+    public double getMaxFlushMillis() {
+        return maxFlushMillis;
+    }
+}
@@ -0,0 +1,595 @@
+package br.com.fiap.ecosmartmonitor.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionDAO;
+import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import br.com.fiap.ecosmartmonitor.model.Consumption;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.ConnectionPool;
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+
+/**
+ * Spool de ingestão em disco para registros de consumo, usado quando o banco está lento ou fora do ar.
+ * Cada registro é gravado em um segmento mapeado em memória (FileChannel.map) e confirmado ao cliente assim que
+ * gravado, sem depender do banco. Uma thread em segundo plano lê os segmentos em ordem e grava os registros no banco
+ * em lotes; após cada lote confirmado, a posição já gravada é registrada no cabeçalho do segmento, e um segmento
+ * completamente gravado é excluído.
+ *
+ * Na inicialização, os segmentos existentes no diretório são reabertos e os registros ainda não gravados são
+ * reenviados ao banco; um registro incompleto (queda no meio da escrita) é identificado pelo código de verificação e
+ * descartado junto com o que vier depois dele. A entrega é de pelo menos uma vez: uma queda entre a gravação de um
+ * lote no banco e a atualização do cabeçalho faz o lote ser gravado novamente.
+ *
+ * A falha de um lote é classificada pela exceção ({@link ConnectionPool#isRetryable(Throwable)}). Enquanto o banco
+ * estiver indisponível, o lote é repetido a cada ecosmart.spool.retryMillis, sem descartar registros. Um lote que o
+ * banco recusa (ex.: dispositivo inexistente) é dividido ao meio, em ordem, até isolar os registros recusados, que
+ * são anexados a refused.ndjson no diretório do spool, no formato aceito por POST /consumption/batch; se o banco
+ * ficar indisponível no meio da divisão, a posição avança só até o último registro resolvido e o restante é repetido.
+ *
+ * Ativado com ecosmart.ingest.mode=spool. Configurações: ecosmart.spool.dir (java.io.tmpdir/ecosmart-spool),
+ * ecosmart.spool.segmentBytes (8 MB), ecosmart.spool.maxSegments (64), ecosmart.spool.retryMillis (1000),
+ * ecosmart.spool.syncOnAppend (false) e, como na fila assíncrona, ecosmart.ingest.flushBatchSize (500) e
+ * ecosmart.ingest.flushIntervalMillis (200). Sem syncOnAppend o registro confirmado sobrevive à queda do processo
+ * (fica no cache de páginas do sistema operacional), mas não à queda da máquina.
+ *
+ * @singleton Um único spool por aplicação, criado no primeiro uso.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class IngestSpool {
+    private static final Logger LOGGER = Logger.getLogger(IngestSpool.class.getName());
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
+    /** Bytes de um registro: timestamp (8), valor (8), nanos (4), dispositivo (4), residência (4) e verificação (4). */
+    public static final int RECORD_BYTES = 32;
+    /** Cabeçalho do segmento: posição já gravada no banco (8), identificação do formato (4) e reserva (4). */
+    private static final int HEADER_BYTES = 16;
+    private static final int MAGIC = 0x45534D31;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String REFUSED_FILE = "refused.ndjson";
+
+    private static volatile IngestSpool instance;
+
+    private final ConsumptionDAO consumptionDAO;
+    private final Path directory;
+    private final int segmentBytes;
+    private final int maxSegments;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final long retryMillis;
+    private final boolean syncOnAppend;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition appendedSignal = lock.newCondition();
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>();
+    private Segment writeSegment;
+    private long nextSequence;
+    private final long recovered;
+    private final Thread replayer;
+    private volatile boolean running = true;
+
+    private final LongAdder appended = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder replayed = new LongAdder();
+    private final LongAdder refused = new LongAdder();
+    private final LongAdder replayFailures = new LongAdder();
+
+    /**
+     * Construtor da classe IngestSpool. Reabre os segmentos existentes no diretório e inicia a thread que os grava
+     * no banco.
+     *
+     * @param consumptionDAO      DAO usado para gravar os lotes.
+     * @param directory           Diretório dos segmentos.
+     * @param segmentBytes        Tamanho de cada segmento em bytes.
+     * @param maxSegments         Quantidade máxima de segmentos; com todos cheios, novos registros são recusados.
+     * @param batchSize           Quantidade máxima de registros por lote gravado no banco.
+     * @param flushIntervalMillis Tempo máximo que um registro aguarda até o lote ser gravado.
+     * @param retryMillis         Espera antes de repetir um lote que falhou.
+     * @param syncOnAppend        true para forçar cada registro ao disco antes de confirmá-lo.
+     * @throws IOException Caso o diretório ou os segmentos existentes não possam ser abertos.
+     */
+    public IngestSpool(ConsumptionDAO consumptionDAO, Path directory, int segmentBytes, int maxSegments,
+            int batchSize, long flushIntervalMillis, long retryMillis, boolean syncOnAppend) throws IOException {
+        if (segmentBytes < HEADER_BYTES + RECORD_BYTES || maxSegments < 1 || batchSize < 1) {
+            throw new IllegalArgumentException("Invalid spool configuration: segmentBytes=" + segmentBytes
+                    + ", maxSegments=" + maxSegments + ", batchSize=" + batchSize);
+        }
+        this.consumptionDAO = consumptionDAO;
+        this.directory = directory;
+        this.segmentBytes = HEADER_BYTES + (segmentBytes - HEADER_BYTES) / RECORD_BYTES * RECORD_BYTES;
+        this.maxSegments = maxSegments;
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.retryMillis = retryMillis;
+        this.syncOnAppend = syncOnAppend;
+        Files.createDirectories(directory);
+        this.recovered = recover();
+        this.replayer = new Thread(this::runReplayer, "ecosmart-spool-replayer");
+        this.replayer.setDaemon(true);
+        this.replayer.start();
+    }
+
+    /**
+     * Indica se a ingestão pelo spool está ativada (ecosmart.ingest.mode=spool).
+     *
+     * @return true caso o spool esteja ativado.
+     */
+    public static boolean isEnabled() {
+        return "spool".equalsIgnoreCase(AppConfig.getString("ecosmart.ingest.mode", "sync"));
+    }
+
+    /**
+     * Retorna o spool único da aplicação, criando-o (e reenviando os registros pendentes) no primeiro acesso.
+     *
+     * @return Spool de ingestão.
+     * @throws UncheckedIOException Caso o diretório do spool não possa ser aberto.
+     */
+    public static IngestSpool getInstance() {
+        IngestSpool current = instance;
+        if (current == null) {
+            synchronized (IngestSpool.class) {
+                current = instance;
+                if (current == null) {
+                    Path directory = Paths.get(AppConfig.getString("ecosmart.spool.dir",
+                            Paths.get(System.getProperty("java.io.tmpdir"), "ecosmart-spool").toString()));
+                    try {
+                        current = new IngestSpool(DAOFactory.getConsumptionDAO(), directory,
+                                AppConfig.getInt("ecosmart.spool.segmentBytes", 8 * 1024 * 1024),
+                                AppConfig.getInt("ecosmart.spool.maxSegments", 64),
+                                AppConfig.getInt("ecosmart.ingest.flushBatchSize", 500),
+                                AppConfig.getLong("ecosmart.ingest.flushIntervalMillis", 200),
+                                AppConfig.getLong("ecosmart.spool.retryMillis", 1000),
+                                AppConfig.getBoolean("ecosmart.spool.syncOnAppend", false));
+                    } catch (IOException e) {
+                        throw new UncheckedIOException("Error opening ingest spool at " + directory, e);
+                    }
+                    instance = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Encerra o spool único, caso tenha sido criado, gravando no banco o que for possível dentro do tempo limite.
+     * Os registros restantes permanecem em disco e são reenviados na próxima inicialização.
+     *
+     * @param timeoutMillis Tempo máximo de espera pela gravação dos registros pendentes.
+     */
+    public static synchronized void shutdownInstance(long timeoutMillis) {
+        if (instance != null) {
+            instance.shutdown(timeoutMillis);
+            instance = null;
+        }
+    }
+
+    /**
+     * Grava um registro de consumo no spool. Ao retornar true o registro está no segmento e será gravado no banco
+     * mesmo que a aplicação seja reiniciada.
+     *
+     * @param consumption Registro a ser gravado (amount, timeStamp, deviceId e residenceId preenchidos).
+     * @return true caso o registro tenha sido aceito; false caso o spool esteja cheio ou encerrado.
+     * @throws UncheckedIOException Caso um novo segmento não possa ser criado.
+     */
+    public boolean append(Consumption consumption) {
+        lock.lock();
+        try {
+            if (!running) {
+                rejected.increment();
+                return false;
+            }
+            Segment segment = writeSegment;
+            if (!segment.hasRoom()) {
+                if (segments.size() >= maxSegments) {
+                    rejected.increment();
+                    return false;
+                }
+                segment.sealed = true;
+                segment = createSegment();
+            }
+            int position = segment.writePosition;
+            write(segment.buffer, position, consumption);
+            if (syncOnAppend) {
+                segment.buffer.force(position, RECORD_BYTES);
+            }
+            segment.writePosition = position + RECORD_BYTES;
+            appended.increment();
+            appendedSignal.signal();
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Error creating ingest spool segment", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Interrompe o recebimento de novos registros e aguarda a gravação dos registros pendentes.
+     *
+     * @param timeoutMillis Tempo máximo de espera.
+     */
+    public void shutdown(long timeoutMillis) {
+        lock.lock();
+        try {
+            running = false;
+            appendedSignal.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        try {
+            replayer.join(timeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (replayer.isAlive()) {
+            LOGGER.warning("Ingest spool did not drain within " + timeoutMillis + " ms; pending records stay in "
+                    + directory + " and are replayed on the next start");
+            return;
+        }
+        lock.lock();
+        try {
+            for (Segment segment : segments) {
+                segment.close();
+            }
+            segments.clear();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Retorna um retrato das métricas atuais do spool.
+     *
+     * @return Métricas do spool.
+     */
+    public IngestSpoolStats getStats() {
+        int segmentCount;
+        long pending = 0;
+        long diskBytes = 0;
+        lock.lock();
+        try {
+            segmentCount = segments.size();
+            for (Segment segment : segments) {
+                pending += segment.available();
+                diskBytes += segment.capacity;
+            }
+        } finally {
+            lock.unlock();
+        }
+        return new IngestSpoolStats(directory.toString(), segmentCount, maxSegments, pending, diskBytes,
+                appended.sum(), rejected.sum(), replayed.sum(), refused.sum(), replayFailures.sum(), recovered);
+    }
+
+    /**
+     * Reabre os segmentos existentes, em ordem, descartando os que já foram gravados no banco.
+     *
+     * @return Quantidade de registros pendentes encontrados.
+     */
+    private long recover() throws IOException {
+        List<Path> files = new ArrayList<>();
+        String pattern = SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, pattern)) {
+            for (Path file : stream) {
+                files.add(file);
+            }
+        }
+        files.sort(Comparator.comparingLong(IngestSpool::sequenceOf));
+        long pending = 0;
+        for (Path file : files) {
+            long sequence = sequenceOf(file);
+            nextSequence = Math.max(nextSequence, sequence + 1);
+            Segment segment = Segment.open(file, sequence);
+            segment.sealed = true;
+            if (segment.available() == 0) {
+                discard(segment);
+                continue;
+            }
+            pending += segment.available();
+            segments.addLast(segment);
+        }
+        Segment last = segments.peekLast();
+        if (last != null && last.hasRoom()) {
+            last.sealed = false;
+            writeSegment = last;
+        } else {
+            createSegment();
+        }
+        if (pending > 0) {
+            LOGGER.info("Recovered " + pending + " spooled consumption records from " + directory);
+        }
+        return pending;
+    }
+
+    private Segment createSegment() throws IOException {
+        long sequence = nextSequence++;
+        Path file = directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, sequence, SEGMENT_SUFFIX));
+        Segment segment = Segment.create(file, sequence, segmentBytes);
+        segments.addLast(segment);
+        writeSegment = segment;
+        return segment;
+    }
+
+    private void runReplayer() {
+        List<Consumption> batch = new ArrayList<>(batchSize);
+        Segment segment;
+        while ((segment = nextSegmentToReplay()) != null) {
+            int count = Math.min(segment.available(), batchSize);
+            int position = segment.readPosition;
+            for (int i = 0; i < count; i++) {
+                batch.add(read(segment.buffer, position + i * RECORD_BYTES));
+            }
+            List<Consumption> refusedRecords = new ArrayList<>();
+            int resolved = replay(batch, refusedRecords);
+            if (!refusedRecords.isEmpty()) {
+                writeRefused(refusedRecords);
+            }
+            if (resolved > 0) {
+                segment.readPosition = position + resolved * RECORD_BYTES;
+                segment.buffer.putLong(0, segment.readPosition);
+                if (syncOnAppend) {
+                    segment.buffer.force(0, HEADER_BYTES);
+                }
+            }
+            if (resolved < count) {
+                if (!running) {
+                    break;
+                }
+                try {
+                    Thread.sleep(retryMillis);
+                } catch (InterruptedException e) {
+                    running = false;
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Aguarda um lote completo, ou o fim do intervalo de gravação de um lote parcial, e retorna o segmento de onde
+     * lê-lo. Segmentos lacrados e completamente gravados são excluídos no caminho.
+     *
+     * @return Segmento com registros pendentes ou null caso o spool tenha sido encerrado sem registros pendentes.
+     */
+    private Segment nextSegmentToReplay() {
+        lock.lock();
+        try {
+            long deadline = 0;
+            while (true) {
+                Segment head = segments.peekFirst();
+                int available = head.available();
+                if (available == 0 && head.sealed) {
+                    segments.removeFirst();
+                    discard(head);
+                    continue;
+                }
+                if (available >= batchSize || (available > 0 && (head.sealed || !running))) {
+                    return head;
+                }
+                if (!running) {
+                    return null;
+                }
+                if (available == 0) {
+                    appendedSignal.await(flushIntervalMillis, TimeUnit.MILLISECONDS);
+                    continue;
+                }
+                if (deadline == 0) {
+                    deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return head;
+                }
+                appendedSignal.awaitNanos(remaining);
+            }
+        } catch (InterruptedException e) {
+            running = false;
+            return null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Grava um lote no banco, em ordem. Um lote recusado é gravado em duas metades (a inserção é transacional, então
+     * a tentativa recusada não gravou nada), até isolar os registros recusados.
+     *
+     * @param batch          Registros a gravar.
+     * @param refusedRecords Recebe os registros recusados pelo banco.
+     * @return Quantidade de registros iniciais do lote resolvidos (gravados ou recusados); menor que o lote caso o
+     *         banco tenha ficado indisponível, e o restante deva ser repetido.
+     */
+    private int replay(List<Consumption> batch, List<Consumption> refusedRecords) {
+        try {
+            consumptionDAO.createConsumptions(batch);
+            replayed.add(batch.size());
+            return batch.size();
+        } catch (RuntimeException e) {
+            if (ConnectionPool.isRetryable(e)) {
+                replayFailures.increment();
+                LOGGER.log(Level.WARNING, "Database unavailable writing " + batch.size()
+                        + " spooled consumption records; will retry", e);
+                return 0;
+            }
+            if (batch.size() == 1) {
+                LOGGER.log(Level.FINE, "Spooled consumption record refused by the database", e);
+                refusedRecords.add(batch.get(0));
+                return 1;
+            }
+        }
+        int middle = batch.size() / 2;
+        int resolved = replay(batch.subList(0, middle), refusedRecords);
+        if (resolved < middle) {
+            return resolved;
+        }
+        return middle + replay(batch.subList(middle, batch.size()), refusedRecords);
+    }
+
+    private void writeRefused(List<Consumption> records) {
+        refused.add(records.size());
+        List<String> lines = new ArrayList<>(records.size());
+        for (Consumption record : records) {
+            lines.add(JSONB.toJson(record));
+        }
+        Path file = directory.resolve(REFUSED_FILE);
+        try {
+            Files.write(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            LOGGER.warning(records.size() + " spooled consumption records were refused by the database; see " + file);
+        } catch (IOException e) {
+            LOGGER.log(Level.SEVERE, "Error saving refused consumption records: " + lines, e);
+        }
+    }
+
+    private static void discard(Segment segment) {
+        segment.close();
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            LOGGER.log(Level.WARNING, "Error deleting replayed spool segment " + segment.path, e);
+        }
+    }
+
+    private static long sequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static void write(MappedByteBuffer buffer, int position, Consumption consumption) {
+        long time = consumption.getTimeStamp().getTime();
+        long amountBits = Double.doubleToRawLongBits(consumption.getAmount());
+        int nanos = consumption.getTimeStamp().getNanos();
+        int deviceId = consumption.getDeviceId();
+        int residenceId = consumption.getResidenceId();
+        buffer.putLong(position, time);
+        buffer.putLong(position + 8, amountBits);
+        buffer.putInt(position + 16, nanos);
+        buffer.putInt(position + 20, deviceId);
+        buffer.putInt(position + 24, residenceId);
+        // O código de verificação é escrito por último: um registro interrompido no meio fica inválido.
+        buffer.putInt(position + 28, checksum(time, amountBits, nanos, deviceId, residenceId));
+    }
+
+    private static Consumption read(MappedByteBuffer buffer, int position) {
+        Timestamp timestamp = new Timestamp(buffer.getLong(position));
+        timestamp.setNanos(buffer.getInt(position + 16));
+        return new Consumption(null, buffer.getDouble(position + 8), timestamp, buffer.getInt(position + 20),
+                buffer.getInt(position + 24));
+    }
+
+    private static boolean isValid(MappedByteBuffer buffer, int position) {
+        int expected = checksum(buffer.getLong(position), buffer.getLong(position + 8), buffer.getInt(position + 16),
+                buffer.getInt(position + 20), buffer.getInt(position + 24));
+        return buffer.getInt(position + 28) == expected;
+    }
+
+    /**
+     * Código de verificação de um registro; nunca é zero, de modo que uma posição ainda não escrita é inválida.
+     */
+    private static int checksum(long time, long amountBits, int nanos, int deviceId, int residenceId) {
+        long hash = time * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ amountBits) * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ (((long) nanos << 32) | (deviceId & 0xFFFFFFFFL))) * 0x9E3779B97F4A7C15L;
+        hash = (hash ^ residenceId) * 0x9E3779B97F4A7C15L;
+        int checksum = (int) (hash ^ (hash >>> 32));
+        return checksum == 0 ? 1 : checksum;
+    }
+
+    /**
+     * Arquivo de segmento mapeado em memória. Os registros ocupam [HEADER_BYTES, writePosition); os anteriores a
+     * readPosition já foram gravados no banco.
+     */
+    private static final class Segment {
+        private final long sequence;
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final int capacity;
+        private volatile int writePosition;
+        private volatile int readPosition;
+        private volatile boolean sealed;
+
+        private Segment(long sequence, Path path, FileChannel channel, int capacity) throws IOException {
+            this.sequence = sequence;
+            this.path = path;
+            this.channel = channel;
+            this.capacity = capacity;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+        }
+
+        private static Segment create(Path path, long sequence, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            Segment segment = new Segment(sequence, path, channel, size);
+            segment.buffer.putLong(0, HEADER_BYTES);
+            segment.buffer.putInt(8, MAGIC);
+            segment.readPosition = HEADER_BYTES;
+            segment.writePosition = HEADER_BYTES;
+            return segment;
+        }
+
+        private static Segment open(Path path, long sequence) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = channel.size();
+            int capacity = (int) (HEADER_BYTES + Math.max(0, Math.min(size, Integer.MAX_VALUE) - HEADER_BYTES)
+                    / RECORD_BYTES * RECORD_BYTES);
+            if (size < HEADER_BYTES) {
+                channel.close();
+                throw new IOException("Truncated spool segment: " + path);
+            }
+            Segment segment = new Segment(sequence, path, channel, capacity);
+            int position = HEADER_BYTES;
+            if (segment.buffer.getInt(8) == MAGIC) {
+                long replayed = segment.buffer.getLong(0);
+                if (replayed > HEADER_BYTES && replayed <= capacity && (replayed - HEADER_BYTES) % RECORD_BYTES == 0) {
+                    position = (int) replayed;
+                }
+            }
+            segment.readPosition = position;
+            while (position + RECORD_BYTES <= capacity && isValid(segment.buffer, position)) {
+                position += RECORD_BYTES;
+            }
+            segment.writePosition = position;
+            return segment;
+        }
+
+        private int available() {
+            return (writePosition - readPosition) / RECORD_BYTES;
+        }
+
+        private boolean hasRoom() {
+            return writePosition + RECORD_BYTES <= capacity;
+        }
+
+        private void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOGGER.log(Level.FINE, "Error closing spool segment " + path, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package br.com.fiap.ecosmartmonitor.service;
+
+/**
+ * Retrato das métricas do {@link IngestSpool} em um determinado instante.
+ *
+ * @attributes
+ * directory       Diretório dos segmentos.
+ * segments        Segmentos em disco no momento.
+ * maxSegments     Quantidade máxima de segmentos.
+ * pending         Registros em disco ainda não gravados no banco.
+ * diskBytes       Espaço ocupado pelos segmentos, em bytes.
+ * appended        Total de registros aceitos no spool.
+ * rejected        Total de registros recusados por spool cheio ou encerrado.
+ * replayed        Total de registros gravados no banco.
+ * refused         Total de registros recusados pelo banco e separados em refused.ndjson.
+ * replayFailures  Total de lotes cuja gravação falhou e foi repetida.
+ * recovered       Registros pendentes encontrados em disco na inicialização.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class IngestSpoolStats {
+    private final String directory;
+    private final int segments;
+    private final int maxSegments;
+    private final long pending;
+    private final long diskBytes;
+    private final long appended;
+    private final long rejected;
+    private final long replayed;
+    private final long refused;
+    private final long replayFailures;
+    private final long recovered;
+
+    /**
+     * Construtor completo das métricas do spool.
+     *
+     * @param directory      Diretório dos segmentos.
+     * @param segments       Segmentos em disco.
+     * @param maxSegments    Quantidade máxima de segmentos.
+     * @param pending        Registros ainda não gravados no banco.
+     * @param diskBytes      Espaço ocupado pelos segmentos.
+     * @param appended       Total de registros aceitos.
+     * @param rejected       Total de registros recusados.
+     * @param replayed       Total de registros gravados no banco.
+     * @param refused        Total de registros recusados pelo banco.
+     * @param replayFailures Total de lotes com falha na gravação.
+     * @param recovered      Registros pendentes encontrados na inicialização.
+     */
+    public IngestSpoolStats(String directory, int segments, int maxSegments, long pending, long diskBytes,
+            long appended, long rejected, long replayed, long refused, long replayFailures, long recovered) {
+        this.directory = directory;
+        this.segments = segments;
+        this.maxSegments = maxSegments;
+        this.pending = pending;
+        this.diskBytes = diskBytes;
+        this.appended = appended;
+        this.rejected = rejected;
+        this.replayed = replayed;
+        this.refused = refused;
+        this.replayFailures = replayFailures;
+        this.recovered = recovered;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public int getSegments() {
+        return segments;
+    }
+
+    public int getMaxSegments() {
+        return maxSegments;
+    }
+
+    public long getPending() {
+        return pending;
+    }
+
+    public long getDiskBytes() {
+        return diskBytes;
+    }
+
+    public long getAppended() {
+        return appended;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public long getReplayed() {
+        return replayed;
+    }
+
+    public long getRefused() {
+        return refused;
+    }
+
+    public long getReplayFailures() {
+        return replayFailures;
+    }
+
+    public long getRecovered() {
+        return recovered;
+    }
+}
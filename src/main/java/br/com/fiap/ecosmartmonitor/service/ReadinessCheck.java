@@ -0,0 +1,126 @@
+package br.com.fiap.ecosmartmonitor.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.locks.ReentrantLock;
+
+import br.com.fiap.ecosmartmonitor.factory.DAOFactory;
+import br.com.fiap.ecosmartmonitor.model.ReadinessReport;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.ConnectionPool;
+import br.com.fiap.ecosmartmonitor.util.PoolStats;
+
+/**
+ * Verificação de prontidão (readiness) usada pelos health checks.
+ * O banco é validado com uma conexão emprestada do pool (isValid), com tempo limite tanto para o empréstimo
+ * quanto para a validação, e o resultado é reaproveitado por ecosmart.health.cacheMillis: verificações
+ * frequentes custam apenas a leitura das métricas do pool e da fila de ingestão, que são sempre atuais.
+ *
+ * Configurações: ecosmart.health.cacheMillis (1000) e ecosmart.health.timeoutMillis (1000).
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class ReadinessCheck {
+    private static final long CACHE_MILLIS = AppConfig.getLong("ecosmart.health.cacheMillis", 1000);
+    private static final long TIMEOUT_MILLIS = AppConfig.getLong("ecosmart.health.timeoutMillis", 1000);
+
+    /** Bloqueio da validação; ReentrantLock em vez de synchronized para não fixar threads virtuais durante o I/O. */
+    private static final ReentrantLock VALIDATION_LOCK = new ReentrantLock();
+
+    private static volatile Validation last;
+
+    private ReadinessCheck() {
+    }
+
+    /**
+     * Retorna o estado de prontidão, validando o banco apenas quando o último resultado expirou.
+     * Verificações simultâneas aguardam a validação em andamento em vez de abrir outras.
+     *
+     * @return Relatório de prontidão.
+     */
+    public static ReadinessReport check() {
+        ConnectionPool pool = DAOFactory.getConnectionPool();
+        Validation validation = currentValidation(pool);
+        long now = System.currentTimeMillis();
+
+        ReadinessReport report = new ReadinessReport();
+        report.setDatabase(validation.database);
+        report.setStatus("CONNECTED".equals(validation.database) ? ReadinessReport.UP : ReadinessReport.DOWN);
+        report.setMessage(validation.message);
+        report.setValidationMillis(validation.durationMillis);
+        report.setCheckAgeMillis(now - validation.checkedAt);
+        long lastSuccess = pool.getLastSuccessMillis();
+        report.setLastSuccessAgeMillis(lastSuccess == 0 ? -1 : Math.max(0, now - lastSuccess));
+
+        PoolStats stats = pool.getStats();
+        report.setPoolActive(stats.getActiveConnections());
+        report.setPoolMax(stats.getMaxSize());
+        report.setPoolWaiters(stats.getWaiters());
+        report.setPoolSaturation((double) stats.getActiveConnections() / stats.getMaxSize());
+        if (ConsumptionIngestQueue.isEnabled()) {
+            IngestQueueStats ingest = ConsumptionIngestQueue.getInstance().getStats();
+            report.setIngestQueueDepth(ingest.getDepth());
+            report.setIngestQueueCapacity(ingest.getCapacity());
+        }
+        return report;
+    }
+
+    private static Validation currentValidation(ConnectionPool pool) {
+        Validation current = last;
+        if (current != null && current.pool == pool && System.currentTimeMillis() - current.checkedAt < CACHE_MILLIS) {
+            return current;
+        }
+        VALIDATION_LOCK.lock();
+        try {
+            current = last;
+            if (current == null || current.pool != pool || System.currentTimeMillis() - current.checkedAt >= CACHE_MILLIS) {
+                current = validate(pool);
+                last = current;
+            }
+            return current;
+        } finally {
+            VALIDATION_LOCK.unlock();
+        }
+    }
+
+    private static Validation validate(ConnectionPool pool) {
+        long start = System.nanoTime();
+        String database;
+        String message = null;
+        int timeoutSeconds = (int) Math.max(1, (TIMEOUT_MILLIS + 999) / 1000);
+        try (Connection connection = pool.getConnection(TIMEOUT_MILLIS)) {
+            if (connection.isValid(timeoutSeconds)) {
+                database = "CONNECTED";
+            } else {
+                database = "DISCONNECTED";
+                message = "Connection validation failed";
+            }
+        } catch (SQLException e) {
+            database = "ERROR";
+            message = e.getMessage();
+        }
+        return new Validation(pool, database, message, (System.nanoTime() - start) / 1_000_000,
+                System.currentTimeMillis());
+    }
+
+    /**
+     * Resultado de uma validação do banco, reaproveitado enquanto não expira.
+     */
+    private static final class Validation {
+        private final ConnectionPool pool;
+        private final String database;
+        private final String message;
+        private final long durationMillis;
+        private final long checkedAt;
+
+        private Validation(ConnectionPool pool, String database, String message, long durationMillis, long checkedAt) {
+            this.pool = pool;
+            this.database = database;
+            this.message = message;
+            this.durationMillis = durationMillis;
+            this.checkedAt = checkedAt;
+        }
+    }
+}
@@ -0,0 +1,363 @@
+package br.com.fiap.ecosmartmonitor.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Random;
+import java.util.logging.Logger;
+
+import br.com.fiap.ecosmartmonitor.dao.ConsumptionRollupDAOImpl;
+import br.com.fiap.ecosmartmonitor.util.AppConfig;
+import br.com.fiap.ecosmartmonitor.util.ConnectionSource;
+import br.com.fiap.ecosmartmonitor.util.DataSourceConfig;
+
+/**
+ * Gerador de dados sintéticos para testes de carga: clientes, residências, dispositivos, notificações
+ * e meses de leituras de consumo com perfil diário por tipo de dispositivo.
+ * A geração é determinística para uma mesma semente e termina na meia-noite do dia atual.
+ *
+ * Configurações: ecosmart.seed.clients (10), ecosmart.seed.residencesPerClient (1),
+ * ecosmart.seed.devicesPerResidence (5), ecosmart.seed.months (1), ecosmart.seed.intervalMinutes (60),
+ * ecosmart.seed.notificationsPerClient (2) e ecosmart.seed.randomSeed (42).
+ * Com ecosmart.seed.onStartup=true a aplicação gera os dados na inicialização quando o banco está vazio;
+ * o método main permite gerar os dados em um banco externo (ecosmart.db.url).
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class SyntheticDataGenerator {
+    private static final Logger LOGGER = Logger.getLogger(SyntheticDataGenerator.class.getName());
+
+    private static final String[] DEVICE_TYPES = { "appliance", "lighting", "climate", "electronics" };
+    private static final int INSERT_BATCH = 1000;
+
+    private final int clients;
+    private final int residencesPerClient;
+    private final int devicesPerResidence;
+    private final int months;
+    private final int intervalMinutes;
+    private final int notificationsPerClient;
+    private final long randomSeed;
+
+    /**
+     * Construtor da classe SyntheticDataGenerator.
+     *
+     * @param clients                Quantidade de clientes.
+     * @param residencesPerClient    Residências por cliente.
+     * @param devicesPerResidence    Dispositivos por residência.
+     * @param months                 Meses de leituras por dispositivo.
+     * @param intervalMinutes        Intervalo entre leituras de um dispositivo, em minutos.
+     * @param notificationsPerClient Notificações por cliente.
+     * @param randomSeed             Semente dos valores gerados.
+     */
+    public SyntheticDataGenerator(int clients, int residencesPerClient, int devicesPerResidence, int months,
+            int intervalMinutes, int notificationsPerClient, long randomSeed) {
+        if (clients < 1 || residencesPerClient < 1 || devicesPerResidence < 1 || months < 0 || intervalMinutes < 1
+                || notificationsPerClient < 0) {
+            throw new IllegalArgumentException("Invalid synthetic data settings");
+        }
+        this.clients = clients;
+        this.residencesPerClient = residencesPerClient;
+        this.devicesPerResidence = devicesPerResidence;
+        this.months = months;
+        this.intervalMinutes = intervalMinutes;
+        this.notificationsPerClient = notificationsPerClient;
+        this.randomSeed = randomSeed;
+    }
+
+    /**
+     * Cria um gerador com os parâmetros definidos em {@link AppConfig}.
+     *
+     * @return Gerador configurado.
+     */
+    public static SyntheticDataGenerator fromConfig() {
+        return new SyntheticDataGenerator(
+                AppConfig.getInt("ecosmart.seed.clients", 10),
+                AppConfig.getInt("ecosmart.seed.residencesPerClient", 1),
+                AppConfig.getInt("ecosmart.seed.devicesPerResidence", 5),
+                AppConfig.getInt("ecosmart.seed.months", 1),
+                AppConfig.getInt("ecosmart.seed.intervalMinutes", 60),
+                AppConfig.getInt("ecosmart.seed.notificationsPerClient", 2),
+                AppConfig.getLong("ecosmart.seed.randomSeed", 42));
+    }
+
+    /**
+     * Indica se os dados devem ser gerados na inicialização da aplicação (ecosmart.seed.onStartup, padrão false).
+     *
+     * @return true caso a geração na inicialização esteja ativada.
+     */
+    public static boolean isStartupSeedEnabled() {
+        return AppConfig.getBoolean("ecosmart.seed.onStartup", false);
+    }
+
+    /**
+     * Verifica se ainda não há clientes cadastrados.
+     *
+     * @param source Origem das conexões.
+     * @return true caso a tabela Client esteja vazia.
+     * @throws SQLException Caso ocorra erro ao acessar o banco de dados.
+     */
+    public static boolean isDatabaseEmpty(ConnectionSource source) throws SQLException {
+        try (Connection connection = source.getConnection();
+             PreparedStatement stmt = connection.prepareStatement("SELECT COUNT(*) FROM Client");
+             ResultSet rs = stmt.executeQuery()) {
+            return rs.next() && rs.getLong(1) == 0;
+        }
+    }
+
+    /**
+     * Gera e grava todos os registros. Cada dispositivo é gravado em uma transação; ao final, o consumo médio
+     * (status) de cada dispositivo é atualizado e, com ecosmart.rollups.enabled, os rollups do período são reconstruídos.
+     *
+     * @param source Origem das conexões.
+     * @return Quantidade de registros gerados por tabela.
+     * @throws SQLException Caso ocorra erro ao gravar os registros.
+     */
+    public Summary generate(ConnectionSource source) throws SQLException {
+        long started = System.nanoTime();
+        Random random = new Random(randomSeed);
+        LocalDateTime end = LocalDate.now().atStartOfDay();
+        LocalDateTime start = end.minusMonths(months);
+        Summary summary = new Summary();
+
+        try (Connection connection = source.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (int c = 1; c <= clients; c++) {
+                    long clientId = insertClient(connection, c);
+                    summary.clients++;
+                    insertNotifications(connection, clientId, c, end, summary);
+                    for (int r = 1; r <= residencesPerClient; r++) {
+                        long residenceId = insertResidence(connection, clientId, c, r);
+                        summary.residences++;
+                        for (int d = 0; d < devicesPerResidence; d++) {
+                            String type = DEVICE_TYPES[(c + r + d) % DEVICE_TYPES.length];
+                            double baseKwh = baseLoad(type) * (0.5 + random.nextDouble());
+                            long deviceId = insertDevice(connection, residenceId, type, d, baseKwh);
+                            summary.devices++;
+                            double average = insertReadings(connection, deviceId, residenceId, type, baseKwh,
+                                    start, end, random, summary);
+                            updateAverage(connection, deviceId, average);
+                            connection.commit();
+                        }
+                    }
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        }
+        if (AppConfig.getBoolean("ecosmart.rollups.enabled", false) && summary.consumptions > 0) {
+            new ConsumptionRollupDAOImpl(source).rebuild(Timestamp.valueOf(start), Timestamp.valueOf(end));
+        }
+        summary.elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        LOGGER.info("Synthetic data generated: " + summary);
+        return summary;
+    }
+
+    private static long insertClient(Connection connection, int index) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO Client (name, email, phone, address) VALUES (?, ?, ?, ?)", new String[] { "id" })) {
+            stmt.setString(1, "Client " + index);
+            stmt.setString(2, "client" + index + "@example.com");
+            stmt.setString(3, String.format("11 9%04d-%04d", index / 10000 % 10000, index % 10000));
+            stmt.setString(4, "Street " + index + ", 100");
+            return executeForKey(stmt);
+        }
+    }
+
+    private static long insertResidence(Connection connection, long clientId, int client, int index)
+            throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO Residence (address, client_id) VALUES (?, ?)", new String[] { "id" })) {
+            stmt.setString(1, "Street " + client + ", " + (100 + index));
+            stmt.setLong(2, clientId);
+            return executeForKey(stmt);
+        }
+    }
+
+    private static long insertDevice(Connection connection, long residenceId, String type, int index, double baseKwh)
+            throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO Device (name, type, status, residence_id) VALUES (?, ?, ?, ?)", new String[] { "id" })) {
+            stmt.setString(1, type + " " + (index + 1));
+            stmt.setString(2, type);
+            stmt.setDouble(3, baseKwh);
+            stmt.setLong(4, residenceId);
+            return executeForKey(stmt);
+        }
+    }
+
+    private void insertNotifications(Connection connection, long clientId, int client, LocalDateTime end,
+            Summary summary) throws SQLException {
+        if (notificationsPerClient == 0) {
+            return;
+        }
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO Notification (message, timestamp, read, client_id) VALUES (?, ?, ?, ?)")) {
+            for (int n = 0; n < notificationsPerClient; n++) {
+                stmt.setString(1, "Consumption above average for client " + client);
+                stmt.setTimestamp(2, Timestamp.valueOf(end.minusDays(n + 1L)));
+                stmt.setString(3, n % 2 == 0 ? "N" : "Y");
+                stmt.setLong(4, clientId);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+            summary.notifications += notificationsPerClient;
+        }
+    }
+
+    /**
+     * Grava as leituras do dispositivo no intervalo e retorna o consumo médio por leitura.
+     */
+    private double insertReadings(Connection connection, long deviceId, long residenceId, String type, double baseKwh,
+            LocalDateTime start, LocalDateTime end, Random random, Summary summary) throws SQLException {
+        double hoursPerReading = intervalMinutes / 60.0;
+        double total = 0;
+        long count = 0;
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "INSERT INTO Consumption (amount, timestamp, device_id, residence_id) VALUES (?, ?, ?, ?)")) {
+            int pending = 0;
+            for (LocalDateTime time = start; time.isBefore(end); time = time.plusMinutes(intervalMinutes)) {
+                double amount = baseKwh * hoursPerReading * dailyProfile(type, time.getHour())
+                        * (0.8 + 0.4 * random.nextDouble());
+                amount = Math.round(amount * 1000) / 1000.0;
+                stmt.setDouble(1, amount);
+                stmt.setTimestamp(2, Timestamp.valueOf(time));
+                stmt.setLong(3, deviceId);
+                stmt.setLong(4, residenceId);
+                stmt.addBatch();
+                total += amount;
+                count++;
+                if (++pending == INSERT_BATCH) {
+                    stmt.executeBatch();
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                stmt.executeBatch();
+            }
+        }
+        summary.consumptions += count;
+        return count == 0 ? baseKwh : total / count;
+    }
+
+    private static void updateAverage(Connection connection, long deviceId, double average) throws SQLException {
+        try (PreparedStatement stmt = connection.prepareStatement("UPDATE Device SET status = ? WHERE id = ?")) {
+            stmt.setDouble(1, Math.round(average * 1000) / 1000.0);
+            stmt.setLong(2, deviceId);
+            stmt.executeUpdate();
+        }
+    }
+
+    private static long executeForKey(PreparedStatement stmt) throws SQLException {
+        stmt.executeUpdate();
+        try (ResultSet keys = stmt.getGeneratedKeys()) {
+            if (!keys.next()) {
+                throw new SQLException("Insert did not return a generated id");
+            }
+            return keys.getLong(1);
+        }
+    }
+
+    /**
+     * Potência média, em kW, de cada tipo de dispositivo.
+     */
+    private static double baseLoad(String type) {
+        switch (type) {
+            case "climate":
+                return 1.5;
+            case "appliance":
+                return 0.8;
+            case "electronics":
+                return 0.2;
+            default:
+                return 0.1;
+        }
+    }
+
+    /**
+     * Fator de uso do tipo de dispositivo na hora do dia (1.0 = média).
+     */
+    private static double dailyProfile(String type, int hour) {
+        switch (type) {
+            case "lighting":
+                return hour >= 18 && hour <= 23 ? 2.5 : hour >= 6 && hour <= 8 ? 1.2 : 0.3;
+            case "climate":
+                return hour >= 12 && hour <= 17 ? 2.0 : hour >= 22 || hour <= 5 ? 0.8 : 0.6;
+            case "electronics":
+                return hour >= 19 && hour <= 23 ? 2.0 : hour <= 6 ? 0.4 : 0.8;
+            default:
+                return hour >= 7 && hour <= 21 ? 1.3 : 0.5;
+        }
+    }
+
+    /**
+     * Gera os dados no banco configurado por ecosmart.db.url (ou ConnectionDB), criando o esquema
+     * antes caso ecosmart.db.initSchema=true. Os parâmetros vêm das propriedades ecosmart.seed.*.
+     *
+     * Exemplo: java -Decosmart.db.url=jdbc:h2:./target/ecosmart;MODE=Oracle -Decosmart.db.initSchema=true
+     * -Decosmart.seed.clients=1000 -Decosmart.seed.months=6 ...SyntheticDataGenerator
+     *
+     * @param args Não utilizado.
+     * @throws SQLException Caso ocorra erro ao acessar o banco de dados.
+     */
+    public static void main(String[] args) throws SQLException {
+        ConnectionSource source = DataSourceConfig.connectionSource();
+        if (DataSourceConfig.isInitSchemaEnabled()) {
+            DataSourceConfig.createSchemaIfMissing(source);
+        }
+        System.out.println(fromConfig().generate(source));
+    }
+
+    /**
+     * Quantidade de registros gravados por tabela e duração da geração.
+     */
+    public static final class Summary {
+        private long clients;
+        private long residences;
+        private long devices;
+        private long consumptions;
+        private long notifications;
+        private long elapsedMillis;
+
+        public long getClients() {
+            return clients;
+        }
+
+        public long getResidences() {
+            return residences;
+        }
+
+        public long getDevices() {
+            return devices;
+        }
+
+        public long getConsumptions() {
+            return consumptions;
+        }
+
+        public long getNotifications() {
+            return notifications;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "clients=" + clients + ", residences=" + residences + ", devices=" + devices
+                    + ", consumptions=" + consumptions + ", notifications=" + notifications
+                    + ", elapsedMillis=" + elapsedMillis;
+        }
+    }
+}
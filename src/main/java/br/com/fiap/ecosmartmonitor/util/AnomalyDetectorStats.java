@@ -0,0 +1,93 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+/**
+ * Retrato das métricas do detector de consumo anormal (ConsumptionAnomalyDetector) em um determinado instante.
+ *
+ * @attributes
+ * devices                Dispositivos com linha de base em memória.
+ * readings               Total de leituras avaliadas.
+ * averageDetectNanos     Tempo médio de avaliação de uma leitura na thread da gravação, em nanossegundos.
+ * anomalies              Total de leituras consideradas anormais.
+ * suppressed             Leituras anormais sem notificação por estarem no intervalo mínimo entre notificações.
+ * notifications          Total de notificações gravadas.
+ * averageNotifyMillis    Tempo médio entre a detecção e a gravação da notificação, em milissegundos.
+ * pending                Tarefas aguardando a thread de notificações.
+ * dropped                Notificações descartadas por fila cheia, dono desconhecido ou falha na gravação.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class AnomalyDetectorStats {
+    private final int devices;
+    private final long readings;
+    private final double averageDetectNanos;
+    private final long anomalies;
+    private final long suppressed;
+    private final long notifications;
+    private final double averageNotifyMillis;
+    private final int pending;
+    private final long dropped;
+
+    /**
+     * Construtor completo das métricas do detector.
+     *
+     * @param devices             Dispositivos com linha de base.
+     * @param readings            Total de leituras avaliadas.
+     * @param averageDetectNanos  Tempo médio de avaliação de uma leitura.
+     * @param anomalies           Total de leituras anormais.
+     * @param suppressed          Leituras anormais sem notificação.
+     * @param notifications       Total de notificações gravadas.
+     * @param averageNotifyMillis Tempo médio até a gravação da notificação.
+     * @param pending             Tarefas aguardando a thread de notificações.
+     * @param dropped             Notificações descartadas.
+     */
+    public AnomalyDetectorStats(int devices, long readings, double averageDetectNanos, long anomalies,
+            long suppressed, long notifications, double averageNotifyMillis, int pending, long dropped) {
+        this.devices = devices;
+        this.readings = readings;
+        this.averageDetectNanos = averageDetectNanos;
+        this.anomalies = anomalies;
+        this.suppressed = suppressed;
+        this.notifications = notifications;
+        this.averageNotifyMillis = averageNotifyMillis;
+        this.pending = pending;
+        this.dropped = dropped;
+    }
+
+    public int getDevices() {
+        return devices;
+    }
+
+    public long getReadings() {
+        return readings;
+    }
+
+    public double getAverageDetectNanos() {
+        return averageDetectNanos;
+    }
+
+    public long getAnomalies() {
+        return anomalies;
+    }
+
+    public long getSuppressed() {
+        return suppressed;
+    }
+
+    public long getNotifications() {
+        return notifications;
+    }
+
+    public double getAverageNotifyMillis() {
+        return averageNotifyMillis;
+    }
+
+    public int getPending() {
+        return pending;
+    }
+
+    public long getDropped() {
+        return dropped;
+    }
+}
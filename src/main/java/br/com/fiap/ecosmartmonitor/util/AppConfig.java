@@ -0,0 +1,104 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+/**
+ * Ponto único de leitura das configurações da aplicação.
+ * Cada chave é procurada primeiro nas propriedades do sistema (-Dchave=valor) e depois
+ * nas variáveis de ambiente, usando o nome em maiúsculas com '.' e '-' trocados por '_'
+ * (ex.: ecosmart.pool.maxSize -> ECOSMART_POOL_MAXSIZE). Se nenhuma existir, o valor padrão é usado.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class AppConfig {
+
+    private AppConfig() {
+    }
+
+    /**
+     * Obtém uma configuração textual.
+     *
+     * @param key          Nome da configuração.
+     * @param defaultValue Valor retornado caso a configuração não esteja definida.
+     * @return Valor configurado ou o valor padrão.
+     */
+    public static String getString(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        if (value == null || value.isBlank()) {
+            value = System.getenv(key.toUpperCase().replace('.', '_').replace('-', '_'));
+        }
+        return (value == null || value.isBlank()) ? defaultValue : value.trim();
+    }
+
+    /**
+     * Obtém uma configuração inteira.
+     *
+     * @param key          Nome da configuração.
+     * @param defaultValue Valor retornado caso a configuração não esteja definida.
+     * @return Valor configurado ou o valor padrão.
+     * @throws IllegalStateException Caso o valor configurado não seja um número válido.
+     */
+    public static int getInt(String key, int defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid integer for configuration '" + key + "': " + value, e);
+        }
+    }
+
+    /**
+     * Obtém uma configuração numérica longa.
+     *
+     * @param key          Nome da configuração.
+     * @param defaultValue Valor retornado caso a configuração não esteja definida.
+     * @return Valor configurado ou o valor padrão.
+     * @throws IllegalStateException Caso o valor configurado não seja um número válido.
+     */
+    public static long getLong(String key, long defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid long for configuration '" + key + "': " + value, e);
+        }
+    }
+
+    /**
+     * Obtém uma configuração decimal.
+     *
+     * @param key          Nome da configuração.
+     * @param defaultValue Valor retornado caso a configuração não esteja definida.
+     * @return Valor configurado ou o valor padrão.
+     * @throws IllegalStateException Caso o valor configurado não seja um número válido.
+     */
+    public static double getDouble(String key, double defaultValue) {
+        String value = getString(key, null);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Invalid number for configuration '" + key + "': " + value, e);
+        }
+    }
+
+    /**
+     * Obtém uma configuração booleana ("true" ou "false").
+     *
+     * @param key          Nome da configuração.
+     * @param defaultValue Valor retornado caso a configuração não esteja definida.
+     * @return Valor configurado ou o valor padrão.
+     */
+    public static boolean getBoolean(String key, boolean defaultValue) {
+        String value = getString(key, null);
+        return value == null ? defaultValue : Boolean.parseBoolean(value);
+    }
+}
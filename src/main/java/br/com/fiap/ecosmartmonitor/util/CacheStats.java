@@ -0,0 +1,91 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+/**
+ * Retrato das métricas de um {@link LruCache} em um determinado instante.
+ *
+ * @attributes
+ * name           Nome do cache.
+ * maxEntries     Quantidade máxima de entradas.
+ * size           Entradas armazenadas no momento.
+ * hits           Consultas respondidas pelo cache.
+ * misses         Consultas que precisaram carregar o valor.
+ * evictions      Entradas descartadas por exceder maxEntries.
+ * expirations    Entradas descartadas por exceder o tempo de vida.
+ * invalidations  Invalidações por alteração ou exclusão.
+ * hitRatio       Proporção de acertos (0 a 1).
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class CacheStats {
+    private final String name;
+    private final int maxEntries;
+    private final int size;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long expirations;
+    private final long invalidations;
+
+    /**
+     * Construtor completo das métricas do cache.
+     *
+     * @param name          Nome do cache.
+     * @param maxEntries    Quantidade máxima de entradas.
+     * @param size          Entradas armazenadas.
+     * @param hits          Consultas respondidas pelo cache.
+     * @param misses        Consultas que precisaram carregar o valor.
+     * @param evictions     Entradas descartadas por tamanho.
+     * @param expirations   Entradas descartadas por tempo de vida.
+     * @param invalidations Invalidações por alteração ou exclusão.
+     */
+    public CacheStats(String name, int maxEntries, int size, long hits, long misses, long evictions,
+            long expirations, long invalidations) {
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.size = size;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.expirations = expirations;
+        this.invalidations = invalidations;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getExpirations() {
+        return expirations;
+    }
+
+    public long getInvalidations() {
+        return invalidations;
+    }
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
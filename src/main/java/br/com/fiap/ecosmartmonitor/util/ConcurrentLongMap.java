@@ -0,0 +1,149 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.LongFunction;
+
+/**
+ * Mapa concorrente com chaves long primitivas, para o estado por dispositivo consultado a cada leitura gravada.
+ * Ao contrário de um ConcurrentHashMap&lt;Long, V&gt;, a consulta não converte a chave em Long (o que aloca um objeto
+ * para IDs fora do cache de Long.valueOf) e não bloqueia.
+ *
+ * A tabela usa endereçamento aberto. As inclusões ocorrem sob o monitor do mapa: a chave é gravada antes do valor,
+ * e o valor é publicado com escrita volátil, de modo que quem encontra o valor também enxerga a chave. Ao crescer,
+ * a tabela é copiada e a nova é publicada por inteiro. Não há remoção: as entradas duram enquanto a aplicação roda.
+ *
+ * @param <V> Tipo do valor.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class ConcurrentLongMap<V> {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private volatile Table<V> table = new Table<>(INITIAL_CAPACITY);
+    private volatile int size;
+
+    /**
+     * Retorna o valor associado à chave, sem bloqueio e sem alocar memória.
+     *
+     * @param key Chave procurada.
+     * @return Valor associado ou null caso a chave não exista.
+     */
+    public V get(long key) {
+        return table.get(key);
+    }
+
+    /**
+     * Retorna o valor associado à chave ou o cria pela função informada, sob o monitor do mapa.
+     *
+     * @param key     Chave procurada.
+     * @param factory Função que cria o valor em caso de falta (não pode retornar null).
+     * @return Valor existente ou o valor criado.
+     */
+    public V computeIfAbsent(long key, LongFunction<? extends V> factory) {
+        V value = table.get(key);
+        if (value != null) {
+            return value;
+        }
+        synchronized (this) {
+            Table<V> current = table;
+            value = current.get(key);
+            if (value != null) {
+                return value;
+            }
+            value = factory.apply(key);
+            if (value == null) {
+                throw new NullPointerException("Factory returned null for key " + key);
+            }
+            if ((size + 1) * 2 > current.capacity()) {
+                Table<V> grown = current.copy(current.capacity() * 2);
+                grown.put(key, value);
+                table = grown;
+            } else {
+                current.put(key, value);
+            }
+            size++;
+            return value;
+        }
+    }
+
+    /**
+     * Quantidade de chaves no mapa.
+     *
+     * @return Quantidade de chaves.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Retorna as chaves existentes no momento da chamada.
+     *
+     * @return Cópia das chaves, sem ordem definida.
+     */
+    public synchronized long[] keys() {
+        Table<V> current = table;
+        long[] keys = new long[size];
+        int next = 0;
+        for (int slot = 0; slot < current.capacity(); slot++) {
+            if (current.values.get(slot) != null) {
+                keys[next++] = current.keys[slot];
+            }
+        }
+        return keys;
+    }
+
+    /**
+     * Tabela de endereçamento aberto com sondagem linear; só é alterada sob o monitor do mapa.
+     */
+    private static final class Table<V> {
+        private final long[] keys;
+        private final AtomicReferenceArray<V> values;
+        private final int mask;
+
+        private Table(int capacity) {
+            this.keys = new long[capacity];
+            this.values = new AtomicReferenceArray<>(capacity);
+            this.mask = capacity - 1;
+        }
+
+        private int capacity() {
+            return keys.length;
+        }
+
+        private V get(long key) {
+            for (int slot = slotOf(key);; slot = (slot + 1) & mask) {
+                V value = values.get(slot);
+                if (value == null || keys[slot] == key) {
+                    return value;
+                }
+            }
+        }
+
+        private void put(long key, V value) {
+            int slot = slotOf(key);
+            while (values.get(slot) != null) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values.set(slot, value);
+        }
+
+        private Table<V> copy(int capacity) {
+            Table<V> copy = new Table<>(capacity);
+            for (int slot = 0; slot < keys.length; slot++) {
+                V value = values.get(slot);
+                if (value != null) {
+                    copy.put(keys[slot], value);
+                }
+            }
+            return copy;
+        }
+
+        private int slotOf(long key) {
+            long hash = key * 0x9E3779B97F4A7C15L;
+            return (int) (hash ^ (hash >>> 32)) & mask;
+        }
+    }
+}
@@ -0,0 +1,520 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLNonTransientConnectionException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.SQLTransientException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Pool limitado de conexões JDBC.
+ * Cada chamada a {@link #getConnection()} empresta uma conexão física do pool; ao fechar a conexão
+ * emprestada ela é devolvida ao pool em vez de encerrar a sessão no banco de dados.
+ *
+ * Características:
+ * - Limite mínimo de conexões ociosas e máximo de conexões totais.
+ * - Tempo máximo de espera por uma conexão livre (acquire timeout).
+ * - Limite opcional de threads aguardando uma conexão (maxWaiters): acima dele o empréstimo falha imediatamente,
+ *   o que evita que milhares de threads virtuais se acumulem na fila do pool quando o banco está saturado.
+ * - Remoção periódica de conexões ociosas há mais tempo que o limite configurado.
+ * - Validação da conexão no empréstimo, quando ela ficou ociosa por mais de {@value #VALIDATION_SKIP_MILLIS} ms.
+ * - Cache de PreparedStatement por conexão física ({@link StatementCache}), indexado pelo texto SQL.
+ * - Métricas de conexões ativas/ociosas, threads aguardando, latência de aquisição e acertos do cache
+ *   de instruções ({@link PoolStats}).
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ConnectionPool implements ConnectionSource, AutoCloseable {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /** Conexões devolvidas há menos tempo que isso não são revalidadas no empréstimo. */
+    private static final long VALIDATION_SKIP_MILLIS = 500;
+    /**
+     * Limite padrão de threads aguardando uma conexão quando o servidor usa threads virtuais: o mesmo número de
+     * threads do pool padrão do Jetty, que é o que limita a fila do pool quando as requisições usam threads de
+     * plataforma.
+     */
+    private static final int VIRTUAL_THREADS_MAX_WAITERS = 200;
+
+    private final ConnectionSource source;
+    private final int minIdle;
+    private final int maxSize;
+    private final long acquireTimeoutMillis;
+    private final long idleTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final int statementCacheSize;
+    private final int maxWaiters;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final AtomicInteger totalConnections = new AtomicInteger();
+    private final AtomicInteger activeConnections = new AtomicInteger();
+    private final AtomicInteger waiters = new AtomicInteger();
+    private final LongAdder borrowCount = new LongAdder();
+    private final LongAdder timeoutCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder acquireNanosTotal = new LongAdder();
+    private final AtomicLong acquireNanosMax = new AtomicLong();
+    private final LongAdder statementCacheHits = new LongAdder();
+    private final LongAdder statementCacheMisses = new LongAdder();
+    private final LongAdder statementCacheEvictions = new LongAdder();
+    private final ScheduledExecutorService housekeeper;
+    private volatile long lastSuccessMillis;
+    private volatile boolean closed;
+
+    /**
+     * Construtor da classe ConnectionPool, sem cache de instruções.
+     *
+     * @param source                   Origem das conexões físicas (ex.: driver JDBC).
+     * @param minIdle                  Quantidade mínima de conexões mantidas abertas.
+     * @param maxSize                  Quantidade máxima de conexões abertas simultaneamente.
+     * @param acquireTimeoutMillis     Tempo máximo de espera por uma conexão livre.
+     * @param idleTimeoutMillis        Tempo após o qual uma conexão ociosa excedente é fechada.
+     * @param validationTimeoutSeconds Tempo máximo da validação da conexão no empréstimo.
+     */
+    public ConnectionPool(ConnectionSource source, int minIdle, int maxSize, long acquireTimeoutMillis,
+            long idleTimeoutMillis, int validationTimeoutSeconds) {
+        this(source, minIdle, maxSize, acquireTimeoutMillis, idleTimeoutMillis, validationTimeoutSeconds, 0);
+    }
+
+    /**
+     * Construtor da classe ConnectionPool, sem limite de threads aguardando.
+     *
+     * @param source                   Origem das conexões físicas (ex.: driver JDBC).
+     * @param minIdle                  Quantidade mínima de conexões mantidas abertas.
+     * @param maxSize                  Quantidade máxima de conexões abertas simultaneamente.
+     * @param acquireTimeoutMillis     Tempo máximo de espera por uma conexão livre.
+     * @param idleTimeoutMillis        Tempo após o qual uma conexão ociosa excedente é fechada.
+     * @param validationTimeoutSeconds Tempo máximo da validação da conexão no empréstimo.
+     * @param statementCacheSize       Instruções preparadas mantidas abertas por conexão (0 desativa o cache).
+     */
+    public ConnectionPool(ConnectionSource source, int minIdle, int maxSize, long acquireTimeoutMillis,
+            long idleTimeoutMillis, int validationTimeoutSeconds, int statementCacheSize) {
+        this(source, minIdle, maxSize, acquireTimeoutMillis, idleTimeoutMillis, validationTimeoutSeconds,
+                statementCacheSize, 0);
+    }
+
+    /**
+     * Construtor da classe ConnectionPool.
+     *
+     * @param source                   Origem das conexões físicas (ex.: driver JDBC).
+     * @param minIdle                  Quantidade mínima de conexões mantidas abertas.
+     * @param maxSize                  Quantidade máxima de conexões abertas simultaneamente.
+     * @param acquireTimeoutMillis     Tempo máximo de espera por uma conexão livre.
+     * @param idleTimeoutMillis        Tempo após o qual uma conexão ociosa excedente é fechada.
+     * @param validationTimeoutSeconds Tempo máximo da validação da conexão no empréstimo.
+     * @param statementCacheSize       Instruções preparadas mantidas abertas por conexão (0 desativa o cache).
+     * @param maxWaiters               Threads que podem aguardar uma conexão ao mesmo tempo (0 = sem limite).
+     */
+    public ConnectionPool(ConnectionSource source, int minIdle, int maxSize, long acquireTimeoutMillis,
+            long idleTimeoutMillis, int validationTimeoutSeconds, int statementCacheSize, int maxWaiters) {
+        if (maxSize < 1 || minIdle < 0 || minIdle > maxSize || statementCacheSize < 0 || maxWaiters < 0) {
+            throw new IllegalArgumentException("Invalid pool size: minIdle=" + minIdle + ", maxSize=" + maxSize
+                    + ", maxWaiters=" + maxWaiters);
+        }
+        this.source = source;
+        this.minIdle = minIdle;
+        this.maxSize = maxSize;
+        this.acquireTimeoutMillis = acquireTimeoutMillis;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.validationTimeoutSeconds = validationTimeoutSeconds;
+        this.statementCacheSize = statementCacheSize;
+        this.maxWaiters = maxWaiters;
+        this.permits = new Semaphore(maxSize, true);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "ecosmart-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = Math.max(1000, idleTimeoutMillis / 4);
+        housekeeper.scheduleWithFixedDelay(this::housekeep, 0, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Cria um pool com os parâmetros definidos em {@link AppConfig}:
+     * ecosmart.pool.minIdle (2), ecosmart.pool.maxSize (10), ecosmart.pool.acquireTimeoutMillis (5000),
+     * ecosmart.pool.idleTimeoutMillis (300000), ecosmart.pool.validationTimeoutSeconds (2),
+     * ecosmart.pool.statementCacheSize (50) e ecosmart.pool.maxWaiters ({@link #configuredMaxWaiters()}).
+     *
+     * @param source Origem das conexões físicas.
+     * @return Pool configurado.
+     */
+    public static ConnectionPool fromConfig(ConnectionSource source) {
+        return new ConnectionPool(source,
+                AppConfig.getInt("ecosmart.pool.minIdle", 2),
+                AppConfig.getInt("ecosmart.pool.maxSize", 10),
+                AppConfig.getLong("ecosmart.pool.acquireTimeoutMillis", 5000),
+                AppConfig.getLong("ecosmart.pool.idleTimeoutMillis", 300000),
+                AppConfig.getInt("ecosmart.pool.validationTimeoutSeconds", 2),
+                AppConfig.getInt("ecosmart.pool.statementCacheSize", 50),
+                configuredMaxWaiters());
+    }
+
+    /**
+     * Limite de threads aguardando uma conexão definido em ecosmart.pool.maxWaiters. Sem a configuração, o padrão é
+     * {@value #VIRTUAL_THREADS_MAX_WAITERS} quando as requisições são atendidas em threads virtuais
+     * (ecosmart.virtualThreads=true, definido pelo perfil virtual-threads), já que nada mais limita quantas delas
+     * aguardam o banco, e 0 (sem limite) com threads de plataforma, limitadas pelo pool do servidor.
+     *
+     * @return Limite de threads aguardando uma conexão (0 = sem limite).
+     */
+    public static int configuredMaxWaiters() {
+        int defaultLimit = AppConfig.getBoolean("ecosmart.virtualThreads", false) ? VIRTUAL_THREADS_MAX_WAITERS : 0;
+        return AppConfig.getInt("ecosmart.pool.maxWaiters", defaultLimit);
+    }
+
+    /**
+     * Empresta uma conexão do pool, aguardando no máximo o tempo de aquisição configurado.
+     * A conexão deve ser fechada pelo chamador para ser devolvida ao pool.
+     *
+     * @return Conexão emprestada.
+     * @throws SQLTransientConnectionException Caso nenhuma conexão fique livre dentro do tempo limite.
+     * @throws SQLException                    Caso o pool esteja fechado ou a conexão não possa ser criada.
+     */
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(acquireTimeoutMillis);
+    }
+
+    /**
+     * Empresta uma conexão do pool, aguardando no máximo o tempo informado.
+     * Usado por verificações que não podem esperar o tempo de aquisição padrão (ex.: readiness).
+     *
+     * @param timeoutMillis Tempo máximo de espera por uma conexão livre.
+     * @return Conexão emprestada.
+     * @throws SQLTransientConnectionException Caso nenhuma conexão fique livre dentro do tempo limite ou
+     *                                         já existam maxWaiters threads aguardando.
+     * @throws SQLException                    Caso o pool esteja fechado ou a conexão não possa ser criada.
+     */
+    public Connection getConnection(long timeoutMillis) throws SQLException {
+        if (closed) {
+            throw new SQLNonTransientConnectionException("Connection pool is closed", "08003");
+        }
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            // Tentativa imediata (respeitando a ordem de chegada) antes de entrar na fila de espera.
+            acquired = permits.tryAcquire(0, TimeUnit.MILLISECONDS);
+            if (!acquired) {
+                int waiting = waiters.incrementAndGet();
+                if (maxWaiters > 0 && waiting > maxWaiters) {
+                    waiters.decrementAndGet();
+                    rejectedCount.increment();
+                    throw new SQLTransientConnectionException(
+                            "Too many requests waiting for a database connection (limit " + maxWaiters + ")");
+                }
+                try {
+                    acquired = permits.tryAcquire(timeoutMillis, TimeUnit.MILLISECONDS);
+                } finally {
+                    waiters.decrementAndGet();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        }
+        if (!acquired) {
+            timeoutCount.increment();
+            throw new SQLTransientConnectionException(
+                    "Timed out after " + timeoutMillis + " ms waiting for a database connection");
+        }
+
+        PooledConnection entry;
+        try {
+            entry = acquireEntry();
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+        activeConnections.incrementAndGet();
+        recordAcquire(System.nanoTime() - start);
+        return (Connection) Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(),
+                new Class<?>[] { Connection.class }, new LeasedConnection(entry));
+    }
+
+    /**
+     * Retorna um retrato das métricas atuais do pool.
+     *
+     * @return Métricas do pool.
+     */
+    public PoolStats getStats() {
+        long borrows = borrowCount.sum();
+        long averageMicros = borrows == 0 ? 0 : TimeUnit.NANOSECONDS.toMicros(acquireNanosTotal.sum() / borrows);
+        return new PoolStats(maxSize, totalConnections.get(), activeConnections.get(), idle.size(), waiters.get(),
+                borrows, timeoutCount.sum(), rejectedCount.sum(), averageMicros,
+                TimeUnit.NANOSECONDS.toMicros(acquireNanosMax.get()),
+                statementCacheHits.sum(), statementCacheMisses.sum(), statementCacheEvictions.sum());
+    }
+
+    /**
+     * Momento da última devolução de uma conexão sem erro de conexão, ou seja, a última vez em que o banco
+     * respondeu a uma operação (mesmo que a operação tenha falhado por outro motivo, como uma restrição violada).
+     *
+     * @return Epoch em milissegundos ou 0 caso nenhuma conexão tenha sido devolvida ainda.
+     */
+    public long getLastSuccessMillis() {
+        return lastSuccessMillis;
+    }
+
+    /**
+     * Indica se uma falha vem da indisponibilidade do banco (conexão recusada, perdida ou esgotada no pool, tempo
+     * limite, deadlock) e não do registro em si. Operações que falham assim podem ser repetidas sem alterações; as
+     * demais (ex.: restrição violada, dispositivo inexistente) falhariam novamente.
+     *
+     * @param error Exceção lançada pela operação; as causas encadeadas também são verificadas.
+     * @return true caso a operação deva ser repetida quando o banco voltar.
+     */
+    public static boolean isRetryable(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLTransientException || cause instanceof SQLRecoverableException
+                    || cause instanceof SQLNonTransientConnectionException) {
+                return true;
+            }
+            if (cause instanceof SQLException && isConnectionState(((SQLException) cause).getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isConnectionState(String sqlState) {
+        return sqlState != null && sqlState.startsWith("08");
+    }
+
+    /**
+     * Indica se o pool já foi fechado.
+     *
+     * @return true caso o pool esteja fechado.
+     */
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Fecha o pool e todas as conexões ociosas. Conexões ainda emprestadas são fechadas ao serem devolvidas.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection entry;
+        while ((entry = idle.pollFirst()) != null) {
+            discard(entry);
+        }
+    }
+
+    private PooledConnection acquireEntry() throws SQLException {
+        while (true) {
+            PooledConnection entry = idle.pollFirst();
+            if (entry != null) {
+                if (isUsable(entry)) {
+                    return entry;
+                }
+                discard(entry);
+                continue;
+            }
+            if (reserveSlot()) {
+                return openConnection();
+            }
+            // Todas as vagas estão ocupadas por conexões sendo devolvidas ou criadas pela manutenção.
+            try {
+                entry = idle.pollFirst(10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while waiting for a database connection", e);
+            }
+            if (entry != null) {
+                idle.offerFirst(entry);
+            }
+        }
+    }
+
+    private boolean reserveSlot() {
+        while (true) {
+            int current = totalConnections.get();
+            if (current >= maxSize) {
+                return false;
+            }
+            if (totalConnections.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    private PooledConnection openConnection() throws SQLException {
+        try {
+            Connection connection = source.getConnection();
+            StatementCache statements = statementCacheSize == 0 ? null : new StatementCache(connection,
+                    statementCacheSize, statementCacheHits, statementCacheMisses, statementCacheEvictions);
+            return new PooledConnection(connection, statements);
+        } catch (SQLException | RuntimeException e) {
+            totalConnections.decrementAndGet();
+            throw e;
+        }
+    }
+
+    private boolean isUsable(PooledConnection entry) {
+        try {
+            if (entry.connection.isClosed()) {
+                return false;
+            }
+            if (System.currentTimeMillis() - entry.lastUsed < VALIDATION_SKIP_MILLIS) {
+                return true;
+            }
+            return entry.connection.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void release(PooledConnection entry) {
+        activeConnections.decrementAndGet();
+        try {
+            if (closed || entry.broken || entry.connection.isClosed()) {
+                discard(entry);
+                return;
+            }
+            if (!entry.connection.getAutoCommit()) {
+                entry.connection.rollback();
+                entry.connection.setAutoCommit(true);
+            }
+            entry.lastUsed = System.currentTimeMillis();
+            lastSuccessMillis = entry.lastUsed;
+            idle.offerFirst(entry);
+        } catch (SQLException e) {
+            discard(entry);
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void discard(PooledConnection entry) {
+        totalConnections.decrementAndGet();
+        if (entry.statements != null) {
+            entry.statements.clear();
+        }
+        try {
+            entry.connection.close();
+        } catch (SQLException e) {
+            LOGGER.log(Level.FINE, "Error closing pooled connection", e);
+        }
+    }
+
+    private void recordAcquire(long nanos) {
+        borrowCount.increment();
+        acquireNanosTotal.add(nanos);
+        acquireNanosMax.accumulateAndGet(nanos, Math::max);
+    }
+
+    /**
+     * Fecha as conexões ociosas expiradas (mantendo o mínimo configurado) e repõe o mínimo de conexões ociosas.
+     */
+    private void housekeep() {
+        try {
+            long now = System.currentTimeMillis();
+            PooledConnection oldest;
+            while (totalConnections.get() > minIdle && (oldest = idle.peekLast()) != null
+                    && now - oldest.lastUsed > idleTimeoutMillis) {
+                if (idle.removeLastOccurrence(oldest)) {
+                    discard(oldest);
+                }
+            }
+            while (!closed && totalConnections.get() < minIdle && reserveSlot()) {
+                idle.offerLast(openConnection());
+            }
+        } catch (SQLException | RuntimeException e) {
+            LOGGER.log(Level.WARNING, "Connection pool maintenance failed: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Conexão física mantida pelo pool.
+     */
+    private static final class PooledConnection {
+        private final Connection connection;
+        private final StatementCache statements;
+        private volatile long lastUsed = System.currentTimeMillis();
+        private volatile boolean broken;
+
+        private PooledConnection(Connection connection, StatementCache statements) {
+            this.connection = connection;
+            this.statements = statements;
+        }
+    }
+
+    /**
+     * Conexão entregue ao chamador: repassa as chamadas para a conexão física e devolve-a ao pool no close().
+     */
+    private final class LeasedConnection implements InvocationHandler {
+        private final PooledConnection entry;
+        private boolean released;
+
+        private LeasedConnection(PooledConnection entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (!released) {
+                        released = true;
+                        release(entry);
+                    }
+                    return null;
+                case "isClosed":
+                    return released || entry.connection.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled[" + entry.connection + "]";
+                default:
+                    break;
+            }
+            if (released) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            try {
+                if (entry.statements != null && "prepareStatement".equals(method.getName())) {
+                    if (args.length == 1) {
+                        return entry.statements.prepare((String) args[0], (Connection) proxy);
+                    }
+                    if (args.length == 2 && args[1] instanceof String[]) {
+                        return entry.statements.prepare((String) args[0], (String[]) args[1], (Connection) proxy);
+                    }
+                }
+                return method.invoke(entry.connection, args);
+            } catch (InvocationTargetException e) {
+                throw markIfBroken(e.getCause());
+            } catch (SQLException e) {
+                throw markIfBroken(e);
+            }
+        }
+
+        private Throwable markIfBroken(Throwable error) {
+            if (error instanceof SQLException && isConnectionState(((SQLException) error).getSQLState())) {
+                entry.broken = true;
+            }
+            return error;
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Origem de conexões JDBC utilizada pelos DAOs.
+ * Cada chamada devolve uma conexão que deve ser fechada pelo chamador assim que a operação terminar;
+ * no caso do {@link ConnectionPool}, fechar a conexão a devolve ao pool.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+@FunctionalInterface
+public interface ConnectionSource {
+
+    /**
+     * Obtém uma conexão com o banco de dados.
+     *
+     * @return Conexão pronta para uso.
+     * @throws SQLException Caso não seja possível obter a conexão.
+     */
+    Connection getConnection() throws SQLException;
+}
@@ -0,0 +1,87 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.logging.Logger;
+
+/**
+ * Escolha do banco de dados usado pela aplicação.
+ * Sem configuração, as conexões físicas vêm de {@link ConnectionDB} (Oracle). Quando ecosmart.db.url está definida,
+ * as conexões são abertas pelo DriverManager com ecosmart.db.user e ecosmart.db.password, o que permite apontar a
+ * aplicação para um banco embarcado (ex.: H2 em modo Oracle) em testes de carga e na integração contínua.
+ *
+ * Com ecosmart.db.initSchema=true, os scripts db/schema.sql e db/consumption-rollups.sql são executados
+ * na inicialização caso a tabela Client ainda não exista.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class DataSourceConfig {
+    private static final Logger LOGGER = Logger.getLogger(DataSourceConfig.class.getName());
+
+    /** Scripts de criação do esquema, na ordem de execução. */
+    public static final String[] SCHEMA_SCRIPTS = { "db/schema.sql", "db/consumption-rollups.sql" };
+
+    private DataSourceConfig() {
+    }
+
+    /**
+     * Cria a origem das conexões físicas conforme a configuração.
+     *
+     * @return DriverManager com ecosmart.db.url quando definida; caso contrário, ConnectionDB.
+     */
+    public static ConnectionSource connectionSource() {
+        String url = AppConfig.getString("ecosmart.db.url", null);
+        if (url == null) {
+            return () -> ConnectionDB.getInstance().getConnection();
+        }
+        String user = AppConfig.getString("ecosmart.db.user", null);
+        String password = AppConfig.getString("ecosmart.db.password", null);
+        return () -> DriverManager.getConnection(url, user, password);
+    }
+
+    /**
+     * Indica se a criação do esquema na inicialização está ativada (ecosmart.db.initSchema, padrão false).
+     *
+     * @return true caso o esquema deva ser criado quando ausente.
+     */
+    public static boolean isInitSchemaEnabled() {
+        return AppConfig.getBoolean("ecosmart.db.initSchema", false);
+    }
+
+    /**
+     * Cria as tabelas da aplicação caso a tabela Client ainda não exista.
+     *
+     * @param source Origem das conexões.
+     * @return true caso o esquema tenha sido criado; false caso já existisse.
+     * @throws SQLException Caso ocorra erro ao consultar o catálogo ou executar os scripts.
+     */
+    public static boolean createSchemaIfMissing(ConnectionSource source) throws SQLException {
+        try (Connection connection = source.getConnection()) {
+            if (tableExists(connection, "CLIENT")) {
+                return false;
+            }
+            for (String script : SCHEMA_SCRIPTS) {
+                int statements = SqlScript.run(connection, script);
+                LOGGER.info("Executed " + statements + " statements from " + script);
+            }
+            return true;
+        }
+    }
+
+    private static boolean tableExists(Connection connection, String table) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        for (String name : new String[] { table, table.toLowerCase() }) {
+            try (ResultSet rs = metaData.getTables(null, connection.getSchema(), name, new String[] { "TABLE" })) {
+                if (rs.next()) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+/**
+ * Retrato das métricas do rastreador de consumo médio dos dispositivos (DeviceAverageTracker) em um determinado
+ * instante.
+ *
+ * @attributes
+ * devices              Dispositivos com quantidade e soma de leituras em memória.
+ * seeded               Indica se o recálculo inicial terminou e as médias estão disponíveis.
+ * recomputing          Indica se há um recálculo completo em andamento.
+ * pendingWrites        Dispositivos com média alterada aguardando gravação.
+ * persisted            Total de médias gravadas no banco.
+ * flushes              Total de lotes de médias gravados.
+ * flushFailures        Total de lotes cuja gravação falhou e foi repetida.
+ * recomputes           Total de recálculos completos concluídos.
+ * lastRecomputeAt      Início do último recálculo concluído, em milissegundos desde a época, ou 0.
+ * lastRecomputeMillis  Duração do último recálculo concluído, em milissegundos.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class DeviceAverageStats {
+    private final int devices;
+    private final boolean seeded;
+    private final boolean recomputing;
+    private final int pendingWrites;
+    private final long persisted;
+    private final long flushes;
+    private final long flushFailures;
+    private final long recomputes;
+    private final long lastRecomputeAt;
+    private final long lastRecomputeMillis;
+
+    /**
+     * Construtor completo das métricas do rastreador.
+     *
+     * @param devices             Dispositivos em memória.
+     * @param seeded              Recálculo inicial concluído.
+     * @param recomputing         Recálculo em andamento.
+     * @param pendingWrites       Médias aguardando gravação.
+     * @param persisted           Total de médias gravadas.
+     * @param flushes             Total de lotes gravados.
+     * @param flushFailures       Total de lotes com falha.
+     * @param recomputes          Total de recálculos concluídos.
+     * @param lastRecomputeAt     Início do último recálculo.
+     * @param lastRecomputeMillis Duração do último recálculo.
+     */
+    public DeviceAverageStats(int devices, boolean seeded, boolean recomputing, int pendingWrites, long persisted,
+            long flushes, long flushFailures, long recomputes, long lastRecomputeAt, long lastRecomputeMillis) {
+        this.devices = devices;
+        this.seeded = seeded;
+        this.recomputing = recomputing;
+        this.pendingWrites = pendingWrites;
+        this.persisted = persisted;
+        this.flushes = flushes;
+        this.flushFailures = flushFailures;
+        this.recomputes = recomputes;
+        this.lastRecomputeAt = lastRecomputeAt;
+        this.lastRecomputeMillis = lastRecomputeMillis;
+    }
+
+    public int getDevices() {
+        return devices;
+    }
+
+    public boolean isSeeded() {
+        return seeded;
+    }
+
+    public boolean isRecomputing() {
+        return recomputing;
+    }
+
+    public int getPendingWrites() {
+        return pendingWrites;
+    }
+
+    public long getPersisted() {
+        return persisted;
+    }
+
+    public long getFlushes() {
+        return flushes;
+    }
+
+    public long getFlushFailures() {
+        return flushFailures;
+    }
+
+    public long getRecomputes() {
+        return recomputes;
+    }
+
+    public long getLastRecomputeAt() {
+        return lastRecomputeAt;
+    }
+
+    public long getLastRecomputeMillis() {
+        return lastRecomputeMillis;
+    }
+}
@@ -0,0 +1,105 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+import jakarta.json.bind.Jsonb;
+import jakarta.json.bind.JsonbBuilder;
+
+/**
+ * Escritor de JSON incremental usado pelas respostas em streaming.
+ * Cada elemento é serializado e escrito assim que é lido do banco, de modo que a memória
+ * usada pela resposta não depende da quantidade de registros.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class JsonStreamWriter implements Closeable {
+    private static final Jsonb JSONB = JsonbBuilder.create();
+
+    private final Writer writer;
+    private boolean firstElement = true;
+
+    /**
+     * Construtor da classe JsonStreamWriter.
+     *
+     * @param output Stream de saída da resposta.
+     */
+    public JsonStreamWriter(OutputStream output) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 8192);
+    }
+
+    /**
+     * Escreve um trecho de JSON literal (ex.: início de um objeto).
+     *
+     * @param json Trecho de JSON.
+     * @throws IOException Caso ocorra erro de escrita.
+     */
+    public void raw(String json) throws IOException {
+        writer.write(json);
+    }
+
+    /**
+     * Escreve um valor serializado com JSON-B.
+     *
+     * @param value Valor a ser serializado (pode ser null).
+     * @throws IOException Caso ocorra erro de escrita.
+     */
+    public void value(Object value) throws IOException {
+        writer.write(value == null ? "null" : JSONB.toJson(value));
+    }
+
+    /**
+     * Inicia um array JSON.
+     *
+     * @throws IOException Caso ocorra erro de escrita.
+     */
+    public void beginArray() throws IOException {
+        writer.write('[');
+        firstElement = true;
+    }
+
+    /**
+     * Escreve um elemento do array atual. Pode ser usado como Consumer nas leituras em streaming dos DAOs.
+     *
+     * @param element Elemento a ser serializado.
+     * @throws UncheckedIOException Caso ocorra erro de escrita (ex.: cliente desconectado).
+     */
+    public void element(Object element) {
+        try {
+            if (!firstElement) {
+                writer.write(',');
+            }
+            firstElement = false;
+            value(element);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Finaliza o array atual.
+     *
+     * @throws IOException Caso ocorra erro de escrita.
+     */
+    public void endArray() throws IOException {
+        writer.write(']');
+    }
+
+    /**
+     * Envia o conteúdo pendente ao cliente. O stream da resposta é fechado pelo container.
+     *
+     * @throws IOException Caso ocorra erro de escrita.
+     */
+    @Override
+    public void close() throws IOException {
+        writer.flush();
+    }
+}
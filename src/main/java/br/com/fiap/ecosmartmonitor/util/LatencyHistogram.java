@@ -0,0 +1,154 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Histograma de latências com faixas log-lineares: valores até 31 têm faixa própria e, a partir daí,
+ * cada potência de 2 é dividida em 32 faixas, o que limita o erro dos percentis a cerca de 3%.
+ * O registro não usa locks e pode ser feito por várias threads ao mesmo tempo; a unidade dos valores
+ * é definida por quem registra (ex.: microssegundos).
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = SUB_BUCKETS + (63 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder count = new LongAdder();
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * Registra um valor. Valores negativos são registrados como zero.
+     *
+     * @param value Valor medido.
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts.incrementAndGet(indexOf(v));
+        count.increment();
+        sum.add(v);
+        max.accumulateAndGet(v, Math::max);
+    }
+
+    /**
+     * Retorna a quantidade de valores registrados.
+     *
+     * @return Quantidade de valores.
+     */
+    public long getCount() {
+        return count.sum();
+    }
+
+    /**
+     * Retorna a soma dos valores registrados.
+     *
+     * @return Soma dos valores.
+     */
+    public long getSum() {
+        return sum.sum();
+    }
+
+    /**
+     * Retorna a média dos valores registrados.
+     *
+     * @return Média ou 0 caso nenhum valor tenha sido registrado.
+     */
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    /**
+     * Retorna o maior valor registrado.
+     *
+     * @return Maior valor ou 0 caso nenhum valor tenha sido registrado.
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Retorna o valor abaixo do qual está a fração informada dos registros.
+     *
+     * @param percentile Percentil entre 0 e 100 (ex.: 99.9).
+     * @return Limite superior da faixa do percentil, nunca maior que o máximo registrado; 0 sem registros.
+     */
+    public long getValueAtPercentile(double percentile) {
+        long total = 0;
+        long[] snapshot = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++) {
+            snapshot[i] = counts.get(i);
+            total += snapshot[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Quantidade de valores menores ou iguais ao limite informado, arredondado para a faixa que o contém.
+     * Usado para exportar o histograma em faixas cumulativas.
+     *
+     * @param limit Limite superior.
+     * @return Quantidade de valores até o fim da faixa que contém o limite.
+     */
+    public long countAtOrBelow(long limit) {
+        if (limit < 0) {
+            return 0;
+        }
+        int last = indexOf(limit);
+        long total = 0;
+        for (int i = 0; i <= last; i++) {
+            total += counts.get(i);
+        }
+        return total;
+    }
+
+    /**
+     * Descarta todos os valores registrados. Registros concorrentes com a limpeza podem ser perdidos.
+     */
+    public void reset() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+        count.reset();
+        sum.reset();
+        max.set(0);
+    }
+
+    private static int indexOf(long value) {
+        if (value < SUB_BUCKETS) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int sub = (int) (value >>> shift) - SUB_BUCKETS;
+        return SUB_BUCKETS + shift * SUB_BUCKETS + sub;
+    }
+
+    private static long upperBoundOf(int index) {
+        if (index < SUB_BUCKETS) {
+            return index;
+        }
+        int shift = (index - SUB_BUCKETS) / SUB_BUCKETS;
+        int sub = (index - SUB_BUCKETS) % SUB_BUCKETS;
+        long lower = (long) (SUB_BUCKETS + sub) << shift;
+        return lower + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Cache em memória limitado por quantidade de entradas (LRU) e por tempo de vida (TTL).
+ * Usado como cache de leitura (read-through): {@link #getOrLoad} consulta o cache e, em caso de falta,
+ * carrega o valor pela função informada. Valores null não são armazenados.
+ *
+ * Uma invalidação concorrente com uma carga impede que o valor carregado (possivelmente desatualizado)
+ * seja armazenado: cada invalidação incrementa uma geração e a carga só é gravada se a geração não mudou.
+ *
+ * @param <K> Tipo da chave.
+ * @param <V> Tipo do valor.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class LruCache<K, V> {
+    private final String name;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Entry<V>> entries;
+    private long generation;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder expirations = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+
+    /**
+     * Construtor da classe LruCache.
+     *
+     * @param name       Nome do cache, usado nas métricas.
+     * @param maxEntries Quantidade máxima de entradas; a menos usada recentemente é descartada ao exceder.
+     * @param ttlMillis  Tempo de vida de cada entrada em milissegundos.
+     */
+    public LruCache(String name, int maxEntries, long ttlMillis) {
+        if (maxEntries < 1 || ttlMillis < 1) {
+            throw new IllegalArgumentException("Invalid cache limits: maxEntries=" + maxEntries + ", ttlMillis=" + ttlMillis);
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Retorna o valor em cache ou o carrega pela função informada.
+     * A carga ocorre fora do bloqueio do cache, de modo que consultas lentas ao banco não bloqueiam outras chaves.
+     *
+     * @param key    Chave procurada.
+     * @param loader Função que carrega o valor em caso de falta (pode retornar null).
+     * @return Valor em cache, o valor carregado ou null.
+     */
+    public V getOrLoad(K key, Function<K, V> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                if (System.nanoTime() - entry.loadedAt < ttlNanos) {
+                    hits.increment();
+                    return entry.value;
+                }
+                entries.remove(key);
+                expirations.increment();
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        V value = loader.apply(key);
+        if (value != null) {
+            synchronized (this) {
+                if (generation == loadGeneration) {
+                    entries.put(key, new Entry<>(value, System.nanoTime()));
+                    evictOverflow();
+                }
+            }
+        }
+        return value;
+    }
+
+    /**
+     * Remove uma entrada do cache. Deve ser chamado após alterar ou excluir o registro correspondente.
+     *
+     * @param key Chave a ser removida.
+     */
+    public synchronized void invalidate(K key) {
+        generation++;
+        entries.remove(key);
+        invalidations.increment();
+    }
+
+    /**
+     * Remove todas as entradas do cache.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+        invalidations.increment();
+    }
+
+    /**
+     * Retorna as métricas atuais do cache.
+     *
+     * @return Retrato com tamanho, acertos, faltas e descartes.
+     */
+    public CacheStats getStats() {
+        int size;
+        synchronized (this) {
+            size = entries.size();
+        }
+        return new CacheStats(name, maxEntries, size, hits.sum(), misses.sum(), evictions.sum(),
+                expirations.sum(), invalidations.sum());
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxEntries && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long loadedAt;
+
+        private Entry(V value, long loadedAt) {
+            this.value = value;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
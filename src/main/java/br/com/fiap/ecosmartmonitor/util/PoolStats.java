@@ -0,0 +1,131 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+/**
+ * Retrato das métricas de um {@link ConnectionPool} em um determinado instante.
+ *
+ * @attributes
+ * maxSize             Quantidade máxima de conexões do pool.
+ * totalConnections    Conexões físicas abertas (ativas + ociosas).
+ * activeConnections   Conexões emprestadas no momento.
+ * idleConnections     Conexões ociosas disponíveis para empréstimo.
+ * waiters             Threads aguardando uma conexão livre.
+ * borrowCount         Total de empréstimos realizados.
+ * timeoutCount        Total de empréstimos que excederam o tempo limite.
+ * rejectedCount       Total de empréstimos recusados por exceder o limite de threads aguardando (maxWaiters).
+ * averageAcquireMicros Latência média de aquisição em microssegundos.
+ * maxAcquireMicros    Maior latência de aquisição em microssegundos.
+ * statementCacheHits  Instruções reaproveitadas do cache de PreparedStatement.
+ * statementCacheMisses Instruções preparadas no banco (fora do cache).
+ * statementCacheEvictions Instruções descartadas por exceder o tamanho do cache.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class PoolStats {
+    private final int maxSize;
+    private final int totalConnections;
+    private final int activeConnections;
+    private final int idleConnections;
+    private final int waiters;
+    private final long borrowCount;
+    private final long timeoutCount;
+    private final long rejectedCount;
+    private final long averageAcquireMicros;
+    private final long maxAcquireMicros;
+    private final long statementCacheHits;
+    private final long statementCacheMisses;
+    private final long statementCacheEvictions;
+
+    /**
+     * Construtor completo das métricas do pool.
+     *
+     * @param maxSize              Quantidade máxima de conexões do pool.
+     * @param totalConnections     Conexões físicas abertas.
+     * @param activeConnections    Conexões emprestadas no momento.
+     * @param idleConnections      Conexões ociosas.
+     * @param waiters              Threads aguardando uma conexão.
+     * @param borrowCount          Total de empréstimos.
+     * @param timeoutCount         Total de empréstimos que excederam o tempo limite.
+     * @param rejectedCount        Total de empréstimos recusados pelo limite de threads aguardando.
+     * @param averageAcquireMicros Latência média de aquisição em microssegundos.
+     * @param maxAcquireMicros     Maior latência de aquisição em microssegundos.
+     * @param statementCacheHits   Instruções reaproveitadas do cache.
+     * @param statementCacheMisses Instruções preparadas no banco.
+     * @param statementCacheEvictions Instruções descartadas do cache por tamanho.
+     */
+    public PoolStats(int maxSize, int totalConnections, int activeConnections, int idleConnections, int waiters,
+            long borrowCount, long timeoutCount, long rejectedCount, long averageAcquireMicros, long maxAcquireMicros,
+            long statementCacheHits, long statementCacheMisses, long statementCacheEvictions) {
+        this.maxSize = maxSize;
+        this.totalConnections = totalConnections;
+        this.activeConnections = activeConnections;
+        this.idleConnections = idleConnections;
+        this.waiters = waiters;
+        this.borrowCount = borrowCount;
+        this.timeoutCount = timeoutCount;
+        this.rejectedCount = rejectedCount;
+        this.averageAcquireMicros = averageAcquireMicros;
+        this.maxAcquireMicros = maxAcquireMicros;
+        this.statementCacheHits = statementCacheHits;
+        this.statementCacheMisses = statementCacheMisses;
+        this.statementCacheEvictions = statementCacheEvictions;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getTotalConnections() {
+        return totalConnections;
+    }
+
+    public int getActiveConnections() {
+        return activeConnections;
+    }
+
+    public int getIdleConnections() {
+        return idleConnections;
+    }
+
+    public int getWaiters() {
+        return waiters;
+    }
+
+    public long getBorrowCount() {
+        return borrowCount;
+    }
+
+    public long getTimeoutCount() {
+        return timeoutCount;
+    }
+
+    public long getRejectedCount() {
+        return rejectedCount;
+    }
+
+    public long getAverageAcquireMicros() {
+        return averageAcquireMicros;
+    }
+
+    public long getMaxAcquireMicros() {
+        return maxAcquireMicros;
+    }
+
+    public long getStatementCacheHits() {
+        return statementCacheHits;
+    }
+
+    public long getStatementCacheMisses() {
+        return statementCacheMisses;
+    }
+
+    public long getStatementCacheEvictions() {
+        return statementCacheEvictions;
+    }
+
+    public double getStatementCacheHitRatio() {
+        long total = statementCacheHits + statementCacheMisses;
+        return total == 0 ? 0 : (double) statementCacheHits / total;
+    }
+}
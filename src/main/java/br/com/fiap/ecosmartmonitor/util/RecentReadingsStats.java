@@ -0,0 +1,106 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+/**
+ * Retrato das métricas da janela de leituras recentes (RecentReadingsStore) em um determinado instante.
+ *
+ * @attributes
+ * windowMillis          Duração da janela mantida em memória.
+ * maxReadingsPerDevice  Leituras máximas mantidas por dispositivo.
+ * devices               Dispositivos (por residência) com buffer alocado.
+ * readings              Leituras armazenadas no momento.
+ * capacity              Posições alocadas nos buffers de todos os dispositivos.
+ * estimatedBytes        Memória estimada dos buffers (24 bytes por posição: id, timestamp e valor).
+ * maxBytesPerDevice     Memória máxima estimada do buffer de um dispositivo.
+ * hits                  Consultas respondidas pela janela.
+ * misses                Consultas repassadas ao banco por não estarem cobertas pela janela.
+ * evictions             Leituras descartadas por exceder maxReadingsPerDevice.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class RecentReadingsStats {
+    private final long windowMillis;
+    private final int maxReadingsPerDevice;
+    private final int devices;
+    private final long readings;
+    private final long capacity;
+    private final long estimatedBytes;
+    private final long maxBytesPerDevice;
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+
+    /**
+     * Construtor completo das métricas da janela de leituras recentes.
+     *
+     * @param windowMillis         Duração da janela.
+     * @param maxReadingsPerDevice Leituras máximas por dispositivo.
+     * @param devices              Dispositivos com buffer alocado.
+     * @param readings             Leituras armazenadas.
+     * @param capacity             Posições alocadas.
+     * @param estimatedBytes       Memória estimada dos buffers.
+     * @param maxBytesPerDevice    Memória máxima estimada por dispositivo.
+     * @param hits                 Consultas respondidas pela janela.
+     * @param misses               Consultas repassadas ao banco.
+     * @param evictions            Leituras descartadas por tamanho.
+     */
+    public RecentReadingsStats(long windowMillis, int maxReadingsPerDevice, int devices, long readings, long capacity,
+            long estimatedBytes, long maxBytesPerDevice, long hits, long misses, long evictions) {
+        this.windowMillis = windowMillis;
+        this.maxReadingsPerDevice = maxReadingsPerDevice;
+        this.devices = devices;
+        this.readings = readings;
+        this.capacity = capacity;
+        this.estimatedBytes = estimatedBytes;
+        this.maxBytesPerDevice = maxBytesPerDevice;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+    }
+
+    public long getWindowMillis() {
+        return windowMillis;
+    }
+
+    public int getMaxReadingsPerDevice() {
+        return maxReadingsPerDevice;
+    }
+
+    public int getDevices() {
+        return devices;
+    }
+
+    public long getReadings() {
+        return readings;
+    }
+
+    public long getCapacity() {
+        return capacity;
+    }
+
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+
+    public long getMaxBytesPerDevice() {
+        return maxBytesPerDevice;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public double getHitRatio() {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+}
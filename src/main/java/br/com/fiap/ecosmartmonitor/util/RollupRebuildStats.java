@@ -0,0 +1,103 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.sql.Timestamp;
+
+/**
+ * Retrato do andamento da reconstrução dos rollups de consumo (POST /rollups/rebuild) em um determinado instante.
+ *
+ * @attributes
+ * running              Indica se há uma reconstrução em andamento.
+ * from                 Início do intervalo da reconstrução em andamento (ou da última), já arredondado para o dia.
+ * to                   Fim (exclusivo) do intervalo da reconstrução em andamento (ou da última).
+ * totalDays            Dias do intervalo, conhecidos depois de lidos os limites dos registros brutos.
+ * completedDays        Dias já reconstruídos e confirmados.
+ * rebuilds             Total de reconstruções concluídas.
+ * failures             Total de reconstruções interrompidas por erro; os dias já confirmados são mantidos.
+ * lastError            Mensagem do erro da última reconstrução interrompida, ou null.
+ * lastRebuildAt        Início da última reconstrução concluída, em milissegundos desde a época, ou 0.
+ * lastRebuildMillis    Duração da última reconstrução concluída, em milissegundos.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class RollupRebuildStats {
+    private final boolean running;
+    private final Timestamp from;
+    private final Timestamp to;
+    private final int totalDays;
+    private final int completedDays;
+    private final long rebuilds;
+    private final long failures;
+    private final String lastError;
+    private final long lastRebuildAt;
+    private final long lastRebuildMillis;
+
+    /**
+     * Construtor completo do andamento da reconstrução.
+     *
+     * @param running           Reconstrução em andamento.
+     * @param from              Início do intervalo.
+     * @param to                Fim do intervalo (exclusivo).
+     * @param totalDays         Dias do intervalo.
+     * @param completedDays     Dias concluídos.
+     * @param rebuilds          Total de reconstruções concluídas.
+     * @param failures          Total de reconstruções com falha.
+     * @param lastError         Erro da última falha.
+     * @param lastRebuildAt     Início da última reconstrução concluída.
+     * @param lastRebuildMillis Duração da última reconstrução concluída.
+     */
+    public RollupRebuildStats(boolean running, Timestamp from, Timestamp to, int totalDays, int completedDays,
+            long rebuilds, long failures, String lastError, long lastRebuildAt, long lastRebuildMillis) {
+        this.running = running;
+        this.from = from;
+        this.to = to;
+        this.totalDays = totalDays;
+        this.completedDays = completedDays;
+        this.rebuilds = rebuilds;
+        this.failures = failures;
+        this.lastError = lastError;
+        this.lastRebuildAt = lastRebuildAt;
+        this.lastRebuildMillis = lastRebuildMillis;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Timestamp getFrom() {
+        return from;
+    }
+
+    public Timestamp getTo() {
+        return to;
+    }
+
+    public int getTotalDays() {
+        return totalDays;
+    }
+
+    public int getCompletedDays() {
+        return completedDays;
+    }
+
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    public long getFailures() {
+        return failures;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public long getLastRebuildAt() {
+        return lastRebuildAt;
+    }
+
+    public long getLastRebuildMillis() {
+        return lastRebuildMillis;
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Execução dos scripts SQL de src/main/resources/db (ex.: db/schema.sql) em uma conexão.
+ * Cada instrução termina com ';' no fim da linha; linhas iniciadas por "--" são comentários.
+ * Usado para preparar bancos embarcados nos benchmarks e no gerador de dados.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public final class SqlScript {
+
+    private SqlScript() {
+    }
+
+    /**
+     * Executa, em ordem, as instruções de um script do classpath.
+     *
+     * @param connection Conexão onde o script será executado.
+     * @param resource   Caminho do script no classpath (ex.: "db/schema.sql").
+     * @return Quantidade de instruções executadas.
+     * @throws SQLException Caso o script não exista, não possa ser lido ou uma instrução falhe.
+     */
+    public static int run(Connection connection, String resource) throws SQLException {
+        List<String> statements = load(resource);
+        try (Statement stmt = connection.createStatement()) {
+            for (String sql : statements) {
+                stmt.execute(sql);
+            }
+        }
+        return statements.size();
+    }
+
+    /**
+     * Lê e separa as instruções de um script do classpath.
+     *
+     * @param resource Caminho do script no classpath.
+     * @return Instruções sem o ';' final e sem comentários.
+     * @throws SQLException Caso o script não exista ou não possa ser lido.
+     */
+    public static List<String> load(String resource) throws SQLException {
+        InputStream input = SqlScript.class.getClassLoader().getResourceAsStream(resource);
+        if (input == null) {
+            throw new SQLException("SQL script not found on classpath: " + resource);
+        }
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                if (trimmed.endsWith(";")) {
+                    current.append(trimmed, 0, trimmed.length() - 1);
+                    statements.add(current.toString());
+                    current.setLength(0);
+                } else {
+                    current.append(trimmed).append('\n');
+                }
+            }
+        } catch (IOException e) {
+            throw new SQLException("Error reading SQL script: " + resource, e);
+        }
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+}
@@ -0,0 +1,263 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Cache de PreparedStatement de uma conexão física do pool, indexado pelo texto SQL.
+ * Os DAOs continuam chamando prepareStatement(sql) e close() normalmente: o close() de uma instrução em cache
+ * apenas fecha o ResultSet aberto, limpa parâmetros e lote e a devolve ao cache, evitando que o banco
+ * analise novamente a mesma instrução a cada requisição.
+ *
+ * Uma conexão é usada por uma única thread por vez (enquanto emprestada), por isso o cache não é sincronizado.
+ * Quando a mesma instrução é preparada duas vezes no mesmo empréstimo, a segunda é criada fora do cache.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+final class StatementCache {
+    private static final Logger LOGGER = Logger.getLogger(StatementCache.class.getName());
+
+    private final Connection connection;
+    private final LinkedHashMap<String, CachedStatement> statements;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final LongAdder evictions;
+
+    /**
+     * Construtor da classe StatementCache.
+     *
+     * @param connection Conexão física dona das instruções.
+     * @param maxSize    Quantidade máxima de instruções mantidas abertas.
+     * @param hits       Contador de instruções reaproveitadas (compartilhado pelo pool).
+     * @param misses     Contador de instruções preparadas no banco (compartilhado pelo pool).
+     * @param evictions  Contador de instruções descartadas por exceder maxSize (compartilhado pelo pool).
+     */
+    StatementCache(Connection connection, int maxSize, LongAdder hits, LongAdder misses, LongAdder evictions) {
+        this.connection = connection;
+        this.hits = hits;
+        this.misses = misses;
+        this.evictions = evictions;
+        this.statements = new LinkedHashMap<String, CachedStatement>(16, 0.75f, true) {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedStatement> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                evictions.increment();
+                eldest.getValue().evict();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * Retorna uma instrução preparada para o SQL informado, reaproveitando a do cache quando estiver livre.
+     *
+     * @param sql   Texto SQL.
+     * @param owner Conexão emprestada, retornada por getConnection() da instrução.
+     * @return Instrução cujo close() a devolve ao cache.
+     * @throws SQLException Caso ocorra erro ao preparar a instrução.
+     */
+    PreparedStatement prepare(String sql, Connection owner) throws SQLException {
+        return prepare(sql, null, owner);
+    }
+
+    /**
+     * Retorna uma instrução preparada que devolve as colunas informadas em getGeneratedKeys().
+     * A mesma instrução com e sem colunas geradas ocupa entradas distintas no cache.
+     *
+     * @param sql         Texto SQL.
+     * @param columnNames Colunas geradas a retornar ou null para nenhuma.
+     * @param owner       Conexão emprestada, retornada por getConnection() da instrução.
+     * @return Instrução cujo close() a devolve ao cache.
+     * @throws SQLException Caso ocorra erro ao preparar a instrução.
+     */
+    PreparedStatement prepare(String sql, String[] columnNames, Connection owner) throws SQLException {
+        String key = columnNames == null ? sql : sql + '\u0000' + String.join(",", columnNames);
+        CachedStatement cached = statements.get(key);
+        if (cached != null && !cached.inUse) {
+            hits.increment();
+        } else {
+            misses.increment();
+            PreparedStatement statement = columnNames == null
+                    ? connection.prepareStatement(sql)
+                    : connection.prepareStatement(sql, columnNames);
+            CachedStatement created = new CachedStatement(key, sql, statement);
+            if (cached == null) {
+                statements.put(key, created);
+            } else {
+                created.evicted = true;
+            }
+            cached = created;
+        }
+        cached.inUse = true;
+        return (PreparedStatement) Proxy.newProxyInstance(StatementCache.class.getClassLoader(),
+                new Class<?>[] { PreparedStatement.class }, new CachedStatementHandler(cached, owner));
+    }
+
+    /**
+     * Fecha todas as instruções livres do cache. As que estiverem em uso são fechadas ao serem devolvidas.
+     */
+    void clear() {
+        Iterator<CachedStatement> iterator = statements.values().iterator();
+        while (iterator.hasNext()) {
+            iterator.next().evict();
+            iterator.remove();
+        }
+    }
+
+    private void remove(CachedStatement cached) {
+        if (statements.get(cached.key) == cached) {
+            statements.remove(cached.key);
+        }
+    }
+
+    /**
+     * Instrução física mantida no cache e as configurações originais restauradas na devolução.
+     */
+    private final class CachedStatement {
+        private final String key;
+        private final String sql;
+        private final PreparedStatement statement;
+        private final int fetchSize;
+        private final int maxRows;
+        private final int queryTimeout;
+        private boolean inUse;
+        private boolean evicted;
+
+        private CachedStatement(String key, String sql, PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.sql = sql;
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.maxRows = statement.getMaxRows();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        private void evict() {
+            evicted = true;
+            if (!inUse) {
+                closeQuietly();
+            }
+        }
+
+        private void closeQuietly() {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                LOGGER.log(Level.FINE, "Error closing cached statement", e);
+            }
+        }
+    }
+
+    /**
+     * Instrução entregue ao DAO: repassa as chamadas para a instrução física e a devolve ao cache no close().
+     */
+    private final class CachedStatementHandler implements InvocationHandler {
+        private final CachedStatement cached;
+        private final Connection owner;
+        private ResultSet openResultSet;
+        private boolean reconfigured;
+        private boolean unsafeToReuse;
+        private boolean closed;
+
+        private CachedStatementHandler(CachedStatement cached, Connection owner) {
+            this.cached = cached;
+            this.owner = owner;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "close":
+                    if (!closed) {
+                        closed = true;
+                        giveBack();
+                    }
+                    return null;
+                case "isClosed":
+                    return closed || cached.statement.isClosed();
+                case "getConnection":
+                    return owner;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Cached[" + cached.sql + "]";
+                case "setFetchSize":
+                case "setMaxRows":
+                case "setQueryTimeout":
+                    reconfigured = true;
+                    break;
+                case "setFetchDirection":
+                case "setLargeMaxRows":
+                case "setEscapeProcessing":
+                case "setCursorName":
+                case "setPoolable":
+                case "closeOnCompletion":
+                case "setMaxFieldSize":
+                    unsafeToReuse = true;
+                    break;
+                default:
+                    break;
+            }
+            if (closed) {
+                throw new SQLException("Statement has already been closed");
+            }
+            Object result;
+            try {
+                result = method.invoke(cached.statement, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (result instanceof ResultSet && ("executeQuery".equals(name) || "getResultSet".equals(name))) {
+                openResultSet = (ResultSet) result;
+            }
+            return result;
+        }
+
+        /**
+         * Limpa o estado deixado pelo DAO e devolve a instrução ao cache, ou a fecha caso não possa ser reaproveitada.
+         */
+        private void giveBack() {
+            cached.inUse = false;
+            if (!cached.evicted && !unsafeToReuse) {
+                try {
+                    if (openResultSet != null) {
+                        openResultSet.close();
+                    }
+                    cached.statement.clearParameters();
+                    cached.statement.clearBatch();
+                    if (reconfigured) {
+                        cached.statement.setFetchSize(cached.fetchSize);
+                        cached.statement.setMaxRows(cached.maxRows);
+                        cached.statement.setQueryTimeout(cached.queryTimeout);
+                    }
+                    return;
+                } catch (SQLException e) {
+                    LOGGER.log(Level.FINE, "Error resetting cached statement, closing it", e);
+                }
+            }
+            remove(cached);
+            cached.closeQuietly();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+-- Tabelas de consumo pré-agregado (rollups), mantidas incrementalmente pelo ConsumptionDAO
+-- quando ecosmart.rollups.enabled=true. Após criá-las, preencha o histórico com
+-- POST /rollups/rebuild antes de ativar a configuração.
+
+CREATE TABLE Consumption_Rollup_Hourly (
+    device_id     NUMBER(19)   NOT NULL,
+    residence_id  NUMBER(19)   NOT NULL,
+    bucket_start  TIMESTAMP    NOT NULL,
+    total_amount  NUMBER       NOT NULL,
+    reading_count NUMBER(19)   NOT NULL,
+    min_amount    NUMBER,
+    max_amount    NUMBER,
+    CONSTRAINT pk_consumption_rollup_hourly PRIMARY KEY (device_id, bucket_start)
+);
+
+CREATE INDEX ix_rollup_hourly_residence ON Consumption_Rollup_Hourly (residence_id, bucket_start);
+
+CREATE TABLE Consumption_Rollup_Daily (
+    device_id     NUMBER(19)   NOT NULL,
+    residence_id  NUMBER(19)   NOT NULL,
+    bucket_start  TIMESTAMP    NOT NULL,
+    total_amount  NUMBER       NOT NULL,
+    reading_count NUMBER(19)   NOT NULL,
+    min_amount    NUMBER,
+    max_amount    NUMBER,
+    CONSTRAINT pk_consumption_rollup_daily PRIMARY KEY (device_id, bucket_start)
+);
+
+CREATE INDEX ix_rollup_daily_residence ON Consumption_Rollup_Daily (residence_id, bucket_start);
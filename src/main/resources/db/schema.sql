@@ -0,0 +1,51 @@
+-- Esquema base do EcoSmart Monitor (Oracle). Também é executado no H2 em modo Oracle
+-- pelos benchmarks e pelos testes de carga.
+
+CREATE TABLE Client (
+    id      NUMBER(19) GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name    VARCHAR2(100) NOT NULL,
+    email   VARCHAR2(150),
+    phone   VARCHAR2(30),
+    address VARCHAR2(255)
+);
+
+CREATE TABLE Residence (
+    id        NUMBER(19) GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    address   VARCHAR2(255) NOT NULL,
+    client_id NUMBER(19) NOT NULL REFERENCES Client (id) ON DELETE CASCADE
+);
+
+CREATE INDEX ix_residence_client ON Residence (client_id);
+
+-- status guarda o consumo médio do dispositivo em kWh.
+CREATE TABLE Device (
+    id           NUMBER(19) GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    name         VARCHAR2(100) NOT NULL,
+    type         VARCHAR2(50),
+    status       NUMBER,
+    residence_id NUMBER(19) NOT NULL REFERENCES Residence (id) ON DELETE CASCADE
+);
+
+CREATE INDEX ix_device_residence ON Device (residence_id);
+
+CREATE TABLE Consumption (
+    id           NUMBER(19) GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    amount       NUMBER NOT NULL,
+    timestamp    TIMESTAMP NOT NULL,
+    device_id    NUMBER(19) NOT NULL REFERENCES Device (id) ON DELETE CASCADE,
+    residence_id NUMBER(19) NOT NULL REFERENCES Residence (id) ON DELETE CASCADE
+);
+
+-- Índices das listagens paginadas por (timestamp, id).
+CREATE INDEX ix_consumption_residence_ts ON Consumption (residence_id, timestamp, id);
+CREATE INDEX ix_consumption_device_ts ON Consumption (device_id, timestamp, id);
+
+CREATE TABLE Notification (
+    id        NUMBER(19) GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    message   VARCHAR2(500) NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    read      CHAR(1) DEFAULT 'N' NOT NULL,
+    client_id NUMBER(19) NOT NULL REFERENCES Client (id) ON DELETE CASCADE
+);
+
+CREATE INDEX ix_notification_client ON Notification (client_id);
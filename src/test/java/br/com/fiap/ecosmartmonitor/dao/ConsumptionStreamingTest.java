@@ -0,0 +1,125 @@
+package br.com.fiap.ecosmartmonitor.dao;
+
+import java.io.File;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import br.com.fiap.ecosmartmonitor.service.SyntheticDataGenerator;
+import br.com.fiap.ecosmartmonitor.util.ConnectionSource;
+import br.com.fiap.ecosmartmonitor.util.DataSourceConfig;
+import br.com.fiap.ecosmartmonitor.util.JsonStreamWriter;
+import br.com.fiap.ecosmartmonitor.util.SqlScript;
+import junit.framework.TestCase;
+
+/**
+ * Verifica que o histórico de uma residência é percorrido e serializado linha a linha, como em
+ * GET /consumption/residence/{id}: com cerca de meio milhão de leituras geradas pelo {@link SyntheticDataGenerator}
+ * em um banco H2 em arquivo (o resultado da consulta fica em disco, e não no heap), o heap usado durante a leitura
+ * não cresce com a quantidade de linhas já escritas.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ConsumptionStreamingTest extends TestCase {
+    private static final int DEVICES = 2;
+    private static final int MONTHS = 6;
+    private static final int SAMPLE_EVERY = 50_000;
+    /** Uma lista com todas as leituras ocuparia mais de 50 MB; o heap pode variar bem menos que isso. */
+    private static final long MAX_HEAP_GROWTH = 16L * 1024 * 1024;
+
+    private File directory;
+    private ConnectionSource source;
+
+    @Override
+    protected void setUp() throws Exception {
+        directory = Files.createTempDirectory("ecosmart-streaming").toFile();
+        String url = "jdbc:h2:file:" + new File(directory, "db").getAbsolutePath()
+                + ";MODE=Oracle;DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=READ;MAX_MEMORY_ROWS=1000";
+        source = () -> DriverManager.getConnection(url, "sa", "");
+        try (Connection connection = source.getConnection()) {
+            for (String script : DataSourceConfig.SCHEMA_SCRIPTS) {
+                SqlScript.run(connection, script);
+            }
+        }
+    }
+
+    @Override
+    protected void tearDown() throws Exception {
+        try (Connection connection = source.getConnection(); Statement stmt = connection.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        }
+        File[] files = directory.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        directory.delete();
+    }
+
+    public void testResidenceHistoryStreamsWithConstantHeap() throws Exception {
+        SyntheticDataGenerator.Summary summary = new SyntheticDataGenerator(1, 1, DEVICES, MONTHS, 1, 0, 42L)
+                .generate(source);
+        long residenceId = singleResidenceId();
+
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        CountingOutputStream output = new CountingOutputStream();
+        long[] rows = new long[1];
+        long[] heap = { -1, 0 };
+        try (JsonStreamWriter writer = new JsonStreamWriter(output)) {
+            writer.beginArray();
+            new ConsumptionDAOImpl(source).forEachConsumptionByResidenceId(residenceId, null, null, null,
+                    Integer.MAX_VALUE, consumption -> {
+                        writer.element(consumption);
+                        if (++rows[0] % SAMPLE_EVERY == 0) {
+                            System.gc();
+                            long used = memory.getHeapMemoryUsage().getUsed();
+                            if (heap[0] < 0) {
+                                heap[0] = used;
+                            }
+                            heap[1] = Math.max(heap[1], used);
+                        }
+                    });
+            writer.endArray();
+        }
+
+        assertEquals(summary.getConsumptions(), rows[0]);
+        assertTrue("Expected a large response, got " + output.count + " bytes", output.count > 3 * MAX_HEAP_GROWTH);
+        long growth = heap[1] - heap[0];
+        assertTrue("Heap grew " + growth / 1024 + " KB while streaming " + rows[0] + " rows",
+                growth < MAX_HEAP_GROWTH);
+    }
+
+    private long singleResidenceId() throws SQLException {
+        try (Connection connection = source.getConnection(); Statement stmt = connection.createStatement();
+             ResultSet rs = stmt.executeQuery("SELECT id FROM Residence")) {
+            assertTrue(rs.next());
+            return rs.getLong(1);
+        }
+    }
+
+    /**
+     * Descarta o que é escrito, contando apenas os bytes.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,232 @@
+package br.com.fiap.ecosmartmonitor.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import junit.framework.TestCase;
+
+/**
+ * Empréstimo, espera, rejeição e validação de conexões do {@link ConnectionPool} contra um banco H2 em memória.
+ *
+ * @authors
+ *     Guilherme Barreto Santos (RM: 97674),
+ *     Nicolas Oliveira da Silva (RM: 98939)
+ */
+public class ConnectionPoolTest extends TestCase {
+    private final List<Connection> opened = new CopyOnWriteArrayList<>();
+    private final Set<Connection> unresponsive = ConcurrentHashMap.newKeySet();
+    private String url;
+    private ConnectionPool pool;
+
+    @Override
+    protected void setUp() {
+        url = "jdbc:h2:mem:pool-" + getName();
+    }
+
+    @Override
+    protected void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+
+    public void testReturnedConnectionIsReused() throws SQLException {
+        pool = newPool(2, 500, 0);
+
+        Connection first = pool.getConnection();
+        assertEquals(1, selectOne(first));
+        first.close();
+        Connection second = pool.getConnection();
+        assertEquals(1, selectOne(second));
+        second.close();
+
+        PoolStats stats = pool.getStats();
+        assertEquals(1, opened.size());
+        assertEquals(2, stats.getBorrowCount());
+        assertEquals(1, stats.getTotalConnections());
+        assertEquals(0, stats.getActiveConnections());
+        assertEquals(1, stats.getIdleConnections());
+    }
+
+    public void testClosedLeaseCannotBeUsed() throws SQLException {
+        pool = newPool(1, 500, 0);
+
+        Connection connection = pool.getConnection();
+        connection.close();
+
+        assertTrue(connection.isClosed());
+        try {
+            connection.createStatement();
+            fail("Expected the returned connection to be unusable");
+        } catch (SQLException e) {
+            assertEquals("Connection has already been returned to the pool", e.getMessage());
+        }
+    }
+
+    public void testBorrowTimesOutWhenPoolIsExhausted() throws SQLException {
+        pool = newPool(1, 200, 0);
+
+        try (Connection held = pool.getConnection()) {
+            assertFalse(held.isClosed());
+            long start = System.nanoTime();
+            try {
+                pool.getConnection();
+                fail("Expected the borrow to time out");
+            } catch (SQLTransientConnectionException e) {
+                assertTrue(ConnectionPool.isRetryable(e));
+            }
+            assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= 200);
+            assertEquals(1, pool.getStats().getTimeoutCount());
+        }
+        try (Connection connection = pool.getConnection()) {
+            assertEquals(1, selectOne(connection));
+        }
+    }
+
+    public void testWaiterReceivesReleasedConnection() throws Exception {
+        pool = newPool(1, 5000, 0);
+        Connection held = pool.getConnection();
+        CountDownLatch borrowed = new CountDownLatch(1);
+        Thread waiter = new Thread(() -> {
+            try (Connection connection = pool.getConnection()) {
+                selectOne(connection);
+                borrowed.countDown();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        waiter.start();
+        awaitWaiters(1);
+
+        held.close();
+
+        assertTrue(borrowed.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertEquals(0, pool.getStats().getTimeoutCount());
+    }
+
+    public void testWaitersBeyondLimitAreRejected() throws Exception {
+        pool = newPool(1, 5000, 1);
+        Connection held = pool.getConnection();
+        Thread waiter = new Thread(() -> {
+            try (Connection connection = pool.getConnection()) {
+                selectOne(connection);
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        waiter.start();
+        awaitWaiters(1);
+
+        long start = System.nanoTime();
+        try {
+            pool.getConnection();
+            fail("Expected the borrow to be rejected");
+        } catch (SQLTransientConnectionException e) {
+            assertTrue(e.getMessage().startsWith("Too many requests waiting"));
+        }
+        assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) < 1000);
+        assertEquals(1, pool.getStats().getRejectedCount());
+
+        held.close();
+        waiter.join(5000);
+        assertFalse(waiter.isAlive());
+    }
+
+    public void testIdleConnectionClosedUnderneathIsReplaced() throws SQLException {
+        pool = newPool(1, 500, 0);
+        pool.getConnection().close();
+
+        opened.get(0).close();
+
+        try (Connection connection = pool.getConnection()) {
+            assertEquals(1, selectOne(connection));
+        }
+        assertEquals(2, opened.size());
+        assertEquals(1, pool.getStats().getTotalConnections());
+    }
+
+    public void testIdleConnectionIsValidatedOnlyAfterSkipWindow() throws Exception {
+        pool = newPool(1, 500, 0);
+        pool.getConnection().close();
+        Thread.sleep(600);
+        try (Connection connection = pool.getConnection()) {
+            assertEquals(1, selectOne(connection));
+        }
+        assertEquals(1, opened.size());
+
+        unresponsive.add(opened.get(0));
+        // Devolvida há menos de 500 ms: entregue sem validar.
+        pool.getConnection().close();
+        assertEquals(1, opened.size());
+
+        Thread.sleep(600);
+        try (Connection connection = pool.getConnection()) {
+            assertEquals(1, selectOne(connection));
+        }
+        assertEquals(2, opened.size());
+        assertEquals(1, pool.getStats().getTotalConnections());
+    }
+
+    public void testClosedPoolRefusesBorrows() throws SQLException {
+        pool = newPool(1, 500, 0);
+        pool.close();
+
+        try {
+            pool.getConnection();
+            fail("Expected the closed pool to refuse the borrow");
+        } catch (SQLException e) {
+            assertEquals("08003", e.getSQLState());
+        }
+    }
+
+    /**
+     * Pool cujas conexões físicas marcadas em unresponsive falham em isValid sem estarem fechadas, como uma conexão
+     * cuja rede foi interrompida.
+     */
+    private ConnectionPool newPool(int maxSize, long acquireTimeoutMillis, int maxWaiters) {
+        return new ConnectionPool(() -> {
+            Connection physical = DriverManager.getConnection(url);
+            Connection connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[] { Connection.class }, (proxy, method, args) -> {
+                        if ("isValid".equals(method.getName()) && unresponsive.contains(proxy)) {
+                            return false;
+                        }
+                        try {
+                            return method.invoke(physical, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        }
+                    });
+            opened.add(connection);
+            return connection;
+        }, 0, maxSize, acquireTimeoutMillis, 300000, 1, 0, maxWaiters);
+    }
+
+    private void awaitWaiters(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (pool.getStats().getWaiters() < expected) {
+            assertTrue("Waiter did not start waiting", System.currentTimeMillis() < deadline);
+            Thread.sleep(10);
+        }
+    }
+
+    private static int selectOne(Connection connection) throws SQLException {
+        try (Statement stmt = connection.createStatement(); ResultSet rs = stmt.executeQuery("SELECT 1")) {
+            assertTrue(rs.next());
+            return rs.getInt(1);
+        }
+    }
+}